@@ -0,0 +1,93 @@
+package com.running_tracker.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result against a stored baseline and exits with status 1 when the throughput of any
+ * benchmark dropped by more than the allowed percentage. Average time results are compared as their inverse.
+ * <p>
+ * Arguments: {@code <baseline.json> <result.json> <max regression percent>}
+ */
+public final class BenchmarkComparison {
+
+    private static final String THROUGHPUT_MODE = "thrpt";
+    private static final String BENCHMARK_PACKAGE = BenchmarkComparison.class.getPackageName() + ".";
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <result.json> <max regression percent>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> result = read(new File(args[1]));
+        double maxRegressionPercent = Double.parseDouble(args[2]);
+
+        int regressions = 0;
+        System.out.printf("%-70s %12s %12s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, JsonNode> entry : result.entrySet()) {
+            JsonNode baselineRun = baseline.get(entry.getKey());
+            if (baselineRun == null) {
+                System.out.printf("%-70s %12s %12.3f %9s%n", entry.getKey(), "-", score(entry.getValue()), "new");
+                continue;
+            }
+            // Positive when the benchmark got faster, regardless of the mode it reports in
+            double change = throughputChangePercent(baselineRun, entry.getValue());
+            boolean regressed = change < -maxRegressionPercent;
+            regressions += regressed ? 1 : 0;
+            System.out.printf("%-70s %12.3f %12.3f %+8.1f%%%s%n", entry.getKey(), score(baselineRun), score(entry.getValue()),
+                    change, regressed ? "  REGRESSION" : "");
+        }
+        for (String missing : baseline.keySet()) {
+            if (!result.containsKey(missing)) {
+                System.out.printf("%-70s %12s%n", missing, "not run");
+            }
+        }
+
+        if (regressions > 0) {
+            System.err.printf("%s benchmarks lost more than %s%% throughput against the baseline%n", regressions, maxRegressionPercent);
+            System.exit(1);
+        }
+        System.out.printf("No benchmark lost more than %s%% throughput against the baseline%n", maxRegressionPercent);
+    }
+
+    private static double throughputChangePercent(JsonNode baselineRun, JsonNode currentRun) {
+        double ratio = score(currentRun) / score(baselineRun);
+        if (!THROUGHPUT_MODE.equals(currentRun.get("mode").asText())) {
+            ratio = 1 / ratio;
+        }
+        return (ratio - 1) * 100;
+    }
+
+    private static double score(JsonNode run) {
+        return run.get("primaryMetric").get("score").asDouble();
+    }
+
+    // Keyed by benchmark method, mode and parameters, as one benchmark method runs once per parameter combination
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> runs = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            Map<String, String> params = new TreeMap<>();
+            JsonNode paramsNode = run.get("params");
+            if (paramsNode != null) {
+                Iterator<Map.Entry<String, JsonNode>> fields = paramsNode.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    params.put(field.getKey(), field.getValue().asText());
+                }
+            }
+            runs.put(run.get("benchmark").asText().replace(BENCHMARK_PACKAGE, "") + " " + run.get("mode").asText() + " " + params, run);
+        }
+        return runs;
+    }
+}
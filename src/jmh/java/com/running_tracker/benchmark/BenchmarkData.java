@@ -0,0 +1,72 @@
+package com.running_tracker.benchmark;
+
+import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.request.user.UserRequestDto;
+import com.running_tracker.domain.entity.Run;
+import com.running_tracker.domain.entity.User;
+import com.running_tracker.domain.projection.RunSummary;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic users and runs shared by the service layer benchmarks.
+ */
+final class BenchmarkData {
+
+    static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 7, 0);
+
+    private BenchmarkData() {
+    }
+
+    static User user() {
+        return new User(UUID.fromString("e51cb416-5757-425b-976e-160ddc24d9ab"), "Jon", "Smith", LocalDate.of(1999, 10, 1), "male");
+    }
+
+    static UserRequestDto userRequest() {
+        return new UserRequestDto("Jon", "Smith", LocalDate.of(1999, 10, 1), "male");
+    }
+
+    static List<Run> finishedRuns(int count) {
+        Random random = new Random(42);
+        User user = user();
+        List<Run> runs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime startDatetime = START.plusDays(i);
+            double distance = 3000 + random.nextInt(20_000);
+            runs.add(new Run(new UUID(random.nextLong(), random.nextLong()), user,
+                    40.0 + random.nextDouble(), -70.0 + random.nextDouble(), startDatetime,
+                    40.0 + random.nextDouble(), -70.0 + random.nextDouble(), startDatetime.plusMinutes(30 + random.nextInt(90)),
+                    null, null, distance, "meters", distance / 3600, "km/h", null));
+        }
+        return runs;
+    }
+
+    static List<RunSummary> finishedRunSummaries(int count) {
+        List<RunSummary> summaries = new ArrayList<>(count);
+        for (Run run : finishedRuns(count)) {
+            summaries.add(new RunSummary(run.getId(), run.getUser().getId(), run.getStartLatitude(), run.getStartLongitude(),
+                    run.getStartDatetime(), run.getFinishLatitude(), run.getFinishLongitude(), run.getFinishDatetime(),
+                    run.getDistance(), run.getDistanceUnit(), run.getAverageSpeed(), run.getAverageSpeedUnit()));
+        }
+        return summaries;
+    }
+
+    static List<StartRunRequestDto> startRunRequests(int count) {
+        Random random = new Random(42);
+        List<StartRunRequestDto> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StartRunRequestDto request = new StartRunRequestDto();
+            request.setUserId(user().getId());
+            request.setStartLatitude(40.0 + random.nextDouble());
+            request.setStartLongitude(-70.0 + random.nextDouble());
+            request.setStartDatetime(START.plusDays(i));
+            requests.add(request);
+        }
+        return requests;
+    }
+}
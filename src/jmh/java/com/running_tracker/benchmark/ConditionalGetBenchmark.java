@@ -0,0 +1,145 @@
+package com.running_tracker.benchmark;
+
+import com.running_tracker.RunningTrackerApplication;
+import com.running_tracker.domain.entity.Run;
+import com.running_tracker.service.RunChangeService;
+import com.running_tracker.service.statistics.StatisticsWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full GETs of the run list and the all-time statistics against revalidations with the ETag of the previous response,
+ * over HTTP to the application started in-process on H2. {@code changeCount} is the lookup a revalidation costs on
+ * the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConditionalGetBenchmark {
+
+    @Param({"100", "1000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private RunChangeService runChangeService;
+    private HttpClient httpClient;
+    private UUID userId;
+    private HttpRequest runsRequest;
+    private HttpRequest runsRevalidation;
+    private HttpRequest statisticsRequest;
+    private HttpRequest statisticsRevalidation;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        context = new SpringApplicationBuilder(RunningTrackerApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:conditional_get;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.show-sql=false");
+        runChangeService = context.getBean(RunChangeService.class);
+        userId = BenchmarkData.user().getId();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into users (id, first_name, last_name, birth_date, sex) values (?, ?, ?, ?, ?)",
+                userId, "Jon", "Smith", Date.valueOf("1999-10-01"), "male");
+        jdbcTemplate.batchUpdate("insert into runs (id, user_id, start_latitude, start_longitude, start_datetime, " +
+                        "finish_latitude, finish_longitude, finish_datetime, distance, distance_unit, average_speed, average_speed_unit) " +
+                        "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                BenchmarkData.finishedRuns(rows).stream().map(ConditionalGetBenchmark::runRow).toList());
+        // The rollup rebuild is a PostgreSQL query, the all-time bucket is written directly
+        jdbcTemplate.update("insert into user_run_stats (user_id, bucket_type, bucket_start, total_runs, total_distance, sum_average_speed) " +
+                        "select user_id, 'TOTAL', ?, count(*), sum(distance), sum(average_speed) from runs where user_id = ? group by user_id",
+                Timestamp.valueOf(StatisticsWindow.TOTAL_BUCKET_START), userId);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String baseUrl = "http://localhost:" + port + "/api/runs";
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        runsRequest = HttpRequest.newBuilder(URI.create(baseUrl + "?userId=" + userId)).build();
+        statisticsRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/statistics?userId=" + userId)).build();
+        runsRevalidation = revalidation(runsRequest);
+        statisticsRevalidation = revalidation(statisticsRequest);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] runsFullGet() throws IOException, InterruptedException {
+        return send(runsRequest, 200);
+    }
+
+    @Benchmark
+    public byte[] runsConditionalGet() throws IOException, InterruptedException {
+        return send(runsRevalidation, 304);
+    }
+
+    @Benchmark
+    public byte[] statisticsFullGet() throws IOException, InterruptedException {
+        return send(statisticsRequest, 200);
+    }
+
+    @Benchmark
+    public byte[] statisticsConditionalGet() throws IOException, InterruptedException {
+        return send(statisticsRevalidation, 304);
+    }
+
+    @Benchmark
+    public OptionalLong changeCount() {
+        return runChangeService.getChangeCount(userId);
+    }
+
+    private HttpRequest revalidation(HttpRequest request) throws IOException, InterruptedException {
+        String eTag = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).headers()
+                .firstValue(HttpHeaders.ETAG)
+                .orElseThrow(() -> new IllegalStateException("No ETag on " + request.uri()));
+        return HttpRequest.newBuilder(request.uri()).header(HttpHeaders.IF_NONE_MATCH, eTag).build();
+    }
+
+    private byte[] send(HttpRequest request, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException("Expected " + expectedStatus + " but got " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static Object[] runRow(Run run) {
+        return new Object[]{run.getId(), run.getUser().getId(), run.getStartLatitude(), run.getStartLongitude(),
+                Timestamp.valueOf(run.getStartDatetime()), run.getFinishLatitude(), run.getFinishLongitude(),
+                Timestamp.valueOf(run.getFinishDatetime()), run.getDistance(), run.getDistanceUnit(),
+                run.getAverageSpeed(), run.getAverageSpeedUnit()};
+    }
+}
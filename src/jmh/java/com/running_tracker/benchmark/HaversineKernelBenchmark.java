@@ -0,0 +1,62 @@
+package com.running_tracker.benchmark;
+
+import com.running_tracker.service.calculator.HaversineKernel;
+import com.running_tracker.service.calculator.HaversineKernels;
+import com.running_tracker.service.calculator.PowFreeHaversineKernel;
+import com.running_tracker.service.calculator.ScalarHaversineKernel;
+import com.running_tracker.service.calculator.VectorHaversineKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar, pow-free scalar and vector haversine kernels over whole tracks.
+ * Run with {@code -prof gc} to confirm the kernels do not allocate once compiled.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class HaversineKernelBenchmark {
+
+    @Param({"1000", "100000"})
+    private int points;
+
+    @Param({ScalarHaversineKernel.NAME, PowFreeHaversineKernel.NAME, VectorHaversineKernel.NAME})
+    private String kernelName;
+
+    private HaversineKernel kernel;
+    private double[] latitudes;
+    private double[] longitudes;
+
+    @Setup
+    public void setUp() {
+        kernel = HaversineKernels.select(kernelName);
+        if (!kernel.name().equals(kernelName)) {
+            throw new IllegalStateException(String.format("Kernel %s is not available on this JVM", kernelName));
+        }
+        latitudes = new double[points];
+        longitudes = new double[points];
+        for (int i = 0; i < points; i++) {
+            latitudes[i] = TrackPoints.latitude(i);
+            longitudes[i] = TrackPoints.longitude(i);
+        }
+    }
+
+    @Benchmark
+    public double pathDistance() {
+        return kernel.pathDistance(latitudes, longitudes, points);
+    }
+}
@@ -0,0 +1,125 @@
+package com.running_tracker.benchmark;
+
+import com.running_tracker.domain.entity.StatisticsBucketType;
+import com.running_tracker.service.leaderboard.AgeGroup;
+import com.running_tracker.service.leaderboard.LeaderboardMetric;
+import com.running_tracker.service.leaderboard.LeaderboardStanding;
+import com.running_tracker.service.leaderboard.PeriodLeaderboard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the weekly leaderboard of a million users from memory. The board is loaded as a refresh loads it from the
+ * materialized view, then takes as many run finishes as arrive between two refreshes. A rank lookup and a page over
+ * every user and over one cohort, and a finish moving a user, are measured against counting the users ahead by a
+ * pass over all of them, which is what a rank costs without the sorted scores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class LeaderboardBenchmark {
+
+    private static final LocalDateTime WEEK_START = LocalDateTime.of(2024, 9, 2, 0, 0);
+    private static final String[] SEXES = {"male", "female", "other"};
+
+    @Param({"1000000"})
+    private int users;
+
+    @Param({"10000"})
+    private int updates;
+
+    private UUID[] userIds;
+    private String[] sexes;
+    private LocalDate[] birthDates;
+    private double[] distances;
+    private PeriodLeaderboard board;
+    private Random random;
+    private long version;
+
+    @Setup
+    public void setUp() {
+        Random setupRandom = new Random(42);
+        userIds = new UUID[users];
+        sexes = new String[users];
+        birthDates = new LocalDate[users];
+        distances = new double[users];
+        board = new PeriodLeaderboard(StatisticsBucketType.WEEK, WEEK_START, 100);
+        for (int i = 0; i < users; i++) {
+            userIds[i] = new UUID(setupRandom.nextLong(), setupRandom.nextLong());
+            sexes[i] = SEXES[setupRandom.nextInt(SEXES.length)];
+            birthDates[i] = LocalDate.of(1950 + setupRandom.nextInt(60), 1 + setupRandom.nextInt(12), 1);
+            distances[i] = setupRandom.nextInt(1000) * 100.0;
+            board.load(userIds[i], sexes[i], birthDates[i], distances[i], 8.0 + setupRandom.nextDouble() * 8.0);
+        }
+        board.seal();
+        for (int i = 0; i < updates; i++) {
+            finish(setupRandom.nextInt(updates));
+        }
+        random = new Random(7);
+    }
+
+    @Benchmark
+    public Optional<LeaderboardStanding> rank() {
+        return board.standing(userIds[random.nextInt(users)], LeaderboardMetric.DISTANCE, null, null);
+    }
+
+    @Benchmark
+    public Optional<LeaderboardStanding> rankInCohort() {
+        int user = random.nextInt(users);
+        return board.standing(userIds[user], LeaderboardMetric.DISTANCE, sexes[user], AgeGroup.of(birthDates[user], WEEK_START.toLocalDate()));
+    }
+
+    @Benchmark
+    public List<LeaderboardStanding> topPage() {
+        return board.top(LeaderboardMetric.DISTANCE, null, null, 10);
+    }
+
+    @Benchmark
+    public List<LeaderboardStanding> topPageInCohort() {
+        return board.top(LeaderboardMetric.AVERAGE_SPEED, "female", AgeGroup.FROM_30_TO_39, 10);
+    }
+
+    // Moves one of the users already updated since the load, so the board keeps its size across iterations
+    @Benchmark
+    public PeriodLeaderboard update() {
+        finish(random.nextInt(updates));
+        return board;
+    }
+
+    @Benchmark
+    public long naiveRank() {
+        double value = distances[random.nextInt(users)];
+        long ahead = 0;
+        for (double distance : distances) {
+            if (distance > value) {
+                ahead++;
+            }
+        }
+        return ahead + 1;
+    }
+
+    private void finish(int user) {
+        distances[user] += 5000.0;
+        board.update(userIds[user], sexes[user], birthDates[user], distances[user], 10.0, ++version);
+    }
+}
@@ -0,0 +1,112 @@
+package com.running_tracker.benchmark;
+
+import com.running_tracker.RunningTrackerApplication;
+import com.running_tracker.api.dto.response.run.RunPageResponseDto;
+import com.running_tracker.api.dto.response.run.RunResponseDto;
+import com.running_tracker.api.dto.response.user.UserResponseDto;
+import com.running_tracker.domain.entity.Run;
+import com.running_tracker.service.RunService;
+import com.running_tracker.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The listing service calls through their Spring proxies, transactions included, against an in-memory H2 database.
+ * Run with {@code -prof gc} to see the heap allocated per request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListingBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"1000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private RunService runService;
+    private UserService userService;
+    private UUID userId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(RunningTrackerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:listing;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.show-sql=false");
+        runService = context.getBean(RunService.class);
+        userService = context.getBean(UserService.class);
+        userId = BenchmarkData.user().getId();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Object[]> users = new ArrayList<>();
+        users.add(userRow(userId));
+        for (int i = 1; i < rows; i++) {
+            users.add(userRow(UUID.randomUUID()));
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, first_name, last_name, birth_date, sex) values (?, ?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("insert into runs (id, user_id, start_latitude, start_longitude, start_datetime, " +
+                        "finish_latitude, finish_longitude, finish_datetime, distance, distance_unit, average_speed, average_speed_unit) " +
+                        "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                BenchmarkData.finishedRuns(rows).stream().map(ListingBenchmark::runRow).toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<RunResponseDto> getAllRunsForUser() {
+        return runService.getAllRunsForUser(userId, null, null);
+    }
+
+    @Benchmark
+    public RunPageResponseDto getRunsPage() {
+        return runService.getRunsPage(userId, null, null, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<UserResponseDto> findAllUsers() {
+        return userService.findAll();
+    }
+
+    private static Object[] userRow(UUID id) {
+        return new Object[]{id, "Jon", "Smith", Date.valueOf("1999-10-01"), "male"};
+    }
+
+    private static Object[] runRow(Run run) {
+        return new Object[]{run.getId(), run.getUser().getId(), run.getStartLatitude(), run.getStartLongitude(),
+                Timestamp.valueOf(run.getStartDatetime()), run.getFinishLatitude(), run.getFinishLongitude(),
+                Timestamp.valueOf(run.getFinishDatetime()), run.getDistance(), run.getDistanceUnit(),
+                run.getAverageSpeed(), run.getAverageSpeedUnit()};
+    }
+}
@@ -0,0 +1,101 @@
+package com.running_tracker.benchmark;
+
+import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.request.user.UserRequestDto;
+import com.running_tracker.api.dto.response.run.RunResponseDto;
+import com.running_tracker.api.dto.response.run.StartRunResponseDto;
+import com.running_tracker.api.dto.response.user.UserResponseDto;
+import com.running_tracker.domain.entity.Run;
+import com.running_tracker.domain.entity.User;
+import com.running_tracker.service.mapper.RunMapper;
+import com.running_tracker.service.mapper.RunMapperImpl;
+import com.running_tracker.service.mapper.UserMapper;
+import com.running_tracker.service.mapper.UserMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The generated MapStruct mappings between entities and DTOs, over batches the size of a listing page and of a full history.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    @Param({"50", "10000"})
+    private int size;
+
+    private RunMapper runMapper;
+    private UserMapper userMapper;
+    private List<Run> finishedRuns;
+    private List<StartRunRequestDto> startRunRequests;
+    private List<User> users;
+    private List<UserRequestDto> userRequests;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        runMapper = new RunMapperImpl();
+        userMapper = new UserMapperImpl();
+        finishedRuns = BenchmarkData.finishedRuns(size);
+        startRunRequests = BenchmarkData.startRunRequests(size);
+        users = Collections.nCopies(size, BenchmarkData.user());
+        userRequests = Collections.nCopies(size, BenchmarkData.userRequest());
+        user = BenchmarkData.user();
+    }
+
+    @Benchmark
+    public void toRunDto(Blackhole blackhole) {
+        for (Run run : finishedRuns) {
+            RunResponseDto runResponseDto = runMapper.toRunDto(run);
+            blackhole.consume(runResponseDto);
+        }
+    }
+
+    @Benchmark
+    public void toStartRunResponseDto(Blackhole blackhole) {
+        for (Run run : finishedRuns) {
+            StartRunResponseDto startRunResponseDto = runMapper.toStartRunResponseDto(run);
+            blackhole.consume(startRunResponseDto);
+        }
+    }
+
+    @Benchmark
+    public void toRunEntity(Blackhole blackhole) {
+        for (StartRunRequestDto startRunRequest : startRunRequests) {
+            blackhole.consume(runMapper.toEntity(startRunRequest, user));
+        }
+    }
+
+    @Benchmark
+    public void toUserDto(Blackhole blackhole) {
+        for (User user : users) {
+            UserResponseDto userResponseDto = userMapper.toDto(user);
+            blackhole.consume(userResponseDto);
+        }
+    }
+
+    @Benchmark
+    public void toUserEntity(Blackhole blackhole) {
+        for (UserRequestDto userRequest : userRequests) {
+            blackhole.consume(userMapper.toEntity(userRequest));
+        }
+    }
+}
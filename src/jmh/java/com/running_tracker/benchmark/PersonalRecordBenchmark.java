@@ -0,0 +1,115 @@
+package com.running_tracker.benchmark;
+
+import com.running_tracker.domain.entity.RecordDistance;
+import com.running_tracker.service.track.BestEffort;
+import com.running_tracker.service.track.BestEffortFinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the personal records of a user with 10,000 runs up to date. Finishing a run searches its own track once and
+ * compares the efforts with the stored records, against rescanning every run of the user for each finish. The naive
+ * variant searches one track by restarting the window at every point instead of sliding it. The runs are 100 distinct
+ * one-point-per-second traces of an hour, about 11 km at a varying pace, reused round-robin.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersonalRecordBenchmark {
+
+    private static final int TRACES = 100;
+
+    @Param({"10000"})
+    private int runs;
+
+    @Param({"3600"})
+    private int points;
+
+    private long[][] recordedAtMillis;
+    private double[][] distances;
+    private Map<RecordDistance, Long> records;
+
+    @Setup
+    public void setUp() {
+        recordedAtMillis = new long[TRACES][points];
+        distances = new double[TRACES][points];
+        for (int trace = 0; trace < TRACES; trace++) {
+            double distance = 0;
+            for (int i = 0; i < points; i++) {
+                recordedAtMillis[trace][i] = i * 1000L;
+                distances[trace][i] = distance;
+                distance += 3.0 + Math.sin((i + trace * 37) * 1e-2) + 0.5 * Math.sin(i * 0.3);
+            }
+        }
+        records = new EnumMap<>(RecordDistance.class);
+        for (int run = 0; run < runs; run++) {
+            offer(records, find(run % TRACES));
+        }
+    }
+
+    @Benchmark
+    public Map<RecordDistance, Long> incremental() {
+        Map<RecordDistance, Long> current = new EnumMap<>(records);
+        offer(current, find(0));
+        return current;
+    }
+
+    @Benchmark
+    public Map<RecordDistance, Long> rescan() {
+        Map<RecordDistance, Long> rebuilt = new EnumMap<>(RecordDistance.class);
+        for (int run = 0; run < runs; run++) {
+            offer(rebuilt, find(run % TRACES));
+        }
+        return rebuilt;
+    }
+
+    @Benchmark
+    public long naiveWindow() {
+        long[] millis = recordedAtMillis[0];
+        double[] trace = distances[0];
+        long best = Long.MAX_VALUE;
+        for (RecordDistance distance : RecordDistance.values()) {
+            for (int start = 0; start < points; start++) {
+                int end = start;
+                while (end < points && trace[end] - trace[start] < distance.getMeters()) {
+                    end++;
+                }
+                if (end == points) {
+                    break;
+                }
+                best = Math.min(best, millis[end] - millis[start]);
+            }
+        }
+        return best;
+    }
+
+    private Iterable<BestEffort> find(int trace) {
+        BestEffortFinder finder = new BestEffortFinder(TrackPoints.RUN_ID);
+        for (int i = 0; i < points; i++) {
+            finder.add(recordedAtMillis[trace][i], distances[trace][i]);
+        }
+        return finder.find();
+    }
+
+    private static void offer(Map<RecordDistance, Long> records, Iterable<BestEffort> efforts) {
+        for (BestEffort effort : efforts) {
+            records.merge(effort.getDistance(), effort.getElapsedMillis(), Math::min);
+        }
+    }
+}
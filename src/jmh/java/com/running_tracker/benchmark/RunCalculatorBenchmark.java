@@ -0,0 +1,62 @@
+package com.running_tracker.benchmark;
+
+import com.running_tracker.domain.entity.Run;
+import com.running_tracker.service.RunCalculatorService;
+import com.running_tracker.service.impl.RunCalculatorServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single pair distance and average speed calculations over a batch of finished runs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RunCalculatorBenchmark {
+
+    @Param({"1", "1000"})
+    private int runs;
+
+    private RunCalculatorService runCalculatorService;
+    private List<Run> finishedRuns;
+
+    @Setup
+    public void setUp() {
+        runCalculatorService = new RunCalculatorServiceImpl();
+        finishedRuns = BenchmarkData.finishedRuns(runs);
+    }
+
+    @Benchmark
+    public double calculateDistance() {
+        double sum = 0;
+        for (Run run : finishedRuns) {
+            sum += runCalculatorService.calculateDistance(run.getStartLatitude(), run.getStartLongitude(),
+                    run.getFinishLatitude(), run.getFinishLongitude());
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double calculateAverageSpeed() {
+        double sum = 0;
+        for (Run run : finishedRuns) {
+            sum += runCalculatorService.calculateAverageSpeed(run.getDistance(), run.getStartDatetime(), run.getFinishDatetime());
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,140 @@
+package com.running_tracker.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.running_tracker.RunningTrackerApplication;
+import com.running_tracker.api.dto.response.run.RunImportResponseDto;
+import com.running_tracker.domain.projection.RunSummary;
+import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.domain.repository.UserRepository;
+import com.running_tracker.service.RunCalculatorService;
+import com.running_tracker.service.RunImportService;
+import com.running_tracker.service.UserRunStatsService;
+import com.running_tracker.service.impl.RunImportServiceImpl;
+import com.running_tracker.service.importer.RunImportFormat;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.StringReader;
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk imports into an in-memory H2 database, writes going through the transactional repository proxies.
+ * Scores are imported runs per second; distances are left to the calculator.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RunImportBenchmark {
+
+    private static final int RUNS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private RunImportService runImportService;
+    private RunImportService detachedImportService;
+    private String ndjson;
+    private String csv;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(RunningTrackerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:run_import;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.show-sql=false");
+        // The rollup rebuild that follows an import is a PostgreSQL query, one per user, and is left out here
+        UserRunStatsService noStatistics = (UserRunStatsService) Proxy.newProxyInstance(UserRunStatsService.class.getClassLoader(),
+                new Class<?>[]{UserRunStatsService.class}, (proxy, method, args) -> null);
+        RunImportServiceImpl importService = new RunImportServiceImpl(context.getBean(RunCalculatorService.class), noStatistics,
+                context.getBean(RunRepository.class), context.getBean(UserRepository.class),
+                context.getBean(ObjectMapper.class), context.getBean(Validator.class));
+        ReflectionTestUtils.setField(importService, "chunkSize", 5000);
+        ReflectionTestUtils.setField(importService, "maxReportedErrors", 1000);
+        runImportService = importService;
+
+        // Same pipeline with repositories that write nothing, the ceiling of parsing, validation and calculation
+        RunImportServiceImpl detachedService = new RunImportServiceImpl(context.getBean(RunCalculatorService.class), noStatistics,
+                noOpRepository(RunRepository.class), noOpRepository(UserRepository.class),
+                context.getBean(ObjectMapper.class), context.getBean(Validator.class));
+        ReflectionTestUtils.setField(detachedService, "chunkSize", 5000);
+        ReflectionTestUtils.setField(detachedService, "maxReportedErrors", 1000);
+        detachedImportService = detachedService;
+        context.getBean(JdbcTemplate.class).update("insert into users (id, first_name, last_name, birth_date, sex) values (?, ?, ?, ?, ?)",
+                BenchmarkData.user().getId(), "Jon", "Smith", Date.valueOf("1999-10-01"), "male");
+
+        StringBuilder ndjsonBody = new StringBuilder();
+        StringBuilder csvBody = new StringBuilder("userId,startLatitude,startLongitude,startDatetime,finishLatitude,finishLongitude,finishDatetime\n");
+        for (RunSummary run : BenchmarkData.finishedRunSummaries(RUNS)) {
+            ndjsonBody.append(String.format("{\"userId\":\"%s\",\"startLatitude\":%s,\"startLongitude\":%s,\"startDatetime\":\"%s\"," +
+                            "\"finishLatitude\":%s,\"finishLongitude\":%s,\"finishDatetime\":\"%s\"}\n",
+                    run.getUserId(), run.getStartLatitude(), run.getStartLongitude(), run.getStartDatetime(),
+                    run.getFinishLatitude(), run.getFinishLongitude(), run.getFinishDatetime()));
+            csvBody.append(String.join(",", run.getUserId().toString(), run.getStartLatitude().toString(),
+                    run.getStartLongitude().toString(), run.getStartDatetime().toString(), run.getFinishLatitude().toString(),
+                    run.getFinishLongitude().toString(), run.getFinishDatetime().toString())).append('\n');
+        }
+        ndjson = ndjsonBody.toString();
+        csv = csvBody.toString();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RUNS)
+    public RunImportResponseDto importNdjson() {
+        return runImportService.importRuns(new StringReader(ndjson), RunImportFormat.NDJSON);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RUNS)
+    public RunImportResponseDto importCsv() {
+        return runImportService.importRuns(new StringReader(csv), RunImportFormat.CSV);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RUNS)
+    public RunImportResponseDto importNdjsonWithoutDatabase() {
+        return detachedImportService.importRuns(new StringReader(ndjson), RunImportFormat.NDJSON);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RUNS)
+    public RunImportResponseDto importCsvWithoutDatabase() {
+        return detachedImportService.importRuns(new StringReader(csv), RunImportFormat.CSV);
+    }
+
+    // findExistingIds answers with the ids it was asked for, insertAll returns without writing
+    @SuppressWarnings("unchecked")
+    private static <T> T noOpRepository(Class<T> repositoryType) {
+        return (T) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (proxy, method, args) -> "findExistingIds".equals(method.getName()) ? new ArrayList<>((Collection<UUID>) args[0]) : null);
+    }
+}
@@ -0,0 +1,73 @@
+package com.running_tracker.benchmark;
+
+import com.running_tracker.service.calculator.HaversineKernel;
+import com.running_tracker.service.calculator.HaversineKernels;
+import com.running_tracker.service.calculator.PowFreeHaversineKernel;
+import com.running_tracker.service.track.RunSplitCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cuts a marathon-length trace into kilometer and mile splits, against the path distance alone that finishing a run
+ * calculated before. The trace is one point per second at about 3 m/s, so 15,000 points cover 47 km. Run with
+ * {@code -prof gc}: the calculator only allocates the splits it emits.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RunSplitBenchmark {
+
+    // A little over 3 m/s along the meridian
+    private static final double LATITUDE_STEP = 2.8e-5;
+
+    @Param({"15000"})
+    private int points;
+
+    private HaversineKernel kernel;
+    private long[] recordedAtMillis;
+    private double[] latitudes;
+    private double[] longitudes;
+
+    @Setup
+    public void setUp() {
+        kernel = HaversineKernels.select(PowFreeHaversineKernel.NAME);
+        recordedAtMillis = new long[points];
+        latitudes = new double[points];
+        longitudes = new double[points];
+        for (int i = 0; i < points; i++) {
+            recordedAtMillis[i] = i * 1000L;
+            latitudes[i] = 40.0 + i * LATITUDE_STEP;
+            longitudes[i] = TrackPoints.longitude(i);
+        }
+    }
+
+    @Benchmark
+    public double pathDistance() {
+        return kernel.pathDistance(latitudes, longitudes, points);
+    }
+
+    @Benchmark
+    public double splits(Blackhole blackhole) {
+        RunSplitCalculator calculator = new RunSplitCalculator(TrackPoints.RUN_ID, 0.5, blackhole::consume);
+        for (int i = 0; i < points; i++) {
+            calculator.accept(recordedAtMillis[i], latitudes[i], longitudes[i]);
+        }
+        calculator.finish();
+        return calculator.getDistance();
+    }
+}
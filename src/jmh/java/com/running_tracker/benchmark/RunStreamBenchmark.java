@@ -0,0 +1,60 @@
+package com.running_tracker.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.running_tracker.domain.projection.RunSummary;
+import com.running_tracker.service.mapper.RunMapper;
+import com.running_tracker.service.mapper.RunMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping and serializing a run history the way the NDJSON run listing writes it, without the database.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RunStreamBenchmark {
+
+    private static final byte[] NDJSON_LINE_SEPARATOR = {'\n'};
+
+    @Param({"100", "10000"})
+    private int runs;
+
+    private RunMapper runMapper;
+    private ObjectMapper objectMapper;
+    private List<RunSummary> finishedRuns;
+
+    @Setup
+    public void setUp() {
+        runMapper = new RunMapperImpl();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        finishedRuns = BenchmarkData.finishedRunSummaries(runs);
+    }
+
+    @Benchmark
+    public void streamRunsAsNdjson() throws IOException {
+        OutputStream outputStream = OutputStream.nullOutputStream();
+        for (RunSummary run : finishedRuns) {
+            outputStream.write(objectMapper.writeValueAsBytes(runMapper.toRunDto(run)));
+            outputStream.write(NDJSON_LINE_SEPARATOR);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.running_tracker.benchmark;
+
+import com.running_tracker.domain.geo.Geohash;
+import com.running_tracker.domain.geo.GeohashRange;
+import com.running_tracker.service.RunCalculatorService;
+import com.running_tracker.service.impl.RunCalculatorServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the runs starting within a radius of a location among 50 million, spread around 100 cities with a standard
+ * deviation of 10 km. The sorted geohashes stand in for the geohash index: the covering ranges are found by binary
+ * search and every run in them is refined with the haversine distance, as the service does with the rows the range
+ * scans return. Against computing the haversine distance of every run. Locations are drawn near the city centers,
+ * where runs are densest; about 800 runs start per square kilometer there.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class RunsNearBenchmark {
+
+    private static final int CITIES = 100;
+    private static final int LOCATIONS = 1024;
+    private static final double CITY_SPREAD_METERS = 10_000;
+    private static final double METERS_PER_DEGREE = 111_195;
+    private static final double CELLS_PER_AXIS = 1L << Geohash.BITS_PER_AXIS;
+
+    @Param({"50000000"})
+    private int runs;
+
+    @Param({"1000", "5000"})
+    private double radius;
+
+    @Param({"4", "16", "64"})
+    private int coveringCells;
+
+    private final RunCalculatorService runCalculatorService = new RunCalculatorServiceImpl();
+    private long[] geohashes;
+    private double[][] locations;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        double[][] cities = new double[CITIES][];
+        for (int city = 0; city < CITIES; city++) {
+            cities[city] = new double[]{-50 + random.nextDouble() * 110, -180 + random.nextDouble() * 360};
+        }
+        geohashes = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            double[] city = cities[i % CITIES];
+            double latitude = city[0] + random.nextGaussian() * CITY_SPREAD_METERS / METERS_PER_DEGREE;
+            double longitude = city[1] + random.nextGaussian() * CITY_SPREAD_METERS / METERS_PER_DEGREE / Math.cos(Math.toRadians(city[0]));
+            geohashes[i] = Geohash.encode(latitude, longitude);
+        }
+        Arrays.parallelSort(geohashes);
+
+        locations = new double[LOCATIONS][];
+        for (int i = 0; i < LOCATIONS; i++) {
+            double[] city = cities[random.nextInt(CITIES)];
+            locations[i] = new double[]{city[0] + random.nextGaussian() * 0.01, city[1] + random.nextGaussian() * 0.01};
+        }
+    }
+
+    @Benchmark
+    public int near() {
+        double[] location = locations[next++ & (LOCATIONS - 1)];
+        int found = 0;
+        for (GeohashRange range : Geohash.cover(location[0], location[1], radius, coveringCells)) {
+            int index = lowerBound(range.getFrom());
+            while (index < geohashes.length && geohashes[index] < range.getTo()) {
+                if (distance(location, geohashes[index++]) <= radius) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int fullScan() {
+        double[] location = locations[next++ & (LOCATIONS - 1)];
+        int found = 0;
+        for (long geohash : geohashes) {
+            if (distance(location, geohash) <= radius) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private double distance(double[] location, long geohash) {
+        // Cells of the full geohash are a few centimeters, their centers stand in for the stored coordinates
+        double latitude = (compact(geohash) + 0.5) * 180 / CELLS_PER_AXIS - 90;
+        double longitude = (compact(geohash >>> 1) + 0.5) * 360 / CELLS_PER_AXIS - 180;
+        return runCalculatorService.calculateDistance(location[0], location[1], latitude, longitude);
+    }
+
+    private int lowerBound(long geohash) {
+        int low = 0;
+        int high = geohashes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (geohashes[middle] < geohash) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Gathers the even bits of the value, undoing the interleaving of one axis
+    private static long compact(long value) {
+        value &= 0x5555555555555555L;
+        value = (value | value >>> 1) & 0x3333333333333333L;
+        value = (value | value >>> 2) & 0x0F0F0F0F0F0F0F0FL;
+        value = (value | value >>> 4) & 0x00FF00FF00FF00FFL;
+        value = (value | value >>> 8) & 0x0000FFFF0000FFFFL;
+        value = (value | value >>> 16) & 0x00000000FFFFFFFFL;
+        return value;
+    }
+}
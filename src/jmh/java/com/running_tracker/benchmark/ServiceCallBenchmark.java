@@ -0,0 +1,97 @@
+package com.running_tracker.benchmark;
+
+import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.response.run.StartRunResponseDto;
+import com.running_tracker.domain.entity.User;
+import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.domain.repository.UserRepository;
+import com.running_tracker.service.RunService;
+import com.running_tracker.service.UserService;
+import com.running_tracker.service.impl.RunCalculatorServiceImpl;
+import com.running_tracker.service.impl.RunChangeServiceImpl;
+import com.running_tracker.service.impl.RunServiceImpl;
+import com.running_tracker.service.impl.UserServiceImpl;
+import com.running_tracker.service.mapper.RunMapperImpl;
+import com.running_tracker.service.mapper.UserMapperImpl;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call overhead of the service layer around in-memory repositories, including the {@code @Timed} proxies
+ * recording into a Prometheus registry. Run with {@code -prof gc} to see the allocation rate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceCallBenchmark {
+
+    private UserService userService;
+    private RunService runService;
+    private User user;
+    private StartRunRequestDto startRunRequest;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkData.user();
+        startRunRequest = BenchmarkData.startRunRequests(1).get(0);
+
+        TimedAspect timedAspect = new TimedAspect(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+        userService = timed(new UserServiceImpl(new UserMapperImpl(), repository(UserRepository.class)), timedAspect);
+        runService = timed(new RunServiceImpl(userService, new RunCalculatorServiceImpl(),
+                null, null, new RunChangeServiceImpl(repository(UserRepository.class), repository(RunRepository.class)), new RunMapperImpl(),
+                repository(RunRepository.class)), timedAspect);
+    }
+
+    @Benchmark
+    public User findUserById() {
+        return userService.findUserById(user.getId());
+    }
+
+    @Benchmark
+    public StartRunResponseDto startRun() {
+        return runService.startRun(startRunRequest);
+    }
+
+    private <T> T timed(T service, TimedAspect timedAspect) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(service);
+        proxyFactory.addAspect(timedAspect);
+        return proxyFactory.getProxy();
+    }
+
+    // Answers user lookups with the benchmark user, saves with their argument, everything else is unused
+    @SuppressWarnings("unchecked")
+    private <T> T repository(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "findById":
+                    return Optional.of(user);
+                case "getReferenceById":
+                    return user;
+                case "save":
+                case "saveAndFlush":
+                    return args[0];
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}
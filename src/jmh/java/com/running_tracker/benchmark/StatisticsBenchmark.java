@@ -0,0 +1,47 @@
+package com.running_tracker.benchmark;
+
+import com.running_tracker.service.statistics.StatisticsWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planning the rollup buckets and raw edges of a statistics range of growing length.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatisticsBenchmark {
+
+    @Param({"1", "31", "365", "3650"})
+    private int rangeDays;
+
+    private LocalDateTime from;
+    private LocalDateTime toExclusive;
+
+    @Setup
+    public void setUp() {
+        // Partial edge days on both sides, as with user supplied datetimes
+        from = BenchmarkData.START.plusHours(5);
+        toExclusive = from.plusDays(rangeDays);
+    }
+
+    @Benchmark
+    public StatisticsWindow planStatisticsWindow() {
+        return StatisticsWindow.of(from, toExclusive);
+    }
+}
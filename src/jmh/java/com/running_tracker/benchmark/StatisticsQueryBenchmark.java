@@ -0,0 +1,168 @@
+package com.running_tracker.benchmark;
+
+import com.running_tracker.RunningTrackerApplication;
+import com.running_tracker.api.dto.response.user.UserStatisticsDTO;
+import com.running_tracker.domain.entity.Run;
+import com.running_tracker.domain.entity.StatisticsBucketType;
+import com.running_tracker.domain.entity.UserRunStats;
+import com.running_tracker.domain.entity.UserRunStatsId;
+import com.running_tracker.domain.repository.UserRunStatsRepository;
+import com.running_tracker.service.UserRunStatsService;
+import com.running_tracker.service.statistics.StatisticsWindow;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The statistics of a user with 1,000, 100,000 and 1,000,000 finished runs against an in-memory H2 database: the
+ * all-time totals read from the statistics rollup and the totals of a range over half of the runs, merged from rollup
+ * buckets and the runs at its edges, against loading every run entity and summing in a stream as the statistics did
+ * before.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class StatisticsQueryBenchmark {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int runs;
+
+    private ConfigurableApplicationContext context;
+    private UserRunStatsRepository userRunStatsRepository;
+    private UserRunStatsService userRunStatsService;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private UUID userId;
+    private LocalDateTime rangeFrom;
+    private LocalDateTime rangeTo;
+
+    @Setup
+    public void setUp() {
+        // H2 would otherwise return the previous result of a repeated query over unchanged tables
+        context = new SpringApplicationBuilder(RunningTrackerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:statistics;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.show-sql=false");
+        userRunStatsRepository = context.getBean(UserRunStatsRepository.class);
+        userRunStatsService = context.getBean(UserRunStatsService.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        userId = BenchmarkData.user().getId();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into users (id, first_name, last_name, birth_date, sex) values (?, ?, ?, ?, ?)",
+                userId, "Jon", "Smith", Date.valueOf("1999-10-01"), "male");
+        List<Run> finishedRuns = BenchmarkData.finishedRuns(runs);
+        List<Object[]> rows = finishedRuns.stream().map(StatisticsQueryBenchmark::runRow).toList();
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate("insert into runs (id, user_id, start_latitude, start_longitude, start_datetime, " +
+                            "finish_latitude, finish_longitude, finish_datetime, distance, distance_unit, average_speed, average_speed_unit) " +
+                            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+        // The rollup rebuild runs PostgreSQL SQL, so the buckets are summed here
+        List<Object[]> buckets = bucketRows(finishedRuns);
+        for (int from = 0; from < buckets.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate("insert into user_run_stats (user_id, bucket_type, bucket_start, total_runs, " +
+                            "total_distance, sum_average_speed) values (?, ?, ?, ?, ?, ?)",
+                    buckets.subList(from, Math.min(from + BATCH_SIZE, buckets.size())));
+        }
+        // Starts and ends within a day, so both edges are read from the runs
+        rangeFrom = BenchmarkData.START.plusDays(runs / 4).plusHours(3);
+        rangeTo = BenchmarkData.START.plusDays(runs * 3L / 4).minusHours(3);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // The query behind a statistics request without a range, which the service otherwise answers from its cache
+    @Benchmark
+    public UserRunStats rollupTotal() {
+        return userRunStatsRepository.findById(new UserRunStatsId(userId, StatisticsBucketType.TOTAL,
+                StatisticsWindow.TOTAL_BUCKET_START)).orElseThrow();
+    }
+
+    @Benchmark
+    public UserStatisticsDTO rollupRange() {
+        return userRunStatsService.getStatistics(userId, rangeFrom, rangeTo);
+    }
+
+    @Benchmark
+    public double[] inMemoryStream() {
+        return readOnlyTransaction.execute(status -> {
+            List<Run> userRuns = entityManager.createQuery("select r from Run r where r.user.id = :userId", Run.class)
+                    .setParameter("userId", userId)
+                    .getResultList();
+            double totalDistance = userRuns.stream()
+                    .mapToDouble(run -> run.getDistance() != null ? run.getDistance() : 0.0)
+                    .sum();
+            double averageSpeed = userRuns.stream()
+                    .mapToDouble(run -> run.getAverageSpeed() != null ? run.getAverageSpeed() : 0.0)
+                    .average()
+                    .orElse(0.0);
+            return new double[]{userRuns.size(), totalDistance, averageSpeed};
+        });
+    }
+
+    private List<Object[]> bucketRows(List<Run> finishedRuns) {
+        Map<UserRunStatsId, double[]> buckets = new LinkedHashMap<>();
+        for (Run run : finishedRuns) {
+            for (StatisticsBucketType type : StatisticsBucketType.values()) {
+                LocalDateTime bucketStart = type == StatisticsBucketType.TOTAL ? StatisticsWindow.TOTAL_BUCKET_START
+                        : StatisticsWindow.bucketStart(type, run.getStartDatetime());
+                double[] totals = buckets.computeIfAbsent(new UserRunStatsId(userId, type, bucketStart), id -> new double[3]);
+                totals[0]++;
+                totals[1] += run.getDistance();
+                totals[2] += run.getAverageSpeed();
+            }
+        }
+        List<Object[]> rows = new ArrayList<>(buckets.size());
+        buckets.forEach((id, totals) -> rows.add(new Object[]{userId, id.getBucketType().name(),
+                Timestamp.valueOf(id.getBucketStart()), (long) totals[0], totals[1], totals[2]}));
+        return rows;
+    }
+
+    private static Object[] runRow(Run run) {
+        return new Object[]{run.getId(), run.getUser().getId(), run.getStartLatitude(), run.getStartLongitude(),
+                Timestamp.valueOf(run.getStartDatetime()), run.getFinishLatitude(), run.getFinishLongitude(),
+                Timestamp.valueOf(run.getFinishDatetime()), run.getDistance(), run.getDistanceUnit(),
+                run.getAverageSpeed(), run.getAverageSpeedUnit()};
+    }
+}
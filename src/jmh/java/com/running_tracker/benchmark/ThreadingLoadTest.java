@@ -0,0 +1,323 @@
+package com.running_tracker.benchmark;
+
+import com.running_tracker.RunningTrackerApplication;
+import com.running_tracker.domain.entity.Run;
+import com.sun.management.UnixOperatingSystemMXBean;
+import io.r2dbc.spi.ConnectionFactory;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load test of the runs page endpoint, comparing request handling on platform threads, virtual
+ * threads and the reactive stack. Every client sends its next request as soon as the previous response arrived. The
+ * application is started in-process once per mode on H2 with a fixed delay added to every statement to stand in for
+ * the round trip to a networked database. The thread modes use the settings of the {@code virtual-threads} profile,
+ * only {@code spring.threads.virtual.enabled} differs; the reactive mode uses the {@code reactive} profile, with
+ * R2DBC on the same database and the same number of connections.
+ *
+ * <pre>
+ * --clients=200,2000,20000   concurrent clients, one level after the other
+ * --modes=platform,virtual,reactive  modes of the in-process application; virtual needs JDK 21
+ * --duration=30              measured seconds per level, after --warmup=10 seconds
+ * --db-latency-ms=5          delay added to every statement
+ * --pool-size=50             Hikari connections, R2DBC pool connections in the reactive mode
+ * --timeout=30               seconds before a request counts as an error
+ * --url=http://host:8080/... load an application started separately instead, the modes are not used
+ * </pre>
+ *
+ * In-process, every client costs two file descriptors, levels beyond the descriptor limit of the process are skipped;
+ * run them with {@code --url} against an application on another machine.
+ */
+public final class ThreadingLoadTest {
+
+    private static final int VIRTUAL_THREADS_JAVA_VERSION = 21;
+    private static final int SEEDED_RUNS = 200;
+    private static final int PAGE_SIZE = 20;
+    private static final long RESERVED_FILE_DESCRIPTORS = 1000;
+
+    private ThreadingLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        int[] clientLevels = Arrays.stream(options.getOrDefault("clients", "200,2000,20000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "30")));
+        long dbLatencyMillis = Long.parseLong(options.getOrDefault("db-latency-ms", "5"));
+        int poolSize = Integer.parseInt(options.getOrDefault("pool-size", "50"));
+        LoadLevel level = new LoadLevel(warmup, duration, timeout);
+
+        System.out.printf("JDK %s, %d processors, %d s warmup, %d s measured per level%n", Runtime.version(),
+                Runtime.getRuntime().availableProcessors(), warmup.toSeconds(), duration.toSeconds());
+        List<String> rows = new ArrayList<>();
+        if (options.containsKey("url")) {
+            URI uri = URI.create(options.get("url"));
+            for (int clients : clientLevels) {
+                rows.add(level.run("external", uri, clients));
+            }
+        } else {
+            System.out.printf("In-process application, %d ms per statement, %d connections%n", dbLatencyMillis, poolSize);
+            for (String mode : options.getOrDefault("modes", "platform,virtual,reactive").split(",")) {
+                if ("virtual".equals(mode) && Runtime.version().feature() < VIRTUAL_THREADS_JAVA_VERSION) {
+                    rows.add(String.format("%-10s skipped, needs JDK %d", mode, VIRTUAL_THREADS_JAVA_VERSION));
+                    continue;
+                }
+                StatementDelay statementDelay = new StatementDelay();
+                ConfigurableApplicationContext context = start(mode, poolSize, statementDelay);
+                try {
+                    UUID userId = seed(context.getBean(JdbcTemplate.class));
+                    statementDelay.setMillis(dbLatencyMillis);
+                    int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                    URI uri = URI.create("http://localhost:" + port + "/api/runs/page?userId=" + userId + "&limit=" + PAGE_SIZE);
+                    for (int clients : clientLevels) {
+                        long needed = 2L * clients + RESERVED_FILE_DESCRIPTORS;
+                        long limit = fileDescriptorLimit();
+                        rows.add(needed > limit
+                                ? String.format("%-10s %8d skipped, needs %d file descriptors in-process, the limit is %d",
+                                mode, clients, needed, limit)
+                                : level.run(mode, uri, clients));
+                    }
+                } finally {
+                    context.close();
+                }
+            }
+        }
+
+        System.out.printf("%n%-10s %8s %12s %10s %10s %10s %10s%n", "mode", "clients", "requests/s", "errors", "p50 ms", "p99 ms", "max ms");
+        rows.forEach(System.out::println);
+    }
+
+    private static ConfigurableApplicationContext start(String mode, int poolSize, StatementDelay statementDelay) {
+        boolean reactive = "reactive".equals(mode);
+        return new SpringApplicationBuilder(RunningTrackerApplication.class)
+                .profiles(reactive ? "reactive" : "virtual-threads")
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(statementDelay))
+                .run("--spring.datasource.url=jdbc:h2:mem:load_" + mode + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.r2dbc.url=r2dbc:h2:mem:///load_" + mode + "?options=MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.r2dbc.username=sa",
+                        "--spring.r2dbc.password=",
+                        "--spring.r2dbc.pool.max-size=" + poolSize,
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "--spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                        "--server.port=0");
+    }
+
+    private static UUID seed(JdbcTemplate jdbcTemplate) {
+        UUID userId = BenchmarkData.user().getId();
+        jdbcTemplate.update("insert into users (id, first_name, last_name, birth_date, sex) values (?, ?, ?, ?, ?)",
+                userId, "Jon", "Smith", Date.valueOf("1999-10-01"), "male");
+        jdbcTemplate.batchUpdate("insert into runs (id, user_id, start_latitude, start_longitude, start_datetime, " +
+                        "finish_latitude, finish_longitude, finish_datetime, distance, distance_unit, average_speed, average_speed_unit) " +
+                        "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                BenchmarkData.finishedRuns(SEEDED_RUNS).stream().map(ThreadingLoadTest::runRow).toList());
+        return userId;
+    }
+
+    private static Object[] runRow(Run run) {
+        return new Object[]{run.getId(), run.getUser().getId(), run.getStartLatitude(), run.getStartLongitude(),
+                Timestamp.valueOf(run.getStartDatetime()), run.getFinishLatitude(), run.getFinishLongitude(),
+                Timestamp.valueOf(run.getFinishDatetime()), run.getDistance(), run.getDistanceUnit(),
+                run.getAverageSpeed(), run.getAverageSpeedUnit()};
+    }
+
+    private static long fileDescriptorLimit() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        return (os instanceof UnixOperatingSystemMXBean unix) ? unix.getMaxFileDescriptorCount() : Long.MAX_VALUE;
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    /**
+     * One level of closed-loop clients. Responses are handled on a few client threads, the connections are kept alive
+     * between the requests of a client.
+     */
+    private static final class LoadLevel {
+
+        private final Duration warmup;
+        private final Duration duration;
+        private final Duration timeout;
+        private final ExecutorService executor = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "load-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private final HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(executor)
+                .build();
+
+        private LoadLevel(Duration warmup, Duration duration, Duration timeout) {
+            this.warmup = warmup;
+            this.duration = duration;
+            this.timeout = timeout;
+        }
+
+        private String run(String mode, URI uri, int clients) throws InterruptedException {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(timeout).GET().build();
+            Recorder recorder = new Recorder(3);
+            AtomicLong errors = new AtomicLong();
+            long end = System.nanoTime() + warmup.plus(duration).toNanos();
+            CountDownLatch stopped = new CountDownLatch(clients);
+            for (int i = 0; i < clients; i++) {
+                send(request, end, recorder, errors, stopped);
+            }
+
+            TimeUnit.NANOSECONDS.sleep(warmup.toNanos());
+            recorder.getIntervalHistogram();
+            errors.set(0);
+            TimeUnit.NANOSECONDS.sleep(duration.toNanos());
+            Histogram histogram = recorder.getIntervalHistogram();
+            long measuredErrors = errors.get();
+            // Requests in flight finish within the timeout, the next level starts without them
+            stopped.await(timeout.toSeconds() + 5, TimeUnit.SECONDS);
+
+            String row = String.format("%-10s %8d %12.0f %10d %10.1f %10.1f %10.1f", mode, clients,
+                    histogram.getTotalCount() / (double) duration.toSeconds(), measuredErrors,
+                    histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getMaxValue() / 1000.0);
+            System.out.println(row);
+            return row;
+        }
+
+        private void send(HttpRequest request, long end, Recorder recorder, AtomicLong errors, CountDownLatch stopped) {
+            long start = System.nanoTime();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        long now = System.nanoTime();
+                        if (failure == null && response.statusCode() == 200) {
+                            recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(now - start));
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                        if (now - end < 0) {
+                            send(request, end, recorder, errors, stopped);
+                        } else {
+                            stopped.countDown();
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Wraps the data source and the R2DBC connection factory so that every statement execution first waits
+     * {@link #setMillis(long)}, holding its connection the way a database round trip does. JDBC statements sleep on
+     * the calling thread, R2DBC statements delay their results without blocking a thread.
+     */
+    private static final class StatementDelay implements BeanPostProcessor {
+
+        private volatile long millis;
+
+        void setMillis(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource) {
+                return proxy(DataSource.class, dataSource);
+            }
+            return (bean instanceof ConnectionFactory connectionFactory) ? reactiveProxy(connectionFactory) : bean;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T proxy(Class<T> type, T target) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                if (target instanceof Statement && method.getName().startsWith("execute") && millis > 0) {
+                    Thread.sleep(millis);
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException exception) {
+                    throw exception.getCause();
+                }
+                if (result instanceof Connection connection && method.getReturnType() == Connection.class) {
+                    return proxy(Connection.class, connection);
+                }
+                if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                    return proxy((Class<Statement>) method.getReturnType(), statement);
+                }
+                return result;
+            });
+        }
+
+        // Implements every interface of the target so that pools stay closeable, methods returning the target
+        // return the proxy instead
+        private Object reactiveProxy(Object target) {
+            Class<?>[] interfaces = ClassUtils.getAllInterfaces(target);
+            return Proxy.newProxyInstance(ConnectionFactory.class.getClassLoader(), interfaces, (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException exception) {
+                    throw exception.getCause();
+                }
+                if (result == target) {
+                    return proxy;
+                }
+                if (target instanceof ConnectionFactory && "create".equals(method.getName())) {
+                    return Mono.from((Publisher<?>) result).map(this::reactiveProxy);
+                }
+                if (result instanceof io.r2dbc.spi.Statement statement) {
+                    return reactiveProxy(statement);
+                }
+                if (target instanceof io.r2dbc.spi.Statement && "execute".equals(method.getName()) && millis > 0) {
+                    return Flux.from((Publisher<?>) result).delaySubscription(Duration.ofMillis(millis));
+                }
+                return result;
+            });
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.running_tracker.benchmark;
+
+import com.running_tracker.domain.entity.TrackPoint;
+import com.running_tracker.domain.projection.TrackSegment;
+import com.running_tracker.service.track.RunTrack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building and scanning a run trace held in {@link RunTrack} column arrays
+ * against a list of boxed {@link TrackPoint} entities. Run with {@code -prof gc} to compare allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrackBufferBenchmark {
+
+    @Param({"10000", "100000"})
+    private int points;
+
+    private TrackSegment columnarTrack;
+    private List<TrackPoint> boxedTrack;
+
+    @Setup
+    public void setUp() {
+        columnarTrack = TrackPoints.columnar(points).snapshot();
+        boxedTrack = TrackPoints.boxed(points);
+    }
+
+    @Benchmark
+    public RunTrack appendColumnar() {
+        return TrackPoints.columnar(points);
+    }
+
+    @Benchmark
+    public List<TrackPoint> appendBoxed() {
+        return TrackPoints.boxed(points);
+    }
+
+    @Benchmark
+    public double scanColumnar() {
+        double[] latitudes = columnarTrack.getLatitudes();
+        double[] longitudes = columnarTrack.getLongitudes();
+        double sum = 0;
+        for (int i = 1; i < columnarTrack.getSize(); i++) {
+            sum += Math.abs(latitudes[i] - latitudes[i - 1]) + Math.abs(longitudes[i] - longitudes[i - 1]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double scanBoxed() {
+        double sum = 0;
+        for (int i = 1; i < boxedTrack.size(); i++) {
+            TrackPoint previous = boxedTrack.get(i - 1);
+            TrackPoint current = boxedTrack.get(i);
+            sum += Math.abs(current.getLatitude() - previous.getLatitude()) + Math.abs(current.getLongitude() - previous.getLongitude());
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,28 @@
+package com.running_tracker.benchmark;
+
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+
+/**
+ * Prints the retained heap of a run trace in the columnar buffer and as a list of boxed entities, measured with JOL.
+ */
+public final class TrackFootprintReport {
+
+    private static final int[] POINTS = {10_000, 100_000};
+
+    private TrackFootprintReport() {
+    }
+
+    public static void main(String[] args) {
+        System.out.println(VM.current().details());
+        System.out.printf("%-10s %-22s %14s %16s%n", "points", "representation", "bytes", "bytes/point");
+        for (int points : POINTS) {
+            print(points, "RunTrack (columnar)", GraphLayout.parseInstance(TrackPoints.columnar(points)).totalSize());
+            print(points, "List<TrackPoint>", GraphLayout.parseInstance(TrackPoints.boxed(points)).totalSize());
+        }
+    }
+
+    private static void print(int points, String representation, long bytes) {
+        System.out.printf("%-10d %-22s %14d %16.1f%n", points, representation, bytes, (double) bytes / points);
+    }
+}
@@ -0,0 +1,52 @@
+package com.running_tracker.benchmark;
+
+import com.running_tracker.domain.entity.TrackPoint;
+import com.running_tracker.domain.entity.TrackPointId;
+import com.running_tracker.service.track.RunTrack;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds the same synthetic one-point-per-second trace in the columnar and in the boxed entity representation.
+ */
+final class TrackPoints {
+
+    static final UUID RUN_ID = UUID.fromString("e51cb416-5757-425b-976e-160ddc24d9ac");
+    static final LocalDateTime START = LocalDateTime.of(2024, 9, 3, 10, 0);
+
+    private TrackPoints() {
+    }
+
+    static double latitude(int i) {
+        return 40.0 + i * 1e-5;
+    }
+
+    static double longitude(int i) {
+        return -70.0 + Math.sin(i * 1e-3) * 1e-2;
+    }
+
+    static double elevation(int i) {
+        return 12.0 + (i % 50) * 0.1;
+    }
+
+    static RunTrack columnar(int points) {
+        RunTrack track = new RunTrack(RUN_ID);
+        long startMillis = START.toInstant(ZoneOffset.UTC).toEpochMilli();
+        for (int i = 0; i < points; i++) {
+            track.append(startMillis + i * 1000L, latitude(i), longitude(i), elevation(i));
+        }
+        return track;
+    }
+
+    static List<TrackPoint> boxed(int points) {
+        List<TrackPoint> track = new ArrayList<>();
+        for (int i = 0; i < points; i++) {
+            track.add(new TrackPoint(new TrackPointId(RUN_ID, START.plusSeconds(i)), latitude(i), longitude(i), elevation(i)));
+        }
+        return track;
+    }
+}
@@ -0,0 +1,197 @@
+package com.running_tracker.benchmark;
+
+import com.running_tracker.domain.id.UuidV7;
+import org.HdrHistogram.Histogram;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Inserts the same rows into a table keyed by random version 4 UUIDs and into one keyed by time-ordered version 7
+ * UUIDs ({@link UuidV7}), in JDBC batches committed one by one, and reports the insert rate, the batch latency and,
+ * on PostgreSQL, the size of the primary key index, of the table and of the WAL written. The tables have the columns
+ * of {@code runs} that the history queries read. Random keys land on any page of the index; once it outgrows the
+ * buffer cache the rate drops, which the rate per tenth of the rows shows.
+ *
+ * <pre>
+ * --rows=10000000     rows per key version
+ * --batch-size=1000   rows per batch and transaction
+ * --versions=v4,v7    key versions, one after the other
+ * --url=jdbc:...      database to use, with --username and --password; PostgreSQL in Docker when missing
+ * </pre>
+ */
+public final class UuidInsertBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final int REPORTS = 10;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final double MEGABYTE = 1024.0 * 1024.0;
+
+    private UuidInsertBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        long rows = Long.parseLong(options.getOrDefault("rows", "10000000"));
+        int batchSize = Integer.parseInt(options.getOrDefault("batch-size", "1000"));
+        String[] versions = options.getOrDefault("versions", "v4,v7").split(",");
+
+        PostgreSQLContainer<?> postgres = null;
+        String url = options.get("url");
+        String username = options.getOrDefault("username", "");
+        String password = options.getOrDefault("password", "");
+        if (url == null) {
+            if (!DockerClientFactory.instance().isDockerAvailable()) {
+                System.err.println("No Docker daemon for PostgreSQL, pass a database with --url");
+                System.exit(1);
+            }
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+            url = postgres.getJdbcUrl();
+            username = postgres.getUsername();
+            password = postgres.getPassword();
+        }
+
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            boolean postgresql = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+            System.out.printf("%s %s, %d rows per version in batches of %d%n", connection.getMetaData().getDatabaseProductName(),
+                    connection.getMetaData().getDatabaseProductVersion(), rows, batchSize);
+            List<String> results = new ArrayList<>();
+            for (String version : versions) {
+                Supplier<UUID> ids = switch (version) {
+                    case "v4" -> UUID::randomUUID;
+                    case "v7" -> UuidV7::randomUUID;
+                    default -> throw new IllegalArgumentException("Unknown key version " + version);
+                };
+                results.add(run(connection, postgresql, version, ids, rows, batchSize));
+            }
+            System.out.printf("%n%-8s %10s %10s %10s %10s %12s %12s %12s%n", "version", "rows/s", "p50 ms", "p99 ms",
+                    "max ms", "index MB", "table MB", "WAL MB");
+            results.forEach(System.out::println);
+        } finally {
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+    }
+
+    private static String run(Connection connection, boolean postgresql, String version, Supplier<UUID> ids,
+                              long rows, int batchSize) throws SQLException {
+        String table = "uuid_insert_" + version;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, user_id UUID NOT NULL, " +
+                    "start_datetime TIMESTAMP NOT NULL, finish_datetime TIMESTAMP, distance DOUBLE PRECISION, " +
+                    "average_speed DOUBLE PRECISION)");
+        }
+        UUID[] users = new UUID[USERS];
+        for (int i = 0; i < USERS; i++) {
+            users[i] = UUID.randomUUID();
+        }
+        String walStart = postgresql ? queryString(connection, "SELECT pg_current_wal_lsn()::text") : null;
+
+        Histogram batchLatency = new Histogram(3);
+        long reportEvery = Math.max(rows / REPORTS, batchSize);
+        long started = System.nanoTime();
+        long reportStarted = started;
+        long reported = 0;
+        long inserted = 0;
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table +
+                " (id, user_id, start_datetime, finish_datetime, distance, average_speed) VALUES (?, ?, ?, ?, ?, ?)")) {
+            while (inserted < rows) {
+                int batch = (int) Math.min(batchSize, rows - inserted);
+                long batchStarted = System.nanoTime();
+                for (int i = 0; i < batch; i++) {
+                    long row = inserted + i;
+                    LocalDateTime start = START.plusMinutes(row);
+                    insert.setObject(1, ids.get());
+                    insert.setObject(2, users[(int) (row % USERS)]);
+                    insert.setTimestamp(3, Timestamp.valueOf(start));
+                    insert.setTimestamp(4, Timestamp.valueOf(start.plusMinutes(30)));
+                    insert.setDouble(5, ThreadLocalRandom.current().nextDouble(1000.0, 20000.0));
+                    insert.setDouble(6, ThreadLocalRandom.current().nextDouble(5.0, 15.0));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                connection.commit();
+                long now = System.nanoTime();
+                batchLatency.recordValue((now - batchStarted) / 1000);
+                inserted += batch;
+                if (inserted - reported >= reportEvery || inserted == rows) {
+                    System.out.printf("%-4s %,12d rows %,10.0f rows/s%n", version, inserted,
+                            (inserted - reported) / seconds(now - reportStarted));
+                    reported = inserted;
+                    reportStarted = now;
+                }
+            }
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        double rowsPerSecond = rows / seconds(System.nanoTime() - started);
+
+        String indexSize = "n/a";
+        String tableSize = "n/a";
+        String walSize = "n/a";
+        if (postgresql) {
+            walSize = megabytes(queryLong(connection, "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '" + walStart + "')::bigint"));
+            indexSize = megabytes(queryLong(connection, "SELECT pg_relation_size('" + table + "_pkey')"));
+            tableSize = megabytes(queryLong(connection, "SELECT pg_relation_size('" + table + "')"));
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + table);
+        }
+        return String.format("%-8s %10.0f %10.2f %10.2f %10.2f %12s %12s %12s", version, rowsPerSecond,
+                batchLatency.getValueAtPercentile(50) / 1000.0, batchLatency.getValueAtPercentile(99) / 1000.0,
+                batchLatency.getMaxValue() / 1000.0, indexSize, tableSize, walSize);
+    }
+
+    private static String queryString(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format("%.1f", bytes / MEGABYTE);
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,89 @@
+package com.running_tracker.api;
+
+import com.running_tracker.api.dto.request.run.FinishRunRequestDto;
+import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.response.run.RunPageResponseDto;
+import com.running_tracker.api.dto.response.run.RunResponseDto;
+import com.running_tracker.api.dto.response.run.StartRunResponseDto;
+import com.running_tracker.api.dto.response.user.UserStatisticsDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Non-blocking controller for managing runs and statistics, serves the paths of {@link RunController} in the reactive
+ * profile.
+ */
+public interface ReactiveRunController {
+
+    /**
+     * Starts a new run for the user.
+     *
+     * @param requestDto the start run request data
+     * @return the response containing the run start details
+     */
+    @Operation(summary = "Create a new run")
+    Mono<ResponseEntity<StartRunResponseDto>> startRun(StartRunRequestDto requestDto);
+
+    /**
+     * Finishes an existing run.
+     *
+     * @param requestDto     the finish run request data
+     * @param id             the UUID of the run to finish
+     * @param idempotencyKey the client-chosen key of the request, retries with the same key get the first response (optional)
+     * @return the response containing the run details
+     */
+    @Operation(summary = "Finish an existing run")
+    Mono<ResponseEntity<RunResponseDto>> finishRun(FinishRunRequestDto requestDto, UUID id, String idempotencyKey);
+
+    /**
+     * Retrieves all runs for a user, optionally filtered by date range.
+     *
+     * @param userId       the UUID of the user
+     * @param fromDatetime the start datetime for filtering runs (optional)
+     * @param toDatetime   the end datetime for filtering runs (optional)
+     * @return the user's runs ordered by start datetime
+     */
+    @Operation(summary = "Get all runs for a user")
+    Flux<RunResponseDto> getAllRunsForUser(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime);
+
+    /**
+     * Streams all runs for a user as newline-delimited JSON, one run per line.
+     *
+     * @param userId       the UUID of the user
+     * @param fromDatetime the start datetime for filtering runs (optional)
+     * @param toDatetime   the end datetime for filtering runs (optional)
+     * @return the user's runs, written as the database returns them
+     */
+    @Operation(summary = "Stream all runs for a user")
+    Flux<RunResponseDto> streamAllRunsForUser(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime);
+
+    /**
+     * Retrieves one page of a user's runs, continuing after the given cursor.
+     *
+     * @param userId       the UUID of the user
+     * @param fromDatetime the start datetime for filtering runs (optional)
+     * @param toDatetime   the end datetime for filtering runs (optional)
+     * @param cursor       the continuation token of the previous page (optional)
+     * @param limit        the maximum number of runs in the page
+     * @return the page of runs and the continuation token for the next page
+     */
+    @Operation(summary = "Get a page of runs for a user")
+    Mono<ResponseEntity<RunPageResponseDto>> getRunsPage(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime,
+                                                         String cursor, int limit);
+
+    /**
+     * Retrieves statistics for a user, optionally filtered by date range.
+     *
+     * @param userId       the UUID of the user
+     * @param fromDatetime the start datetime for filtering statistics (optional)
+     * @param toDatetime   the end datetime for filtering statistics (optional)
+     * @return the response containing user statistics
+     */
+    @Operation(summary = "Get user statistics")
+    Mono<ResponseEntity<UserStatisticsDTO>> getUserStatistics(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime);
+}
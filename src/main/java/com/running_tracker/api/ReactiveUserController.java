@@ -0,0 +1,62 @@
+package com.running_tracker.api;
+
+import com.running_tracker.api.dto.request.user.UserRequestDto;
+import com.running_tracker.api.dto.response.user.DeleteUserResponseDto;
+import com.running_tracker.api.dto.response.user.UserResponseDto;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Non-blocking controller for managing users, serves the paths of {@link UserController} in the reactive profile.
+ */
+public interface ReactiveUserController {
+
+    /**
+     * Save a new User.
+     *
+     * @param requestDto the user details to save
+     * @return the response containing the User details and new ID
+     */
+    @Operation(summary = "Save a new user")
+    Mono<ResponseEntity<UserResponseDto>> save(UserRequestDto requestDto);
+
+    /**
+     * Find user by ID.
+     *
+     * @param id the UUID of the user
+     * @return User details
+     */
+    @Operation(summary = "Find user by ID")
+    Mono<ResponseEntity<UserResponseDto>> findById(UUID id);
+
+    /**
+     * Find all users.
+     *
+     * @return All users details
+     */
+    @Operation(summary = "Find all users")
+    Flux<UserResponseDto> findAll();
+
+    /**
+     * Update user by id.
+     *
+     * @param requestDto user details to update
+     * @param id         the user to update
+     * @return the response containing the User details
+     */
+    @Operation(summary = "Update user by id")
+    Mono<ResponseEntity<UserResponseDto>> update(UserRequestDto requestDto, UUID id);
+
+    /**
+     * Delete user by id.
+     *
+     * @param id the user to delete
+     * @return response containing a message about successful deletion
+     */
+    @Operation(summary = "Delete user by id")
+    Mono<ResponseEntity<DeleteUserResponseDto>> delete(UUID id);
+}
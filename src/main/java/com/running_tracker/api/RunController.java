@@ -2,16 +2,32 @@ package com.running_tracker.api;
 
 import com.running_tracker.api.dto.request.run.FinishRunRequestDto;
 import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.request.run.TrackPointBatchRequestDto;
 import com.running_tracker.api.dto.response.ErrorResponseDto;
+import com.running_tracker.api.dto.response.run.NearbyRunsResponseDto;
+import com.running_tracker.api.dto.response.run.RunImportResponseDto;
+import com.running_tracker.api.dto.response.run.RunPageResponseDto;
 import com.running_tracker.api.dto.response.run.RunResponseDto;
+import com.running_tracker.api.dto.response.run.RunSplitsResponseDto;
 import com.running_tracker.api.dto.response.run.StartRunResponseDto;
+import com.running_tracker.api.dto.response.run.TrackPointBatchResponseDto;
+import com.running_tracker.api.dto.response.user.LeaderboardRankResponseDto;
+import com.running_tracker.api.dto.response.user.LeaderboardResponseDto;
+import com.running_tracker.api.dto.response.user.PersonalRecordsResponseDto;
 import com.running_tracker.api.dto.response.user.UserStatisticsDTO;
+import com.running_tracker.service.export.RunExportFormat;
+import com.running_tracker.service.leaderboard.AgeGroup;
+import com.running_tracker.service.leaderboard.LeaderboardMetric;
+import com.running_tracker.service.leaderboard.LeaderboardPeriod;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.Reader;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -41,6 +57,7 @@ public interface RunController {
      *
      * @param requestDto the finish run request data
      * @param id the ID of the run to be finished
+     * @param idempotencyKey the client-chosen key of the request, retries with the same key get the first response (optional)
      * @return the response containing the finished run details
      */
     @Operation(summary = "Finish a run",
@@ -49,10 +66,69 @@ public interface RunController {
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = RunResponseDto.class))),
                     @ApiResponse(description = "Bad request", responseCode = "400",
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+                    @ApiResponse(description = "Run changed by a concurrent request", responseCode = "409",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+                    @ApiResponse(description = "Internal server error", responseCode = "500",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+            })
+    ResponseEntity<RunResponseDto> finishRun(FinishRunRequestDto requestDto, UUID id, String idempotencyKey);
+
+    /**
+     * Records a batch of GPS track points for a run in progress.
+     *
+     * @param requestDto the batch of track points
+     * @param id the ID of the run
+     * @return the response containing the number of accepted points
+     */
+    @Operation(summary = "Upload track points of a run",
+            responses = {
+                    @ApiResponse(description = "Track points stored successfully", responseCode = "200",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TrackPointBatchResponseDto.class))),
+                    @ApiResponse(description = "Bad request", responseCode = "400",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+                    @ApiResponse(description = "Run not found", responseCode = "404",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+                    @ApiResponse(description = "Run already finished", responseCode = "409",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+                    @ApiResponse(description = "Internal server error", responseCode = "500",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+            })
+    ResponseEntity<TrackPointBatchResponseDto> addTrackPoints(TrackPointBatchRequestDto requestDto, UUID id);
+
+    /**
+     * Retrieves the kilometer and mile splits of a finished run, calculated from its recorded track.
+     *
+     * @param id the ID of the run
+     * @return the splits with their elapsed and moving time and pace, fastest and slowest full split marked
+     */
+    @Operation(summary = "Get the kilometer and mile splits of a run",
+            responses = {
+                    @ApiResponse(description = "Splits retrieved successfully", responseCode = "200",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = RunSplitsResponseDto.class))),
+                    @ApiResponse(description = "Run not found", responseCode = "404",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+                    @ApiResponse(description = "Internal server error", responseCode = "500",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+            })
+    ResponseEntity<RunSplitsResponseDto> getRunSplits(UUID id);
+
+    /**
+     * Imports finished historical runs in bulk, streaming the body one run per line.
+     *
+     * @param body the NDJSON or CSV body
+     * @param contentType the content type of the body, which selects its format
+     * @return the numbers of imported and rejected runs and the errors of the first rejected lines
+     */
+    @Operation(summary = "Import finished runs in bulk from NDJSON or CSV",
+            responses = {
+                    @ApiResponse(description = "Import processed, rejected lines are reported in the response", responseCode = "200",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = RunImportResponseDto.class))),
+                    @ApiResponse(description = "Bad request", responseCode = "400",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
                     @ApiResponse(description = "Internal server error", responseCode = "500",
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
             })
-    ResponseEntity<RunResponseDto> finishRun(FinishRunRequestDto requestDto, UUID id);
+    ResponseEntity<RunImportResponseDto> importRuns(Reader body, String contentType);
 
     /**
      * Retrieves all runs for a user within the given time range.
@@ -60,16 +136,76 @@ public interface RunController {
      * @param userId the ID of the user
      * @param fromDatetime the start of the time range (optional)
      * @param toDatetime the end of the time range (optional)
+     * @param request the request, answered with 304 when its If-None-Match matches the current ETag
      * @return a list of runs for the user
      */
     @Operation(summary = "Get all runs for a user",
             responses = {
                     @ApiResponse(description = "Successfully found all runs", responseCode = "200",
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = RunResponseDto.class))),
+                    @ApiResponse(description = "Not modified since the response with the ETag in If-None-Match", responseCode = "304",
+                            content = @Content),
+                    @ApiResponse(description = "Internal server error", responseCode = "500",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+            })
+    ResponseEntity<List<RunResponseDto>> getAllRunsForUser(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime, WebRequest request);
+
+    /**
+     * Streams all runs for a user within the given time range as newline-delimited JSON.
+     *
+     * @param userId the ID of the user
+     * @param fromDatetime the start of the time range (optional)
+     * @param toDatetime the end of the time range (optional)
+     * @return one JSON run per line, ordered by start datetime
+     */
+    @Operation(summary = "Stream all runs for a user as NDJSON",
+            responses = {
+                    @ApiResponse(description = "Successfully streamed all runs", responseCode = "200",
+                            content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = RunResponseDto.class))),
                     @ApiResponse(description = "Internal server error", responseCode = "500",
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
             })
-    ResponseEntity<List<RunResponseDto>> getAllRunsForUser(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime);
+    ResponseEntity<StreamingResponseBody> streamAllRunsForUser(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime);
+
+    /**
+     * Exports all runs for a user within the given time range as a downloadable file.
+     *
+     * @param userId the ID of the user
+     * @param fromDatetime the start of the time range (optional)
+     * @param toDatetime the end of the time range (optional)
+     * @param format the file format, gzip compressed CSV by default
+     * @return the file, streamed as the runs are read
+     */
+    @Operation(summary = "Export all runs for a user as a gzip CSV or columnar file",
+            responses = {
+                    @ApiResponse(description = "Successfully exported all runs", responseCode = "200",
+                            content = {@Content(mediaType = "application/gzip"), @Content(mediaType = "application/octet-stream")}),
+                    @ApiResponse(description = "Internal server error", responseCode = "500",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+            })
+    ResponseEntity<StreamingResponseBody> exportRuns(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime,
+                                                     RunExportFormat format);
+
+    /**
+     * Retrieves one page of runs for a user within the given time range.
+     *
+     * @param userId the ID of the user
+     * @param fromDatetime the start of the time range (optional)
+     * @param toDatetime the end of the time range (optional)
+     * @param cursor the continuation token of the previous page (optional)
+     * @param limit the maximum number of runs in the page
+     * @return the page of runs and the continuation token for the next page
+     */
+    @Operation(summary = "Get a page of runs for a user",
+            responses = {
+                    @ApiResponse(description = "Successfully found the page of runs", responseCode = "200",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = RunPageResponseDto.class))),
+                    @ApiResponse(description = "Bad request", responseCode = "400",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+                    @ApiResponse(description = "Internal server error", responseCode = "500",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+            })
+    ResponseEntity<RunPageResponseDto> getRunsPage(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime, String cursor, int limit);
 
     /**
      * Retrieves statistics for a user within the given time range.
@@ -77,15 +213,95 @@ public interface RunController {
      * @param userId the ID of the user
      * @param fromDatetime the start of the time range (optional)
      * @param toDatetime the end of the time range (optional)
+     * @param request the request, answered with 304 when its If-None-Match matches the current ETag
      * @return the user's statistics
      */
     @Operation(summary = "Get user statistics",
             responses = {
                     @ApiResponse(description = "Successfully retrieved user statistics", responseCode = "200",
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserStatisticsDTO.class))),
+                    @ApiResponse(description = "Not modified since the response with the ETag in If-None-Match", responseCode = "304",
+                            content = @Content),
+                    @ApiResponse(description = "Internal server error", responseCode = "500",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+            })
+    ResponseEntity<UserStatisticsDTO> getUserStatistics(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime, WebRequest request);
+
+    /**
+     * Retrieves the personal records of a user, the fastest efforts over 1 km, 5 km, 10 km, half and full marathon.
+     *
+     * @param userId the ID of the user
+     * @return the records the user has set in recorded tracks
+     */
+    @Operation(summary = "Get personal records of a user",
+            responses = {
+                    @ApiResponse(description = "Successfully retrieved personal records", responseCode = "200",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = PersonalRecordsResponseDto.class))),
+                    @ApiResponse(description = "Internal server error", responseCode = "500",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+            })
+    ResponseEntity<PersonalRecordsResponseDto> getPersonalRecords(UUID userId);
+
+    /**
+     * Retrieves the runs of all users that start or finish within the radius of a location, nearest first.
+     *
+     * @param latitude the latitude of the location
+     * @param longitude the longitude of the location
+     * @param radius the radius around the location in meters
+     * @param limit the maximum number of runs returned
+     * @return the nearest runs with their distance from the location
+     */
+    @Operation(summary = "Get runs near a location",
+            responses = {
+                    @ApiResponse(description = "Successfully found the runs near the location", responseCode = "200",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = NearbyRunsResponseDto.class))),
+                    @ApiResponse(description = "Location or radius out of range", responseCode = "400",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+                    @ApiResponse(description = "Internal server error", responseCode = "500",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+            })
+    ResponseEntity<NearbyRunsResponseDto> getRunsNear(double latitude, double longitude, double radius, int limit);
+
+    /**
+     * Retrieves the best users of the current week or month, optionally within a cohort.
+     *
+     * @param period the period, week or month
+     * @param metric the value users are ranked by
+     * @param sex the sex of the cohort, optional
+     * @param ageGroup the age group of the cohort at the start of the period, optional
+     * @param limit the maximum number of users
+     * @return the leaderboard page
+     */
+    @Operation(summary = "Get the leaderboard of the current week or month",
+            responses = {
+                    @ApiResponse(description = "Successfully retrieved leaderboard", responseCode = "200",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = LeaderboardResponseDto.class))),
+                    @ApiResponse(description = "Internal server error", responseCode = "500",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+            })
+    ResponseEntity<LeaderboardResponseDto> getLeaderboard(LeaderboardPeriod period, LeaderboardMetric metric, String sex,
+                                                          AgeGroup ageGroup, int limit);
+
+    /**
+     * Retrieves the rank of a user on the leaderboard of the current week or month, optionally within a cohort.
+     *
+     * @param userId the ID of the user
+     * @param period the period, week or month
+     * @param metric the value users are ranked by
+     * @param sex the sex of the cohort, optional
+     * @param ageGroup the age group of the cohort at the start of the period, optional
+     * @return the rank of the user
+     */
+    @Operation(summary = "Get the rank of a user on the leaderboard of the current week or month",
+            responses = {
+                    @ApiResponse(description = "Successfully retrieved rank", responseCode = "200",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = LeaderboardRankResponseDto.class))),
+                    @ApiResponse(description = "User has no runs in the period or is not part of the cohort", responseCode = "404",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
                     @ApiResponse(description = "Internal server error", responseCode = "500",
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
             })
-    ResponseEntity<UserStatisticsDTO> getUserStatistics(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime);
+    ResponseEntity<LeaderboardRankResponseDto> getLeaderboardRank(UUID userId, LeaderboardPeriod period, LeaderboardMetric metric,
+                                                                  String sex, AgeGroup ageGroup);
 
 }
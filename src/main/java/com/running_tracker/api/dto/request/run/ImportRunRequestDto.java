@@ -0,0 +1,48 @@
+package com.running_tracker.api.dto.request.run;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One finished run of a bulk import, a line of the NDJSON or CSV body.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class ImportRunRequestDto {
+
+    @NotNull
+    private UUID userId;
+    @NotNull
+    @DecimalMin("-90")
+    @DecimalMax("90")
+    private Double startLatitude;
+    @NotNull
+    @DecimalMin("-180")
+    @DecimalMax("180")
+    private Double startLongitude;
+    @NotNull
+    private LocalDateTime startDatetime;
+    @NotNull
+    @DecimalMin("-90")
+    @DecimalMax("90")
+    private Double finishLatitude;
+    @NotNull
+    @DecimalMin("-180")
+    @DecimalMax("180")
+    private Double finishLongitude;
+    @NotNull
+    private LocalDateTime finishDatetime;
+    private Double distance;
+}
@@ -0,0 +1,25 @@
+package com.running_tracker.api.dto.request.run;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class TrackPointBatchRequestDto {
+
+    @NotEmpty
+    @Size(max = 10_000)
+    private List<@Valid @NotNull TrackPointRequestDto> points;
+}
@@ -0,0 +1,19 @@
+package com.running_tracker.api.dto.response.run;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class NearbyRunDto {
+
+    private RunResponseDto run;
+    // From the location to the nearer of the start and finish points
+    private MeasurementDto distanceFromLocation;
+}
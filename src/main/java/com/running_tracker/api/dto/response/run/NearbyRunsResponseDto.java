@@ -0,0 +1,22 @@
+package com.running_tracker.api.dto.response.run;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class NearbyRunsResponseDto {
+
+    private Double latitude;
+    private Double longitude;
+    private MeasurementDto radius;
+    private List<NearbyRunDto> runs;
+}
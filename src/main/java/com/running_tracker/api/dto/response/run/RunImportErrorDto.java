@@ -0,0 +1,18 @@
+package com.running_tracker.api.dto.response.run;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class RunImportErrorDto {
+
+    private long line;
+    private String message;
+}
@@ -0,0 +1,22 @@
+package com.running_tracker.api.dto.response.run;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class RunImportResponseDto {
+
+    private long importedRuns;
+    private long rejectedRuns;
+    // The first rejected lines only, rejectedRuns counts all of them
+    private List<RunImportErrorDto> errors;
+}
@@ -0,0 +1,20 @@
+package com.running_tracker.api.dto.response.run;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class RunPageResponseDto {
+
+    private List<RunResponseDto> runs;
+    private String nextCursor;
+}
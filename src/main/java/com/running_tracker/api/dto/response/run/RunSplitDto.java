@@ -0,0 +1,23 @@
+package com.running_tracker.api.dto.response.run;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class RunSplitDto {
+
+    private Integer number;
+    private MeasurementDto distance;
+    private MeasurementDto elapsedTime;
+    private MeasurementDto movingTime;
+    private MeasurementDto pace;
+    private boolean fastest;
+    private boolean slowest;
+}
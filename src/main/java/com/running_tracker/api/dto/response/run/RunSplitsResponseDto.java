@@ -0,0 +1,24 @@
+package com.running_tracker.api.dto.response.run;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class RunSplitsResponseDto {
+
+    private UUID runId;
+    private MeasurementDto elapsedTime;
+    private MeasurementDto movingTime;
+    private List<RunSplitDto> kilometerSplits;
+    private List<RunSplitDto> mileSplits;
+}
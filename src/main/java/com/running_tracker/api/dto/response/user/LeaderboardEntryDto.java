@@ -0,0 +1,22 @@
+package com.running_tracker.api.dto.response.user;
+
+import com.running_tracker.api.dto.response.run.MeasurementDto;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class LeaderboardEntryDto {
+
+    private long rank;
+    private UUID userId;
+    private MeasurementDto value;
+}
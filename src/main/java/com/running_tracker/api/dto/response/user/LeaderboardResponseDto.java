@@ -0,0 +1,30 @@
+package com.running_tracker.api.dto.response.user;
+
+import com.running_tracker.service.leaderboard.AgeGroup;
+import com.running_tracker.service.leaderboard.LeaderboardMetric;
+import com.running_tracker.service.leaderboard.LeaderboardPeriod;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class LeaderboardResponseDto {
+
+    private LeaderboardPeriod period;
+    private LocalDateTime periodStart;
+    private LeaderboardMetric metric;
+    // Cohort filters, null when not filtered
+    private String sex;
+    private AgeGroup ageGroup;
+    private int participants;
+    private List<LeaderboardEntryDto> entries;
+}
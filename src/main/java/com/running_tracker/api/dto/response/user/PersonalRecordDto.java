@@ -0,0 +1,26 @@
+package com.running_tracker.api.dto.response.user;
+
+import com.running_tracker.api.dto.response.run.MeasurementDto;
+import com.running_tracker.domain.entity.RecordDistance;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class PersonalRecordDto {
+
+    private RecordDistance distance;
+    private MeasurementDto time;
+    private MeasurementDto pace;
+    private UUID runId;
+    private LocalDateTime achievedAt;
+}
@@ -0,0 +1,21 @@
+package com.running_tracker.api.dto.response.user;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class PersonalRecordsResponseDto {
+
+    private UUID userId;
+    private List<PersonalRecordDto> records;
+}
@@ -0,0 +1,99 @@
+package com.running_tracker.api.impl;
+
+import com.running_tracker.api.ReactiveRunController;
+import com.running_tracker.api.dto.request.run.FinishRunRequestDto;
+import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.response.run.RunPageResponseDto;
+import com.running_tracker.api.dto.response.run.RunResponseDto;
+import com.running_tracker.api.dto.response.run.StartRunResponseDto;
+import com.running_tracker.api.dto.response.user.UserStatisticsDTO;
+import com.running_tracker.service.ReactiveRunService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/runs")
+@RequiredArgsConstructor
+public class ReactiveRunControllerImpl implements ReactiveRunController {
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private final ReactiveRunService runService;
+
+    @Override
+    @PostMapping
+    public Mono<ResponseEntity<StartRunResponseDto>> startRun(@Valid @RequestBody StartRunRequestDto requestDto) {
+        return runService.startRun(requestDto)
+                .map(run -> ResponseEntity.status(HttpStatus.CREATED).body(run));
+    }
+
+    @Override
+    @PutMapping("/{id}/finish")
+    public Mono<ResponseEntity<RunResponseDto>> finishRun(@Valid @RequestBody FinishRunRequestDto requestDto, @PathVariable UUID id,
+                                                          @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return runService.finishRun(requestDto, id, idempotencyKey)
+                .map(ResponseEntity::ok);
+    }
+
+    @Override
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<RunResponseDto> getAllRunsForUser(@RequestParam UUID userId,
+                                                  @RequestParam(required = false) LocalDateTime fromDatetime,
+                                                  @RequestParam(required = false) LocalDateTime toDatetime) {
+        return runService.getAllRunsForUser(userId, fromDatetime, toDatetime);
+    }
+
+    @Override
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<RunResponseDto> streamAllRunsForUser(@RequestParam UUID userId,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDatetime,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDatetime) {
+        return runService.streamAllRunsForUser(userId, fromDatetime, toDatetime);
+    }
+
+    @Override
+    @GetMapping("/page")
+    public Mono<ResponseEntity<RunPageResponseDto>> getRunsPage(@RequestParam UUID userId,
+                                                                @RequestParam(required = false)
+                                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDatetime,
+                                                                @RequestParam(required = false)
+                                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDatetime,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "50") int limit) {
+        return runService.getRunsPage(userId, fromDatetime, toDatetime, cursor, limit)
+                .map(ResponseEntity::ok);
+    }
+
+    @Override
+    @GetMapping("/statistics")
+    public Mono<ResponseEntity<UserStatisticsDTO>> getUserStatistics(@RequestParam UUID userId,
+                                                                     @RequestParam(required = false)
+                                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDatetime,
+                                                                     @RequestParam(required = false)
+                                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDatetime) {
+        return runService.getUserStatistics(userId, fromDatetime, toDatetime)
+                .map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,67 @@
+package com.running_tracker.api.impl;
+
+import com.running_tracker.api.ReactiveUserController;
+import com.running_tracker.api.dto.request.user.UserRequestDto;
+import com.running_tracker.api.dto.response.user.DeleteUserResponseDto;
+import com.running_tracker.api.dto.response.user.UserResponseDto;
+import com.running_tracker.service.ReactiveUserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class ReactiveUserControllerImpl implements ReactiveUserController {
+
+    private final ReactiveUserService userService;
+
+    @Override
+    @PostMapping
+    public Mono<ResponseEntity<UserResponseDto>> save(@Valid @RequestBody UserRequestDto requestDto) {
+        return userService.save(requestDto)
+                .map(user -> ResponseEntity.status(HttpStatus.CREATED).body(user));
+    }
+
+    @Override
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<UserResponseDto>> findById(@PathVariable UUID id) {
+        return userService.findUserDtoById(id)
+                .map(ResponseEntity::ok);
+    }
+
+    @Override
+    @GetMapping
+    public Flux<UserResponseDto> findAll() {
+        return userService.findAll();
+    }
+
+    @Override
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<UserResponseDto>> update(@Valid @RequestBody UserRequestDto requestDto, @PathVariable UUID id) {
+        return userService.update(requestDto, id)
+                .map(ResponseEntity::ok);
+    }
+
+    @Override
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<DeleteUserResponseDto>> delete(@PathVariable UUID id) {
+        return userService.delete(id)
+                .map(ResponseEntity::ok);
+    }
+}
@@ -1,36 +1,81 @@
 package com.running_tracker.api.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.running_tracker.api.RunController;
 import com.running_tracker.api.dto.request.run.FinishRunRequestDto;
 import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.request.run.TrackPointBatchRequestDto;
+import com.running_tracker.api.dto.response.run.NearbyRunsResponseDto;
+import com.running_tracker.api.dto.response.run.RunImportResponseDto;
+import com.running_tracker.api.dto.response.run.RunPageResponseDto;
 import com.running_tracker.api.dto.response.run.RunResponseDto;
+import com.running_tracker.api.dto.response.run.RunSplitsResponseDto;
 import com.running_tracker.api.dto.response.run.StartRunResponseDto;
+import com.running_tracker.api.dto.response.run.TrackPointBatchResponseDto;
+import com.running_tracker.api.dto.response.user.LeaderboardRankResponseDto;
+import com.running_tracker.api.dto.response.user.LeaderboardResponseDto;
+import com.running_tracker.api.dto.response.user.PersonalRecordsResponseDto;
 import com.running_tracker.api.dto.response.user.UserStatisticsDTO;
+import com.running_tracker.service.LeaderboardService;
+import com.running_tracker.service.PersonalRecordService;
+import com.running_tracker.service.RunChangeService;
+import com.running_tracker.service.RunImportService;
 import com.running_tracker.service.RunService;
+import com.running_tracker.service.TrackPointService;
+import com.running_tracker.service.export.RunExportFormat;
+import com.running_tracker.service.importer.RunImportFormat;
+import com.running_tracker.service.leaderboard.AgeGroup;
+import com.running_tracker.service.leaderboard.LeaderboardMetric;
+import com.running_tracker.service.leaderboard.LeaderboardPeriod;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.OptionalLong;
 import java.util.UUID;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/runs")
 @RequiredArgsConstructor
 public class RunControllerImpl implements RunController {
 
+    private static final byte[] NDJSON_LINE_SEPARATOR = {'\n'};
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String RUNS_ETAG_PREFIX = "runs-";
+    private static final String STATISTICS_ETAG_PREFIX = "statistics-";
+
     private final RunService runService;
+    private final TrackPointService trackPointService;
+    private final RunImportService runImportService;
+    private final RunChangeService runChangeService;
+    private final PersonalRecordService personalRecordService;
+    private final LeaderboardService leaderboardService;
+    private final ObjectMapper objectMapper;
 
     @Override
     @PostMapping
@@ -40,16 +85,84 @@ public class RunControllerImpl implements RunController {
 
     @Override
     @PutMapping("/{id}/finish")
-    public ResponseEntity<RunResponseDto> finishRun(@Valid @RequestBody FinishRunRequestDto requestDto, @PathVariable UUID id) {
-        return ResponseEntity.ok(runService.finishRun(requestDto, id));
+    public ResponseEntity<RunResponseDto> finishRun(@Valid @RequestBody FinishRunRequestDto requestDto, @PathVariable UUID id,
+                                                    @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return ResponseEntity.ok(runService.finishRun(requestDto, id, idempotencyKey));
+    }
+
+    @Override
+    @PostMapping("/{id}/points")
+    public ResponseEntity<TrackPointBatchResponseDto> addTrackPoints(@Valid @RequestBody TrackPointBatchRequestDto requestDto, @PathVariable UUID id) {
+        return ResponseEntity.ok(trackPointService.addTrackPoints(id, requestDto));
+    }
+
+    @Override
+    @GetMapping("/{id}/splits")
+    public ResponseEntity<RunSplitsResponseDto> getRunSplits(@PathVariable UUID id) {
+        return ResponseEntity.ok(trackPointService.getRunSplits(id));
+    }
+
+    @Override
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    public ResponseEntity<RunImportResponseDto> importRuns(Reader body, @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) {
+        RunImportFormat format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? RunImportFormat.NDJSON : RunImportFormat.CSV;
+        return ResponseEntity.ok(runImportService.importRuns(body, format));
     }
 
     @Override
     @GetMapping
     public ResponseEntity<List<RunResponseDto>> getAllRunsForUser(@RequestParam UUID userId,
                                                                   @RequestParam(required = false) LocalDateTime fromDatetime,
-                                                                  @RequestParam(required = false) LocalDateTime toDatetime) {
-        return ResponseEntity.ok(runService.getAllRunsForUser(userId, fromDatetime, toDatetime));
+                                                                  @RequestParam(required = false) LocalDateTime toDatetime,
+                                                                  WebRequest request) {
+        String eTag = resolveETag(RUNS_ETAG_PREFIX, userId, fromDatetime, toDatetime, true);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(runService.getAllRunsForUser(userId, fromDatetime, toDatetime));
+    }
+
+    @Override
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllRunsForUser(@RequestParam UUID userId,
+                                                                      @RequestParam(required = false)
+                                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDatetime,
+                                                                      @RequestParam(required = false)
+                                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDatetime) {
+        StreamingResponseBody body = outputStream -> runService.streamAllRunsForUser(userId, fromDatetime, toDatetime,
+                run -> writeNdjsonLine(outputStream, run));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Override
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRuns(@RequestParam UUID userId,
+                                                            @RequestParam(required = false)
+                                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDatetime,
+                                                            @RequestParam(required = false)
+                                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDatetime,
+                                                            @RequestParam(defaultValue = "CSV") RunExportFormat format) {
+        StreamingResponseBody body = outputStream -> runService.exportRuns(userId, fromDatetime, toDatetime, format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("runs-" + userId + format.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @Override
+    @GetMapping("/page")
+    public ResponseEntity<RunPageResponseDto> getRunsPage(@RequestParam UUID userId,
+                                                          @RequestParam(required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDatetime,
+                                                          @RequestParam(required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDatetime,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(runService.getRunsPage(userId, fromDatetime, toDatetime, cursor, limit));
     }
 
     @Override
@@ -58,7 +171,74 @@ public class RunControllerImpl implements RunController {
                                                                @RequestParam(required = false)
                                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDatetime,
                                                                @RequestParam(required = false)
-                                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDatetime) {
-        return ResponseEntity.ok(runService.getUserStatistics(userId, fromDatetime, toDatetime));
+                                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDatetime,
+                                                               WebRequest request) {
+        // Statistics only count finished runs, starting one leaves them unchanged
+        String eTag = resolveETag(STATISTICS_ETAG_PREFIX, userId, fromDatetime, toDatetime, false);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(runService.getUserStatistics(userId, fromDatetime, toDatetime));
+    }
+
+    @Override
+    @GetMapping("/records")
+    public ResponseEntity<PersonalRecordsResponseDto> getPersonalRecords(@RequestParam UUID userId) {
+        return ResponseEntity.ok(personalRecordService.getPersonalRecords(userId));
+    }
+
+    @Override
+    @GetMapping("/near")
+    public ResponseEntity<NearbyRunsResponseDto> getRunsNear(@RequestParam("lat") double latitude,
+                                                             @RequestParam("lon") double longitude,
+                                                             @RequestParam double radius,
+                                                             @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(runService.getRunsNear(latitude, longitude, radius, limit));
+    }
+
+    @Override
+    @GetMapping("/leaderboard")
+    public ResponseEntity<LeaderboardResponseDto> getLeaderboard(@RequestParam LeaderboardPeriod period,
+                                                                 @RequestParam LeaderboardMetric metric,
+                                                                 @RequestParam(required = false) String sex,
+                                                                 @RequestParam(required = false) AgeGroup ageGroup,
+                                                                 @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.getLeaderboard(period, metric, sex, ageGroup, limit));
+    }
+
+    @Override
+    @GetMapping("/leaderboard/rank")
+    public ResponseEntity<LeaderboardRankResponseDto> getLeaderboardRank(@RequestParam UUID userId,
+                                                                         @RequestParam LeaderboardPeriod period,
+                                                                         @RequestParam LeaderboardMetric metric,
+                                                                         @RequestParam(required = false) String sex,
+                                                                         @RequestParam(required = false) AgeGroup ageGroup) {
+        return ResponseEntity.ok(leaderboardService.getRank(userId, period, metric, sex, ageGroup));
+    }
+
+    // Read before the query: a change committing in between makes the response newer than its ETag, never older.
+    // A range starting at fromDatetime without an end runs until now and changes with the clock, so it has no ETag.
+    private String resolveETag(String prefix, UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime,
+                               boolean withOpenRuns) {
+        if (fromDatetime != null && toDatetime == null) {
+            return null;
+        }
+        OptionalLong changeCount = runChangeService.getChangeCount(userId);
+        if (changeCount.isEmpty()) {
+            return null;
+        }
+        String version = withOpenRuns
+                ? changeCount.getAsLong() + "-" + runChangeService.countOpenRuns(userId)
+                : String.valueOf(changeCount.getAsLong());
+        return "\"" + prefix + version + "\"";
+    }
+
+    private void writeNdjsonLine(OutputStream outputStream, RunResponseDto run) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(run));
+            outputStream.write(NDJSON_LINE_SEPARATOR);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
     }
 }
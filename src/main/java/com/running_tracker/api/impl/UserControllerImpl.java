@@ -7,6 +7,7 @@ import com.running_tracker.api.dto.response.user.UserResponseDto;
 import com.running_tracker.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -22,6 +23,7 @@ import java.util.List;
 import java.util.UUID;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
 public class UserControllerImpl implements UserController {
@@ -0,0 +1,73 @@
+package com.running_tracker.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * In-process Caffeine caches of users, statistics and the responses of idempotent requests. Services only name the caches, so another
+ * {@link CacheManager}, a distributed one shared by all instances, can replace this one without code changes.
+ * Hit, miss and eviction counts are published as {@code cache.*} meters.
+ */
+@Configuration
+// Runs outside the transaction interceptor: a value loaded by a transactional method is cached once it committed
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String USERS_CACHE = "users";
+    public static final String USER_STATISTICS_CACHE = "userStatistics";
+    public static final String RUN_FINISH_RESPONSES_CACHE = "runFinishResponses";
+
+    @Value("${running-tracker.cache.users.maximum-size:10000}")
+    private long usersMaximumSize;
+
+    @Value("${running-tracker.cache.users.expire-after-write:PT10M}")
+    private Duration usersExpireAfterWrite;
+
+    @Value("${running-tracker.cache.user-statistics.maximum-size:10000}")
+    private long userStatisticsMaximumSize;
+
+    @Value("${running-tracker.cache.user-statistics.expire-after-write:PT10M}")
+    private Duration userStatisticsExpireAfterWrite;
+
+    @Value("${running-tracker.cache.run-finish-responses.maximum-size:10000}")
+    private long runFinishResponsesMaximumSize;
+
+    @Value("${running-tracker.cache.run-finish-responses.expire-after-write:PT10M}")
+    private Duration runFinishResponsesExpireAfterWrite;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            // Evictions of a transactional write wait for its commit, until then a reader would load the replaced state again
+            @Override
+            protected Cache adaptCaffeineCache(String name, AsyncCache<Object, Object> cache) {
+                return new TransactionAwareCacheDecorator(new CallerLoadingCaffeineCache(name, cache, isAllowNullValues()));
+            }
+        };
+        cacheManager.setAsyncCacheMode(true);
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(USERS_CACHE, caffeine(usersMaximumSize, usersExpireAfterWrite));
+        cacheManager.registerCustomCache(USER_STATISTICS_CACHE, caffeine(userStatisticsMaximumSize, userStatisticsExpireAfterWrite));
+        cacheManager.registerCustomCache(RUN_FINISH_RESPONSES_CACHE, caffeine(runFinishResponsesMaximumSize, runFinishResponsesExpireAfterWrite));
+        return cacheManager;
+    }
+
+    private AsyncCache<Object, Object> caffeine(long maximumSize, Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+    }
+}
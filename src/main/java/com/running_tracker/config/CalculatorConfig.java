@@ -0,0 +1,23 @@
+package com.running_tracker.config;
+
+import com.running_tracker.service.calculator.HaversineKernel;
+import com.running_tracker.service.calculator.HaversineKernels;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the {@link HaversineKernel} that measures the recorded tracks of finishing runs.
+ */
+@Configuration
+@Slf4j
+public class CalculatorConfig {
+
+    @Bean
+    public HaversineKernel haversineKernel(@Value("${running-tracker.calculator.haversine-kernel:auto}") String name) {
+        HaversineKernel kernel = HaversineKernels.select(name);
+        log.info("Using {} haversine kernel for track distances", kernel.name());
+        return kernel;
+    }
+}
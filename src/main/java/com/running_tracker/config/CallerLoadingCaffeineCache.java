@@ -0,0 +1,94 @@
+package com.running_tracker.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Caffeine cache whose synchronized loads run on the calling thread outside the lock of the cache map.
+ * The first reader of a missing key registers an incomplete future and loads the value, concurrent readers of the key
+ * wait for that future. The load keeps the transaction and the context of its caller, and a virtual thread waiting on the
+ * database does not hold a monitor, which would pin it to its carrier. Evicting the key drops a load in progress, so the
+ * next reader loads again instead of getting a value read before the eviction.
+ */
+class CallerLoadingCaffeineCache extends CaffeineCache {
+
+    CallerLoadingCaffeineCache(String name, AsyncCache<Object, Object> cache, boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> future = getAsyncCache().get(key, (cacheKey, executor) -> loading);
+        if (future == loading) {
+            try {
+                loading.complete(toStoreValue(valueLoader.call()));
+            } catch (Throwable exception) {
+                // A failed future is removed from the cache, the next reader loads again
+                loading.completeExceptionally(new FailedLoadException(exception));
+            }
+        }
+        try {
+            return (T) fromStoreValue(future.join());
+        } catch (CancellationException | CompletionException exception) {
+            throw new ValueRetrievalException(key, valueLoader, causeOf(exception));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> future = getAsyncCache().get(key, (cacheKey, executor) -> loading);
+        if (future == loading) {
+            try {
+                valueLoader.get().whenComplete((value, exception) -> {
+                    if (exception != null) {
+                        loading.completeExceptionally(new FailedLoadException(causeOf(exception)));
+                    } else {
+                        // Caffeine drops a future completed with null, an empty result is not cached
+                        loading.complete(value == null && !isAllowNullValues() ? null : toStoreValue(value));
+                    }
+                });
+            } catch (Throwable exception) {
+                loading.completeExceptionally(new FailedLoadException(exception));
+            }
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((value, exception) -> {
+            if (exception != null) {
+                result.completeExceptionally(causeOf(exception));
+            } else {
+                result.complete((T) fromStoreValue(value));
+            }
+        });
+        return result;
+    }
+
+    private static Throwable causeOf(Throwable exception) {
+        if ((exception instanceof FailedLoadException || exception instanceof CompletionException) && exception.getCause() != null) {
+            return exception.getCause();
+        }
+        return exception;
+    }
+
+    /**
+     * Fails a load without Caffeine logging it. Caffeine logs every other exceptionally completed future as a warning
+     * with its stack trace, which would report each request for a missing user or run; the caller gets the cause.
+     */
+    private static final class FailedLoadException extends CancellationException {
+
+        private FailedLoadException(Throwable cause) {
+            super(cause.getMessage());
+            initCause(cause);
+        }
+    }
+}
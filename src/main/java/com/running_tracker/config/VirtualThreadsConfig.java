@@ -0,0 +1,30 @@
+package com.running_tracker.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Reports the thread mode of the {@code virtual-threads} profile. Spring Boot runs requests, {@code @Async} tasks and
+ * scheduled jobs on virtual threads from JDK 21 on and silently keeps the platform thread pools on older JDKs.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadsConfig {
+
+    private static final int VIRTUAL_THREADS_JAVA_VERSION = 21;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreadMode() {
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < VIRTUAL_THREADS_JAVA_VERSION) {
+            log.warn("Virtual threads are enabled but need JDK {}, running on platform threads with JDK {}",
+                    VIRTUAL_THREADS_JAVA_VERSION, javaVersion);
+        } else {
+            log.info("Requests and tasks run on virtual threads");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.running_tracker.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The fastest effort of a user over one record distance, found in the recorded track of one of the user's runs.
+ */
+@Table(name = "personal_records")
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class PersonalRecord {
+
+    @EmbeddedId
+    private PersonalRecordId id;
+    @Column(name = "run_id")
+    private UUID runId;
+    @Column(name = "elapsed_millis")
+    private Long elapsedMillis;
+    @Column(name = "achieved_at")
+    private LocalDateTime achievedAt;
+}
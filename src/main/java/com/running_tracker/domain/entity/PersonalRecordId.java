@@ -0,0 +1,32 @@
+package com.running_tracker.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Identifies the personal record of a user over one distance.
+ */
+@Embeddable
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class PersonalRecordId implements Serializable {
+
+    @Column(name = "user_id")
+    private UUID userId;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "record_distance")
+    private RecordDistance distance;
+}
@@ -0,0 +1,19 @@
+package com.running_tracker.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Distance of a personal record, the fastest effort of a user over it within any run.
+ */
+@AllArgsConstructor
+@Getter
+public enum RecordDistance {
+    ONE_KILOMETER(1000.0),
+    FIVE_KILOMETERS(5000.0),
+    TEN_KILOMETERS(10000.0),
+    HALF_MARATHON(21097.5),
+    MARATHON(42195.0);
+
+    private final double meters;
+}
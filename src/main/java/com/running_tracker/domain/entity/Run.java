@@ -1,17 +1,19 @@
 package com.running_tracker.domain.entity;
 
+import com.running_tracker.domain.id.TimeOrderedUuid;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.PartitionKey;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -28,16 +30,18 @@ import java.util.UUID;
 public class Run {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     @Column(name = "id", insertable = false, updatable = false, nullable = false)
     private UUID id;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     @Column(name = "start_latitude")
     private Double startLatitude;
     @Column(name = "start_longitude")
     private Double startLongitude;
+    // Added to the WHERE of updates, so PostgreSQL only touches the partition of the run
+    @PartitionKey
     @Column(name = "start_datetime")
     private LocalDateTime startDatetime;
     @Column(name = "finish_latitude")
@@ -46,6 +50,11 @@ public class Run {
     private Double finishLongitude;
     @Column(name = "finish_datetime")
     private LocalDateTime finishDatetime;
+    // Indexed for the runs near a location, see Geohash; null where the point is not recorded
+    @Column(name = "start_geohash")
+    private Long startGeohash;
+    @Column(name = "finish_geohash")
+    private Long finishGeohash;
     private Double distance;
     @Column(name = "distance_unit")
     private String distanceUnit;
@@ -53,5 +62,9 @@ public class Run {
     private Double averageSpeed;
     @Column(name = "average_speed_unit")
     private String averageSpeedUnit;
+    // Finishing a run fails instead of overwriting a concurrent finish
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 
 }
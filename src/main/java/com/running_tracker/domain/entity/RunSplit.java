@@ -0,0 +1,31 @@
+package com.running_tracker.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Time a run took for one kilometer or mile of its recorded track. The last split of a unit covers the rest of the
+ * track and can be shorter.
+ */
+@Table(name = "run_splits")
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class RunSplit {
+
+    @EmbeddedId
+    private RunSplitId id;
+    private Double distance;
+    @Column(name = "elapsed_millis")
+    private Long elapsedMillis;
+    @Column(name = "moving_millis")
+    private Long movingMillis;
+}
@@ -0,0 +1,34 @@
+package com.running_tracker.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Identifies one split of a run, numbered from 1 per unit.
+ */
+@Embeddable
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class RunSplitId implements Serializable {
+
+    @Column(name = "run_id")
+    private UUID runId;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "split_unit")
+    private SplitUnit unit;
+    @Column(name = "split_number")
+    private Integer number;
+}
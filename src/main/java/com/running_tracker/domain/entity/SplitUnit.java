@@ -0,0 +1,16 @@
+package com.running_tracker.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Distance covered by one split of a run.
+ */
+@AllArgsConstructor
+@Getter
+public enum SplitUnit {
+    KILOMETER(1000.0),
+    MILE(1609.344);
+
+    private final double meters;
+}
@@ -0,0 +1,11 @@
+package com.running_tracker.domain.entity;
+
+/**
+ * Granularity of a pre-aggregated statistics bucket.
+ */
+public enum StatisticsBucketType {
+    DAY,
+    WEEK,
+    MONTH,
+    TOTAL
+}
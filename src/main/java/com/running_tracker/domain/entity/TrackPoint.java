@@ -0,0 +1,28 @@
+package com.running_tracker.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Represents a GPS position recorded by the client device during a run.
+ */
+@Table(name = "run_trackpoints")
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class TrackPoint {
+
+    @EmbeddedId
+    private TrackPointId id;
+    private Double latitude;
+    private Double longitude;
+    private Double elevation;
+}
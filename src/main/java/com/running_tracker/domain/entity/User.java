@@ -1,9 +1,8 @@
 package com.running_tracker.domain.entity;
 
+import com.running_tracker.domain.id.TimeOrderedUuid;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -29,7 +28,7 @@ import java.util.UUID;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     @Column(name = "id", insertable = false, updatable = false, nullable = false)
     private UUID id;
     @Column(name = "first_name")
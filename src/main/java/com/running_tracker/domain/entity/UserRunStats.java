@@ -0,0 +1,31 @@
+package com.running_tracker.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Pre-aggregated totals of a user's completed runs that started within one bucket.
+ */
+@Table(name = "user_run_stats")
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class UserRunStats {
+
+    @EmbeddedId
+    private UserRunStatsId id;
+    @Column(name = "total_runs")
+    private Long totalRuns;
+    @Column(name = "total_distance")
+    private Double totalDistance;
+    @Column(name = "sum_average_speed")
+    private Double sumAverageSpeed;
+}
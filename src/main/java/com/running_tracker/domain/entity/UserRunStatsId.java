@@ -0,0 +1,35 @@
+package com.running_tracker.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Identifies one statistics bucket of a user.
+ */
+@Embeddable
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class UserRunStatsId implements Serializable {
+
+    @Column(name = "user_id")
+    private UUID userId;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "bucket_type")
+    private StatisticsBucketType bucketType;
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+}
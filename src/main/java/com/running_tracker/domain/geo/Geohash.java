@@ -0,0 +1,130 @@
+package com.running_tracker.domain.geo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Geohashes of run locations as 60-bit integers, the bits of the 12-character base32 geohash: 30 longitude and 30
+ * latitude bits interleaved, longitude first, which locates a point to a few centimeters. The geohashes of a cell at
+ * any coarser level share a prefix and so form one range of values, which a B-tree index answers with a range scan.
+ */
+public final class Geohash {
+
+    public static final int BITS_PER_AXIS = 30;
+
+    // Spherical degrees, the same earth radius as the haversine distances
+    private static final double METERS_PER_DEGREE = 6_371_000 * Math.PI / 180;
+
+    private Geohash() {
+    }
+
+    /**
+     * Returns the geohash of a point.
+     */
+    public static long encode(double latitude, double longitude) {
+        return interleave(cell(longitude, -180, 360, BITS_PER_AXIS), cell(latitude, -90, 180, BITS_PER_AXIS));
+    }
+
+    /**
+     * Returns the geohash of a point, or null when the point is not recorded.
+     */
+    public static Long of(Double latitude, Double longitude) {
+        return latitude == null || longitude == null ? null : encode(latitude, longitude);
+    }
+
+    /**
+     * Returns ranges of geohashes that contain every point within the radius of the center: the cells of the finest
+     * level at which at most the given number of cells cover the bounding box of the circle, adjacent cells merged.
+     * Points in the ranges may still be farther than the radius.
+     *
+     * @param radiusMeters the radius of the circle
+     * @param maxCells the most cells to cover the circle with, more cells fit it tighter but need more range scans
+     */
+    public static List<GeohashRange> cover(double latitude, double longitude, double radiusMeters, int maxCells) {
+        double latitudeDelta = radiusMeters / METERS_PER_DEGREE;
+        double south = Math.max(latitude - latitudeDelta, -90);
+        double north = Math.min(latitude + latitudeDelta, 90);
+
+        // Meridians converge, the edge of the box farthest from the equator needs the widest longitude span
+        double cosine = Math.cos(Math.toRadians(Math.max(Math.abs(south), Math.abs(north))));
+        double longitudeDelta = cosine > 0 ? latitudeDelta / cosine : 360;
+        List<double[]> longitudeSpans = new ArrayList<>();
+        if (longitudeDelta >= 180) {
+            longitudeSpans.add(new double[]{-180, 180});
+        } else if (longitude - longitudeDelta < -180) {
+            longitudeSpans.add(new double[]{longitude - longitudeDelta + 360, 180});
+            longitudeSpans.add(new double[]{-180, longitude + longitudeDelta});
+        } else if (longitude + longitudeDelta > 180) {
+            longitudeSpans.add(new double[]{longitude - longitudeDelta, 180});
+            longitudeSpans.add(new double[]{-180, longitude + longitudeDelta - 360});
+        } else {
+            longitudeSpans.add(new double[]{longitude - longitudeDelta, longitude + longitudeDelta});
+        }
+
+        int bits = BITS_PER_AXIS;
+        while (bits > 0 && countCells(south, north, longitudeSpans, bits) > maxCells) {
+            bits--;
+        }
+
+        List<GeohashRange> cells = new ArrayList<>();
+        int shift = 2 * (BITS_PER_AXIS - bits);
+        for (long latitudeCell = cell(south, -90, 180, bits); latitudeCell <= cell(north, -90, 180, bits); latitudeCell++) {
+            for (double[] span : longitudeSpans) {
+                for (long longitudeCell = cell(span[0], -180, 360, bits); longitudeCell <= cell(span[1], -180, 360, bits); longitudeCell++) {
+                    long prefix = interleave(longitudeCell, latitudeCell);
+                    cells.add(new GeohashRange(prefix << shift, (prefix + 1) << shift));
+                }
+            }
+        }
+        return merge(cells);
+    }
+
+    private static long countCells(double south, double north, List<double[]> longitudeSpans, int bits) {
+        long longitudeCells = 0;
+        for (double[] span : longitudeSpans) {
+            longitudeCells += cell(span[1], -180, 360, bits) - cell(span[0], -180, 360, bits) + 1;
+        }
+        return (cell(north, -90, 180, bits) - cell(south, -90, 180, bits) + 1) * longitudeCells;
+    }
+
+    // Cells that follow each other in geohash order are scanned as one range
+    private static List<GeohashRange> merge(List<GeohashRange> cells) {
+        cells.sort(Comparator.comparingLong(GeohashRange::getFrom));
+        List<GeohashRange> ranges = new ArrayList<>();
+        GeohashRange current = cells.get(0);
+        for (int i = 1; i < cells.size(); i++) {
+            GeohashRange next = cells.get(i);
+            if (next.getFrom() <= current.getTo()) {
+                current = new GeohashRange(current.getFrom(), Math.max(current.getTo(), next.getTo()));
+            } else {
+                ranges.add(current);
+                current = next;
+            }
+        }
+        ranges.add(current);
+        return ranges;
+    }
+
+    // Index of the cell of a coordinate among 2^bits along its axis; the upper bound belongs to the last cell
+    private static long cell(double value, double min, double span, int bits) {
+        long cells = 1L << bits;
+        long cell = (long) Math.floor((value - min) / span * cells);
+        return Math.min(Math.max(cell, 0), cells - 1);
+    }
+
+    private static long interleave(long longitudeCell, long latitudeCell) {
+        return spread(longitudeCell) << 1 | spread(latitudeCell);
+    }
+
+    // Moves bit i of the value to bit 2i
+    private static long spread(long value) {
+        value &= 0xFFFFFFFFL;
+        value = (value | value << 16) & 0x0000FFFF0000FFFFL;
+        value = (value | value << 8) & 0x00FF00FF00FF00FFL;
+        value = (value | value << 4) & 0x0F0F0F0F0F0F0F0FL;
+        value = (value | value << 2) & 0x3333333333333333L;
+        value = (value | value << 1) & 0x5555555555555555L;
+        return value;
+    }
+}
@@ -0,0 +1,19 @@
+package com.running_tracker.domain.geo;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The geohashes of one or more adjacent cells, from inclusive to exclusive.
+ */
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class GeohashRange {
+
+    private final long from;
+    private final long to;
+}
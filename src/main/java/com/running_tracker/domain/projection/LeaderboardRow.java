@@ -0,0 +1,27 @@
+package com.running_tracker.domain.projection;
+
+import com.running_tracker.domain.entity.StatisticsBucketType;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The totals of one user within one week or month, with the cohort columns of the user. Read from the JDBC cursor
+ * into the same instance for every row.
+ */
+@Getter
+@Setter
+public class LeaderboardRow {
+
+    private StatisticsBucketType period;
+    private LocalDateTime periodStart;
+    private UUID userId;
+    private String sex;
+    private LocalDate birthDate;
+    private long totalRuns;
+    private double totalDistance;
+    private double averageSpeed;
+}
@@ -0,0 +1,27 @@
+package com.running_tracker.domain.projection;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One exported run, read from the JDBC cursor into the same instance for every row.
+ * Missing finish coordinates, distance and average speed are NaN.
+ */
+@Getter
+@Setter
+public class RunExportRow {
+
+    private UUID id;
+    private UUID userId;
+    private LocalDateTime startDatetime;
+    private double startLatitude;
+    private double startLongitude;
+    private LocalDateTime finishDatetime;
+    private double finishLatitude;
+    private double finishLongitude;
+    private double distance;
+    private double averageSpeed;
+}
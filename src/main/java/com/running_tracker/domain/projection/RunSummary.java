@@ -0,0 +1,28 @@
+package com.running_tracker.domain.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The columns of a run that listings return and bulk imports write, without going through {@code Run} entities.
+ */
+@AllArgsConstructor
+@Getter
+public class RunSummary {
+
+    private final UUID id;
+    private final UUID userId;
+    private final Double startLatitude;
+    private final Double startLongitude;
+    private final LocalDateTime startDatetime;
+    private final Double finishLatitude;
+    private final Double finishLongitude;
+    private final LocalDateTime finishDatetime;
+    private final Double distance;
+    private final String distanceUnit;
+    private final Double averageSpeed;
+    private final String averageSpeedUnit;
+}
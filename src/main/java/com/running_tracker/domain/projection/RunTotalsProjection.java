@@ -0,0 +1,14 @@
+package com.running_tracker.domain.projection;
+
+/**
+ * Additive run totals, either aggregated from raw runs or from pre-aggregated statistics buckets.
+ * Unlike an average, totals of disjoint time ranges can simply be summed.
+ */
+public interface RunTotalsProjection {
+
+    Long getTotalRuns();
+
+    Double getTotalDistance();
+
+    Double getSumAverageSpeed();
+}
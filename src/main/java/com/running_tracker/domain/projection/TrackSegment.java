@@ -0,0 +1,22 @@
+package com.running_tracker.domain.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * A contiguous run of track points of one run, held as parallel primitive column arrays.
+ * Only the first {@code size} entries of each array are meaningful; a missing elevation is {@code NaN}.
+ */
+@AllArgsConstructor
+@Getter
+public class TrackSegment {
+
+    private final UUID runId;
+    private final int size;
+    private final long[] recordedAtMillis;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] elevations;
+}
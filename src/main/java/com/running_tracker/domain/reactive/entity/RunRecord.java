@@ -0,0 +1,65 @@
+package com.running_tracker.domain.reactive.entity;
+
+import com.running_tracker.domain.id.UuidV7;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A row of the runs table as read and written by the R2DBC repositories of the reactive profile.
+ * The user is referenced by its id only, R2DBC maps no relations.
+ */
+@Table("runs")
+@NoArgsConstructor
+@Getter
+@Setter
+public class RunRecord implements Persistable<UUID> {
+
+    @Id
+    private UUID id;
+    private UUID userId;
+    private Double startLatitude;
+    private Double startLongitude;
+    private LocalDateTime startDatetime;
+    private Double finishLatitude;
+    private Double finishLongitude;
+    private LocalDateTime finishDatetime;
+    private Long startGeohash;
+    private Long finishGeohash;
+    private Double distance;
+    private String distanceUnit;
+    private Double averageSpeed;
+    private String averageSpeedUnit;
+    // Shares the optimistic lock of the JPA entity
+    @Version
+    private Long version;
+
+    // Ids are assigned by the application, so an id alone does not tell an insert from an update
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newRecord;
+
+    /**
+     * Assigns a new id; the next save inserts the run.
+     */
+    public RunRecord asNew() {
+        id = UuidV7.randomUUID();
+        newRecord = true;
+        return this;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+}
@@ -0,0 +1,51 @@
+package com.running_tracker.domain.reactive.entity;
+
+import com.running_tracker.domain.id.UuidV7;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A row of the users table as read and written by the R2DBC repositories of the reactive profile.
+ */
+@Table("users")
+@NoArgsConstructor
+@Getter
+@Setter
+public class UserRecord implements Persistable<UUID> {
+
+    @Id
+    private UUID id;
+    private String firstName;
+    private String lastName;
+    private LocalDate birthDate;
+    private String sex;
+
+    // Ids are assigned by the application, so an id alone does not tell an insert from an update
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newRecord;
+
+    /**
+     * Assigns a new id; the next save inserts the user.
+     */
+    public UserRecord asNew() {
+        id = UuidV7.randomUUID();
+        newRecord = true;
+        return this;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+}
@@ -0,0 +1,53 @@
+package com.running_tracker.domain.reactive.repository;
+
+import com.running_tracker.domain.projection.RunSummary;
+import com.running_tracker.domain.reactive.entity.RunRecord;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * R2DBC counterpart of {@link com.running_tracker.domain.repository.RunRepository} for the reactive profile,
+ * with the same queries over the same columns.
+ */
+public interface ReactiveRunRepository extends R2dbcRepository<RunRecord, UUID>, ReactiveRunStreamRepository {
+
+    /**
+     * Selects exactly the columns of a listed run.
+     */
+    String SELECT_RUN_SUMMARY = "SELECT id, user_id, start_latitude, start_longitude, start_datetime, " +
+            "finish_latitude, finish_longitude, finish_datetime, " +
+            "distance, distance_unit, average_speed, average_speed_unit FROM runs ";
+
+    @Query(SELECT_RUN_SUMMARY + "WHERE user_id = :userId " +
+            "AND start_datetime BETWEEN :fromDatetime AND :toDatetime " +
+            "ORDER BY start_datetime, id")
+    Flux<RunSummary> findSummariesByUserIdAndStartDatetimeBetween(@Param("userId") UUID userId,
+                                                                  @Param("fromDatetime") LocalDateTime fromDatetime,
+                                                                  @Param("toDatetime") LocalDateTime toDatetime);
+
+    @Query(SELECT_RUN_SUMMARY + "WHERE user_id = :userId ORDER BY start_datetime, id")
+    Flux<RunSummary> findSummariesByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Locks the row of a run until the transaction ends, see {@link com.running_tracker.domain.repository.RunRepository#lockFinishedById}.
+     */
+    @Query("SELECT finish_datetime IS NOT NULL FROM runs WHERE id = :id FOR UPDATE")
+    Mono<Boolean> lockFinishedById(@Param("id") UUID id);
+
+    @Query(SELECT_RUN_SUMMARY + "WHERE user_id = :userId " +
+            "AND start_datetime BETWEEN :fromDatetime AND :toDatetime " +
+            "AND (start_datetime > :afterStartDatetime OR (start_datetime = :afterStartDatetime AND id > :afterId)) " +
+            "ORDER BY start_datetime, id LIMIT :limit")
+    Flux<RunSummary> findSummaryPageByUserIdAndStartDatetimeBetween(@Param("userId") UUID userId,
+                                                                    @Param("fromDatetime") LocalDateTime fromDatetime,
+                                                                    @Param("toDatetime") LocalDateTime toDatetime,
+                                                                    @Param("afterStartDatetime") LocalDateTime afterStartDatetime,
+                                                                    @Param("afterId") UUID afterId,
+                                                                    @Param("limit") int limit);
+}
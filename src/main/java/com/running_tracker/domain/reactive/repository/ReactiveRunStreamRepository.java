@@ -0,0 +1,26 @@
+package com.running_tracker.domain.reactive.repository;
+
+import com.running_tracker.domain.projection.RunSummary;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Demand driven read of a user's runs for streamed listings.
+ */
+public interface ReactiveRunStreamRepository {
+
+    /**
+     * Emits the user's runs started within the time range, ordered by start datetime. Rows are fetched in chunks as
+     * the subscriber requests them, so a slow client holds back the reads instead of buffering the history.
+     * PostgreSQL only keeps a cursor open inside a transaction; outside of one the driver reads the whole result.
+     *
+     * @param userId the ID of the user
+     * @param fromDatetime the inclusive start of the time range
+     * @param toDatetime the inclusive end of the time range
+     * @return the runs in order
+     */
+    Flux<RunSummary> streamSummariesByUserIdAndStartDatetimeBetween(UUID userId, LocalDateTime fromDatetime,
+                                                                    LocalDateTime toDatetime);
+}
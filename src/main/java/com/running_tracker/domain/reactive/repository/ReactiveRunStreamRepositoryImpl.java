@@ -0,0 +1,50 @@
+package com.running_tracker.domain.reactive.repository;
+
+import com.running_tracker.domain.projection.RunSummary;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class ReactiveRunStreamRepositoryImpl implements ReactiveRunStreamRepository {
+
+    // Rows per round trip of the cursor, the same as the fetch size of the servlet stream
+    private static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_STREAM_SQL = ReactiveRunRepository.SELECT_RUN_SUMMARY +
+            "WHERE user_id = :userId AND start_datetime BETWEEN :fromDatetime AND :toDatetime ORDER BY start_datetime, id";
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Flux<RunSummary> streamSummariesByUserIdAndStartDatetimeBetween(UUID userId, LocalDateTime fromDatetime,
+                                                                           LocalDateTime toDatetime) {
+        return databaseClient.sql(SELECT_STREAM_SQL)
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .bind("userId", userId)
+                .bind("fromDatetime", fromDatetime)
+                .bind("toDatetime", toDatetime)
+                .map(ReactiveRunStreamRepositoryImpl::toRunSummary)
+                .all();
+    }
+
+    private static RunSummary toRunSummary(Readable row) {
+        return new RunSummary(
+                row.get("id", UUID.class),
+                row.get("user_id", UUID.class),
+                row.get("start_latitude", Double.class),
+                row.get("start_longitude", Double.class),
+                row.get("start_datetime", LocalDateTime.class),
+                row.get("finish_latitude", Double.class),
+                row.get("finish_longitude", Double.class),
+                row.get("finish_datetime", LocalDateTime.class),
+                row.get("distance", Double.class),
+                row.get("distance_unit", String.class),
+                row.get("average_speed", Double.class),
+                row.get("average_speed_unit", String.class));
+    }
+}
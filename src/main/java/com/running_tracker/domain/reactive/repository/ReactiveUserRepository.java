@@ -0,0 +1,20 @@
+package com.running_tracker.domain.reactive.repository;
+
+import com.running_tracker.domain.reactive.entity.UserRecord;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * R2DBC counterpart of {@link com.running_tracker.domain.repository.UserRepository} for the reactive profile.
+ */
+public interface ReactiveUserRepository extends R2dbcRepository<UserRecord, UUID> {
+
+    @Modifying
+    @Query("UPDATE users SET run_change_count = run_change_count + 1 WHERE id = :id")
+    Mono<Integer> incrementRunChangeCount(@Param("id") UUID id);
+}
@@ -0,0 +1,40 @@
+package com.running_tracker.domain.repository;
+
+import com.running_tracker.domain.entity.StatisticsBucketType;
+import com.running_tracker.domain.projection.LeaderboardRow;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * JDBC access to the weekly and monthly totals leaderboards are built from, never reading the runs.
+ */
+public interface LeaderboardRepository {
+
+    /**
+     * Refreshes the leaderboard_entries materialized view from the statistics rollup without blocking its readers,
+     * PostgreSQL only.
+     */
+    void refreshLeaderboardEntries();
+
+    /**
+     * Reads the leaderboard_entries of one week or month in fetch size chunks.
+     *
+     * @param period the granularity, WEEK or MONTH
+     * @param periodStart the start of the week or month
+     * @param consumer receives each entry; the row is reused, so it must not be retained
+     */
+    void streamLeaderboardEntries(StatisticsBucketType period, LocalDateTime periodStart, Consumer<LeaderboardRow> consumer);
+
+    /**
+     * Reads the current totals of a user within one week and one month from the statistics rollup itself, which
+     * the materialized view only catches up with on its next refresh.
+     *
+     * @param userId the ID of the user
+     * @param weekStart the start of the week
+     * @param monthStart the start of the month
+     * @param consumer receives the totals of each period the user has runs in; the row is reused
+     */
+    void findLeaderboardEntries(UUID userId, LocalDateTime weekStart, LocalDateTime monthStart, Consumer<LeaderboardRow> consumer);
+}
@@ -0,0 +1,74 @@
+package com.running_tracker.domain.repository;
+
+import com.running_tracker.domain.entity.StatisticsBucketType;
+import com.running_tracker.domain.projection.LeaderboardRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class LeaderboardRepositoryImpl implements LeaderboardRepository {
+
+    // Rows per round trip of the cursor, bounds the driver side buffer
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String REFRESH_SQL = "REFRESH MATERIALIZED VIEW CONCURRENTLY leaderboard_entries";
+    private static final String SELECT_ENTRIES_SQL = "SELECT period, period_start, user_id, sex, birth_date, " +
+            "total_runs, total_distance, average_speed FROM leaderboard_entries " +
+            "WHERE period = ? AND period_start = ?";
+    // The same columns as the view, for the two rollup rows of the user found by primary key
+    private static final String SELECT_USER_ENTRIES_SQL = "SELECT s.bucket_type, s.bucket_start, s.user_id, u.sex, " +
+            "u.birth_date, s.total_runs, s.total_distance, s.sum_average_speed / s.total_runs " +
+            "FROM user_run_stats s JOIN users u ON u.id = s.user_id " +
+            "WHERE s.user_id = ? AND s.total_runs > 0 AND ((s.bucket_type = 'WEEK' AND s.bucket_start = ?) " +
+            "OR (s.bucket_type = 'MONTH' AND s.bucket_start = ?))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void refreshLeaderboardEntries() {
+        jdbcTemplate.execute(REFRESH_SQL);
+    }
+
+    @Override
+    public void streamLeaderboardEntries(StatisticsBucketType period, LocalDateTime periodStart, Consumer<LeaderboardRow> consumer) {
+        LeaderboardRow row = new LeaderboardRow();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ENTRIES_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setString(1, period.name());
+            statement.setObject(2, periodStart);
+            return statement;
+        }, resultSet -> {
+            consumer.accept(read(resultSet, row));
+        });
+    }
+
+    @Override
+    public void findLeaderboardEntries(UUID userId, LocalDateTime weekStart, LocalDateTime monthStart, Consumer<LeaderboardRow> consumer) {
+        LeaderboardRow row = new LeaderboardRow();
+        jdbcTemplate.query(SELECT_USER_ENTRIES_SQL, resultSet -> {
+            consumer.accept(read(resultSet, row));
+        }, userId, weekStart, monthStart);
+    }
+
+    private static LeaderboardRow read(ResultSet resultSet, LeaderboardRow row) throws SQLException {
+        row.setPeriod(StatisticsBucketType.valueOf(resultSet.getString(1)));
+        row.setPeriodStart(resultSet.getObject(2, LocalDateTime.class));
+        row.setUserId(resultSet.getObject(3, UUID.class));
+        row.setSex(resultSet.getString(4));
+        row.setBirthDate(resultSet.getObject(5, LocalDate.class));
+        row.setTotalRuns(resultSet.getLong(6));
+        row.setTotalDistance(resultSet.getDouble(7));
+        row.setAverageSpeed(resultSet.getDouble(8));
+        return row;
+    }
+}
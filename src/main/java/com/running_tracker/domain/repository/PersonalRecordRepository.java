@@ -0,0 +1,44 @@
+package com.running_tracker.domain.repository;
+
+import com.running_tracker.domain.entity.PersonalRecord;
+import com.running_tracker.domain.entity.PersonalRecordId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface PersonalRecordRepository extends JpaRepository<PersonalRecord, PersonalRecordId> {
+
+    /**
+     * Makes an effort of a run the record of the run's user over the distance unless the record is at least as fast,
+     * in one statement, so a run finishing concurrently cannot replace a faster record with a slower one.
+     *
+     * @return 1 if the effort became the record, 0 otherwise
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO personal_records " +
+            "(user_id, record_distance, run_id, elapsed_millis, achieved_at) " +
+            "SELECT user_id, :distance, id, :elapsedMillis, :achievedAt FROM runs WHERE id = :runId " +
+            "ON CONFLICT (user_id, record_distance) DO UPDATE SET " +
+            "run_id = EXCLUDED.run_id, elapsed_millis = EXCLUDED.elapsed_millis, achieved_at = EXCLUDED.achieved_at " +
+            "WHERE personal_records.elapsed_millis > EXCLUDED.elapsed_millis")
+    int offerEffort(@Param("runId") UUID runId,
+                    @Param("distance") String distance,
+                    @Param("elapsedMillis") long elapsedMillis,
+                    @Param("achievedAt") LocalDateTime achievedAt);
+
+    /**
+     * Finds the records of a user, at most one per distance, with a range scan of the primary key. Distances are stored
+     * by name, so the records come in no particular order.
+     */
+    @Query("select p from PersonalRecord p where p.id.userId = :userId")
+    List<PersonalRecord> findAllByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("delete from PersonalRecord p where p.id.userId = :userId")
+    void deleteAllByUserId(@Param("userId") UUID userId);
+}
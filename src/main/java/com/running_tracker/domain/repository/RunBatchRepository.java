@@ -0,0 +1,18 @@
+package com.running_tracker.domain.repository;
+
+import com.running_tracker.domain.projection.RunSummary;
+
+import java.util.List;
+
+/**
+ * JDBC writes of runs, bypassing the persistence context for bulk imports.
+ */
+public interface RunBatchRepository {
+
+    /**
+     * Inserts the runs with JDBC batches in one transaction, so either all of them are written or none.
+     *
+     * @param runs the runs to insert, with their ids assigned
+     */
+    void insertAll(List<RunSummary> runs);
+}
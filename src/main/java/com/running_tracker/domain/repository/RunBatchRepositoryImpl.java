@@ -0,0 +1,59 @@
+package com.running_tracker.domain.repository;
+
+import com.running_tracker.domain.geo.Geohash;
+import com.running_tracker.domain.projection.RunSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class RunBatchRepositoryImpl implements RunBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO runs (id, user_id, start_latitude, start_longitude, start_datetime, " +
+            "finish_latitude, finish_longitude, finish_datetime, distance, distance_unit, average_speed, average_speed_unit, " +
+            "start_geohash, finish_geohash) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void insertAll(List<RunSummary> runs) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, new RunBatch(runs));
+    }
+
+    @RequiredArgsConstructor
+    private static final class RunBatch implements BatchPreparedStatementSetter {
+
+        private final List<RunSummary> runs;
+
+        @Override
+        public void setValues(PreparedStatement statement, int i) throws SQLException {
+            // LocalDateTime binds as TIMESTAMP directly, Timestamp.valueOf goes through the default time zone calendar
+            RunSummary run = runs.get(i);
+            statement.setObject(1, run.getId());
+            statement.setObject(2, run.getUserId());
+            statement.setDouble(3, run.getStartLatitude());
+            statement.setDouble(4, run.getStartLongitude());
+            statement.setObject(5, run.getStartDatetime());
+            statement.setDouble(6, run.getFinishLatitude());
+            statement.setDouble(7, run.getFinishLongitude());
+            statement.setObject(8, run.getFinishDatetime());
+            statement.setDouble(9, run.getDistance());
+            statement.setString(10, run.getDistanceUnit());
+            statement.setDouble(11, run.getAverageSpeed());
+            statement.setString(12, run.getAverageSpeedUnit());
+            statement.setLong(13, Geohash.encode(run.getStartLatitude(), run.getStartLongitude()));
+            statement.setLong(14, Geohash.encode(run.getFinishLatitude(), run.getFinishLongitude()));
+        }
+
+        @Override
+        public int getBatchSize() {
+            return runs.size();
+        }
+    }
+}
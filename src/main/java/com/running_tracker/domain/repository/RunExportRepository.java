@@ -0,0 +1,25 @@
+package com.running_tracker.domain.repository;
+
+import com.running_tracker.domain.projection.RunExportRow;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * JDBC cursor over runs for exports, no entities or projections are created per run.
+ */
+public interface RunExportRepository {
+
+    /**
+     * Reads the user's runs started within the time range, ordered by start datetime, in fetch size chunks.
+     * PostgreSQL only keeps a cursor open inside a transaction; outside of one the driver reads the whole result.
+     *
+     * @param userId the ID of the user
+     * @param fromDatetime the inclusive start of the time range
+     * @param toDatetime the inclusive end of the time range
+     * @param consumer receives each run; the row is reused, so it must not be retained
+     */
+    void exportByUserIdAndStartDatetimeBetween(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime,
+                                               Consumer<RunExportRow> consumer);
+}
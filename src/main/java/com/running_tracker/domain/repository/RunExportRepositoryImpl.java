@@ -0,0 +1,57 @@
+package com.running_tracker.domain.repository;
+
+import com.running_tracker.domain.projection.RunExportRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class RunExportRepositoryImpl implements RunExportRepository {
+
+    // Rows per round trip of the cursor, bounds the driver side buffer
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String SELECT_EXPORT_SQL = "SELECT id, start_datetime, start_latitude, start_longitude, " +
+            "finish_datetime, finish_latitude, finish_longitude, distance, average_speed FROM runs " +
+            "WHERE user_id = ? AND start_datetime BETWEEN ? AND ? ORDER BY start_datetime, id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void exportByUserIdAndStartDatetimeBetween(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime,
+                                                      Consumer<RunExportRow> consumer) {
+        RunExportRow row = new RunExportRow();
+        row.setUserId(userId);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setObject(1, userId);
+            statement.setObject(2, fromDatetime);
+            statement.setObject(3, toDatetime);
+            return statement;
+        }, resultSet -> {
+            row.setId(resultSet.getObject(1, UUID.class));
+            row.setStartDatetime(resultSet.getObject(2, LocalDateTime.class));
+            row.setStartLatitude(resultSet.getDouble(3));
+            row.setStartLongitude(resultSet.getDouble(4));
+            row.setFinishDatetime(resultSet.getObject(5, LocalDateTime.class));
+            row.setFinishLatitude(doubleOrNaN(resultSet, 6));
+            row.setFinishLongitude(doubleOrNaN(resultSet, 7));
+            row.setDistance(doubleOrNaN(resultSet, 8));
+            row.setAverageSpeed(doubleOrNaN(resultSet, 9));
+            consumer.accept(row);
+        });
+    }
+
+    private static double doubleOrNaN(ResultSet resultSet, int column) throws SQLException {
+        double value = resultSet.getDouble(column);
+        return resultSet.wasNull() ? Double.NaN : value;
+    }
+}
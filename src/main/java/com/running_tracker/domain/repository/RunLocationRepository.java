@@ -0,0 +1,29 @@
+package com.running_tracker.domain.repository;
+
+import com.running_tracker.domain.geo.GeohashRange;
+import com.running_tracker.domain.projection.RunSummary;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * JDBC reads and writes of the geohashes of run start and finish points, see {@code Geohash}.
+ */
+public interface RunLocationRepository {
+
+    /**
+     * Reads the runs that start or finish within any of the geohash ranges, with range scans of the geohash indexes.
+     *
+     * @param ranges the geohash ranges, not overlapping
+     * @param consumer receives each run once, in no particular order
+     */
+    void findByGeohashRanges(List<GeohashRange> ranges, Consumer<RunSummary> consumer);
+
+    /**
+     * Fills in the geohashes of runs written before geohashes were kept, in one transaction.
+     *
+     * @param batchSize the most runs to update
+     * @return the number of runs updated, 0 once every run with a start point has its geohashes
+     */
+    int backfillGeohashes(int batchSize);
+}
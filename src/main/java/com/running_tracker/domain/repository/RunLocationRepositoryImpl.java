@@ -0,0 +1,99 @@
+package com.running_tracker.domain.repository;
+
+import com.running_tracker.domain.geo.Geohash;
+import com.running_tracker.domain.geo.GeohashRange;
+import com.running_tracker.domain.projection.RunSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class RunLocationRepositoryImpl implements RunLocationRepository {
+
+    // Rows per round trip of the cursor, bounds the driver side buffer
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String SELECT_RUN_SUMMARY_SQL = "SELECT id, user_id, start_latitude, start_longitude, start_datetime, " +
+            "finish_latitude, finish_longitude, finish_datetime, distance, distance_unit, average_speed, average_speed_unit " +
+            "FROM runs WHERE ";
+
+    private static final String SELECT_MISSING_GEOHASHES_SQL = "SELECT id, start_datetime, start_latitude, start_longitude, " +
+            "finish_latitude, finish_longitude FROM runs WHERE start_geohash IS NULL AND start_latitude IS NOT NULL " +
+            "AND start_longitude IS NOT NULL AND start_datetime IS NOT NULL LIMIT ?";
+
+    // A finish meanwhile wrote the finish geohash of its own point, which is kept; start points never change
+    private static final String UPDATE_GEOHASHES_SQL = "UPDATE runs SET start_geohash = ?, " +
+            "finish_geohash = COALESCE(finish_geohash, ?) WHERE id = ? AND start_datetime = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void findByGeohashRanges(List<GeohashRange> ranges, Consumer<RunSummary> consumer) {
+        // One OR of index ranges per column, PostgreSQL combines the index scans in a bitmap, so a run that both
+        // starts and finishes within the ranges is read once
+        StringJoiner where = new StringJoiner(" OR ");
+        for (String column : List.of("start_geohash", "finish_geohash")) {
+            for (int i = 0; i < ranges.size(); i++) {
+                where.add("(" + column + " >= ? AND " + column + " < ?)");
+            }
+        }
+        String sql = SELECT_RUN_SUMMARY_SQL + where;
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            int parameter = 1;
+            for (int column = 0; column < 2; column++) {
+                for (GeohashRange range : ranges) {
+                    statement.setLong(parameter++, range.getFrom());
+                    statement.setLong(parameter++, range.getTo());
+                }
+            }
+            return statement;
+        }, resultSet -> {
+            consumer.accept(new RunSummary(
+                    resultSet.getObject(1, UUID.class),
+                    resultSet.getObject(2, UUID.class),
+                    doubleOrNull(resultSet, 3),
+                    doubleOrNull(resultSet, 4),
+                    resultSet.getObject(5, LocalDateTime.class),
+                    doubleOrNull(resultSet, 6),
+                    doubleOrNull(resultSet, 7),
+                    resultSet.getObject(8, LocalDateTime.class),
+                    doubleOrNull(resultSet, 9),
+                    resultSet.getString(10),
+                    doubleOrNull(resultSet, 11),
+                    resultSet.getString(12)));
+        });
+    }
+
+    @Override
+    @Transactional
+    public int backfillGeohashes(int batchSize) {
+        // The start datetime lets PostgreSQL update the run in its partition only
+        List<Object[]> updates = jdbcTemplate.query(SELECT_MISSING_GEOHASHES_SQL, (resultSet, rowNumber) -> new Object[]{
+                Geohash.encode(resultSet.getDouble(3), resultSet.getDouble(4)),
+                Geohash.of(doubleOrNull(resultSet, 5), doubleOrNull(resultSet, 6)),
+                resultSet.getObject(1, UUID.class),
+                resultSet.getObject(2, LocalDateTime.class)
+        }, batchSize);
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_GEOHASHES_SQL, updates);
+        }
+        return updates.size();
+    }
+
+    private static Double doubleOrNull(ResultSet resultSet, int column) throws SQLException {
+        double value = resultSet.getDouble(column);
+        return resultSet.wasNull() ? null : value;
+    }
+}
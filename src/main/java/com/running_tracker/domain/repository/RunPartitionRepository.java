@@ -0,0 +1,50 @@
+package com.running_tracker.domain.repository;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Maintenance of the monthly range partitions of the runs table, PostgreSQL only.
+ */
+public interface RunPartitionRepository {
+
+    /**
+     * Tells whether the runs table is partitioned, which it is only on PostgreSQL after the partitioning migration.
+     *
+     * @return true if the runs table is a partitioned table
+     */
+    boolean isPartitioned();
+
+    /**
+     * Lists the months that have a partition attached to the runs table, the default partition excluded.
+     *
+     * @return the partitioned months in ascending order
+     */
+    List<YearMonth> findMonthlyPartitions();
+
+    /**
+     * Creates and attaches the partition holding the runs started within the month. Runs of the month already in the
+     * default partition are moved into it.
+     *
+     * @param month the month of the partition
+     */
+    void createMonthlyPartition(YearMonth month);
+
+    /**
+     * Detaches the partition of the month and renames it with the archive prefix. The archived table keeps its
+     * runs, which are no longer visible to the service, until it is dumped or dropped. Their ids are released, which
+     * deletes their track points and splits.
+     *
+     * @param month the month of the partition
+     */
+    void detachMonthlyPartition(YearMonth month);
+
+    /**
+     * Lists the users with runs in the archived partition of the month.
+     *
+     * @param month the month of the archived partition
+     * @return the ids of the users
+     */
+    List<UUID> findArchivedUserIds(YearMonth month);
+}
@@ -0,0 +1,97 @@
+package com.running_tracker.domain.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@RequiredArgsConstructor
+public class RunPartitionRepositoryImpl implements RunPartitionRepository {
+
+    // Partition names follow the migration that created the first partitions: runs_2024_09
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("runs_(\\d{4})_(\\d{2})");
+
+    private static final String IS_PARTITIONED_SQL = "SELECT COUNT(*) FROM pg_partitioned_table " +
+            "WHERE partrelid = to_regclass('runs')";
+    private static final String SELECT_PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'runs'::regclass";
+    // PostgreSQL refuses a partition for rows the default partition holds, so they are moved into the new table before
+    // it is attached. One statement, so the steps commit together; the lock keeps runs of the month from landing in
+    // the default partition meanwhile.
+    private static final String CREATE_PARTITION_SQL = "DO $$ BEGIN " +
+            "LOCK TABLE runs_default IN SHARE ROW EXCLUSIVE MODE; " +
+            "CREATE TABLE %1$s (LIKE runs INCLUDING DEFAULTS); " +
+            "WITH moved AS (DELETE FROM runs_default WHERE start_datetime >= '%2$s' AND start_datetime < '%3$s' RETURNING *) " +
+            "INSERT INTO %1$s SELECT * FROM moved; " +
+            "ALTER TABLE runs ATTACH PARTITION %1$s FOR VALUES FROM ('%2$s') TO ('%3$s'); " +
+            "END $$";
+    private static final String DETACH_PARTITION_SQL = "ALTER TABLE runs DETACH PARTITION %s";
+    private static final String ARCHIVE_PARTITION_SQL = "ALTER TABLE %s RENAME TO %s";
+    // Detaching deletes no rows, so no trigger releases the ids; their track points and splits go with them
+    private static final String RELEASE_ARCHIVED_IDS_SQL = "DELETE FROM run_ids WHERE id IN (SELECT id FROM %s)";
+    private static final String SELECT_ARCHIVED_USERS_SQL = "SELECT DISTINCT user_id FROM %s";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean isPartitioned() {
+        try {
+            return jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Integer.class) > 0;
+        } catch (BadSqlGrammarException exception) {
+            // A database without the PostgreSQL catalog has no partitions
+            return false;
+        }
+    }
+
+    @Override
+    public List<YearMonth> findMonthlyPartitions() {
+        return jdbcTemplate.queryForList(SELECT_PARTITIONS_SQL, String.class).stream()
+                .map(RunPartitionRepositoryImpl::parseMonth)
+                .filter(Objects::nonNull)
+                .sorted()
+                .toList();
+    }
+
+    @Override
+    public void createMonthlyPartition(YearMonth month) {
+        // DDL takes no bind parameters; the name and bounds are formatted from the month only
+        jdbcTemplate.execute(String.format(CREATE_PARTITION_SQL, partitionName(month),
+                month.atDay(1), month.plusMonths(1).atDay(1)));
+    }
+
+    @Override
+    public void detachMonthlyPartition(YearMonth month) {
+        jdbcTemplate.execute(String.format(DETACH_PARTITION_SQL, partitionName(month)));
+        jdbcTemplate.execute(String.format(ARCHIVE_PARTITION_SQL, partitionName(month), archiveName(month)));
+        jdbcTemplate.execute(String.format(RELEASE_ARCHIVED_IDS_SQL, archiveName(month)));
+    }
+
+    @Override
+    public List<UUID> findArchivedUserIds(YearMonth month) {
+        return jdbcTemplate.queryForList(String.format(SELECT_ARCHIVED_USERS_SQL, archiveName(month)), UUID.class);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "runs_" + month.format(PARTITION_SUFFIX);
+    }
+
+    private static String archiveName(YearMonth month) {
+        return "archived_" + partitionName(month);
+    }
+
+    private static YearMonth parseMonth(String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+}
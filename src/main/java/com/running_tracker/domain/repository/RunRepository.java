@@ -1,17 +1,90 @@
 package com.running_tracker.domain.repository;
 
 import com.running_tracker.domain.entity.Run;
-import org.springframework.data.domain.Page;
+import com.running_tracker.domain.projection.RunSummary;
+import com.running_tracker.domain.projection.RunTotalsProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface RunRepository extends JpaRepository<Run, UUID> {
+public interface RunRepository extends JpaRepository<Run, UUID>, RunBatchRepository, RunExportRepository, RunPartitionRepository,
+        RunLocationRepository {
 
-    List<Run> findAllByUserIdAndStartDatetimeBetween(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime);
+    /**
+     * Selects exactly the columns of a listed run; {@code r.user.id} reads the foreign key column without joining users.
+     */
+    String SELECT_RUN_SUMMARY = "select new com.running_tracker.domain.projection.RunSummary(" +
+            "r.id, r.user.id, r.startLatitude, r.startLongitude, r.startDatetime, " +
+            "r.finishLatitude, r.finishLongitude, r.finishDatetime, " +
+            "r.distance, r.distanceUnit, r.averageSpeed, r.averageSpeedUnit) from Run r ";
 
-    List<Run> findAllByUserId(UUID userId);
+    @Query(SELECT_RUN_SUMMARY + "where r.user.id = :userId " +
+            "and r.startDatetime between :fromDatetime and :toDatetime " +
+            "order by r.startDatetime, r.id")
+    List<RunSummary> findSummariesByUserIdAndStartDatetimeBetween(@Param("userId") UUID userId,
+                                                                  @Param("fromDatetime") LocalDateTime fromDatetime,
+                                                                  @Param("toDatetime") LocalDateTime toDatetime);
+
+    @Query(SELECT_RUN_SUMMARY + "where r.user.id = :userId order by r.startDatetime, r.id")
+    List<RunSummary> findSummariesByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Locks the row of a run until the transaction ends and reads whether it is finished. Track point uploads and the
+     * finish reading the track take this lock, so the finish sees every committed upload and later uploads see it
+     * finished. Changes of the persistence context are not flushed first, the lock does not write the run.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query(value = "SELECT finish_datetime IS NOT NULL FROM runs WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Boolean> lockFinishedById(@Param("id") UUID id);
+
+    @Query(SELECT_RUN_SUMMARY + "where r.user.id = :userId " +
+            "and r.startDatetime between :fromDatetime and :toDatetime " +
+            "and (r.startDatetime > :afterStartDatetime or (r.startDatetime = :afterStartDatetime and r.id > :afterId)) " +
+            "order by r.startDatetime, r.id")
+    List<RunSummary> findSummaryPageByUserIdAndStartDatetimeBetween(@Param("userId") UUID userId,
+                                                                    @Param("fromDatetime") LocalDateTime fromDatetime,
+                                                                    @Param("toDatetime") LocalDateTime toDatetime,
+                                                                    @Param("afterStartDatetime") LocalDateTime afterStartDatetime,
+                                                                    @Param("afterId") UUID afterId,
+                                                                    Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_RUN_SUMMARY + "where r.user.id = :userId " +
+            "and r.startDatetime between :fromDatetime and :toDatetime " +
+            "order by r.startDatetime, r.id")
+    Stream<RunSummary> streamSummariesByUserIdAndStartDatetimeBetween(@Param("userId") UUID userId,
+                                                                      @Param("fromDatetime") LocalDateTime fromDatetime,
+                                                                      @Param("toDatetime") LocalDateTime toDatetime);
+
+    @Query("select count(r) from Run r where r.user.id = :userId and r.finishDatetime is null")
+    long countOpenByUserId(@Param("userId") UUID userId);
+
+    @Query("select r.id from Run r where r.user.id = :userId and r.finishDatetime is not null order by r.startDatetime, r.id")
+    List<UUID> findFinishedIdsByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Totals of the user's completed runs starting in either of two half-open ranges,
+     * used for the partial edges of a statistics window.
+     */
+    @Query("select count(r) as totalRuns, " +
+            "coalesce(sum(r.distance), 0.0) as totalDistance, " +
+            "coalesce(sum(r.averageSpeed), 0.0) as sumAverageSpeed " +
+            "from Run r where r.user.id = :userId and r.finishDatetime is not null " +
+            "and ((r.startDatetime >= :firstFrom and r.startDatetime < :firstTo) " +
+            "or (r.startDatetime >= :secondFrom and r.startDatetime < :secondTo))")
+    RunTotalsProjection getFinishedTotalsByUserIdInRanges(@Param("userId") UUID userId,
+                                                          @Param("firstFrom") LocalDateTime firstFrom,
+                                                          @Param("firstTo") LocalDateTime firstTo,
+                                                          @Param("secondFrom") LocalDateTime secondFrom,
+                                                          @Param("secondTo") LocalDateTime secondTo);
 }
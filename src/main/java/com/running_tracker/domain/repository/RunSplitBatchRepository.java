@@ -0,0 +1,20 @@
+package com.running_tracker.domain.repository;
+
+import com.running_tracker.domain.entity.RunSplit;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC writes of run splits, bypassing the persistence context which would look up every split before inserting it.
+ */
+public interface RunSplitBatchRepository {
+
+    /**
+     * Replaces the splits of a run, so finishing a run again leaves only the splits of its last track.
+     *
+     * @param runId the ID of the run
+     * @param splits the new splits of the run, may be empty
+     */
+    void replaceAll(UUID runId, List<RunSplit> splits);
+}
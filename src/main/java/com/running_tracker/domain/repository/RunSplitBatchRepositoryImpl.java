@@ -0,0 +1,35 @@
+package com.running_tracker.domain.repository;
+
+import com.running_tracker.domain.entity.RunSplit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class RunSplitBatchRepositoryImpl implements RunSplitBatchRepository {
+
+    private static final String DELETE_SQL = "DELETE FROM run_splits WHERE run_id = ?";
+    private static final String INSERT_SQL = "INSERT INTO run_splits " +
+            "(run_id, split_unit, split_number, distance, elapsed_millis, moving_millis) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void replaceAll(UUID runId, List<RunSplit> splits) {
+        jdbcTemplate.update(DELETE_SQL, runId);
+        if (splits.isEmpty()) {
+            return;
+        }
+        // A marathon has 70 splits in both units, one batch
+        jdbcTemplate.batchUpdate(INSERT_SQL, splits, splits.size(), (statement, split) -> {
+            statement.setObject(1, runId);
+            statement.setString(2, split.getId().getUnit().name());
+            statement.setInt(3, split.getId().getNumber());
+            statement.setDouble(4, split.getDistance());
+            statement.setLong(5, split.getElapsedMillis());
+            statement.setLong(6, split.getMovingMillis());
+        });
+    }
+}
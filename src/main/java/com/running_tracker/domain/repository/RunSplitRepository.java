@@ -0,0 +1,19 @@
+package com.running_tracker.domain.repository;
+
+import com.running_tracker.domain.entity.RunSplit;
+import com.running_tracker.domain.entity.RunSplitId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface RunSplitRepository extends JpaRepository<RunSplit, RunSplitId>, RunSplitBatchRepository {
+
+    /**
+     * Finds the splits of a run, by unit and in the order they were run.
+     */
+    @Query("SELECT s FROM RunSplit s WHERE s.id.runId = :runId ORDER BY s.id.unit, s.id.number")
+    List<RunSplit> findAllByRunId(@Param("runId") UUID runId);
+}
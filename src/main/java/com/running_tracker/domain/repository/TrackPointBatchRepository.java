@@ -0,0 +1,41 @@
+package com.running_tracker.domain.repository;
+
+import com.running_tracker.domain.projection.TrackSegment;
+
+import java.util.UUID;
+
+/**
+ * JDBC access to track points, bypassing the persistence context for high-volume writes and reads.
+ */
+public interface TrackPointBatchRepository {
+
+    /**
+     * Inserts the track points with JDBC batches, ignoring points already recorded for the same run and timestamp.
+     *
+     * @param segment the track points to insert
+     */
+    void insertAll(TrackSegment segment);
+
+    /**
+     * Reads the recorded positions of a run ordered by their timestamp from a cursor and hands them to the handler one
+     * by one, so memory does not grow with the length of the track.
+     *
+     * @param runId the ID of the run
+     * @param handler the handler receiving the points
+     */
+    void streamTrackByRunId(UUID runId, TrackPointHandler handler);
+
+    /**
+     * Receives the recorded positions of a run one at a time.
+     */
+    @FunctionalInterface
+    interface TrackPointHandler {
+
+        /**
+         * @param recordedAtMillis the recorded local datetime as epoch milliseconds at UTC, see {@code RunTrack}
+         * @param latitude the latitude in degrees
+         * @param longitude the longitude in degrees
+         */
+        void accept(long recordedAtMillis, double latitude, double longitude);
+    }
+}
@@ -0,0 +1,84 @@
+package com.running_tracker.domain.repository;
+
+import com.running_tracker.domain.projection.TrackSegment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class TrackPointBatchRepositoryImpl implements TrackPointBatchRepository {
+
+    // Rows per JDBC batch; the PostgreSQL driver rewrites each batch into multi-row INSERTs (reWriteBatchedInserts)
+    private static final int BATCH_SIZE = 1000;
+    // Rows per round trip of the cursor, bounds the driver side buffer
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String INSERT_SQL = "INSERT INTO run_trackpoints " +
+            "(run_id, recorded_at, latitude, longitude, elevation) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT DO NOTHING";
+    private static final String SELECT_TRACK_SQL = "SELECT recorded_at, latitude, longitude FROM run_trackpoints " +
+            "WHERE run_id = ? ORDER BY recorded_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(TrackSegment segment) {
+        for (int offset = 0; offset < segment.getSize(); offset += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, new SegmentBatch(segment, offset, Math.min(BATCH_SIZE, segment.getSize() - offset)));
+        }
+    }
+
+    @Override
+    public void streamTrackByRunId(UUID runId, TrackPointHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_TRACK_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setObject(1, runId);
+            return statement;
+        }, resultSet -> {
+            handler.accept(resultSet.getTimestamp(1).toLocalDateTime().toInstant(ZoneOffset.UTC).toEpochMilli(),
+                    resultSet.getDouble(2), resultSet.getDouble(3));
+        });
+    }
+
+    // Binds one slice of the column arrays as a JDBC batch
+    @RequiredArgsConstructor
+    private static final class SegmentBatch implements BatchPreparedStatementSetter {
+
+        private final TrackSegment segment;
+        private final int offset;
+        private final int size;
+
+        @Override
+        public void setValues(PreparedStatement statement, int i) throws SQLException {
+            int index = offset + i;
+            statement.setObject(1, segment.getRunId());
+            // Epoch millis encode the recorded local datetime at UTC, see RunTrack
+            statement.setTimestamp(2, Timestamp.valueOf(LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(segment.getRecordedAtMillis()[index]), ZoneOffset.UTC)));
+            statement.setDouble(3, segment.getLatitudes()[index]);
+            statement.setDouble(4, segment.getLongitudes()[index]);
+            if (Double.isNaN(segment.getElevations()[index])) {
+                statement.setNull(5, Types.DOUBLE);
+            } else {
+                statement.setDouble(5, segment.getElevations()[index]);
+            }
+        }
+
+        @Override
+        public int getBatchSize() {
+            return size;
+        }
+    }
+}
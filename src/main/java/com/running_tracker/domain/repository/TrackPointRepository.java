@@ -0,0 +1,8 @@
+package com.running_tracker.domain.repository;
+
+import com.running_tracker.domain.entity.TrackPoint;
+import com.running_tracker.domain.entity.TrackPointId;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TrackPointRepository extends JpaRepository<TrackPoint, TrackPointId>, TrackPointBatchRepository {
+}
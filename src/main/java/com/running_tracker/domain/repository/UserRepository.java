@@ -1,9 +1,47 @@
 package com.running_tracker.domain.repository;
 
 import com.running_tracker.domain.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
+
+    // Listed users are only mapped to DTOs, so Hibernate keeps no snapshots for dirty checking
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<User> findAll();
+
+    @Query("select u.id from User u")
+    List<UUID> findAllIds();
+
+    @Query("select u.id from User u where u.id in :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    // The counter is not mapped on User, saving a user never overwrites it
+    @Query(value = "SELECT run_change_count FROM users WHERE id = :id", nativeQuery = true)
+    Optional<Long> findRunChangeCountById(@Param("id") UUID id);
+
+    /**
+     * Locks the row of a user until the transaction ends, serializing the writers of the user's statistics rollup.
+     */
+    @Query(value = "SELECT id FROM users WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<UUID> lockById(@Param("id") UUID id);
+
+    @Modifying
+    @Query(value = "UPDATE users SET run_change_count = run_change_count + 1 WHERE id = :id", nativeQuery = true)
+    int incrementRunChangeCount(@Param("id") UUID id);
+
+    @Modifying
+    @Query(value = "UPDATE users SET run_change_count = run_change_count + 1", nativeQuery = true)
+    int incrementAllRunChangeCounts();
 }
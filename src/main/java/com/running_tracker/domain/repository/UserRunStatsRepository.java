@@ -0,0 +1,96 @@
+package com.running_tracker.domain.repository;
+
+import com.running_tracker.domain.entity.StatisticsBucketType;
+import com.running_tracker.domain.entity.UserRunStats;
+import com.running_tracker.domain.entity.UserRunStatsId;
+import com.running_tracker.domain.projection.RunTotalsProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+public interface UserRunStatsRepository extends JpaRepository<UserRunStats, UserRunStatsId>, LeaderboardRepository {
+
+    /**
+     * Aggregates the completed runs of {@code :userId} into their day, week, month and total buckets in a single pass
+     * over the runs table.
+     */
+    String SELECT_BUCKETS_FROM_RUNS = "SELECT r.user_id, b.bucket_type, b.bucket_start, COUNT(*) AS total_runs, " +
+            "COALESCE(SUM(r.distance), 0) AS total_distance, COALESCE(SUM(r.average_speed), 0) AS sum_average_speed " +
+            "FROM runs r CROSS JOIN LATERAL (VALUES " +
+            "('DAY', date_trunc('day', r.start_datetime)), " +
+            "('WEEK', date_trunc('week', r.start_datetime)), " +
+            "('MONTH', date_trunc('month', r.start_datetime)), " +
+            "('TOTAL', CAST(:totalStart AS TIMESTAMP))) AS b(bucket_type, bucket_start) " +
+            "WHERE r.user_id = :userId AND r.finish_datetime IS NOT NULL " +
+            "GROUP BY r.user_id, b.bucket_type, b.bucket_start";
+
+    /**
+     * Adds the given deltas to the day, week, month and total buckets of a user in one statement,
+     * creating buckets that do not exist yet.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO user_run_stats " +
+            "(user_id, bucket_type, bucket_start, total_runs, total_distance, sum_average_speed) VALUES " +
+            "(:userId, 'DAY', :dayStart, :runs, :distance, :averageSpeed), " +
+            "(:userId, 'WEEK', :weekStart, :runs, :distance, :averageSpeed), " +
+            "(:userId, 'MONTH', :monthStart, :runs, :distance, :averageSpeed), " +
+            "(:userId, 'TOTAL', :totalStart, :runs, :distance, :averageSpeed) " +
+            "ON CONFLICT (user_id, bucket_type, bucket_start) DO UPDATE SET " +
+            "total_runs = user_run_stats.total_runs + EXCLUDED.total_runs, " +
+            "total_distance = user_run_stats.total_distance + EXCLUDED.total_distance, " +
+            "sum_average_speed = user_run_stats.sum_average_speed + EXCLUDED.sum_average_speed")
+    void addToBuckets(@Param("userId") UUID userId,
+                      @Param("dayStart") LocalDateTime dayStart,
+                      @Param("weekStart") LocalDateTime weekStart,
+                      @Param("monthStart") LocalDateTime monthStart,
+                      @Param("totalStart") LocalDateTime totalStart,
+                      @Param("runs") long runs,
+                      @Param("distance") double distance,
+                      @Param("averageSpeed") double averageSpeed);
+
+    @Query("select coalesce(sum(s.totalRuns), 0L) as totalRuns, " +
+            "coalesce(sum(s.totalDistance), 0.0) as totalDistance, " +
+            "coalesce(sum(s.sumAverageSpeed), 0.0) as sumAverageSpeed " +
+            "from UserRunStats s where s.id.userId = :userId and s.id.bucketType = :bucketType " +
+            "and s.id.bucketStart in :bucketStarts")
+    RunTotalsProjection sumBuckets(@Param("userId") UUID userId,
+                                   @Param("bucketType") StatisticsBucketType bucketType,
+                                   @Param("bucketStarts") Collection<LocalDateTime> bucketStarts);
+
+    @Modifying
+    @Query("delete from UserRunStats s where s.id.userId = :userId")
+    void deleteAllByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Recomputes every bucket of a user from the completed runs in a single pass over the runs table.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO user_run_stats " +
+            "(user_id, bucket_type, bucket_start, total_runs, total_distance, sum_average_speed) " +
+            "SELECT user_id, bucket_type, bucket_start, total_runs, total_distance, sum_average_speed " +
+            "FROM (" + SELECT_BUCKETS_FROM_RUNS + ") b")
+    void insertBucketsFromRuns(@Param("userId") UUID userId, @Param("totalStart") LocalDateTime totalStart);
+
+    /**
+     * Counts the buckets of a user, of every type, that differ from the buckets recomputed from the completed runs;
+     * a bucket missing on either side counts as empty.
+     *
+     * @param tolerance the relative difference of the sums that is still accepted, incremental sums accumulate
+     *                  floating point error
+     */
+    @Query(nativeQuery = true, value = "SELECT COUNT(*) FROM (" + SELECT_BUCKETS_FROM_RUNS + ") e " +
+            "FULL OUTER JOIN (SELECT * FROM user_run_stats WHERE user_id = :userId) s " +
+            "ON s.bucket_type = e.bucket_type AND s.bucket_start = e.bucket_start " +
+            "WHERE COALESCE(e.total_runs, 0) <> COALESCE(s.total_runs, 0) " +
+            "OR ABS(COALESCE(e.total_distance, 0) - COALESCE(s.total_distance, 0)) " +
+            "> :tolerance * GREATEST(1, ABS(COALESCE(e.total_distance, 0))) " +
+            "OR ABS(COALESCE(e.sum_average_speed, 0) - COALESCE(s.sum_average_speed, 0)) " +
+            "> :tolerance * GREATEST(1, ABS(COALESCE(e.sum_average_speed, 0)))")
+    long countBucketsDifferingFromRuns(@Param("userId") UUID userId, @Param("totalStart") LocalDateTime totalStart,
+                                       @Param("tolerance") double tolerance);
+}
@@ -0,0 +1,8 @@
+package com.running_tracker.exception;
+
+public class ConcurrentRunUpdateException extends RuntimeException {
+
+    public ConcurrentRunUpdateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.running_tracker.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
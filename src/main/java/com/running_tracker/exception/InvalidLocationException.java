@@ -0,0 +1,8 @@
+package com.running_tracker.exception;
+
+public class InvalidLocationException extends RuntimeException {
+
+    public InvalidLocationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.running_tracker.exception;
+
+public class RunAlreadyFinishedException extends RuntimeException {
+
+    public RunAlreadyFinishedException(String message) {
+        super(message);
+    }
+}
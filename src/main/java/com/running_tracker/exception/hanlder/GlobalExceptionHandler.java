@@ -1,9 +1,15 @@
 package com.running_tracker.exception.hanlder;
 
 import com.running_tracker.api.dto.response.ErrorResponseDto;
+import com.running_tracker.exception.ConcurrentRunUpdateException;
 import com.running_tracker.exception.CrudException;
+import com.running_tracker.exception.InvalidCursorException;
+import com.running_tracker.exception.InvalidImportException;
+import com.running_tracker.exception.InvalidLocationException;
+import com.running_tracker.exception.RunAlreadyFinishedException;
 import com.running_tracker.exception.RunCalculationException;
 import com.running_tracker.exception.ResourceNotFoundException;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -11,6 +17,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
 @ControllerAdvice
+@Profile("!reactive")
 public class GlobalExceptionHandler {
 
     @ExceptionHandler(ResourceNotFoundException.class)
@@ -24,6 +31,60 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponseDto> handleInvalidCursorException(InvalidCursorException ex, WebRequest request) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                "Invalid Cursor",
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidImportException.class)
+    public ResponseEntity<ErrorResponseDto> handleInvalidImportException(InvalidImportException ex, WebRequest request) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                "Invalid Import",
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidLocationException.class)
+    public ResponseEntity<ErrorResponseDto> handleInvalidLocationException(InvalidLocationException ex, WebRequest request) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                "Invalid Location",
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(RunAlreadyFinishedException.class)
+    public ResponseEntity<ErrorResponseDto> handleRunAlreadyFinishedException(RunAlreadyFinishedException ex, WebRequest request) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                "Run Already Finished",
+                ex.getMessage(),
+                HttpStatus.CONFLICT.value(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ConcurrentRunUpdateException.class)
+    public ResponseEntity<ErrorResponseDto> handleConcurrentRunUpdateException(ConcurrentRunUpdateException ex, WebRequest request) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                "Concurrent Update",
+                ex.getMessage(),
+                HttpStatus.CONFLICT.value(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
 
     @ExceptionHandler(CrudException.class)
     public ResponseEntity<ErrorResponseDto> handleCrudException(CrudException ex, WebRequest request) {
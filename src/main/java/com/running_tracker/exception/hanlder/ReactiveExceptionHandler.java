@@ -0,0 +1,118 @@
+package com.running_tracker.exception.hanlder;
+
+import com.running_tracker.api.dto.response.ErrorResponseDto;
+import com.running_tracker.exception.ConcurrentRunUpdateException;
+import com.running_tracker.exception.CrudException;
+import com.running_tracker.exception.InvalidCursorException;
+import com.running_tracker.exception.InvalidImportException;
+import com.running_tracker.exception.RunAlreadyFinishedException;
+import com.running_tracker.exception.RunCalculationException;
+import com.running_tracker.exception.ResourceNotFoundException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Error responses of the reactive profile, the same bodies and statuses as {@link GlobalExceptionHandler}.
+ */
+@ControllerAdvice
+@Profile("reactive")
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponseDto> handleResourceNotFoundException(ResourceNotFoundException ex, ServerWebExchange exchange) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                "Resource Not Found",
+                ex.getMessage(),
+                HttpStatus.NOT_FOUND.value(),
+                resourceUrl(exchange)
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponseDto> handleInvalidCursorException(InvalidCursorException ex, ServerWebExchange exchange) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                "Invalid Cursor",
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value(),
+                resourceUrl(exchange)
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidImportException.class)
+    public ResponseEntity<ErrorResponseDto> handleInvalidImportException(InvalidImportException ex, ServerWebExchange exchange) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                "Invalid Import",
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value(),
+                resourceUrl(exchange)
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(RunAlreadyFinishedException.class)
+    public ResponseEntity<ErrorResponseDto> handleRunAlreadyFinishedException(RunAlreadyFinishedException ex, ServerWebExchange exchange) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                "Run Already Finished",
+                ex.getMessage(),
+                HttpStatus.CONFLICT.value(),
+                resourceUrl(exchange)
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ConcurrentRunUpdateException.class)
+    public ResponseEntity<ErrorResponseDto> handleConcurrentRunUpdateException(ConcurrentRunUpdateException ex, ServerWebExchange exchange) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                "Concurrent Update",
+                ex.getMessage(),
+                HttpStatus.CONFLICT.value(),
+                resourceUrl(exchange)
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(CrudException.class)
+    public ResponseEntity<ErrorResponseDto> handleCrudException(CrudException ex, ServerWebExchange exchange) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                "CRUD Exception",
+                ex.getMessage(),
+                HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                resourceUrl(exchange)
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @ExceptionHandler(RunCalculationException.class)
+    public ResponseEntity<ErrorResponseDto> handleRunCalculationException(RunCalculationException ex, ServerWebExchange exchange) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                "Run Calculation Exception",
+                ex.getMessage(),
+                HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                resourceUrl(exchange)
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponseDto> handleGlobalException(Exception ex, ServerWebExchange exchange) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                "Internal Server Error",
+                ex.getMessage(),
+                HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                resourceUrl(exchange)
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    // Same format as WebRequest#getDescription(false) of the servlet stack
+    private String resourceUrl(ServerWebExchange exchange) {
+        return "uri=" + exchange.getRequest().getPath().value();
+    }
+}
@@ -0,0 +1,35 @@
+package com.running_tracker.job;
+
+import com.running_tracker.service.LeaderboardService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the leaderboards once the application has started and periodically reloads them from the refreshed
+ * materialized view, which also picks up the runs other instances finished and the rollups that were rebuilt.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardJob {
+
+    private final LeaderboardService leaderboardService;
+
+    // Both the startup load and the schedule call the method through the proxy, so either is timed
+    @Timed(value = "running_tracker.leaderboards.refresh_job", longTask = true)
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${running-tracker.leaderboards.refresh-cron:0 */5 * * * *}")
+    public void refresh() {
+        try {
+            leaderboardService.refresh();
+        } catch (Exception exception) {
+            // The boards keep following finished runs, the next refresh tries again
+            log.error("Leaderboards refresh failed, Error:{}", exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.running_tracker.job;
+
+import com.running_tracker.domain.repository.UserRepository;
+import com.running_tracker.service.PersonalRecordService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Backfills the personal records of all users from their recorded tracks, for runs finished before records were kept.
+ * Users are rebuilt in parallel, each in its own transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PersonalRecordJob {
+
+    private final PersonalRecordService personalRecordService;
+    private final UserRepository userRepository;
+
+    @Value("${running-tracker.personal-records.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    // Every parallel rebuild holds a database connection, keep it below the pool size
+    @Value("${running-tracker.personal-records.backfill-parallelism:4}")
+    private int parallelism;
+
+    @Timed(value = "running_tracker.personal_records.backfill", longTask = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        List<UUID> userIds = userRepository.findAllIds();
+        AtomicInteger failed = new AtomicInteger();
+        // A pool of its own, so the backfill neither waits for nor blocks the common pool; the parallel stream forks
+        // the users across it
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> userIds.parallelStream().forEach(userId -> {
+                try {
+                    personalRecordService.rebuild(userId);
+                } catch (Exception exception) {
+                    // The records of the user stay as they were, the other users are rebuilt
+                    failed.incrementAndGet();
+                    log.error("Personal records backfill failed for user with id {}, Error:{}", userId, exception.getMessage());
+                }
+            })).join();
+        } finally {
+            pool.shutdown();
+        }
+        log.info("Personal records backfill finished for {} users, {} failed", userIds.size() - failed.get(), failed.get());
+    }
+}
@@ -0,0 +1,43 @@
+package com.running_tracker.job;
+
+import com.running_tracker.domain.repository.RunRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills the start and finish geohashes of runs written before geohashes were kept, so that the queries for runs
+ * near a location find them. Runs are updated in batches, each in its own transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RunGeohashJob {
+
+    private final RunRepository runRepository;
+
+    @Value("${running-tracker.runs-near.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    @Value("${running-tracker.runs-near.backfill-batch-size:5000}")
+    private int batchSize;
+
+    @Timed(value = "running_tracker.runs.geohash_backfill", longTask = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        long runs = 0;
+        int updated;
+        do {
+            updated = runRepository.backfillGeohashes(batchSize);
+            runs += updated;
+        } while (updated > 0);
+        log.info("Geohash backfill finished for {} runs", runs);
+    }
+}
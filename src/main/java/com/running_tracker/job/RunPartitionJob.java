@@ -0,0 +1,76 @@
+package com.running_tracker.job;
+
+import com.running_tracker.service.PersonalRecordService;
+import com.running_tracker.service.RunPartitionService;
+import com.running_tracker.service.UserRunStatsService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps the partitions of the runs table ahead of the calendar and archives months past the retention. The statistics
+ * rollup and the personal records of the users whose runs were archived are rebuilt from the runs left.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RunPartitionJob {
+
+    private final RunPartitionService runPartitionService;
+    private final UserRunStatsService userRunStatsService;
+    private final PersonalRecordService personalRecordService;
+
+    @Value("${running-tracker.run-partitions.enabled:false}")
+    private boolean enabled;
+
+    @Timed(value = "running_tracker.run_partitions.maintenance", longTask = true)
+    @Scheduled(cron = "${running-tracker.run-partitions.maintenance-cron:0 30 2 * * *}")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        // Only a PostgreSQL database migrated to the partitioned runs table has partitions to maintain
+        if (!runPartitionService.isPartitioned()) {
+            log.warn("Runs partition maintenance skipped, the runs table is not partitioned");
+            return;
+        }
+
+        YearMonth currentMonth = YearMonth.now();
+        List<YearMonth> created = runPartitionService.createUpcomingPartitions(currentMonth);
+        List<YearMonth> detached = runPartitionService.detachExpiredPartitions(currentMonth);
+        log.info("Runs partition maintenance finished, {} partitions created, {} detached", created.size(), detached.size());
+
+        if (!detached.isEmpty()) {
+            rebuildArchivedUsers(detached);
+        }
+    }
+
+    // Archived runs no longer count, the rollup and records of their users would otherwise still include them
+    private void rebuildArchivedUsers(List<YearMonth> archivedMonths) {
+        Set<UUID> userIds = new LinkedHashSet<>();
+        for (YearMonth month : archivedMonths) {
+            userIds.addAll(runPartitionService.findArchivedUserIds(month));
+        }
+        int failed = 0;
+        for (UUID userId : userIds) {
+            try {
+                userRunStatsService.rebuild(userId);
+                personalRecordService.rebuild(userId);
+            } catch (Exception exception) {
+                // The nightly consistency check repairs the rollup of the user, the other users are rebuilt
+                failed++;
+                log.error("Rebuild after archiving runs failed for user with id {}, Error:{}", userId, exception.getMessage());
+            }
+        }
+        log.info("Rebuilt statistics and personal records of {} users with archived runs, {} failed", userIds.size() - failed, failed);
+    }
+}
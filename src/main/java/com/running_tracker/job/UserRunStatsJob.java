@@ -0,0 +1,57 @@
+package com.running_tracker.job;
+
+import com.running_tracker.domain.repository.UserRepository;
+import com.running_tracker.service.UserRunStatsService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Backfills the statistics rollup and periodically verifies it against the raw runs,
+ * rebuilding the buckets of any user whose rollup has drifted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserRunStatsJob {
+
+    private final UserRunStatsService userRunStatsService;
+    private final UserRepository userRepository;
+
+    @Value("${running-tracker.statistics.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    @Timed(value = "running_tracker.statistics.backfill", longTask = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        int users = 0;
+        for (UUID userId : userRepository.findAllIds()) {
+            userRunStatsService.rebuild(userId);
+            users++;
+        }
+        log.info("Statistics rollup backfill finished for {} users", users);
+    }
+
+    @Timed(value = "running_tracker.statistics.consistency_check", longTask = true)
+    @Scheduled(cron = "${running-tracker.statistics.consistency-check-cron:0 0 3 * * *}")
+    public void checkConsistency() {
+        int rebuilt = 0;
+        for (UUID userId : userRepository.findAllIds()) {
+            if (!userRunStatsService.isConsistent(userId)) {
+                userRunStatsService.rebuild(userId);
+                rebuilt++;
+            }
+        }
+        log.info("Statistics rollup consistency check finished, {} users rebuilt", rebuilt);
+    }
+}
@@ -0,0 +1,56 @@
+package com.running_tracker.service;
+
+import com.running_tracker.api.dto.response.user.LeaderboardRankResponseDto;
+import com.running_tracker.api.dto.response.user.LeaderboardResponseDto;
+import com.running_tracker.service.leaderboard.AgeGroup;
+import com.running_tracker.service.leaderboard.LeaderboardMetric;
+import com.running_tracker.service.leaderboard.LeaderboardPeriod;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Service interface for the weekly and monthly leaderboards of the current period, kept in memory.
+ */
+public interface LeaderboardService {
+
+    /**
+     * Moves a user on the leaderboards of the current week and month after a run was added to the user's statistics
+     * rollup, reading the user's updated totals from it. Within a transaction the boards move once it commits, a
+     * rolled back run moves none.
+     *
+     * @param userId the unique identifier of the user
+     * @param startDatetime the start time of the run, which selects the periods
+     */
+    void updateUser(UUID userId, LocalDateTime startDatetime);
+
+    /**
+     * Refreshes the leaderboard_entries materialized view and reloads the leaderboards of the current week and month
+     * from it.
+     */
+    void refresh();
+
+    /**
+     * Retrieves the best users of the current period.
+     *
+     * @param period the period, week or month
+     * @param metric the value users are ranked by
+     * @param sex the sex of the cohort, or null for every sex
+     * @param ageGroup the age group of the cohort, or null for every age
+     * @param limit the maximum number of users, capped at the top size of the leaderboards
+     * @return the leaderboard page
+     */
+    LeaderboardResponseDto getLeaderboard(LeaderboardPeriod period, LeaderboardMetric metric, String sex, AgeGroup ageGroup, int limit);
+
+    /**
+     * Retrieves the rank of a user in the current period.
+     *
+     * @param userId the unique identifier of the user
+     * @param period the period, week or month
+     * @param metric the value users are ranked by
+     * @param sex the sex of the cohort, or null for every sex
+     * @param ageGroup the age group of the cohort, or null for every age
+     * @return the rank of the user
+     */
+    LeaderboardRankResponseDto getRank(UUID userId, LeaderboardPeriod period, LeaderboardMetric metric, String sex, AgeGroup ageGroup);
+}
@@ -0,0 +1,36 @@
+package com.running_tracker.service;
+
+import com.running_tracker.api.dto.response.user.PersonalRecordsResponseDto;
+import com.running_tracker.service.track.BestEffort;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service interface for the personal records of users, their fastest efforts over the record distances.
+ */
+public interface PersonalRecordService {
+
+    /**
+     * Makes the best efforts of a finished run the records of its user where they beat the current ones.
+     *
+     * @param efforts the best efforts found in the track of the run
+     * @return the number of records the efforts beat
+     */
+    int recordEfforts(List<BestEffort> efforts);
+
+    /**
+     * Retrieves the personal records of a user.
+     *
+     * @param userId the unique identifier of the user
+     * @return the records, one per distance the user has covered in a recorded track
+     */
+    PersonalRecordsResponseDto getPersonalRecords(UUID userId);
+
+    /**
+     * Recomputes the personal records of a user from the recorded tracks of all the user's finished runs.
+     *
+     * @param userId the unique identifier of the user
+     */
+    void rebuild(UUID userId);
+}
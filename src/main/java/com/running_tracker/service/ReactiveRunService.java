@@ -0,0 +1,80 @@
+package com.running_tracker.service;
+
+import com.running_tracker.api.dto.request.run.FinishRunRequestDto;
+import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.response.run.RunPageResponseDto;
+import com.running_tracker.api.dto.response.run.RunResponseDto;
+import com.running_tracker.api.dto.response.run.StartRunResponseDto;
+import com.running_tracker.api.dto.response.user.UserStatisticsDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Non-blocking counterpart of {@link RunService} for the reactive profile, with the same results and errors.
+ */
+public interface ReactiveRunService {
+
+    /**
+     * Starts a new run.
+     *
+     * @param requestDto the request to start a new run
+     * @return the response containing details of the started run
+     */
+    Mono<StartRunResponseDto> startRun(StartRunRequestDto requestDto);
+
+    /**
+     * Finishes a run and adds it to the statistics of its user.
+     *
+     * @param requestDto the data to finish the run
+     * @param id the unique identifier of the run to be finished
+     * @param idempotencyKey the key identifying retries of one request (optional)
+     * @return the response containing details of the finished run
+     */
+    Mono<RunResponseDto> finishRun(FinishRunRequestDto requestDto, UUID id, String idempotencyKey);
+
+    /**
+     * Retrieves all runs for a specific user within the given time range.
+     *
+     * @param userId the unique identifier of the user
+     * @param fromDatetime the start of the time range (optional)
+     * @param toDatetime the end of the time range (optional)
+     * @return the user's runs ordered by start datetime
+     */
+    Flux<RunResponseDto> getAllRunsForUser(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime);
+
+    /**
+     * Retrieves one page of a user's runs within the given time range, ordered by start datetime.
+     *
+     * @param userId the unique identifier of the user
+     * @param fromDatetime the start of the time range (optional)
+     * @param toDatetime the end of the time range (optional)
+     * @param cursor the continuation token returned with the previous page (optional)
+     * @param limit the maximum number of runs in the page
+     * @return the page of runs and the continuation token for the next page, if any
+     */
+    Mono<RunPageResponseDto> getRunsPage(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime, String cursor, int limit);
+
+    /**
+     * Streams all runs of a user within the given time range, ordered by start datetime. Runs are read from the
+     * database as the subscriber requests them.
+     *
+     * @param userId the unique identifier of the user
+     * @param fromDatetime the start of the time range (optional)
+     * @param toDatetime the end of the time range (optional)
+     * @return the user's runs ordered by start datetime
+     */
+    Flux<RunResponseDto> streamAllRunsForUser(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime);
+
+    /**
+     * Retrieves statistics for a user based on their running activities within the given time range.
+     *
+     * @param userId the unique identifier of the user
+     * @param fromDatetime the start of the time range (optional)
+     * @param toDatetime the end of the time range (optional)
+     * @return the response containing the user's running statistics
+     */
+    Mono<UserStatisticsDTO> getUserStatistics(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime);
+}
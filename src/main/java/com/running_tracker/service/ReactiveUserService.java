@@ -0,0 +1,55 @@
+package com.running_tracker.service;
+
+import com.running_tracker.api.dto.request.user.UserRequestDto;
+import com.running_tracker.api.dto.response.user.DeleteUserResponseDto;
+import com.running_tracker.api.dto.response.user.UserResponseDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Non-blocking counterpart of {@link UserService} for the reactive profile, with the same results and errors.
+ */
+public interface ReactiveUserService {
+
+    /**
+     * Saves a new user based on the provided user request data.
+     *
+     * @param requestDto the data to create a new user
+     * @return the response containing details of the created user
+     */
+    Mono<UserResponseDto> save(UserRequestDto requestDto);
+
+    /**
+     * Finds a user dto by ID.
+     *
+     * @param id the unique identifier of the user
+     * @return the response containing details of the found user
+     */
+    Mono<UserResponseDto> findUserDtoById(UUID id);
+
+    /**
+     * Retrieves all users.
+     *
+     * @return the details of every user
+     */
+    Flux<UserResponseDto> findAll();
+
+    /**
+     * Updates an existing user based on the provided user request data.
+     *
+     * @param requestDto the new data of the user
+     * @param id the unique identifier of the user
+     * @return the response containing details of the updated user
+     */
+    Mono<UserResponseDto> update(UserRequestDto requestDto, UUID id);
+
+    /**
+     * Deletes a user by ID.
+     *
+     * @param id the unique identifier of the user
+     * @return the response confirming the deletion
+     */
+    Mono<DeleteUserResponseDto> delete(UUID id);
+}
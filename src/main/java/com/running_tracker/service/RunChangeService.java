@@ -0,0 +1,42 @@
+package com.running_tracker.service;
+
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Service interface for the per-user count of changes to runs and statistics, which versions the responses of the
+ * run list and statistics endpoints. Starting a run is not counted, so the start stays a single INSERT; the run list
+ * is versioned by the change count together with the number of open runs instead.
+ */
+public interface RunChangeService {
+
+    /**
+     * Records a change of the user's runs or statistics other than starting a run. Has to be called in the transaction of the change, or after
+     * it committed, so that a reader seeing the new count also sees the change.
+     *
+     * @param userId the unique identifier of the user
+     */
+    void recordChange(UUID userId);
+
+    /**
+     * Records a change of the runs of every user.
+     */
+    void recordChangeOfAllUsers();
+
+    /**
+     * Retrieves the number of changes recorded for the user.
+     *
+     * @param userId the unique identifier of the user
+     * @return the change count, empty if the user does not exist
+     */
+    OptionalLong getChangeCount(UUID userId);
+
+    /**
+     * Counts the user's runs that were started but not finished. Between two recorded changes runs are only added, by
+     * starting them, so the change count and this count together tell every state of the run list apart.
+     *
+     * @param userId the unique identifier of the user
+     * @return the number of open runs
+     */
+    long countOpenRuns(UUID userId);
+}
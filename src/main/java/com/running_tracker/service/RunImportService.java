@@ -0,0 +1,22 @@
+package com.running_tracker.service;
+
+import com.running_tracker.api.dto.response.run.RunImportResponseDto;
+import com.running_tracker.service.importer.RunImportFormat;
+
+import java.io.Reader;
+
+/**
+ * Service interface for importing the historical runs of users in bulk.
+ */
+public interface RunImportService {
+
+    /**
+     * Reads finished runs line by line, calculates their distance and average speed and writes them in chunks.
+     * Malformed or invalid lines and runs of unknown users are reported and skipped, the other runs are imported.
+     *
+     * @param body the import body, one run per line
+     * @param format the format of the body
+     * @return the number of imported and rejected runs and the errors of the first rejected lines
+     */
+    RunImportResponseDto importRuns(Reader body, RunImportFormat format);
+}
@@ -0,0 +1,44 @@
+package com.running_tracker.service;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service interface for maintaining the monthly partitions of the runs table.
+ */
+public interface RunPartitionService {
+
+    /**
+     * Tells whether the runs table has partitions to maintain.
+     *
+     * @return true if the runs table is partitioned
+     */
+    boolean isPartitioned();
+
+    /**
+     * Creates the missing partitions of the current month and of the configured number of months ahead,
+     * so that new runs never land in the default partition.
+     *
+     * @param currentMonth the month to start from
+     * @return the months whose partitions were created
+     */
+    List<YearMonth> createUpcomingPartitions(YearMonth currentMonth);
+
+    /**
+     * Detaches and archives the partitions of months older than the configured retention.
+     * Nothing is detached when no retention is configured.
+     *
+     * @param currentMonth the month the retention is counted back from
+     * @return the months whose partitions were detached
+     */
+    List<YearMonth> detachExpiredPartitions(YearMonth currentMonth);
+
+    /**
+     * Lists the users with runs in the archived partition of the month.
+     *
+     * @param month the month of the archived partition
+     * @return the ids of the users
+     */
+    List<UUID> findArchivedUserIds(YearMonth month);
+}
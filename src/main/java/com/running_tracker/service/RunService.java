@@ -2,13 +2,19 @@ package com.running_tracker.service;
 
 import com.running_tracker.api.dto.request.run.FinishRunRequestDto;
 import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.response.run.NearbyRunsResponseDto;
+import com.running_tracker.api.dto.response.run.RunPageResponseDto;
 import com.running_tracker.api.dto.response.run.RunResponseDto;
 import com.running_tracker.api.dto.response.run.StartRunResponseDto;
 import com.running_tracker.api.dto.response.user.UserStatisticsDTO;
+import com.running_tracker.service.export.RunExportFormat;
+
+import java.io.OutputStream;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Service interface for managing running sessions and retrieving user statistics.
@@ -24,13 +30,15 @@ public interface RunService {
     StartRunResponseDto startRun(StartRunRequestDto requestDto);
 
     /**
-     * Finishes a run for the user based on the provided finish run request data.
+     * Finishes a run for the user based on the provided finish run request data. Requests with the same idempotency
+     * key for the run get the response of the first one, without finishing the run again.
      *
      * @param requestDto the data to finish the run
      * @param id the unique identifier of the run to be finished
+     * @param idempotencyKey the key identifying retries of one request (optional)
      * @return the response containing details of the finished run
      */
-    RunResponseDto finishRun(FinishRunRequestDto requestDto, UUID id);
+    RunResponseDto finishRun(FinishRunRequestDto requestDto, UUID id, String idempotencyKey);
 
     /**
      * Retrieves all runs for a specific user within the given time range.
@@ -42,6 +50,52 @@ public interface RunService {
      */
     List<RunResponseDto> getAllRunsForUser(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime);
 
+    /**
+     * Retrieves one page of a user's runs within the given time range, ordered by start datetime.
+     *
+     * @param userId the unique identifier of the user
+     * @param fromDatetime the start of the time range (optional)
+     * @param toDatetime the end of the time range (optional)
+     * @param cursor the continuation token returned with the previous page (optional)
+     * @param limit the maximum number of runs in the page
+     * @return the page of runs and the continuation token for the next page, if any
+     */
+    RunPageResponseDto getRunsPage(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime, String cursor, int limit);
+
+    /**
+     * Retrieves the runs of all users that start or finish within the radius of a location, nearest first.
+     *
+     * @param latitude the latitude of the location
+     * @param longitude the longitude of the location
+     * @param radius the radius around the location in meters
+     * @param limit the maximum number of runs returned
+     * @return the nearest runs with their distance from the location
+     */
+    NearbyRunsResponseDto getRunsNear(double latitude, double longitude, double radius, int limit);
+
+    /**
+     * Streams all runs of a user within the given time range, ordered by start datetime,
+     * without materializing the whole history in memory.
+     *
+     * @param userId the unique identifier of the user
+     * @param fromDatetime the start of the time range (optional)
+     * @param toDatetime the end of the time range (optional)
+     * @param consumer receives each run in order
+     */
+    void streamAllRunsForUser(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime, Consumer<RunResponseDto> consumer);
+
+    /**
+     * Exports all runs of a user within the given time range as a file, read from a database cursor
+     * and written as it is read, so memory does not grow with the history.
+     *
+     * @param userId the unique identifier of the user
+     * @param fromDatetime the start of the time range (optional)
+     * @param toDatetime the end of the time range (optional)
+     * @param format the format of the file
+     * @param outputStream receives the file, left open
+     */
+    void exportRuns(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime, RunExportFormat format, OutputStream outputStream);
+
     /**
      * Retrieves statistics for a user based on their running activities within the given time range.
      *
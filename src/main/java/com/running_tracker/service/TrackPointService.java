@@ -0,0 +1,44 @@
+package com.running_tracker.service;
+
+import com.running_tracker.api.dto.request.run.TrackPointBatchRequestDto;
+import com.running_tracker.api.dto.response.run.RunSplitsResponseDto;
+import com.running_tracker.api.dto.response.run.TrackPointBatchResponseDto;
+
+import java.util.OptionalDouble;
+import java.util.UUID;
+
+/**
+ * Service interface for recording the GPS track of runs.
+ */
+public interface TrackPointService {
+
+    /**
+     * Stores a batch of track points uploaded by the client for a run in progress with JDBC batches. The run is locked
+     * until they are committed, so a concurrent finish reads them or rejects them; points already recorded for the same
+     * timestamp are ignored, so retried uploads are harmless.
+     *
+     * @param runId the ID of the run
+     * @param requestDto the batch of track points
+     * @return the response containing the number of accepted points
+     */
+    TrackPointBatchResponseDto addTrackPoints(UUID runId, TrackPointBatchRequestDto requestDto);
+
+    /**
+     * Calculates the distance in meters along the stored track of a finishing run and its kilometer and mile splits in
+     * one pass over it. The splits replace those of an earlier finish, and the best efforts of the track become the
+     * personal records of the user that they beat. The caller locks the run first, see
+     * {@link com.running_tracker.domain.repository.RunRepository#lockFinishedById}, so no upload commits meanwhile.
+     *
+     * @param runId the ID of the run
+     * @return the track distance, or empty if fewer than two points were recorded
+     */
+    OptionalDouble completeTrack(UUID runId);
+
+    /**
+     * Retrieves the kilometer and mile splits of a finished run, with its elapsed and moving time along the track.
+     *
+     * @param runId the ID of the run
+     * @return the splits of the run, empty if it was finished without a recorded track
+     */
+    RunSplitsResponseDto getRunSplits(UUID runId);
+}
@@ -0,0 +1,48 @@
+package com.running_tracker.service;
+
+import com.running_tracker.api.dto.response.user.UserStatisticsDTO;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Service interface for the incrementally maintained per-user statistics rollup.
+ */
+public interface UserRunStatsService {
+
+    /**
+     * Adds a completed run, or a correction of an already counted one, to the user's statistics buckets.
+     *
+     * @param userId the unique identifier of the user
+     * @param startDatetime the start time of the run, which selects the buckets
+     * @param runs the number of runs to add, 0 when only correcting values
+     * @param distance the distance to add
+     * @param averageSpeed the average speed to add
+     */
+    void addRun(UUID userId, LocalDateTime startDatetime, long runs, double distance, double averageSpeed);
+
+    /**
+     * Retrieves statistics of the user's completed runs started within the given time range.
+     *
+     * @param userId the unique identifier of the user
+     * @param fromDatetime the inclusive start of the time range, or null for all runs
+     * @param toDatetime the inclusive end of the time range, ignored when fromDatetime is null
+     * @return the user's running statistics
+     */
+    UserStatisticsDTO getStatistics(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime);
+
+    /**
+     * Recomputes all statistics buckets of the user from the raw runs.
+     *
+     * @param userId the unique identifier of the user
+     */
+    void rebuild(UUID userId);
+
+    /**
+     * Compares each of the user's statistics buckets against the raw runs it covers.
+     *
+     * @param userId the unique identifier of the user
+     * @return true if every day, week, month and total bucket matches its runs
+     */
+    boolean isConsistent(UUID userId);
+}
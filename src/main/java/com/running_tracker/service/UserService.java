@@ -38,6 +38,15 @@ public interface UserService {
      */
     User findUserById(UUID id);
 
+    /**
+     * Returns a reference to the user with the given ID without loading it.
+     * The existence of the user is only checked once the reference is written, by the database.
+     *
+     * @param id the unique identifier of the user
+     * @return an uninitialized user reference
+     */
+    User getUserReference(UUID id);
+
     /**
      * Finds all users in the system.
      *
@@ -0,0 +1,25 @@
+package com.running_tracker.service.calculator;
+
+/**
+ * Sums great-circle distances along a path. Implementations are allocation-free and do not log,
+ * so they can run over whole tracks on the request path.
+ */
+public interface HaversineKernel {
+
+    double EARTH_RADIUS_METERS = 6_371_000;
+
+    /**
+     * Calculates the unrounded distance in meters along the first {@code size} points, visited in array order.
+     *
+     * @param latitudes the latitudes of the points in degrees
+     * @param longitudes the longitudes of the points in degrees
+     * @param size the number of points to use
+     * @return the path distance in meters
+     */
+    double pathDistance(double[] latitudes, double[] longitudes, int size);
+
+    /**
+     * Returns the name the kernel is selected by, see {@link HaversineKernels}.
+     */
+    String name();
+}
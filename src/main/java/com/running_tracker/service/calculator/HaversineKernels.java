@@ -0,0 +1,46 @@
+package com.running_tracker.service.calculator;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Selects the haversine kernel at runtime. The vector kernel is only loaded, by name, when the
+ * {@code jdk.incubator.vector} module is present and the CPU has more than one double lane.
+ */
+@Slf4j
+public final class HaversineKernels {
+
+    public static final String AUTO = "auto";
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNEL_CLASS = "com.running_tracker.service.calculator.VectorHaversineKernel";
+
+    private HaversineKernels() {
+    }
+
+    /**
+     * Returns the kernel with the given name, or the fastest available one for {@value #AUTO}.
+     * A requested but unavailable vector kernel falls back to the pow-free kernel.
+     */
+    public static HaversineKernel select(String name) {
+        return switch (name) {
+            case ScalarHaversineKernel.NAME -> new ScalarHaversineKernel();
+            case PowFreeHaversineKernel.NAME -> new PowFreeHaversineKernel();
+            case VectorHaversineKernel.NAME, AUTO -> vectorOrPowFree();
+            default -> throw new IllegalArgumentException(String.format("Unknown haversine kernel %s", name));
+        };
+    }
+
+    private static HaversineKernel vectorOrPowFree() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                Class<?> kernelClass = Class.forName(VECTOR_KERNEL_CLASS);
+                if ((boolean) kernelClass.getMethod("isSupported").invoke(null)) {
+                    return (HaversineKernel) kernelClass.getConstructor().newInstance();
+                }
+            } catch (ReflectiveOperationException | LinkageError exception) {
+                log.warn("Vector haversine kernel unavailable, Error:{}", exception.getMessage());
+            }
+        }
+        return new PowFreeHaversineKernel();
+    }
+}
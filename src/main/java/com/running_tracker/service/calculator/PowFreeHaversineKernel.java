@@ -0,0 +1,68 @@
+package com.running_tracker.service.calculator;
+
+/**
+ * Scalar kernel without {@code Math.pow}: squares are multiplications, the cosine of each latitude is computed once
+ * and carried over to the next segment, and the constant factors are applied once for the whole path.
+ */
+public class PowFreeHaversineKernel implements HaversineKernel {
+
+    public static final String NAME = "pow-free";
+
+    private static final double HALF_DEGREE_TO_RADIANS = Math.PI / 360;
+    private static final double DEGREE_TO_RADIANS = Math.PI / 180;
+
+    @Override
+    public double pathDistance(double[] latitudes, double[] longitudes, int size) {
+        return pathDistance(latitudes, longitudes, 0, size);
+    }
+
+    /**
+     * Calculates the distance along the points from index {@code from} inclusive to {@code to} exclusive.
+     */
+    public double pathDistance(double[] latitudes, double[] longitudes, int from, int to) {
+        if (to - from < 2) {
+            return 0;
+        }
+        double halfCentralAngles = 0;
+        double previousCosLatitude = cosLatitude(latitudes[from]);
+        for (int i = from + 1; i < to; i++) {
+            double cosLatitude = cosLatitude(latitudes[i]);
+            halfCentralAngles += halfCentralAngle(latitudes[i - 1], longitudes[i - 1], previousCosLatitude,
+                    latitudes[i], longitudes[i], cosLatitude);
+            previousCosLatitude = cosLatitude;
+        }
+        return 2 * EARTH_RADIUS_METERS * halfCentralAngles;
+    }
+
+    /**
+     * Calculates the distance in meters of a single segment, for callers that see the points one at a time. The
+     * cosines of the latitudes come from {@link #cosLatitude(double)}, so they can be carried over to the next segment.
+     */
+    public static double segmentDistance(double startLatitude, double startLongitude, double startCosLatitude,
+                                         double endLatitude, double endLongitude, double endCosLatitude) {
+        return 2 * EARTH_RADIUS_METERS * halfCentralAngle(startLatitude, startLongitude, startCosLatitude,
+                endLatitude, endLongitude, endCosLatitude);
+    }
+
+    /**
+     * Returns the cosine of a latitude in degrees.
+     */
+    public static double cosLatitude(double latitude) {
+        return Math.cos(latitude * DEGREE_TO_RADIANS);
+    }
+
+    // Half the central angle between the points, the factor 2 is left to the caller
+    private static double halfCentralAngle(double startLatitude, double startLongitude, double startCosLatitude,
+                                           double endLatitude, double endLongitude, double endCosLatitude) {
+        double sinHalfDeltaLatitude = Math.sin((endLatitude - startLatitude) * HALF_DEGREE_TO_RADIANS);
+        double sinHalfDeltaLongitude = Math.sin((endLongitude - startLongitude) * HALF_DEGREE_TO_RADIANS);
+        double haversineFormula = sinHalfDeltaLatitude * sinHalfDeltaLatitude
+                + startCosLatitude * endCosLatitude * sinHalfDeltaLongitude * sinHalfDeltaLongitude;
+        return Math.atan2(Math.sqrt(haversineFormula), Math.sqrt(1 - haversineFormula));
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+}
@@ -0,0 +1,28 @@
+package com.running_tracker.service.calculator;
+
+/**
+ * Reference kernel, the single pair haversine formula of {@code RunCalculatorServiceImpl} applied to every segment.
+ */
+public class ScalarHaversineKernel implements HaversineKernel {
+
+    public static final String NAME = "scalar";
+
+    @Override
+    public double pathDistance(double[] latitudes, double[] longitudes, int size) {
+        double centralAngles = 0;
+        for (int i = 1; i < size; i++) {
+            double deltaLatitude = Math.toRadians(latitudes[i] - latitudes[i - 1]);
+            double deltaLongitude = Math.toRadians(longitudes[i] - longitudes[i - 1]);
+            double haversineFormula = Math.pow(Math.sin(deltaLatitude / 2), 2)
+                    + Math.cos(Math.toRadians(latitudes[i - 1])) * Math.cos(Math.toRadians(latitudes[i]))
+                    * Math.pow(Math.sin(deltaLongitude / 2), 2);
+            centralAngles += 2 * Math.atan2(Math.sqrt(haversineFormula), Math.sqrt(1 - haversineFormula));
+        }
+        return EARTH_RADIUS_METERS * centralAngles;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+}
@@ -0,0 +1,68 @@
+package com.running_tracker.service.calculator;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD kernel on the incubating Vector API, processing as many segments per step as the preferred species has lanes.
+ * Only loaded by {@link HaversineKernels} when the JVM runs with {@code --add-modules jdk.incubator.vector}.
+ * Vectors are only allocation-free once the loop is compiled by C2; the remaining segments use the pow-free formula.
+ */
+public class VectorHaversineKernel implements HaversineKernel {
+
+    public static final String NAME = "vector";
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double HALF_DEGREE_TO_RADIANS = Math.PI / 360;
+    private static final double DEGREE_TO_RADIANS = Math.PI / 180;
+
+    private final PowFreeHaversineKernel tailKernel = new PowFreeHaversineKernel();
+
+    /**
+     * Returns whether the hardware offers more than one double lane, otherwise the scalar kernels are faster.
+     */
+    public static boolean isSupported() {
+        return SPECIES.length() > 1;
+    }
+
+    @Override
+    public double pathDistance(double[] latitudes, double[] longitudes, int size) {
+        int segments = size - 1;
+        if (segments < 1) {
+            return 0;
+        }
+
+        // Lane j of step i covers the segment from point i + j to point i + j + 1
+        int vectorSegments = SPECIES.loopBound(segments);
+        DoubleVector centralAngles = DoubleVector.zero(SPECIES);
+        for (int i = 0; i < vectorSegments; i += SPECIES.length()) {
+            DoubleVector startLatitude = DoubleVector.fromArray(SPECIES, latitudes, i);
+            DoubleVector endLatitude = DoubleVector.fromArray(SPECIES, latitudes, i + 1);
+            DoubleVector startLongitude = DoubleVector.fromArray(SPECIES, longitudes, i);
+            DoubleVector endLongitude = DoubleVector.fromArray(SPECIES, longitudes, i + 1);
+
+            DoubleVector sinHalfDeltaLatitude = endLatitude.sub(startLatitude).mul(HALF_DEGREE_TO_RADIANS).lanewise(VectorOperators.SIN);
+            DoubleVector sinHalfDeltaLongitude = endLongitude.sub(startLongitude).mul(HALF_DEGREE_TO_RADIANS).lanewise(VectorOperators.SIN);
+            DoubleVector cosLatitudes = startLatitude.mul(DEGREE_TO_RADIANS).lanewise(VectorOperators.COS)
+                    .mul(endLatitude.mul(DEGREE_TO_RADIANS).lanewise(VectorOperators.COS));
+
+            DoubleVector haversineFormula = sinHalfDeltaLatitude.mul(sinHalfDeltaLatitude)
+                    .add(cosLatitudes.mul(sinHalfDeltaLongitude).mul(sinHalfDeltaLongitude));
+            centralAngles = centralAngles.add(haversineFormula.sqrt()
+                    .lanewise(VectorOperators.ATAN2, haversineFormula.neg().add(1).sqrt()));
+        }
+
+        double distance = 2 * EARTH_RADIUS_METERS * centralAngles.reduceLanes(VectorOperators.ADD);
+        if (vectorSegments < segments) {
+            // The last vector segment ends at point vectorSegments, the tail starts there
+            distance += tailKernel.pathDistance(latitudes, longitudes, vectorSegments, size);
+        }
+        return distance;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+}
@@ -0,0 +1,198 @@
+package com.running_tracker.service.export;
+
+import com.running_tracker.domain.projection.RunExportRow;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Compact columnar binary export. Runs are buffered in blocks of {@value #BLOCK_SIZE}; each block is written column by
+ * column, so memory stays bounded by one block whatever the history size.
+ *
+ * <pre>
+ * file     = magic "RTC1", user id (16 bytes), block*, varint 0
+ * block    = varint row count n, then the columns in this order:
+ *   id               n x 16 bytes
+ *   start_datetime   n x zigzag varint, epoch milliseconds (UTC) minus the previous row's, the first minus 0
+ *   start_latitude   n x zigzag varint, 1e-7 degrees minus the previous row's
+ *   start_longitude  n x zigzag varint, 1e-7 degrees minus the previous row's
+ *   finish_datetime  presence bitmap, zigzag varint milliseconds after the start of the row
+ *   finish_latitude  presence bitmap, zigzag varint 1e-7 degrees minus the previous present value
+ *   finish_longitude presence bitmap, zigzag varint 1e-7 degrees minus the previous present value
+ *   distance         presence bitmap, zigzag varint centimeters
+ *   average_speed    presence bitmap, zigzag varint 0.01 km/h
+ * bitmap   = ceil(n / 8) bytes, bit i % 8 of byte i / 8 set when row i has a value; values follow for set bits only
+ * </pre>
+ *
+ * Multi-byte integers are big-endian, varints are unsigned LEB128. Runs are ordered by start, so the deltas of
+ * timestamps and of coordinates of one runner usually fit in one to three bytes.
+ */
+class ColumnarRunExportEncoder implements RunExportEncoder {
+
+    static final byte[] MAGIC = {'R', 'T', 'C', '1'};
+    static final int BLOCK_SIZE = 4096;
+    static final double COORDINATE_SCALE = 1e7;
+    static final double HUNDREDTHS_SCALE = 100.0;
+
+    private final DataOutputStream output;
+    private final OutputStream outputStream;
+    private boolean userWritten;
+
+    private final long[] idMostSignificant = new long[BLOCK_SIZE];
+    private final long[] idLeastSignificant = new long[BLOCK_SIZE];
+    private final long[] startMillis = new long[BLOCK_SIZE];
+    private final double[] startLatitudes = new double[BLOCK_SIZE];
+    private final double[] startLongitudes = new double[BLOCK_SIZE];
+    // Long.MIN_VALUE for unfinished runs
+    private final long[] finishMillis = new long[BLOCK_SIZE];
+    private final double[] finishLatitudes = new double[BLOCK_SIZE];
+    private final double[] finishLongitudes = new double[BLOCK_SIZE];
+    private final double[] distances = new double[BLOCK_SIZE];
+    private final double[] averageSpeeds = new double[BLOCK_SIZE];
+    private int size;
+
+    ColumnarRunExportEncoder(OutputStream outputStream) throws IOException {
+        this.outputStream = outputStream;
+        this.output = new DataOutputStream(new BufferedOutputStream(outputStream, 64 * 1024));
+        output.write(MAGIC);
+    }
+
+    @Override
+    public void write(RunExportRow row) throws IOException {
+        if (!userWritten) {
+            writeUuid(row.getUserId());
+            userWritten = true;
+        }
+        idMostSignificant[size] = row.getId().getMostSignificantBits();
+        idLeastSignificant[size] = row.getId().getLeastSignificantBits();
+        startMillis[size] = epochMillis(row.getStartDatetime());
+        startLatitudes[size] = row.getStartLatitude();
+        startLongitudes[size] = row.getStartLongitude();
+        finishMillis[size] = (row.getFinishDatetime() != null) ? epochMillis(row.getFinishDatetime()) : Long.MIN_VALUE;
+        finishLatitudes[size] = row.getFinishLatitude();
+        finishLongitudes[size] = row.getFinishLongitude();
+        distances[size] = row.getDistance();
+        averageSpeeds[size] = row.getAverageSpeed();
+        if (++size == BLOCK_SIZE) {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!userWritten) {
+            // An export without runs carries the all-zero user id
+            writeUuid(new UUID(0L, 0L));
+        }
+        if (size > 0) {
+            writeBlock();
+        }
+        writeVarint(0);
+        output.flush();
+        outputStream.flush();
+    }
+
+    private void writeBlock() throws IOException {
+        writeVarint(size);
+        for (int i = 0; i < size; i++) {
+            output.writeLong(idMostSignificant[i]);
+            output.writeLong(idLeastSignificant[i]);
+        }
+        writeDeltas(startMillis);
+        writeScaledDeltas(startLatitudes, COORDINATE_SCALE);
+        writeScaledDeltas(startLongitudes, COORDINATE_SCALE);
+
+        writeBitmap(finishMillis);
+        for (int i = 0; i < size; i++) {
+            if (finishMillis[i] != Long.MIN_VALUE) {
+                writeZigzag(finishMillis[i] - startMillis[i]);
+            }
+        }
+        writeBitmap(finishLatitudes);
+        writeScaledDeltas(finishLatitudes, COORDINATE_SCALE);
+        writeBitmap(finishLongitudes);
+        writeScaledDeltas(finishLongitudes, COORDINATE_SCALE);
+        writeScaled(distances, HUNDREDTHS_SCALE);
+        writeScaled(averageSpeeds, HUNDREDTHS_SCALE);
+        size = 0;
+    }
+
+    private void writeDeltas(long[] values) throws IOException {
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            writeZigzag(values[i] - previous);
+            previous = values[i];
+        }
+    }
+
+    // Missing values are skipped, the delta of the next present value is taken against the last present one
+    private void writeScaledDeltas(double[] values, double scale) throws IOException {
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            if (!Double.isNaN(values[i])) {
+                long scaled = Math.round(values[i] * scale);
+                writeZigzag(scaled - previous);
+                previous = scaled;
+            }
+        }
+    }
+
+    private void writeScaled(double[] values, double scale) throws IOException {
+        writeBitmap(values);
+        for (int i = 0; i < size; i++) {
+            if (!Double.isNaN(values[i])) {
+                writeZigzag(Math.round(values[i] * scale));
+            }
+        }
+    }
+
+    private void writeBitmap(double[] values) throws IOException {
+        for (int offset = 0; offset < size; offset += 8) {
+            int bits = 0;
+            for (int bit = 0; bit < 8 && offset + bit < size; bit++) {
+                if (!Double.isNaN(values[offset + bit])) {
+                    bits |= 1 << bit;
+                }
+            }
+            output.writeByte(bits);
+        }
+    }
+
+    private void writeBitmap(long[] values) throws IOException {
+        for (int offset = 0; offset < size; offset += 8) {
+            int bits = 0;
+            for (int bit = 0; bit < 8 && offset + bit < size; bit++) {
+                if (values[offset + bit] != Long.MIN_VALUE) {
+                    bits |= 1 << bit;
+                }
+            }
+            output.writeByte(bits);
+        }
+    }
+
+    private void writeZigzag(long value) throws IOException {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    private void writeUuid(UUID uuid) throws IOException {
+        output.writeLong(uuid.getMostSignificantBits());
+        output.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static long epochMillis(LocalDateTime datetime) {
+        return datetime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,64 @@
+package com.running_tracker.service.export;
+
+import com.running_tracker.domain.projection.RunExportRow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip compressed CSV with a header line. The columns are named like those of the bulk import, so an export can be
+ * imported again; empty fields are missing values.
+ */
+class CsvRunExportEncoder implements RunExportEncoder {
+
+    private static final String HEADER = "id,userId,startDatetime,startLatitude,startLongitude," +
+            "finishDatetime,finishLatitude,finishLongitude,distance,averageSpeed\n";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final GZIPOutputStream gzipOutputStream;
+    private final Writer writer;
+    // One line is built at a time and reused for the next one
+    private final StringBuilder line = new StringBuilder(256);
+
+    CsvRunExportEncoder(OutputStream outputStream) throws IOException {
+        this.gzipOutputStream = new GZIPOutputStream(outputStream, BUFFER_SIZE);
+        this.writer = new OutputStreamWriter(gzipOutputStream, StandardCharsets.UTF_8);
+        writer.write(HEADER);
+    }
+
+    @Override
+    public void write(RunExportRow row) throws IOException {
+        line.setLength(0);
+        line.append(row.getId()).append(',')
+                .append(row.getUserId()).append(',');
+        appendDatetime(row.getStartDatetime()).append(',')
+                .append(row.getStartLatitude()).append(',')
+                .append(row.getStartLongitude()).append(',');
+        appendDatetime(row.getFinishDatetime()).append(',');
+        appendDouble(row.getFinishLatitude()).append(',');
+        appendDouble(row.getFinishLongitude()).append(',');
+        appendDouble(row.getDistance()).append(',');
+        appendDouble(row.getAverageSpeed()).append('\n');
+        writer.append(line);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+        gzipOutputStream.finish();
+        gzipOutputStream.flush();
+    }
+
+    private StringBuilder appendDatetime(LocalDateTime datetime) {
+        return (datetime != null) ? line.append(datetime) : line;
+    }
+
+    private StringBuilder appendDouble(double value) {
+        return Double.isNaN(value) ? line : line.append(value);
+    }
+}
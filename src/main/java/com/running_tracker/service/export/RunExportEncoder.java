@@ -0,0 +1,28 @@
+package com.running_tracker.service.export;
+
+import com.running_tracker.domain.projection.RunExportRow;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes exported runs to an output stream in one of the export formats.
+ */
+public interface RunExportEncoder extends Closeable {
+
+    /**
+     * Encodes a run; the row is not retained.
+     *
+     * @param row the run to write
+     * @throws IOException if the output stream fails
+     */
+    void write(RunExportRow row) throws IOException;
+
+    /**
+     * Writes what is still buffered and the end of the file, leaving the output stream open.
+     *
+     * @throws IOException if the output stream fails
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,47 @@
+package com.running_tracker.service.export;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * File formats of the bulk run export.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RunExportFormat {
+
+    /**
+     * Gzip compressed CSV with a header line, readable back by the bulk import.
+     */
+    CSV("application/gzip", ".csv.gz") {
+        @Override
+        public RunExportEncoder encoder(OutputStream outputStream) throws IOException {
+            return new CsvRunExportEncoder(outputStream);
+        }
+    },
+
+    /**
+     * Compact columnar binary file with delta encoded timestamps and coordinates.
+     */
+    COLUMNAR("application/octet-stream", ".rtc") {
+        @Override
+        public RunExportEncoder encoder(OutputStream outputStream) throws IOException {
+            return new ColumnarRunExportEncoder(outputStream);
+        }
+    };
+
+    private final String contentType;
+    private final String fileExtension;
+
+    /**
+     * Creates the encoder writing exported runs to the stream.
+     *
+     * @param outputStream the stream receiving the file, left open by the encoder
+     * @return the encoder
+     * @throws IOException if the file header cannot be written
+     */
+    public abstract RunExportEncoder encoder(OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,202 @@
+package com.running_tracker.service.impl;
+
+import com.running_tracker.api.dto.response.run.MeasurementDto;
+import com.running_tracker.api.dto.response.user.LeaderboardEntryDto;
+import com.running_tracker.api.dto.response.user.LeaderboardRankResponseDto;
+import com.running_tracker.api.dto.response.user.LeaderboardResponseDto;
+import com.running_tracker.domain.entity.StatisticsBucketType;
+import com.running_tracker.domain.repository.UserRunStatsRepository;
+import com.running_tracker.exception.ResourceNotFoundException;
+import com.running_tracker.service.LeaderboardService;
+import com.running_tracker.service.leaderboard.AgeGroup;
+import com.running_tracker.service.leaderboard.LeaderboardMetric;
+import com.running_tracker.service.leaderboard.LeaderboardPeriod;
+import com.running_tracker.service.leaderboard.LeaderboardStanding;
+import com.running_tracker.service.leaderboard.PeriodLeaderboard;
+import com.running_tracker.service.statistics.StatisticsWindow;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private final UserRunStatsRepository userRunStatsRepository;
+
+    // Guards the boards and the update counter; reads share it, and everything done under it is in memory and short
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<LeaderboardPeriod, PeriodLeaderboard> boards = new EnumMap<>(LeaderboardPeriod.class);
+    private long updates;
+
+    @Value("${running-tracker.leaderboards.top-size:100}")
+    private int topSize;
+
+    // Databases without materialized views read leaderboard_entries as a plain view, which is always current
+    @Value("${running-tracker.leaderboards.materialized-view:true}")
+    private boolean materializedView;
+
+    @Override
+    public void updateUser(UUID userId, LocalDateTime startDatetime) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime weekStart = StatisticsWindow.bucketStart(StatisticsBucketType.WEEK, startDatetime);
+        LocalDateTime monthStart = StatisticsWindow.bucketStart(StatisticsBucketType.MONTH, startDatetime);
+        // Only the current week and month are kept, runs of earlier periods move no board
+        if (!weekStart.equals(currentPeriodStart(LeaderboardPeriod.WEEK, now))
+                && !monthStart.equals(currentPeriodStart(LeaderboardPeriod.MONTH, now))) {
+            return;
+        }
+
+        // The rows hold what the finishing transaction wrote, the boards take them only once it commits
+        List<Runnable> changes = new ArrayList<>(2);
+        userRunStatsRepository.findLeaderboardEntries(userId, weekStart, monthStart, row -> {
+            LeaderboardPeriod period = LeaderboardPeriod.of(row.getPeriod());
+            LocalDateTime periodStart = row.getPeriodStart();
+            String sex = row.getSex();
+            LocalDate birthDate = row.getBirthDate();
+            double totalDistance = row.getTotalDistance();
+            double averageSpeed = row.getAverageSpeed();
+            changes.add(() -> update(period, periodStart, userId, sex, birthDate, totalDistance, averageSpeed, now));
+        });
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changes.forEach(Runnable::run);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                changes.forEach(Runnable::run);
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    @Timed(value = "running_tracker.leaderboards.refresh", longTask = true)
+    public void refresh() {
+        long sinceVersion;
+        lock.readLock().lock();
+        try {
+            sinceVersion = updates;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (materializedView) {
+            userRunStatsRepository.refreshLeaderboardEntries();
+        }
+
+        // Loaded without the lock, updates meanwhile go to the current boards and are carried over below
+        LocalDateTime now = LocalDateTime.now();
+        Map<LeaderboardPeriod, PeriodLeaderboard> loaded = new EnumMap<>(LeaderboardPeriod.class);
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            PeriodLeaderboard board = new PeriodLeaderboard(period.getBucketType(), currentPeriodStart(period, now), topSize);
+            userRunStatsRepository.streamLeaderboardEntries(period.getBucketType(), board.getPeriodStart(), row ->
+                    board.load(row.getUserId(), row.getSex(), row.getBirthDate(), row.getTotalDistance(), row.getAverageSpeed()));
+            board.seal();
+            loaded.put(period, board);
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<LeaderboardPeriod, PeriodLeaderboard> board : loaded.entrySet()) {
+                PeriodLeaderboard previous = boards.get(board.getKey());
+                if (previous != null && previous.getPeriodStart().equals(board.getValue().getPeriodStart())) {
+                    board.getValue().carryOver(previous, sinceVersion);
+                }
+                boards.put(board.getKey(), board.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Leaderboards refreshed, {} users this week, {} this month",
+                loaded.get(LeaderboardPeriod.WEEK).participants(null, null),
+                loaded.get(LeaderboardPeriod.MONTH).participants(null, null));
+    }
+
+    @Override
+    @Timed(value = "running_tracker.leaderboards.get", histogram = true)
+    public LeaderboardResponseDto getLeaderboard(LeaderboardPeriod period, LeaderboardMetric metric, String sex, AgeGroup ageGroup, int limit) {
+        lock.readLock().lock();
+        try {
+            PeriodLeaderboard board = readBoard(period, LocalDateTime.now());
+            List<LeaderboardEntryDto> entries = board.top(metric, sex, ageGroup, Math.max(limit, 1)).stream()
+                    .map(standing -> toEntryDto(standing, metric))
+                    .toList();
+            return new LeaderboardResponseDto(period, board.getPeriodStart(), metric, sex, ageGroup,
+                    board.participants(sex, ageGroup), entries);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    @Timed(value = "running_tracker.leaderboards.rank", histogram = true)
+    public LeaderboardRankResponseDto getRank(UUID userId, LeaderboardPeriod period, LeaderboardMetric metric, String sex, AgeGroup ageGroup) {
+        lock.readLock().lock();
+        try {
+            PeriodLeaderboard board = readBoard(period, LocalDateTime.now());
+            LeaderboardStanding standing = board.standing(userId, metric, sex, ageGroup).orElseThrow(() ->
+                    new ResourceNotFoundException(String.format("User with id %s is not on the leaderboard", userId)));
+            return new LeaderboardRankResponseDto(period, board.getPeriodStart(), metric, sex, ageGroup,
+                    board.participants(sex, ageGroup), toEntryDto(standing, metric));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void update(LeaderboardPeriod period, LocalDateTime periodStart, UUID userId, String sex, LocalDate birthDate,
+                        double totalDistance, double averageSpeed, LocalDateTime now) {
+        lock.writeLock().lock();
+        try {
+            PeriodLeaderboard board = currentBoard(period, now);
+            if (board.getPeriodStart().equals(periodStart)) {
+                board.update(userId, sex, birthDate, totalDistance, averageSpeed, ++updates);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // A new period starts with an empty board until the next refresh; call with the write lock held
+    private PeriodLeaderboard currentBoard(LeaderboardPeriod period, LocalDateTime now) {
+        PeriodLeaderboard board = readBoard(period, now);
+        boards.put(period, board);
+        return board;
+    }
+
+    // Reads leave the boards as they are, an empty board of a new period is stored by its first update
+    private PeriodLeaderboard readBoard(LeaderboardPeriod period, LocalDateTime now) {
+        LocalDateTime periodStart = currentPeriodStart(period, now);
+        PeriodLeaderboard board = boards.get(period);
+        if (board == null || !board.getPeriodStart().equals(periodStart)) {
+            board = new PeriodLeaderboard(period.getBucketType(), periodStart, topSize);
+            board.seal();
+        }
+        return board;
+    }
+
+    private static LocalDateTime currentPeriodStart(LeaderboardPeriod period, LocalDateTime now) {
+        return StatisticsWindow.bucketStart(period.getBucketType(), now);
+    }
+
+    private static LeaderboardEntryDto toEntryDto(LeaderboardStanding standing, LeaderboardMetric metric) {
+        return new LeaderboardEntryDto(standing.getRank(), standing.getUserId(),
+                new MeasurementDto(Math.round(standing.getValue() * 100.0) / 100.0, metric.getUnit()));
+    }
+}
@@ -0,0 +1,121 @@
+package com.running_tracker.service.impl;
+
+import com.running_tracker.api.dto.response.run.MeasurementDto;
+import com.running_tracker.api.dto.response.user.PersonalRecordDto;
+import com.running_tracker.api.dto.response.user.PersonalRecordsResponseDto;
+import com.running_tracker.domain.entity.PersonalRecord;
+import com.running_tracker.domain.entity.RecordDistance;
+import com.running_tracker.domain.repository.PersonalRecordRepository;
+import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.domain.repository.TrackPointRepository;
+import com.running_tracker.exception.CrudException;
+import com.running_tracker.service.PersonalRecordService;
+import com.running_tracker.service.track.BestEffort;
+import com.running_tracker.service.track.BestEffortFinder;
+import com.running_tracker.service.track.RunSplitCalculator;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PersonalRecordServiceImpl implements PersonalRecordService {
+
+    private static final String TIME_UNIT = "seconds";
+    private static final String PACE_UNIT = "s/km";
+    private static final double MILLIS_PER_SECOND = 1000.0;
+    private static final double METERS_PER_KILOMETER = 1000.0;
+
+    private final PersonalRecordRepository personalRecordRepository;
+    private final RunRepository runRepository;
+    private final TrackPointRepository trackPointRepository;
+
+    @Override
+    @Transactional
+    public int recordEfforts(List<BestEffort> efforts) {
+        int beaten = 0;
+        for (BestEffort effort : efforts) {
+            // The statement compares with the current record, a slower effort changes nothing
+            beaten += personalRecordRepository.offerEffort(effort.getRunId(), effort.getDistance().name(),
+                    effort.getElapsedMillis(), toDatetime(effort.getStartMillis()));
+        }
+        if (beaten > 0) {
+            log.debug("Run with id {} set {} personal records", efforts.get(0).getRunId(), beaten);
+        }
+        return beaten;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "running_tracker.personal_records.get", histogram = true)
+    public PersonalRecordsResponseDto getPersonalRecords(UUID userId) {
+        try {
+            // Shortest distance first; sorting the stored names would put the half marathon before the 1 km
+            List<PersonalRecordDto> records = personalRecordRepository.findAllByUserId(userId).stream()
+                    .sorted(Comparator.comparingDouble(record -> record.getId().getDistance().getMeters()))
+                    .map(this::toRecordDto)
+                    .toList();
+
+            log.debug("Found {} personal records of user with id {}", records.size(), userId);
+            return new PersonalRecordsResponseDto(userId, records);
+        } catch (Exception exception) {
+            log.error("Crud exception, Error:{}", exception.getMessage());
+            throw new CrudException(exception.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional
+    @Timed(value = "running_tracker.personal_records.rebuild", histogram = true)
+    public void rebuild(UUID userId) {
+        personalRecordRepository.deleteAllByUserId(userId);
+
+        // Only the fastest effort per distance is written, however many runs the user has
+        Map<RecordDistance, BestEffort> bestEfforts = new EnumMap<>(RecordDistance.class);
+        for (UUID runId : runRepository.findFinishedIdsByUserId(userId)) {
+            for (BestEffort effort : findBestEfforts(runId)) {
+                BestEffort best = bestEfforts.get(effort.getDistance());
+                if (best == null || effort.getElapsedMillis() < best.getElapsedMillis()) {
+                    bestEfforts.put(effort.getDistance(), effort);
+                }
+            }
+        }
+        recordEfforts(List.copyOf(bestEfforts.values()));
+    }
+
+    // Measures the track as finishing the run does; the splits the calculator emits on the way are not needed here
+    private List<BestEffort> findBestEfforts(UUID runId) {
+        RunSplitCalculator calculator = new RunSplitCalculator(runId, 0, split -> {
+        });
+        BestEffortFinder bestEffortFinder = new BestEffortFinder(runId);
+        trackPointRepository.streamTrackByRunId(runId, (recordedAtMillis, latitude, longitude) -> {
+            calculator.accept(recordedAtMillis, latitude, longitude);
+            bestEffortFinder.add(recordedAtMillis, calculator.getDistance());
+        });
+        return bestEffortFinder.find();
+    }
+
+    private PersonalRecordDto toRecordDto(PersonalRecord record) {
+        double seconds = record.getElapsedMillis() / MILLIS_PER_SECOND;
+        double pace = seconds * METERS_PER_KILOMETER / record.getId().getDistance().getMeters();
+        return new PersonalRecordDto(record.getId().getDistance(), new MeasurementDto(seconds, TIME_UNIT),
+                new MeasurementDto(Math.round(pace * 100.0) / 100.0, PACE_UNIT), record.getRunId(), record.getAchievedAt());
+    }
+
+    // Epoch millis encode the recorded local datetime at UTC, see RunTrack
+    private static LocalDateTime toDatetime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,282 @@
+package com.running_tracker.service.impl;
+
+import com.running_tracker.api.dto.request.run.FinishRunRequestDto;
+import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.response.run.RunPageResponseDto;
+import com.running_tracker.api.dto.response.run.RunResponseDto;
+import com.running_tracker.api.dto.response.run.StartRunResponseDto;
+import com.running_tracker.api.dto.response.user.UserStatisticsDTO;
+import com.running_tracker.config.CacheConfig;
+import com.running_tracker.config.ReactiveConfig;
+import com.running_tracker.domain.geo.Geohash;
+import com.running_tracker.domain.projection.RunSummary;
+import com.running_tracker.domain.reactive.entity.RunRecord;
+import com.running_tracker.domain.reactive.repository.ReactiveRunRepository;
+import com.running_tracker.domain.reactive.repository.ReactiveUserRepository;
+import com.running_tracker.exception.ConcurrentRunUpdateException;
+import com.running_tracker.exception.CrudException;
+import com.running_tracker.exception.InvalidCursorException;
+import com.running_tracker.exception.ResourceNotFoundException;
+import com.running_tracker.exception.RunCalculationException;
+import com.running_tracker.service.ReactiveRunService;
+import com.running_tracker.service.RunCalculatorService;
+import com.running_tracker.service.TrackPointService;
+import com.running_tracker.service.UserRunStatsService;
+import com.running_tracker.service.mapper.RunMapper;
+import com.running_tracker.service.pagination.RunCursor;
+import io.r2dbc.spi.R2dbcException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+/**
+ * Runs read and written over R2DBC. The recorded track and the statistics rollup stay on JDBC, shared with the servlet
+ * stack; those calls run on the bounded elastic scheduler so that they never block an event loop thread.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveRunServiceImpl implements ReactiveRunService {
+
+    private static final String DISTANCE_UNIT = "meters";
+    private static final String AVERAGE_SPEED_UNIT = "km/h";
+
+    private static final int MAX_PAGE_SIZE = 500;
+    // Bounds used when the caller does not restrict the time range
+    private static final LocalDateTime MIN_DATETIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATETIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    // Sorts before every real run id, so a page without cursor starts at fromDatetime
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private final RunCalculatorService runCalculatorService;
+    private final UserRunStatsService userRunStatsService;
+    private final TrackPointService trackPointService;
+
+    private final RunMapper runMapper;
+    private final ReactiveRunRepository runRepository;
+    private final ReactiveUserRepository userRepository;
+
+    // SQL states of an INSERT referencing a missing row, PostgreSQL's foreign_key_violation; the H2 tests add their own
+    @Value("${running-tracker.foreign-key-violation-states:23503}")
+    private Set<String> foreignKeyViolationStates = Set.of("23503");
+
+    @Override
+    public Mono<StartRunResponseDto> startRun(StartRunRequestDto requestDto) {
+        // No user lookup: the foreign key of the INSERT checks that the user exists
+        RunRecord record = runMapper.toRecord(requestDto).asNew();
+        record.setStartGeohash(Geohash.of(record.getStartLatitude(), record.getStartLongitude()));
+        // Counted by the open runs of the run list ETag, see RunChangeService
+        return runRepository.save(record)
+                .doOnNext(run -> log.debug("Run was created for user with id {}", requestDto.getUserId()))
+                .map(runMapper::toStartRunResponseDto)
+                // The user is the only foreign key of a new run
+                .onErrorMap(exception -> toServiceException(violatesForeignKey(exception)
+                        ? new ResourceNotFoundException(String.format("User with id[%s] not found", requestDto.getUserId()))
+                        : exception));
+    }
+
+    @Override
+    // Retries of a request share the response of its first finish, as in the servlet stack
+    @Cacheable(cacheNames = CacheConfig.RUN_FINISH_RESPONSES_CACHE, key = "{#id, #idempotencyKey}",
+            condition = "#idempotencyKey != null", sync = true)
+    @Transactional(transactionManager = ReactiveConfig.REACTIVE_TRANSACTION_MANAGER)
+    public Mono<RunResponseDto> finishRun(FinishRunRequestDto requestDto, UUID id, String idempotencyKey) {
+        return runRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(String.format("Run with id %s does not exists", id))))
+                .flatMap(run -> {
+                    // Remember what the statistics rollup already holds for this run
+                    boolean alreadyFinished = run.getFinishDatetime() != null;
+                    double previousDistance = alreadyFinished ? valueOrZero(run.getDistance()) : 0.0;
+                    double previousAverageSpeed = alreadyFinished ? valueOrZero(run.getAverageSpeed()) : 0.0;
+
+                    run.setFinishLatitude(requestDto.getFinishLatitude());
+                    run.setFinishLongitude(requestDto.getFinishLongitude());
+                    run.setFinishDatetime(requestDto.getFinishDatetime());
+                    run.setFinishGeohash(Geohash.of(run.getFinishLatitude(), run.getFinishLongitude()));
+
+                    return calculateDistance(requestDto, run)
+                            .flatMap(distance -> {
+                                run.setDistance(distance);
+                                run.setDistanceUnit(DISTANCE_UNIT);
+                                run.setAverageSpeed(runCalculatorService.calculateAverageSpeed(distance, run.getStartDatetime(),
+                                        requestDto.getFinishDatetime()));
+                                run.setAverageSpeedUnit(AVERAGE_SPEED_UNIT);
+                                return runRepository.save(run);
+                            })
+                            .flatMap(savedRun -> userRepository.incrementRunChangeCount(savedRun.getUserId()).thenReturn(savedRun))
+                            .flatMap(savedRun -> afterCommit(() -> userRunStatsService.addRun(savedRun.getUserId(),
+                                    savedRun.getStartDatetime(), alreadyFinished ? 0 : 1,
+                                    savedRun.getDistance() - previousDistance, savedRun.getAverageSpeed() - previousAverageSpeed))
+                                    .thenReturn(savedRun));
+                })
+                .map(runMapper::toRunDto)
+                .doOnNext(run -> log.debug("Run was finished for user [userId:{}]", run.getUserId()))
+                // The version check of the UPDATE fails if another request finished the run since it was read
+                .onErrorMap(OptimisticLockingFailureException.class,
+                        exception -> new ConcurrentRunUpdateException(String.format("Run with id %s was changed by a concurrent request", id)))
+                .onErrorMap(this::toServiceException);
+    }
+
+    @Override
+    public Flux<RunResponseDto> getAllRunsForUser(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime) {
+        // If fromDatetime is null, return all runs for the user; if toDatetime is null, the range ends now
+        Flux<RunSummary> runs = (fromDatetime == null)
+                ? runRepository.findSummariesByUserId(userId)
+                : runRepository.findSummariesByUserIdAndStartDatetimeBetween(userId, fromDatetime,
+                (toDatetime != null) ? toDatetime : LocalDateTime.now());
+        return runs.map(runMapper::toRunDto)
+                .onErrorMap(this::toServiceException);
+    }
+
+    @Override
+    public Mono<RunPageResponseDto> getRunsPage(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime, String cursor, int limit) {
+        return Mono.defer(() -> {
+                    LocalDateTime from = resolveFromDatetime(fromDatetime);
+                    RunCursor after = (cursor != null) ? RunCursor.decode(cursor) : new RunCursor(from, MIN_ID);
+                    int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+                    // Fetch one extra run to find out whether another page follows
+                    return runRepository.findSummaryPageByUserIdAndStartDatetimeBetween(userId, from,
+                                    resolveToDatetime(fromDatetime, toDatetime), after.getStartDatetime(), after.getId(), pageSize + 1)
+                            .collectList()
+                            .map(runs -> {
+                                boolean hasNext = runs.size() > pageSize;
+                                List<RunSummary> page = hasNext ? runs.subList(0, pageSize) : runs;
+                                String nextCursor = hasNext ? RunCursor.of(page.get(page.size() - 1)).encode() : null;
+                                log.debug("Found page of {} runs for user with id {}", page.size(), userId);
+                                return new RunPageResponseDto(page.stream().map(runMapper::toRunDto).toList(), nextCursor);
+                            });
+                })
+                .onErrorMap(this::toServiceException);
+    }
+
+    @Override
+    @Transactional(transactionManager = ReactiveConfig.REACTIVE_TRANSACTION_MANAGER, readOnly = true)
+    public Flux<RunResponseDto> streamAllRunsForUser(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime) {
+        // The read-only transaction keeps the PostgreSQL cursor open while the client consumes the stream
+        return runRepository.streamSummariesByUserIdAndStartDatetimeBetween(userId, resolveFromDatetime(fromDatetime),
+                        resolveToDatetime(fromDatetime, toDatetime))
+                .map(runMapper::toRunDto)
+                .onErrorMap(this::toServiceException);
+    }
+
+    @Override
+    public Mono<UserStatisticsDTO> getUserStatistics(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime) {
+        // Default toDatetime to now if fromDatetime is provided but toDatetime is null
+        LocalDateTime resolvedToDatetime = (fromDatetime != null && toDatetime == null) ? LocalDateTime.now() : toDatetime;
+        // The rollup and its cache are shared with the servlet stack
+        return blocking(() -> userRunStatsService.getStatistics(userId, fromDatetime, resolvedToDatetime))
+                .doOnNext(statistics -> log.debug("Found {} runs with user with id {}", statistics.getTotalRuns(), userId))
+                .onErrorMap(this::toServiceException);
+    }
+
+    // The recorded track always yields the splits and best efforts; the distance is the one of the finish run request
+    // data, then the one along the track, then the one between start and finish points
+    private Mono<Double> calculateDistance(FinishRunRequestDto requestDto, RunRecord run) {
+        // Locked by the finishing R2DBC transaction, the track itself is read over JDBC
+        return runRepository.lockFinishedById(run.getId())
+                .then(blocking(() -> {
+                    OptionalDouble trackDistance = trackPointService.completeTrack(run.getId());
+                    if (Objects.nonNull(requestDto.getDistance())) {
+                        return requestDto.getDistance();
+                    }
+                    return trackDistance.orElseGet(() -> runCalculatorService.calculateDistance(run.getStartLatitude(),
+                            run.getStartLongitude(), requestDto.getFinishLatitude(), requestDto.getFinishLongitude()));
+                }));
+    }
+
+    // The rollup is written in its own JDBC transaction once the finished run committed, so a rolled back finish is
+    // never counted. A failed rollup write leaves the run uncounted until the consistency check rebuilds the user.
+    private Mono<Void> afterCommit(Runnable rollupWrite) {
+        Mono<Void> write = blocking(() -> {
+            rollupWrite.run();
+            return true;
+        }).then();
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .filter(TransactionSynchronizationManager::isSynchronizationActive)
+                .map(synchronizationManager -> {
+                    synchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return write.onErrorResume(exception -> {
+                                log.error("Statistics rollup write after finish failed, Error:{}", exception.getMessage());
+                                return Mono.empty();
+                            });
+                        }
+                    });
+                    return true;
+                })
+                .onErrorResume(NoTransactionException.class, exception -> Mono.empty())
+                // Without a transaction the run is already stored
+                .switchIfEmpty(write.thenReturn(true))
+                .then();
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Throwable toServiceException(Throwable exception) {
+        if (exception instanceof ResourceNotFoundException) {
+            log.error("Resource not found, Error:{}", exception.getMessage());
+            return exception;
+        }
+        if (exception instanceof InvalidCursorException) {
+            log.error("Invalid cursor, Error:{}", exception.getMessage());
+            return exception;
+        }
+        if (exception instanceof RunCalculationException) {
+            log.error("Processing exception, Error:{}", exception.getMessage());
+            return exception;
+        }
+        if (exception instanceof ConcurrentRunUpdateException) {
+            log.error("Concurrent update, Error:{}", exception.getMessage());
+            return exception;
+        }
+        log.error("Crud exception, Error:{}", exception.getMessage());
+        return new CrudException(exception.getMessage());
+    }
+
+    private boolean violatesForeignKey(Throwable exception) {
+        return exception instanceof DataIntegrityViolationException
+                && exception.getCause() instanceof R2dbcException violation
+                && foreignKeyViolationStates.contains(violation.getSqlState());
+    }
+
+    private double valueOrZero(Double value) {
+        return (value != null) ? value : 0.0;
+    }
+
+    private LocalDateTime resolveFromDatetime(LocalDateTime fromDatetime) {
+        return (fromDatetime != null) ? fromDatetime : MIN_DATETIME;
+    }
+
+    // Matches getAllRunsForUser: an open range ends now, no range at all covers the whole history
+    private LocalDateTime resolveToDatetime(LocalDateTime fromDatetime, LocalDateTime toDatetime) {
+        if (fromDatetime == null) {
+            return MAX_DATETIME;
+        }
+        return (toDatetime != null) ? toDatetime : LocalDateTime.now();
+    }
+}
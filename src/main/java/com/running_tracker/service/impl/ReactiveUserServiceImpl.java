@@ -0,0 +1,95 @@
+package com.running_tracker.service.impl;
+
+import com.running_tracker.api.dto.request.user.UserRequestDto;
+import com.running_tracker.api.dto.response.user.DeleteUserResponseDto;
+import com.running_tracker.api.dto.response.user.UserResponseDto;
+import com.running_tracker.config.ReactiveConfig;
+import com.running_tracker.domain.reactive.repository.ReactiveUserRepository;
+import com.running_tracker.exception.CrudException;
+import com.running_tracker.exception.ResourceNotFoundException;
+import com.running_tracker.service.ReactiveUserService;
+import com.running_tracker.service.mapper.UserMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+// Reads go to the database, the users cache of the servlet stack is not used by this one
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+
+    private final UserMapper userMapper;
+    private final ReactiveUserRepository userRepository;
+
+    @Override
+    public Mono<UserResponseDto> save(UserRequestDto requestDto) {
+        return userRepository.save(userMapper.toRecord(requestDto).asNew())
+                .doOnNext(user -> log.debug("User [id:{}] was saved", user.getId()))
+                .map(userMapper::toDto)
+                .onErrorMap(exception -> {
+                    log.error(exception.getMessage());
+                    return new CrudException(String.format("Failed to save user with firstName %s and lastName %s in database: %s",
+                            requestDto.getFirstName(), requestDto.getLastName(), exception.getMessage()));
+                });
+    }
+
+    @Override
+    public Mono<UserResponseDto> findUserDtoById(UUID id) {
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(String.format("User with id[%s] not found", id))))
+                .doOnNext(user -> log.debug("User with id {} was found", id))
+                .map(userMapper::toDto)
+                .onErrorMap(exception -> toServiceException(exception,
+                        String.format("Failed to find user with id %s in database: %s", id, exception.getMessage())));
+    }
+
+    @Override
+    public Flux<UserResponseDto> findAll() {
+        return userRepository.findAll()
+                .map(userMapper::toDto)
+                .onErrorMap(exception -> {
+                    log.error(exception.getMessage());
+                    return new CrudException(String.format("Error finding all users. Error msg: %s", exception.getMessage()));
+                });
+    }
+
+    @Override
+    @Transactional(transactionManager = ReactiveConfig.REACTIVE_TRANSACTION_MANAGER)
+    public Mono<UserResponseDto> update(UserRequestDto requestDto, UUID id) {
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(String.format("User with id[%s] not found", id))))
+                .flatMap(user -> {
+                    user.setFirstName(requestDto.getFirstName());
+                    user.setLastName(requestDto.getLastName());
+                    user.setBirthDate(requestDto.getBirthDate());
+                    user.setSex(requestDto.getSex());
+                    return userRepository.save(user);
+                })
+                .doOnNext(user -> log.debug("User with id {} updated successfully", id))
+                .map(userMapper::toDto)
+                .onErrorMap(exception -> toServiceException(exception,
+                        String.format("Failed to update user with id %s in database: %s", id, exception.getMessage())));
+    }
+
+    @Override
+    public Mono<DeleteUserResponseDto> delete(UUID id) {
+        return userRepository.deleteById(id)
+                .doOnSuccess(deleted -> log.debug("User with id {} was deleted", id))
+                .thenReturn(new DeleteUserResponseDto(String.format("User with id %s successfully deleted", id)))
+                .onErrorMap(exception -> new CrudException(
+                        String.format("Failed to delete user with id %s in database: %s", id, exception.getMessage())));
+    }
+
+    private Throwable toServiceException(Throwable exception, String crudMessage) {
+        log.error(exception.getMessage());
+        return (exception instanceof ResourceNotFoundException) ? exception : new CrudException(crudMessage);
+    }
+}
@@ -0,0 +1,48 @@
+package com.running_tracker.service.impl;
+
+import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.domain.repository.UserRepository;
+import com.running_tracker.service.RunChangeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RunChangeServiceImpl implements RunChangeService {
+
+    private final UserRepository userRepository;
+    private final RunRepository runRepository;
+
+    @Override
+    @Transactional
+    public void recordChange(UUID userId) {
+        userRepository.incrementRunChangeCount(userId);
+    }
+
+    @Override
+    @Transactional
+    public void recordChangeOfAllUsers() {
+        int users = userRepository.incrementAllRunChangeCounts();
+        log.debug("Recorded a run change for {} users", users);
+    }
+
+    @Override
+    // A single primary key lookup, far cheaper than the run and statistics queries it versions
+    public OptionalLong getChangeCount(UUID userId) {
+        return userRepository.findRunChangeCountById(userId)
+                .map(OptionalLong::of)
+                .orElseGet(OptionalLong::empty);
+    }
+
+    @Override
+    // Reads the partial index of open runs on PostgreSQL, which only holds the runs in progress
+    public long countOpenRuns(UUID userId) {
+        return runRepository.countOpenByUserId(userId);
+    }
+}
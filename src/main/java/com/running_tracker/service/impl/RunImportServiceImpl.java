@@ -0,0 +1,211 @@
+package com.running_tracker.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.running_tracker.api.dto.request.run.ImportRunRequestDto;
+import com.running_tracker.api.dto.response.run.RunImportErrorDto;
+import com.running_tracker.api.dto.response.run.RunImportResponseDto;
+import com.running_tracker.domain.id.UuidV7;
+import com.running_tracker.domain.projection.RunSummary;
+import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.domain.repository.UserRepository;
+import com.running_tracker.exception.CrudException;
+import com.running_tracker.exception.InvalidImportException;
+import com.running_tracker.exception.RunCalculationException;
+import com.running_tracker.service.RunCalculatorService;
+import com.running_tracker.service.RunImportService;
+import com.running_tracker.service.UserRunStatsService;
+import com.running_tracker.service.importer.RunImportFormat;
+import com.running_tracker.service.importer.RunImportParser;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RunImportServiceImpl implements RunImportService {
+
+    private static final String DISTANCE_UNIT = "meters";
+    private static final String AVERAGE_SPEED_UNIT = "km/h";
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final RunCalculatorService runCalculatorService;
+    private final UserRunStatsService userRunStatsService;
+
+    private final RunRepository runRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    // Runs written per JDBC batch and transaction, a failed write rejects the runs of its chunk only
+    @Value("${running-tracker.run-import.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${running-tracker.run-import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Override
+    @Timed(value = "running_tracker.runs.import", longTask = true)
+    public RunImportResponseDto importRuns(Reader body, RunImportFormat format) {
+        RunImport runImport = new RunImport();
+        try (BufferedReader reader = new BufferedReader(body, READ_BUFFER_SIZE)) {
+            long lineNumber = 0;
+            String header = null;
+            if (format.hasHeader()) {
+                header = reader.readLine();
+                lineNumber++;
+            }
+            RunImportParser parser = format.parser(header, objectMapper);
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    runImport.add(lineNumber, toRun(parser.parse(line)));
+                } catch (IOException | InvalidImportException | RunCalculationException exception) {
+                    runImport.reject(lineNumber, errorMessage(exception));
+                }
+                if (runImport.chunk.size() >= chunkSize) {
+                    writeChunk(runImport);
+                }
+            }
+            writeChunk(runImport);
+        } catch (IOException exception) {
+            log.error("Run import failed after {} runs, Error:{}", runImport.importedRuns, exception.getMessage());
+            throw new CrudException(exception.getMessage());
+        } finally {
+            // One rebuild per user is far cheaper than a rollup update per imported run. Every chunk commits on its
+            // own, so the users of the written chunks are rebuilt also when the body fails midway
+            runImport.importedUserIds.forEach(userRunStatsService::rebuild);
+        }
+
+        log.info("Imported {} runs of {} users, {} runs rejected", runImport.importedRuns, runImport.importedUserIds.size(),
+                runImport.rejectedRuns);
+        return new RunImportResponseDto(runImport.importedRuns, runImport.rejectedRuns, runImport.errors);
+    }
+
+    private RunSummary toRun(ImportRunRequestDto requestDto) {
+        Set<ConstraintViolation<ImportRunRequestDto>> violations = validator.validate(requestDto);
+        if (!violations.isEmpty()) {
+            throw new InvalidImportException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        if (requestDto.getFinishDatetime().isBefore(requestDto.getStartDatetime())) {
+            throw new InvalidImportException("finishDatetime must not be before startDatetime");
+        }
+
+        double distance = Objects.nonNull(requestDto.getDistance()) ? requestDto.getDistance()
+                : runCalculatorService.calculateDistance(requestDto.getStartLatitude(), requestDto.getStartLongitude(),
+                requestDto.getFinishLatitude(), requestDto.getFinishLongitude());
+        double averageSpeed = runCalculatorService.calculateAverageSpeed(distance, requestDto.getStartDatetime(),
+                requestDto.getFinishDatetime());
+
+        return new RunSummary(UuidV7.randomUUID(), requestDto.getUserId(), requestDto.getStartLatitude(),
+                requestDto.getStartLongitude(), requestDto.getStartDatetime(), requestDto.getFinishLatitude(),
+                requestDto.getFinishLongitude(), requestDto.getFinishDatetime(), distance, DISTANCE_UNIT,
+                averageSpeed, AVERAGE_SPEED_UNIT);
+    }
+
+    private void writeChunk(RunImport runImport) {
+        if (runImport.chunk.isEmpty()) {
+            return;
+        }
+
+        // The foreign key would fail the whole batch, so runs of unknown users are rejected before writing
+        resolveUsers(runImport);
+        List<RunSummary> runs = new ArrayList<>(runImport.chunk.size());
+        List<Long> lines = new ArrayList<>(runImport.chunk.size());
+        for (int i = 0; i < runImport.chunk.size(); i++) {
+            RunSummary run = runImport.chunk.get(i);
+            if (runImport.unknownUserIds.contains(run.getUserId())) {
+                runImport.reject(runImport.chunkLines.get(i), String.format("User with id[%s] not found", run.getUserId()));
+            } else {
+                runs.add(run);
+                lines.add(runImport.chunkLines.get(i));
+            }
+        }
+        runImport.chunk.clear();
+        runImport.chunkLines.clear();
+
+        if (runs.isEmpty()) {
+            return;
+        }
+        try {
+            runRepository.insertAll(runs);
+            runImport.importedRuns += runs.size();
+            runs.forEach(run -> runImport.importedUserIds.add(run.getUserId()));
+        } catch (DataAccessException exception) {
+            log.error("Run import chunk failed, Error:{}", exception.getMessage());
+            lines.forEach(line -> runImport.reject(line, "Run could not be written: " + exception.getMostSpecificCause().getMessage()));
+        }
+    }
+
+    // Looks up only the users not seen in earlier chunks, an import usually covers few users
+    private void resolveUsers(RunImport runImport) {
+        Set<UUID> unresolved = new HashSet<>();
+        for (RunSummary run : runImport.chunk) {
+            if (!runImport.knownUserIds.contains(run.getUserId()) && !runImport.unknownUserIds.contains(run.getUserId())) {
+                unresolved.add(run.getUserId());
+            }
+        }
+        if (unresolved.isEmpty()) {
+            return;
+        }
+        List<UUID> existing = userRepository.findExistingIds(unresolved);
+        runImport.knownUserIds.addAll(existing);
+        existing.forEach(unresolved::remove);
+        runImport.unknownUserIds.addAll(unresolved);
+    }
+
+    private String errorMessage(Exception exception) {
+        // Jackson appends the source location, which repeats the whole line
+        return (exception instanceof JsonProcessingException jsonException) ? jsonException.getOriginalMessage() : exception.getMessage();
+    }
+
+    // State of one import: the pending chunk, the resolved users and the counts reported back
+    private final class RunImport {
+
+        private final List<RunSummary> chunk = new ArrayList<>();
+        private final List<Long> chunkLines = new ArrayList<>();
+        private final Set<UUID> knownUserIds = new HashSet<>();
+        private final Set<UUID> unknownUserIds = new HashSet<>();
+        private final Set<UUID> importedUserIds = new HashSet<>();
+        private final List<RunImportErrorDto> errors = new ArrayList<>();
+        private long importedRuns;
+        private long rejectedRuns;
+
+        private void add(long line, RunSummary run) {
+            chunk.add(run);
+            chunkLines.add(line);
+        }
+
+        private void reject(long line, String message) {
+            rejectedRuns++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RunImportErrorDto(line, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.running_tracker.service.impl;
+
+import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.service.RunChangeService;
+import com.running_tracker.service.RunPartitionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RunPartitionServiceImpl implements RunPartitionService {
+
+    private final RunRepository runRepository;
+    private final RunChangeService runChangeService;
+
+    @Value("${running-tracker.run-partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    // Months kept attached before the current one, 0 keeps every partition
+    @Value("${running-tracker.run-partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isPartitioned() {
+        return runRepository.isPartitioned();
+    }
+
+    @Override
+    @Transactional
+    public List<YearMonth> createUpcomingPartitions(YearMonth currentMonth) {
+        Set<YearMonth> existing = Set.copyOf(runRepository.findMonthlyPartitions());
+        List<YearMonth> created = new ArrayList<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+            if (!existing.contains(month)) {
+                runRepository.createMonthlyPartition(month);
+                created.add(month);
+                log.info("Created runs partition for {}", month);
+            }
+        }
+        return created;
+    }
+
+    @Override
+    @Transactional
+    public List<YearMonth> detachExpiredPartitions(YearMonth currentMonth) {
+        if (retentionMonths <= 0) {
+            return List.of();
+        }
+
+        YearMonth oldestRetained = currentMonth.minusMonths(retentionMonths);
+        List<YearMonth> expired = runRepository.findMonthlyPartitions().stream()
+                .filter(month -> month.isBefore(oldestRetained))
+                .toList();
+        for (YearMonth month : expired) {
+            runRepository.detachMonthlyPartition(month);
+            log.info("Detached and archived runs partition for {}", month);
+        }
+        if (!expired.isEmpty()) {
+            // Archived runs drop out of the run lists of every user
+            runChangeService.recordChangeOfAllUsers();
+        }
+        return expired;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UUID> findArchivedUserIds(YearMonth month) {
+        return runRepository.findArchivedUserIds(month);
+    }
+}
@@ -2,29 +2,62 @@ package com.running_tracker.service.impl;
 
 import com.running_tracker.api.dto.request.run.FinishRunRequestDto;
 import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.response.run.MeasurementDto;
+import com.running_tracker.api.dto.response.run.NearbyRunDto;
+import com.running_tracker.api.dto.response.run.NearbyRunsResponseDto;
+import com.running_tracker.api.dto.response.run.RunPageResponseDto;
 import com.running_tracker.api.dto.response.run.RunResponseDto;
 import com.running_tracker.api.dto.response.run.StartRunResponseDto;
 import com.running_tracker.api.dto.response.user.UserStatisticsDTO;
+import com.running_tracker.config.CacheConfig;
 import com.running_tracker.domain.entity.Run;
+import com.running_tracker.domain.geo.Geohash;
+import com.running_tracker.domain.geo.GeohashRange;
+import com.running_tracker.domain.projection.RunSummary;
 import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.exception.ConcurrentRunUpdateException;
 import com.running_tracker.exception.CrudException;
+import com.running_tracker.exception.InvalidCursorException;
+import com.running_tracker.exception.InvalidLocationException;
 import com.running_tracker.exception.RunCalculationException;
 import com.running_tracker.exception.ResourceNotFoundException;
 import com.running_tracker.service.RunCalculatorService;
+import com.running_tracker.service.RunChangeService;
 import com.running_tracker.service.RunService;
+import com.running_tracker.service.TrackPointService;
+import com.running_tracker.service.UserRunStatsService;
 import com.running_tracker.service.UserService;
 import com.running_tracker.service.mapper.RunMapper;
+import com.running_tracker.service.export.RunExportEncoder;
+import com.running_tracker.service.export.RunExportFormat;
+import com.running_tracker.service.pagination.RunCursor;
+import io.micrometer.core.annotation.Timed;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;
-import java.time.Instant;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -34,39 +67,78 @@ public class RunServiceImpl implements RunService {
     private static final String DISTANCE_UNIT = "meters";
     private static final String AVERAGE_SPEED_UNIT = "km/h";
 
+    private static final int MAX_PAGE_SIZE = 500;
+    // Bounds used when the caller does not restrict the time range
+    private static final LocalDateTime MIN_DATETIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATETIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    // Sorts before every real run id, so a page without cursor starts at fromDatetime
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
     private final UserService userService;
     private final RunCalculatorService runCalculatorService;
+    private final UserRunStatsService userRunStatsService;
+    private final TrackPointService trackPointService;
+    private final RunChangeService runChangeService;
 
     private final RunMapper runMapper;
     private final RunRepository runRepository;
 
+    // SQL states of an INSERT referencing a missing row, PostgreSQL's foreign_key_violation; the H2 tests add their own
+    @Value("${running-tracker.foreign-key-violation-states:23503}")
+    private Set<String> foreignKeyViolationStates = Set.of("23503");
+
+    // Bounds the runs a query near a location reads
+    @Value("${running-tracker.runs-near.max-radius:50000}")
+    private double maxNearRadius;
+
+    @Value("${running-tracker.runs-near.covering-cells:16}")
+    private int nearCoveringCells;
+
     @Override
+    @Transactional
+    @Timed(value = "running_tracker.runs.start", histogram = true)
     public StartRunResponseDto startRun(StartRunRequestDto requestDto) {
-        Instant start = Instant.now();
         try {
-            Run run = runMapper.toEntity(requestDto, userService.findUserById(requestDto.getUserId()));
-            StartRunResponseDto startRunResponseDto = runMapper.toStartRunResponseDto(runRepository.save(run));
-            log.info(String.format("Run was created for user with id %s", requestDto.getUserId()));
+            // No user lookup: the foreign key of the INSERT, flushed right away, checks that the user exists
+            Run run = runMapper.toEntity(requestDto, userService.getUserReference(requestDto.getUserId()));
+            run.setStartGeohash(Geohash.of(run.getStartLatitude(), run.getStartLongitude()));
+            // Counted by the open runs of the run list ETag, see RunChangeService
+            StartRunResponseDto startRunResponseDto = runMapper.toStartRunResponseDto(runRepository.saveAndFlush(run));
+            log.debug("Run was created for user with id {}", requestDto.getUserId());
             return startRunResponseDto;
+        } catch (DataIntegrityViolationException exception) {
+            // The user is the only foreign key of a new run
+            if (violatesForeignKey(exception)) {
+                log.error("Resource not found, Error:{}", exception.getMessage());
+                throw new ResourceNotFoundException(String.format("User with id[%s] not found", requestDto.getUserId()));
+            }
+            log.error("Crud exception, Error:{}", exception.getMessage());
+            throw new CrudException(exception.getMessage());
         } catch (Exception exception) {
             throw new CrudException(exception.getMessage());
-        } finally {
-            Instant end = Instant.now();
-            log.info(String.format("Start run logic finished. [durationMs = %s]", Duration.between(start, end).toMillis()));
         }
-
     }
 
     @Override
-    public RunResponseDto finishRun(FinishRunRequestDto requestDto, UUID id) {
-        Instant start = Instant.now();
+    // Retries of a request share the response of its first finish, concurrent ones wait for it
+    @Cacheable(cacheNames = CacheConfig.RUN_FINISH_RESPONSES_CACHE, key = "{#id, #idempotencyKey}",
+            condition = "#idempotencyKey != null", sync = true)
+    @Transactional
+    @Timed(value = "running_tracker.runs.finish", histogram = true)
+    public RunResponseDto finishRun(FinishRunRequestDto requestDto, UUID id, String idempotencyKey) {
         try {
             Run run = runRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(String.format("Run with id %s does not exists", id)));
 
+            // Remember what the statistics rollup already holds for this run
+            boolean alreadyFinished = run.getFinishDatetime() != null;
+            double previousDistance = alreadyFinished ? valueOrZero(run.getDistance()) : 0.0;
+            double previousAverageSpeed = alreadyFinished ? valueOrZero(run.getAverageSpeed()) : 0.0;
+
             // Set finish run details
             run.setFinishLatitude(requestDto.getFinishLatitude());
             run.setFinishLongitude(requestDto.getFinishLongitude());
             run.setFinishDatetime(requestDto.getFinishDatetime());
+            run.setFinishGeohash(Geohash.of(run.getFinishLatitude(), run.getFinishLongitude()));
 
             // Set distance
             run.setDistance(calculateDistance(requestDto, run));
@@ -77,32 +149,41 @@ public class RunServiceImpl implements RunService {
             run.setAverageSpeedUnit(AVERAGE_SPEED_UNIT);
 
 
-            RunResponseDto runResponseDto = runMapper.toRunDto(runRepository.save(run));
-            log.info(String.format("Run was finished for user [userId:%s]", runResponseDto.getUserId()));
+            // The version check of the UPDATE fails here if another request finished the run since it was read
+            Run savedRun = runRepository.saveAndFlush(run);
+
+            // Completing a run adds it to the rollup, finishing it again only corrects its values
+            userRunStatsService.addRun(savedRun.getUser().getId(), savedRun.getStartDatetime(), alreadyFinished ? 0 : 1,
+                    savedRun.getDistance() - previousDistance, savedRun.getAverageSpeed() - previousAverageSpeed);
+            runChangeService.recordChange(savedRun.getUser().getId());
+
+            RunResponseDto runResponseDto = runMapper.toRunDto(savedRun);
+            log.debug("Run was finished for user [userId:{}]", runResponseDto.getUserId());
             return runResponseDto;
         } catch (ResourceNotFoundException exception) {
-            log.error(String.format("Resource not found, Error:%s", exception.getMessage()));
+            log.error("Resource not found, Error:{}", exception.getMessage());
             throw exception;
         } catch (RunCalculationException exception) {
-            log.error(String.format("Processing exception, Error:%s", exception.getMessage()));
+            log.error("Processing exception, Error:{}", exception.getMessage());
             throw exception;
+        } catch (OptimisticLockingFailureException exception) {
+            log.error("Concurrent update, Error:{}", exception.getMessage());
+            throw new ConcurrentRunUpdateException(String.format("Run with id %s was changed by a concurrent request", id));
         } catch (Exception exception) {
-            log.error(String.format("Crud exception, Error:%s", exception.getMessage()));
+            log.error("Crud exception, Error:{}", exception.getMessage());
             throw new CrudException(exception.getMessage());
-        } finally {
-            Instant end = Instant.now();
-            log.info(String.format("Finish run logic finished. [durationMs = %s]", Duration.between(start, end).toMillis()));
         }
     }
 
 
     @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "running_tracker.runs.list", histogram = true)
     public List<RunResponseDto> getAllRunsForUser(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime) {
-        Instant start = Instant.now();
         try {
             // If fromDatetime is null, return all runs for the user
             if (fromDatetime == null) {
-                return runRepository.findAllByUserId(userId).stream()
+                return runRepository.findSummariesByUserId(userId).stream()
                         .map(runMapper::toRunDto)
                         .collect(Collectors.toList());
             }
@@ -110,65 +191,196 @@ public class RunServiceImpl implements RunService {
             // If fromDatetime is not null but toDatetime is null, set toDatetime to now
             toDatetime = (toDatetime != null) ? toDatetime : LocalDateTime.now();
 
-            List<Run> runs = runRepository.findAllByUserIdAndStartDatetimeBetween(userId, fromDatetime, toDatetime);
-            log.info(String.format("found all runs for user with id %s", userId));
+            List<RunSummary> runs = runRepository.findSummariesByUserIdAndStartDatetimeBetween(userId, fromDatetime, toDatetime);
+            log.debug("Found all runs for user with id {}", userId);
 
             return runs.stream()
                     .map(runMapper::toRunDto)
                     .collect(Collectors.toList());
         } catch (Exception exception) {
-            log.error(String.format("Crud exception, Error:%s", exception.getMessage()));
+            log.error("Crud exception, Error:{}", exception.getMessage());
+            throw new CrudException(exception.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "running_tracker.runs.page", histogram = true)
+    public RunPageResponseDto getRunsPage(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime, String cursor, int limit) {
+        try {
+            LocalDateTime from = resolveFromDatetime(fromDatetime);
+            LocalDateTime to = resolveToDatetime(fromDatetime, toDatetime);
+            RunCursor after = (cursor != null) ? RunCursor.decode(cursor) : new RunCursor(from, MIN_ID);
+            int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+            // Fetch one extra run to find out whether another page follows
+            List<RunSummary> runs = runRepository.findSummaryPageByUserIdAndStartDatetimeBetween(userId, from, to,
+                    after.getStartDatetime(), after.getId(), PageRequest.ofSize(pageSize + 1));
+            boolean hasNext = runs.size() > pageSize;
+            List<RunSummary> page = hasNext ? runs.subList(0, pageSize) : runs;
+
+            String nextCursor = hasNext ? RunCursor.of(page.get(page.size() - 1)).encode() : null;
+            log.debug("Found page of {} runs for user with id {}", page.size(), userId);
+
+            return new RunPageResponseDto(page.stream()
+                    .map(runMapper::toRunDto)
+                    .collect(Collectors.toList()), nextCursor);
+        } catch (InvalidCursorException exception) {
+            log.error("Invalid cursor, Error:{}", exception.getMessage());
+            throw exception;
+        } catch (Exception exception) {
+            log.error("Crud exception, Error:{}", exception.getMessage());
+            throw new CrudException(exception.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "running_tracker.runs.near", histogram = true)
+    public NearbyRunsResponseDto getRunsNear(double latitude, double longitude, double radius, int limit) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new InvalidLocationException(String.format("Location %s, %s is out of range", latitude, longitude));
+        }
+        if (!(radius > 0 && radius <= maxNearRadius)) {
+            throw new InvalidLocationException(String.format("Radius must be greater than 0 and at most %s meters", maxNearRadius));
+        }
+        try {
+            int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+            // The farthest of the nearest runs so far on top, so only the page is kept however many runs are near
+            PriorityQueue<NearbyRun> nearest = new PriorityQueue<>(size + 1,
+                    Comparator.comparingDouble(NearbyRun::getDistance).reversed());
+            // The covering cells prune by index, the haversine distance drops the runs in their corners
+            List<GeohashRange> ranges = Geohash.cover(latitude, longitude, radius, nearCoveringCells);
+            runRepository.findByGeohashRanges(ranges, run -> {
+                double distance = distanceFrom(latitude, longitude, run);
+                if (distance <= radius) {
+                    nearest.add(new NearbyRun(run, distance));
+                    if (nearest.size() > size) {
+                        nearest.poll();
+                    }
+                }
+            });
+
+            List<NearbyRunDto> runs = nearest.stream()
+                    .sorted(Comparator.comparingDouble(NearbyRun::getDistance))
+                    .map(run -> new NearbyRunDto(runMapper.toRunDto(run.getRun()), new MeasurementDto(run.getDistance(), DISTANCE_UNIT)))
+                    .collect(Collectors.toList());
+            log.debug("Found {} runs within {} meters of {}, {} in {} geohash ranges", runs.size(), radius, latitude, longitude,
+                    ranges.size());
+            return new NearbyRunsResponseDto(latitude, longitude, new MeasurementDto(radius, DISTANCE_UNIT), runs);
+        } catch (Exception exception) {
+            log.error("Crud exception, Error:{}", exception.getMessage());
+            throw new CrudException(exception.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "running_tracker.runs.stream", longTask = true, histogram = true)
+    public void streamAllRunsForUser(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime, Consumer<RunResponseDto> consumer) {
+        // Projections are not managed, so the persistence context does not grow with the history
+        try (Stream<RunSummary> runs = runRepository.streamSummariesByUserIdAndStartDatetimeBetween(userId,
+                resolveFromDatetime(fromDatetime), resolveToDatetime(fromDatetime, toDatetime))) {
+            runs.forEach(run -> consumer.accept(runMapper.toRunDto(run)));
+        } catch (Exception exception) {
+            log.error("Crud exception, Error:{}", exception.getMessage());
+            throw new CrudException(exception.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "running_tracker.runs.export", longTask = true)
+    public void exportRuns(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime, RunExportFormat format,
+                           OutputStream outputStream) {
+        // The read-only transaction keeps the PostgreSQL cursor open, rows are fetched in batches and never hydrated
+        try (RunExportEncoder encoder = format.encoder(outputStream)) {
+            runRepository.exportByUserIdAndStartDatetimeBetween(userId, resolveFromDatetime(fromDatetime),
+                    resolveToDatetime(fromDatetime, toDatetime), row -> {
+                        try {
+                            encoder.write(row);
+                        } catch (IOException exception) {
+                            throw new UncheckedIOException(exception);
+                        }
+                    });
+        } catch (Exception exception) {
+            log.error("Run export of user with id {} failed, Error:{}", userId, exception.getMessage());
             throw new CrudException(exception.getMessage());
-        } finally {
-            Instant end = Instant.now();
-            log.info(String.format("Get all runs for user logic finished. [durationMs = %s]", Duration.between(start, end).toMillis()));
         }
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "running_tracker.runs.statistics", histogram = true)
     public UserStatisticsDTO getUserStatistics(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime) {
-        Instant start = Instant.now();
         try {
             // Default toDatetime to now if fromDatetime is provided but toDatetime is null
             toDatetime = (fromDatetime != null && toDatetime == null) ? LocalDateTime.now() : toDatetime;
 
-            // Retrieve all runs for the user within the given time range
-            List<Run> runs = (fromDatetime != null)
-                    ? runRepository.findAllByUserIdAndStartDatetimeBetween(userId, fromDatetime, toDatetime)
-                    : runRepository.findAllByUserId(userId);
+            // Merge the pre-aggregated buckets with the partial edges of the time range
+            UserStatisticsDTO statistics = userRunStatsService.getStatistics(userId, fromDatetime, toDatetime);
 
-            log.info(String.format("Found %s runs with user with id %s ",runs.size(), userId));
+            log.debug("Found {} runs with user with id {}", statistics.getTotalRuns(), userId);
 
-            // If no runs are found, return default statistics
-            if (runs.isEmpty()) {
-                return new UserStatisticsDTO(0, 0.0, 0.0);
-            }
+            return statistics;
+        } catch (Exception exception) {
+            log.error("Crud exception, Error:{}", exception.getMessage());
+            throw new CrudException(exception.getMessage());
+        }
+    }
 
-            // Calculate total distance and average speed, handle null values
-            double totalDistance = runs.stream()
-                    .mapToDouble(run -> run.getDistance() != null ? run.getDistance() : 0.0)
-                    .sum();
+    private boolean violatesForeignKey(DataIntegrityViolationException exception) {
+        return exception.getCause() instanceof ConstraintViolationException violation
+                && foreignKeyViolationStates.contains(violation.getSQLState());
+    }
 
-            double averageSpeed = runs.stream()
-                    .mapToDouble(run -> run.getAverageSpeed() != null ? run.getAverageSpeed() : 0.0)
-                    .average()
-                    .orElse(0.0);
+    // To the nearer of the recorded start and finish points
+    private double distanceFrom(double latitude, double longitude, RunSummary run) {
+        double distance = Double.POSITIVE_INFINITY;
+        if (run.getStartLatitude() != null && run.getStartLongitude() != null) {
+            distance = runCalculatorService.calculateDistance(latitude, longitude, run.getStartLatitude(), run.getStartLongitude());
+        }
+        if (run.getFinishLatitude() != null && run.getFinishLongitude() != null) {
+            distance = Math.min(distance,
+                    runCalculatorService.calculateDistance(latitude, longitude, run.getFinishLatitude(), run.getFinishLongitude()));
+        }
+        return distance;
+    }
 
-            return new UserStatisticsDTO(runs.size(), totalDistance, averageSpeed);
-        } catch (Exception exception) {
-            log.error(String.format("Crud exception, Error: %s", exception.getMessage()));
-            throw new CrudException(exception.getMessage());
-        } finally {
-            Instant end = Instant.now();
-            log.info(String.format("Get user run statistics logic finished. [durationMs = %s]", Duration.between(start, end).toMillis()));
+    private double valueOrZero(Double value) {
+        return (value != null) ? value : 0.0;
+    }
+
+    private LocalDateTime resolveFromDatetime(LocalDateTime fromDatetime) {
+        return (fromDatetime != null) ? fromDatetime : MIN_DATETIME;
+    }
+
+    // Matches getAllRunsForUser: an open range ends now, no range at all covers the whole history
+    private LocalDateTime resolveToDatetime(LocalDateTime fromDatetime, LocalDateTime toDatetime) {
+        if (fromDatetime == null) {
+            return MAX_DATETIME;
         }
+        return (toDatetime != null) ? toDatetime : LocalDateTime.now();
     }
 
-    // Calculate distance based on the provided finish run request data
+    // The recorded track always yields the splits and best efforts; the distance is the one of the finish run request
+    // data, then the one along the track, then the one between start and finish points
     private double calculateDistance(FinishRunRequestDto requestDto, Run run) {
-        return Objects.nonNull(requestDto.getDistance())
-                ? requestDto.getDistance()
-                : runCalculatorService.calculateDistance(run.getStartLatitude(), run.getStartLongitude(),
-                requestDto.getFinishLatitude(), requestDto.getFinishLongitude());
+        // Waits for uploads in flight, the ones after the finish commits find the run finished
+        runRepository.lockFinishedById(run.getId());
+        OptionalDouble trackDistance = trackPointService.completeTrack(run.getId());
+        if (Objects.nonNull(requestDto.getDistance())) {
+            return requestDto.getDistance();
+        }
+        return trackDistance.orElseGet(() -> runCalculatorService.calculateDistance(run.getStartLatitude(), run.getStartLongitude(),
+                requestDto.getFinishLatitude(), requestDto.getFinishLongitude()));
+    }
+
+    @RequiredArgsConstructor
+    @Getter
+    private static final class NearbyRun {
+
+        private final RunSummary run;
+        private final double distance;
     }
 }
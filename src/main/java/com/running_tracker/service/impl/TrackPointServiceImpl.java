@@ -0,0 +1,175 @@
+package com.running_tracker.service.impl;
+
+import com.running_tracker.api.dto.request.run.TrackPointBatchRequestDto;
+import com.running_tracker.api.dto.response.run.MeasurementDto;
+import com.running_tracker.api.dto.response.run.RunSplitDto;
+import com.running_tracker.api.dto.response.run.RunSplitsResponseDto;
+import com.running_tracker.api.dto.response.run.TrackPointBatchResponseDto;
+import com.running_tracker.domain.entity.RunSplit;
+import com.running_tracker.domain.entity.SplitUnit;
+import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.domain.repository.RunSplitRepository;
+import com.running_tracker.domain.repository.TrackPointRepository;
+import com.running_tracker.exception.CrudException;
+import com.running_tracker.exception.ResourceNotFoundException;
+import com.running_tracker.exception.RunAlreadyFinishedException;
+import com.running_tracker.service.PersonalRecordService;
+import com.running_tracker.service.TrackPointService;
+import com.running_tracker.service.calculator.HaversineKernel;
+import com.running_tracker.service.track.BestEffortFinder;
+import com.running_tracker.service.track.RunSplitCalculator;
+import com.running_tracker.service.track.RunTrack;
+import com.running_tracker.service.track.TrackDistance;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrackPointServiceImpl implements TrackPointService {
+
+    private static final String DISTANCE_UNIT = "meters";
+    private static final String TIME_UNIT = "seconds";
+    private static final double MILLIS_PER_SECOND = 1000.0;
+
+    private final PersonalRecordService personalRecordService;
+    private final HaversineKernel haversineKernel;
+
+    private final RunRepository runRepository;
+    private final TrackPointRepository trackPointRepository;
+    private final RunSplitRepository runSplitRepository;
+
+    // Slower segments count as standing still, GPS drift of a paused device stays below it
+    @Value("${running-tracker.splits.moving-speed-threshold:0.5}")
+    private double movingSpeedThreshold;
+
+    @Override
+    @Transactional
+    @Timed(value = "running_tracker.track_points.add", histogram = true)
+    public TrackPointBatchResponseDto addTrackPoints(UUID runId, TrackPointBatchRequestDto requestDto) {
+        try {
+            // The run stays locked until the points are committed, so a finish reading the track waits for them
+            boolean finished = runRepository.lockFinishedById(runId)
+                    .orElseThrow(() -> new ResourceNotFoundException(String.format("Run with id %s does not exists", runId)));
+            if (finished) {
+                throw new RunAlreadyFinishedException(String.format("Run with id %s is already finished", runId));
+            }
+
+            RunTrack track = new RunTrack(runId);
+            track.append(requestDto.getPoints());
+            trackPointRepository.insertAll(track.snapshot());
+
+            log.debug("Stored {} track points for run with id {}", requestDto.getPoints().size(), runId);
+            return new TrackPointBatchResponseDto(runId, requestDto.getPoints().size());
+        } catch (ResourceNotFoundException | RunAlreadyFinishedException exception) {
+            log.error("Track points rejected, Error:{}", exception.getMessage());
+            throw exception;
+        } catch (Exception exception) {
+            log.error("Crud exception, Error:{}", exception.getMessage());
+            throw new CrudException(exception.getMessage());
+        }
+    }
+
+    @Override
+    @Timed(value = "running_tracker.track_points.complete", histogram = true)
+    public OptionalDouble completeTrack(UUID runId) {
+        // One pass over the stored track yields the distance with the configured kernel, the splits, at most a few
+        // dozen of them per unit, and the points the best efforts are searched in afterwards
+        List<RunSplit> splits = new ArrayList<>();
+        RunSplitCalculator calculator = new RunSplitCalculator(runId, movingSpeedThreshold, splits::add);
+        BestEffortFinder bestEffortFinder = new BestEffortFinder(runId);
+        TrackDistance trackDistance = new TrackDistance(haversineKernel);
+        trackPointRepository.streamTrackByRunId(runId, (recordedAtMillis, latitude, longitude) -> {
+            calculator.accept(recordedAtMillis, latitude, longitude);
+            bestEffortFinder.add(recordedAtMillis, calculator.getDistance());
+            trackDistance.accept(recordedAtMillis, latitude, longitude);
+        });
+        calculator.finish();
+        runSplitRepository.replaceAll(runId, splits);
+        personalRecordService.recordEfforts(bestEffortFinder.find());
+
+        if (calculator.getPoints() < 2) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of(round(trackDistance.getDistance()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "running_tracker.run_splits.get", histogram = true)
+    public RunSplitsResponseDto getRunSplits(UUID runId) {
+        try {
+            if (!runRepository.existsById(runId)) {
+                throw new ResourceNotFoundException(String.format("Run with id %s does not exists", runId));
+            }
+
+            List<RunSplit> kilometerSplits = new ArrayList<>();
+            List<RunSplit> mileSplits = new ArrayList<>();
+            for (RunSplit split : runSplitRepository.findAllByRunId(runId)) {
+                (split.getId().getUnit() == SplitUnit.KILOMETER ? kilometerSplits : mileSplits).add(split);
+            }
+
+            // The splits of each unit cover the whole track
+            long elapsedMillis = kilometerSplits.stream().mapToLong(RunSplit::getElapsedMillis).sum();
+            long movingMillis = kilometerSplits.stream().mapToLong(RunSplit::getMovingMillis).sum();
+
+            log.debug("Found {} splits for run with id {}", kilometerSplits.size() + mileSplits.size(), runId);
+            return new RunSplitsResponseDto(runId, toSeconds(elapsedMillis), toSeconds(movingMillis),
+                    toSplitDtos(kilometerSplits, SplitUnit.KILOMETER), toSplitDtos(mileSplits, SplitUnit.MILE));
+        } catch (ResourceNotFoundException exception) {
+            log.error("Resource not found, Error:{}", exception.getMessage());
+            throw exception;
+        } catch (Exception exception) {
+            log.error("Crud exception, Error:{}", exception.getMessage());
+            throw new CrudException(exception.getMessage());
+        }
+    }
+
+    // Only full splits compete for fastest and slowest, the shorter last one says little about the pace
+    private static List<RunSplitDto> toSplitDtos(List<RunSplit> splits, SplitUnit unit) {
+        RunSplit fastest = null;
+        RunSplit slowest = null;
+        for (RunSplit split : splits) {
+            if (split.getDistance() < unit.getMeters()) {
+                continue;
+            }
+            if (fastest == null || split.getElapsedMillis() < fastest.getElapsedMillis()) {
+                fastest = split;
+            }
+            if (slowest == null || split.getElapsedMillis() > slowest.getElapsedMillis()) {
+                slowest = split;
+            }
+        }
+
+        String paceUnit = switch (unit) {
+            case KILOMETER -> "s/km";
+            case MILE -> "s/mi";
+        };
+        List<RunSplitDto> splitDtos = new ArrayList<>(splits.size());
+        for (RunSplit split : splits) {
+            double pace = split.getElapsedMillis() / MILLIS_PER_SECOND * unit.getMeters() / split.getDistance();
+            splitDtos.add(new RunSplitDto(split.getId().getNumber(),
+                    new MeasurementDto(round(split.getDistance()), DISTANCE_UNIT),
+                    toSeconds(split.getElapsedMillis()), toSeconds(split.getMovingMillis()),
+                    new MeasurementDto(round(pace), paceUnit), split == fastest, split == slowest));
+        }
+        return splitDtos;
+    }
+
+    private static MeasurementDto toSeconds(long millis) {
+        return new MeasurementDto(millis / MILLIS_PER_SECOND, TIME_UNIT);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,124 @@
+package com.running_tracker.service.impl;
+
+import com.running_tracker.api.dto.response.user.UserStatisticsDTO;
+import com.running_tracker.config.CacheConfig;
+import com.running_tracker.domain.entity.StatisticsBucketType;
+import com.running_tracker.domain.entity.UserRunStatsId;
+import com.running_tracker.domain.projection.RunTotalsProjection;
+import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.domain.repository.UserRepository;
+import com.running_tracker.domain.repository.UserRunStatsRepository;
+import com.running_tracker.service.LeaderboardService;
+import com.running_tracker.service.RunChangeService;
+import com.running_tracker.service.UserRunStatsService;
+import com.running_tracker.service.statistics.StatisticsWindow;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserRunStatsServiceImpl implements UserRunStatsService {
+
+    // Incremental sums accumulate floating point error, so buckets are compared relative to their magnitude
+    private static final double TOLERANCE = 1e-6;
+
+    private final UserRunStatsRepository userRunStatsRepository;
+    private final RunRepository runRepository;
+    private final UserRepository userRepository;
+    private final RunChangeService runChangeService;
+    private final LeaderboardService leaderboardService;
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USER_STATISTICS_CACHE, key = "#userId")
+    public void addRun(UUID userId, LocalDateTime startDatetime, long runs, double distance, double averageSpeed) {
+        // Waits for a rebuild of the user, which would otherwise replace the buckets under the increment
+        userRepository.lockById(userId);
+        userRunStatsRepository.addToBuckets(userId,
+                StatisticsWindow.bucketStart(StatisticsBucketType.DAY, startDatetime),
+                StatisticsWindow.bucketStart(StatisticsBucketType.WEEK, startDatetime),
+                StatisticsWindow.bucketStart(StatisticsBucketType.MONTH, startDatetime),
+                StatisticsWindow.TOTAL_BUCKET_START,
+                runs, distance, averageSpeed);
+        // The leaderboards rank the week and month buckets just written
+        leaderboardService.updateUser(userId, startDatetime);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    // Only the all-time totals are cached, one entry per user that a single eviction invalidates
+    @Cacheable(cacheNames = CacheConfig.USER_STATISTICS_CACHE, key = "#userId", condition = "#fromDatetime == null", sync = true)
+    public UserStatisticsDTO getStatistics(UUID userId, LocalDateTime fromDatetime, LocalDateTime toDatetime) {
+        if (fromDatetime == null) {
+            return userRunStatsRepository.findById(new UserRunStatsId(userId, StatisticsBucketType.TOTAL, StatisticsWindow.TOTAL_BUCKET_START))
+                    .map(total -> toStatistics(total.getTotalRuns(), total.getTotalDistance(), total.getSumAverageSpeed()))
+                    .orElseGet(() -> new UserStatisticsDTO(0, 0.0, 0.0));
+        }
+
+        // The requested range is inclusive, buckets are half-open; timestamps are stored with microsecond precision
+        StatisticsWindow window = StatisticsWindow.of(fromDatetime, toDatetime.plus(1, ChronoUnit.MICROS));
+
+        RunTotalsProjection edges = runRepository.getFinishedTotalsByUserIdInRanges(userId,
+                window.getLeadingEdgeFrom(), window.getLeadingEdgeTo(),
+                window.getTrailingEdgeFrom(), window.getTrailingEdgeTo());
+        long totalRuns = edges.getTotalRuns();
+        double totalDistance = edges.getTotalDistance();
+        double sumAverageSpeed = edges.getSumAverageSpeed();
+
+        for (Map.Entry<StatisticsBucketType, List<LocalDateTime>> buckets : window.getBucketStarts().entrySet()) {
+            if (buckets.getValue().isEmpty()) {
+                continue;
+            }
+            RunTotalsProjection bucketTotals = userRunStatsRepository.sumBuckets(userId, buckets.getKey(), buckets.getValue());
+            totalRuns += bucketTotals.getTotalRuns();
+            totalDistance += bucketTotals.getTotalDistance();
+            sumAverageSpeed += bucketTotals.getSumAverageSpeed();
+        }
+
+        return toStatistics(totalRuns, totalDistance, sumAverageSpeed);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USER_STATISTICS_CACHE, key = "#userId")
+    @Timed(value = "running_tracker.statistics.rebuild", histogram = true)
+    public void rebuild(UUID userId) {
+        // Runs finished meanwhile wait to add themselves to the rebuilt buckets, or are committed and counted by it
+        userRepository.lockById(userId);
+        userRunStatsRepository.deleteAllByUserId(userId);
+        userRunStatsRepository.insertBucketsFromRuns(userId, StatisticsWindow.TOTAL_BUCKET_START);
+        // Rebuilds follow imports and repair drifted statistics, both change what the user's readers get
+        runChangeService.recordChange(userId);
+        // Also what the leaderboards rank, the rebuilt buckets of the current week and month move them on commit
+        leaderboardService.updateUser(userId, LocalDateTime.now());
+        log.info("Statistics rollup rebuilt for user with id {}", userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isConsistent(UUID userId) {
+        long differingBuckets = userRunStatsRepository.countBucketsDifferingFromRuns(userId, StatisticsWindow.TOTAL_BUCKET_START, TOLERANCE);
+        if (differingBuckets > 0) {
+            log.warn("Statistics rollup of user with id {} is inconsistent [differingBuckets:{}]", userId, differingBuckets);
+            return false;
+        }
+        return true;
+    }
+
+    private UserStatisticsDTO toStatistics(long totalRuns, double totalDistance, double sumAverageSpeed) {
+        double averageSpeed = (totalRuns == 0) ? 0.0 : sumAverageSpeed / totalRuns;
+        return new UserStatisticsDTO(Math.toIntExact(totalRuns), totalDistance, averageSpeed);
+    }
+}
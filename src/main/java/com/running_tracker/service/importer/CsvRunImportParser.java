@@ -0,0 +1,99 @@
+package com.running_tracker.service.importer;
+
+import com.running_tracker.api.dto.request.run.ImportRunRequestDto;
+import com.running_tracker.exception.InvalidImportException;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Parses unquoted CSV lines, the columns are found by the header names so their order is free.
+ */
+class CsvRunImportParser implements RunImportParser {
+
+    private static final char SEPARATOR = ',';
+
+    private static final String USER_ID = "userId";
+    private static final String START_LATITUDE = "startLatitude";
+    private static final String START_LONGITUDE = "startLongitude";
+    private static final String START_DATETIME = "startDatetime";
+    private static final String FINISH_LATITUDE = "finishLatitude";
+    private static final String FINISH_LONGITUDE = "finishLongitude";
+    private static final String FINISH_DATETIME = "finishDatetime";
+    private static final String DISTANCE = "distance";
+
+    private static final List<String> REQUIRED_COLUMNS = List.of(USER_ID, START_LATITUDE, START_LONGITUDE, START_DATETIME,
+            FINISH_LATITUDE, FINISH_LONGITUDE, FINISH_DATETIME);
+
+    private static final List<String> COLUMNS = List.of(USER_ID, START_LATITUDE, START_LONGITUDE, START_DATETIME,
+            FINISH_LATITUDE, FINISH_LONGITUDE, FINISH_DATETIME, DISTANCE);
+
+    private final int columns;
+    // Position in the line of each of COLUMNS, -1 when the header does not name it
+    private final int[] positions;
+
+    CsvRunImportParser(String headerLine) {
+        if (headerLine == null || headerLine.isBlank()) {
+            throw new InvalidImportException("CSV import has no header line");
+        }
+        List<String> header = Arrays.stream(headerLine.split(String.valueOf(SEPARATOR), -1)).map(String::trim).toList();
+        this.columns = header.size();
+        this.positions = COLUMNS.stream().mapToInt(header::indexOf).toArray();
+        for (String column : REQUIRED_COLUMNS) {
+            if (!header.contains(column)) {
+                throw new InvalidImportException(String.format("CSV header has no %s column", column));
+            }
+        }
+    }
+
+    @Override
+    public ImportRunRequestDto parse(String line) throws IOException {
+        String[] fields = split(line);
+        return new ImportRunRequestDto(
+                value(fields, USER_ID, UUID::fromString),
+                value(fields, START_LATITUDE, Double::valueOf),
+                value(fields, START_LONGITUDE, Double::valueOf),
+                value(fields, START_DATETIME, LocalDateTime::parse),
+                value(fields, FINISH_LATITUDE, Double::valueOf),
+                value(fields, FINISH_LONGITUDE, Double::valueOf),
+                value(fields, FINISH_DATETIME, LocalDateTime::parse),
+                value(fields, DISTANCE, Double::valueOf));
+    }
+
+    private String[] split(String line) throws IOException {
+        String[] fields = new String[columns];
+        int start = 0;
+        for (int i = 0; i < columns; i++) {
+            int end = line.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                if (i != columns - 1) {
+                    throw new IOException(String.format("Expected %s columns but found %s", columns, i + 1));
+                }
+                end = line.length();
+            }
+            fields[i] = line.substring(start, end).trim();
+            start = end + 1;
+        }
+        if (start <= line.length()) {
+            throw new IOException(String.format("Expected %s columns but found more", columns));
+        }
+        return fields;
+    }
+
+    // Empty fields are missing values, left to the validation of the run
+    private <T> T value(String[] fields, String column, Function<String, T> converter) throws IOException {
+        int position = positions[COLUMNS.indexOf(column)];
+        if (position < 0 || fields[position].isEmpty()) {
+            return null;
+        }
+        try {
+            return converter.apply(fields[position]);
+        } catch (RuntimeException exception) {
+            throw new IOException(String.format("Invalid %s '%s'", column, fields[position]));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.running_tracker.service.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.running_tracker.api.dto.request.run.ImportRunRequestDto;
+
+import java.io.IOException;
+
+class NdjsonRunImportParser implements RunImportParser {
+
+    // Resolved once, readValue on the mapper looks the deserializer up for every line
+    private final ObjectReader reader;
+
+    NdjsonRunImportParser(ObjectMapper objectMapper) {
+        this.reader = objectMapper.readerFor(ImportRunRequestDto.class);
+    }
+
+    @Override
+    public ImportRunRequestDto parse(String line) throws IOException {
+        return reader.readValue(line);
+    }
+}
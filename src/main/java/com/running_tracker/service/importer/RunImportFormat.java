@@ -0,0 +1,47 @@
+package com.running_tracker.service.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Body formats accepted by the bulk run import, one run per line.
+ */
+public enum RunImportFormat {
+
+    /**
+     * One JSON object per line, named like the fields of the import request.
+     */
+    NDJSON {
+        @Override
+        public RunImportParser parser(String firstLine, ObjectMapper objectMapper) {
+            return new NdjsonRunImportParser(objectMapper);
+        }
+    },
+
+    /**
+     * Comma separated values; the first line is the header naming the columns.
+     */
+    CSV {
+        @Override
+        public boolean hasHeader() {
+            return true;
+        }
+
+        @Override
+        public RunImportParser parser(String firstLine, ObjectMapper objectMapper) {
+            return new CsvRunImportParser(firstLine);
+        }
+    };
+
+    public boolean hasHeader() {
+        return false;
+    }
+
+    /**
+     * Creates the parser of the body lines.
+     *
+     * @param firstLine the header line of formats that have one, otherwise ignored
+     * @param objectMapper the mapper of JSON lines
+     * @return the parser
+     */
+    public abstract RunImportParser parser(String firstLine, ObjectMapper objectMapper);
+}
@@ -0,0 +1,20 @@
+package com.running_tracker.service.importer;
+
+import com.running_tracker.api.dto.request.run.ImportRunRequestDto;
+
+import java.io.IOException;
+
+/**
+ * Parses one line of a bulk import body.
+ */
+public interface RunImportParser {
+
+    /**
+     * Parses a line into the run it describes; the run is not validated yet.
+     *
+     * @param line the line without its line separator
+     * @return the parsed run
+     * @throws IOException if the line is malformed
+     */
+    ImportRunRequestDto parse(String line) throws IOException;
+}
@@ -0,0 +1,40 @@
+package com.running_tracker.service.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+/**
+ * Age cohort of a leaderboard, by the age of a user at the start of the period.
+ */
+@AllArgsConstructor
+@Getter
+public enum AgeGroup {
+    UNDER_20(0),
+    FROM_20_TO_29(20),
+    FROM_30_TO_39(30),
+    FROM_40_TO_49(40),
+    FROM_50_TO_59(50),
+    FROM_60(60);
+
+    private final int minAge;
+
+    /**
+     * Returns the age group of a user on the given day, or null when the birth date is not known.
+     */
+    public static AgeGroup of(LocalDate birthDate, LocalDate day) {
+        if (birthDate == null) {
+            return null;
+        }
+        int age = Period.between(birthDate, day).getYears();
+        AgeGroup[] groups = values();
+        for (int i = groups.length - 1; i > 0; i--) {
+            if (age >= groups[i].minAge) {
+                return groups[i];
+            }
+        }
+        return groups[0];
+    }
+}
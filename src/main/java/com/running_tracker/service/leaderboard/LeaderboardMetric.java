@@ -0,0 +1,18 @@
+package com.running_tracker.service.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Value a leaderboard ranks users by, highest first.
+ */
+@AllArgsConstructor
+@Getter
+public enum LeaderboardMetric {
+    // Total distance of the period
+    DISTANCE("meters"),
+    // Average of the average speeds of the runs in the period
+    AVERAGE_SPEED("km/h");
+
+    private final String unit;
+}
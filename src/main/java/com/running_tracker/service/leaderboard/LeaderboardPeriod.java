@@ -0,0 +1,29 @@
+package com.running_tracker.service.leaderboard;
+
+import com.running_tracker.domain.entity.StatisticsBucketType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Period a leaderboard ranks the totals of, the statistics bucket it is built from.
+ */
+@AllArgsConstructor
+@Getter
+public enum LeaderboardPeriod {
+    WEEK(StatisticsBucketType.WEEK),
+    MONTH(StatisticsBucketType.MONTH);
+
+    private final StatisticsBucketType bucketType;
+
+    /**
+     * Returns the period built from the given statistics bucket.
+     */
+    public static LeaderboardPeriod of(StatisticsBucketType bucketType) {
+        for (LeaderboardPeriod period : values()) {
+            if (period.bucketType == bucketType) {
+                return period;
+            }
+        }
+        throw new IllegalArgumentException("No leaderboard for " + bucketType + " buckets");
+    }
+}
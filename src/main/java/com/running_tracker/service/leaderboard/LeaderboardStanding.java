@@ -0,0 +1,22 @@
+package com.running_tracker.service.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+/**
+ * The place of a user on a leaderboard. Users with the same value share a rank.
+ */
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class LeaderboardStanding {
+
+    private final long rank;
+    private final UUID userId;
+    private final double value;
+}
@@ -0,0 +1,320 @@
+package com.running_tracker.service.leaderboard;
+
+import com.running_tracker.domain.entity.StatisticsBucketType;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * The distance and average speed standings of one week or month, held in memory. Users are grouped into cells by sex
+ * and age group, so every cohort filter selects whole cells. Per metric, a cell keeps the scores of its members as
+ * loaded, sorted, and its top entries, which follow every update. A page is merged from the top entries of the
+ * selected cells. A rank counts the scores ahead of the user by binary search in every selected cell, corrected by
+ * the users updated since the load, so it costs a few binary searches plus a pass over the updated users; the load
+ * of the next refresh folds them back in.
+ *
+ * <p>Built with {@link #load} for every user of the period, then {@link #seal()}. The cohort of a user is fixed by
+ * its first appearance for the rest of the period. Not thread-safe, but the reads change nothing, so they may run
+ * concurrently with each other as long as no update runs.
+ */
+public class PeriodLeaderboard {
+
+    private static final int METRICS = LeaderboardMetric.values().length;
+
+    @Getter
+    private final StatisticsBucketType period;
+    @Getter
+    private final LocalDateTime periodStart;
+    private final int topSize;
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final Map<CellKey, Cell> cells = new HashMap<>();
+    private final List<Entry> updated = new ArrayList<>();
+    private boolean sealed;
+
+    /**
+     * @param period the granularity of the period, WEEK or MONTH
+     * @param periodStart the start of the period, which the ages of the users are taken at
+     * @param topSize the entries every cell keeps per metric, the deepest rank a page reaches
+     */
+    public PeriodLeaderboard(StatisticsBucketType period, LocalDateTime periodStart, int topSize) {
+        this.period = period;
+        this.periodStart = periodStart;
+        this.topSize = topSize;
+    }
+
+    /**
+     * Adds the totals of a user as read from the materialized view, before the board is sealed.
+     */
+    public void load(UUID userId, String sex, LocalDate birthDate, double distance, double averageSpeed) {
+        if (sealed) {
+            throw new IllegalStateException("Leaderboard is already sealed");
+        }
+        Entry entry = new Entry(userId, cell(normalize(sex), AgeGroup.of(birthDate, periodStart.toLocalDate())));
+        entry.values[LeaderboardMetric.DISTANCE.ordinal()] = distance;
+        entry.values[LeaderboardMetric.AVERAGE_SPEED.ordinal()] = averageSpeed;
+        System.arraycopy(entry.values, 0, entry.loadedValues, 0, METRICS);
+        entries.put(userId, entry);
+        entry.cell.members.add(entry);
+    }
+
+    /**
+     * Sorts the loaded scores and selects the top entries of every cell. Updates are accepted from then on.
+     */
+    public void seal() {
+        for (Cell cell : cells.values()) {
+            for (int metric = 0; metric < METRICS; metric++) {
+                double[] scores = new double[cell.members.size()];
+                for (int i = 0; i < scores.length; i++) {
+                    scores[i] = cell.members.get(i).values[metric];
+                }
+                Arrays.sort(scores);
+                cell.loadedScores[metric] = scores;
+                cell.rebuildTop(metric);
+            }
+        }
+        sealed = true;
+    }
+
+    /**
+     * Replaces the totals of a user with the current ones, adding the user when new to the period.
+     *
+     * @param version increases with every update, see {@link #carryOver}
+     */
+    public void update(UUID userId, String sex, LocalDate birthDate, double distance, double averageSpeed, long version) {
+        update(userId, normalize(sex), AgeGroup.of(birthDate, periodStart.toLocalDate()), distance, averageSpeed, version);
+    }
+
+    /**
+     * Applies the updates of the previous board of the same period newer than the given version, which its load
+     * may have missed.
+     */
+    public void carryOver(PeriodLeaderboard previous, long sinceVersion) {
+        for (Entry entry : previous.updated) {
+            if (entry.version > sinceVersion) {
+                update(entry.userId, entry.cell.key.sex, entry.cell.key.ageGroup,
+                        entry.values[LeaderboardMetric.DISTANCE.ordinal()],
+                        entry.values[LeaderboardMetric.AVERAGE_SPEED.ordinal()], entry.version);
+            }
+        }
+    }
+
+    /**
+     * Returns the best users of the cohort, at most the top size of the board.
+     *
+     * @param sex the sex of the cohort, or null for every sex
+     * @param ageGroup the age group of the cohort, or null for every age
+     */
+    public List<LeaderboardStanding> top(LeaderboardMetric metric, String sex, AgeGroup ageGroup, int limit) {
+        int index = metric.ordinal();
+        List<Entry> candidates = new ArrayList<>();
+        for (Cell cell : selectCells(normalize(sex), ageGroup)) {
+            candidates.addAll(cell.tops.get(index));
+        }
+        // The best entries of the cohort are among the best of its cells
+        candidates.sort(descending(index));
+
+        List<LeaderboardStanding> standings = new ArrayList<>();
+        long rank = 0;
+        for (int i = 0; i < Math.min(Math.min(limit, topSize), candidates.size()); i++) {
+            Entry entry = candidates.get(i);
+            if (i == 0 || entry.values[index] < candidates.get(i - 1).values[index]) {
+                rank = i + 1;
+            }
+            standings.add(new LeaderboardStanding(rank, entry.userId, entry.values[index]));
+        }
+        return standings;
+    }
+
+    /**
+     * Returns the standing of a user within the cohort, empty when the user has no runs in the period or is not part
+     * of the cohort.
+     */
+    public Optional<LeaderboardStanding> standing(UUID userId, LeaderboardMetric metric, String sex, AgeGroup ageGroup) {
+        String sexKey = normalize(sex);
+        Entry entry = entries.get(userId);
+        if (entry == null || !entry.cell.key.matches(sexKey, ageGroup)) {
+            return Optional.empty();
+        }
+
+        int index = metric.ordinal();
+        double value = entry.values[index];
+        long ahead = 0;
+        for (Cell cell : selectCells(sexKey, ageGroup)) {
+            ahead += countGreater(cell.loadedScores[index], value);
+        }
+        // The loaded scores hold what the updated users had before, including the user itself
+        if (entry.loadedValues[index] > value) {
+            ahead--;
+        }
+        for (Entry other : updated) {
+            if (other != entry && other.cell.key.matches(sexKey, ageGroup)) {
+                ahead += (other.values[index] > value ? 1 : 0) - (other.loadedValues[index] > value ? 1 : 0);
+            }
+        }
+        return Optional.of(new LeaderboardStanding(ahead + 1, userId, value));
+    }
+
+    /**
+     * Returns the number of users with runs in the period within the cohort.
+     */
+    public int participants(String sex, AgeGroup ageGroup) {
+        int participants = 0;
+        for (Cell cell : selectCells(normalize(sex), ageGroup)) {
+            participants += cell.members.size();
+        }
+        return participants;
+    }
+
+    private void update(UUID userId, String sexKey, AgeGroup ageGroup, double distance, double averageSpeed, long version) {
+        if (!sealed) {
+            throw new IllegalStateException("Leaderboard is not sealed yet");
+        }
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            entry = new Entry(userId, cell(sexKey, ageGroup));
+            // Not part of the loaded scores, no comparison counts it there
+            Arrays.fill(entry.loadedValues, Double.NaN);
+            entries.put(userId, entry);
+            entry.cell.members.add(entry);
+        }
+        if (entry.version == 0) {
+            updated.add(entry);
+        }
+        entry.version = version;
+
+        double[] previous = entry.values.clone();
+        entry.values[LeaderboardMetric.DISTANCE.ordinal()] = distance;
+        entry.values[LeaderboardMetric.AVERAGE_SPEED.ordinal()] = averageSpeed;
+        for (int metric = 0; metric < METRICS; metric++) {
+            entry.cell.updateTop(entry, metric, previous[metric]);
+        }
+    }
+
+    private Cell cell(String sexKey, AgeGroup ageGroup) {
+        return cells.computeIfAbsent(new CellKey(sexKey, ageGroup), Cell::new);
+    }
+
+    private List<Cell> selectCells(String sexKey, AgeGroup ageGroup) {
+        List<Cell> selected = new ArrayList<>();
+        for (Cell cell : cells.values()) {
+            if (cell.key.matches(sexKey, ageGroup)) {
+                selected.add(cell);
+            }
+        }
+        return selected;
+    }
+
+    // Number of scores above the value in an ascending array
+    private static int countGreater(double[] scores, double value) {
+        int low = 0;
+        int high = scores.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (scores[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return scores.length - low;
+    }
+
+    private static Comparator<Entry> descending(int metric) {
+        return (left, right) -> Double.compare(right.values[metric], left.values[metric]);
+    }
+
+    // Sex is free text on the user
+    private static String normalize(String sex) {
+        return sex == null ? null : sex.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+
+        private final UUID userId;
+        private final Cell cell;
+        private final double[] values = new double[METRICS];
+        private final double[] loadedValues = new double[METRICS];
+        // 0 until the first update after the load
+        private long version;
+
+        private Entry(UUID userId, Cell cell) {
+            this.userId = userId;
+            this.cell = cell;
+        }
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class CellKey {
+
+        private final String sex;
+        private final AgeGroup ageGroup;
+
+        private boolean matches(String sexFilter, AgeGroup ageGroupFilter) {
+            return (sexFilter == null || sexFilter.equals(sex)) && (ageGroupFilter == null || ageGroupFilter == ageGroup);
+        }
+    }
+
+    private final class Cell {
+
+        private final CellKey key;
+        private final List<Entry> members = new ArrayList<>();
+        private final double[][] loadedScores = new double[METRICS][0];
+        private final List<List<Entry>> tops = new ArrayList<>();
+
+        private Cell(CellKey key) {
+            this.key = key;
+            for (int metric = 0; metric < METRICS; metric++) {
+                tops.add(new ArrayList<>());
+            }
+        }
+
+        private void rebuildTop(int metric) {
+            Comparator<Entry> descending = descending(metric);
+            PriorityQueue<Entry> best = new PriorityQueue<>(topSize + 1, descending.reversed());
+            for (Entry member : members) {
+                best.add(member);
+                if (best.size() > topSize) {
+                    best.poll();
+                }
+            }
+            List<Entry> top = tops.get(metric);
+            top.clear();
+            top.addAll(best);
+            top.sort(descending);
+        }
+
+        // Every member outside the top has at most the value of the last top entry
+        private void updateTop(Entry entry, int metric, double previous) {
+            List<Entry> top = tops.get(metric);
+            double value = entry.values[metric];
+            int index = top.indexOf(entry);
+            if (index >= 0) {
+                top.sort(descending(metric));
+                // The last top entry fell behind members outside the top, which only a scan of the members finds
+                if (value < previous && top.get(top.size() - 1) == entry && members.size() > top.size()) {
+                    rebuildTop(metric);
+                }
+            } else if (top.size() < topSize) {
+                top.add(entry);
+                top.sort(descending(metric));
+            } else if (value > top.get(top.size() - 1).values[metric]) {
+                top.set(top.size() - 1, entry);
+                top.sort(descending(metric));
+            }
+        }
+    }
+}
@@ -5,6 +5,8 @@ import com.running_tracker.api.dto.response.run.RunResponseDto;
 import com.running_tracker.api.dto.response.run.StartRunResponseDto;
 import com.running_tracker.domain.entity.Run;
 import com.running_tracker.domain.entity.User;
+import com.running_tracker.domain.projection.RunSummary;
+import com.running_tracker.domain.reactive.entity.RunRecord;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -18,8 +20,40 @@ public interface RunMapper {
     @Mapping(target = "averageSpeed.unit", source = "run.averageSpeedUnit")
     RunResponseDto toRunDto(Run run);
 
+    @Mapping(target = "distance.value", source = "run.distance")
+    @Mapping(target = "distance.unit", source = "run.distanceUnit")
+    @Mapping(target = "averageSpeed.value", source = "run.averageSpeed")
+    @Mapping(target = "averageSpeed.unit", source = "run.averageSpeedUnit")
+    RunResponseDto toRunDto(RunSummary run);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "startGeohash", ignore = true)
+    @Mapping(target = "finishGeohash", ignore = true)
     @Mapping(target = "user", source = "user")
     Run toEntity(StartRunRequestDto requestDto, User user);
 
     StartRunResponseDto toStartRunResponseDto(Run run);
+
+    @Mapping(target = "distance.value", source = "run.distance")
+    @Mapping(target = "distance.unit", source = "run.distanceUnit")
+    @Mapping(target = "averageSpeed.value", source = "run.averageSpeed")
+    @Mapping(target = "averageSpeed.unit", source = "run.averageSpeedUnit")
+    RunResponseDto toRunDto(RunRecord run);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "startGeohash", ignore = true)
+    @Mapping(target = "finishGeohash", ignore = true)
+    // A started run has none of its finish data yet
+    @Mapping(target = "finishLatitude", ignore = true)
+    @Mapping(target = "finishLongitude", ignore = true)
+    @Mapping(target = "finishDatetime", ignore = true)
+    @Mapping(target = "distance", ignore = true)
+    @Mapping(target = "distanceUnit", ignore = true)
+    @Mapping(target = "averageSpeed", ignore = true)
+    @Mapping(target = "averageSpeedUnit", ignore = true)
+    RunRecord toRecord(StartRunRequestDto requestDto);
+
+    StartRunResponseDto toStartRunResponseDto(RunRecord run);
 }
@@ -3,7 +3,9 @@ package com.running_tracker.service.mapper;
 import com.running_tracker.api.dto.request.user.UserRequestDto;
 import com.running_tracker.api.dto.response.user.UserResponseDto;
 import com.running_tracker.domain.entity.User;
+import com.running_tracker.domain.reactive.entity.UserRecord;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface UserMapper {
@@ -11,4 +13,9 @@ public interface UserMapper {
     User toEntity(UserRequestDto requestDto);
 
     UserResponseDto toDto(User user);
+
+    @Mapping(target = "id", ignore = true)
+    UserRecord toRecord(UserRequestDto requestDto);
+
+    UserResponseDto toDto(UserRecord user);
 }
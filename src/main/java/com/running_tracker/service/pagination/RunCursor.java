@@ -0,0 +1,47 @@
+package com.running_tracker.service.pagination;
+
+import com.running_tracker.domain.projection.RunSummary;
+import com.running_tracker.exception.InvalidCursorException;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in a user's run history, ordered by (startDatetime, id).
+ * Clients only ever see it as an opaque, URL-safe continuation token.
+ */
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class RunCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime startDatetime;
+    private final UUID id;
+
+    public static RunCursor of(RunSummary run) {
+        return new RunCursor(run.getStartDatetime(), run.getId());
+    }
+
+    public String encode() {
+        String raw = startDatetime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static RunCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            return new RunCursor(LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    UUID.fromString(raw.substring(separatorIndex + 1)));
+        } catch (RuntimeException exception) {
+            throw new InvalidCursorException(String.format("Cursor %s is not valid", token));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.running_tracker.service.statistics;
+
+import com.running_tracker.domain.entity.StatisticsBucketType;
+import lombok.Getter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits a half-open statistics range into the largest pre-aggregated buckets that lie entirely inside it,
+ * plus the partial days at both edges that still have to be read from the raw runs.
+ */
+@Getter
+public class StatisticsWindow {
+
+    /**
+     * Start of the single bucket holding a user's all-time totals.
+     */
+    public static final LocalDateTime TOTAL_BUCKET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final LocalDateTime leadingEdgeFrom;
+    private final LocalDateTime leadingEdgeTo;
+    private final LocalDateTime trailingEdgeFrom;
+    private final LocalDateTime trailingEdgeTo;
+    private final Map<StatisticsBucketType, List<LocalDateTime>> bucketStarts;
+
+    private StatisticsWindow(LocalDateTime leadingEdgeFrom, LocalDateTime leadingEdgeTo,
+                             LocalDateTime trailingEdgeFrom, LocalDateTime trailingEdgeTo,
+                             Map<StatisticsBucketType, List<LocalDateTime>> bucketStarts) {
+        this.leadingEdgeFrom = leadingEdgeFrom;
+        this.leadingEdgeTo = leadingEdgeTo;
+        this.trailingEdgeFrom = trailingEdgeFrom;
+        this.trailingEdgeTo = trailingEdgeTo;
+        this.bucketStarts = bucketStarts;
+    }
+
+    /**
+     * Plans the range [from, toExclusive).
+     *
+     * @param from the inclusive start of the range
+     * @param toExclusive the exclusive end of the range
+     * @return the buckets and raw edges covering the range exactly once
+     */
+    public static StatisticsWindow of(LocalDateTime from, LocalDateTime toExclusive) {
+        Map<StatisticsBucketType, List<LocalDateTime>> bucketStarts = new EnumMap<>(StatisticsBucketType.class);
+        bucketStarts.put(StatisticsBucketType.DAY, new ArrayList<>());
+        bucketStarts.put(StatisticsBucketType.WEEK, new ArrayList<>());
+        bucketStarts.put(StatisticsBucketType.MONTH, new ArrayList<>());
+
+        LocalDateTime firstFullDay = bucketStart(StatisticsBucketType.DAY, from);
+        if (firstFullDay.isBefore(from)) {
+            firstFullDay = firstFullDay.plusDays(1);
+        }
+        LocalDateTime lastFullDayEnd = bucketStart(StatisticsBucketType.DAY, toExclusive);
+
+        // No complete day inside the range, everything comes from the raw runs
+        if (!firstFullDay.isBefore(lastFullDayEnd)) {
+            return new StatisticsWindow(from, toExclusive, toExclusive, toExclusive, bucketStarts);
+        }
+
+        // Whole months first, then whole weeks and single days in the gaps around them
+        LocalDateTime firstMonth = nextBoundary(StatisticsBucketType.MONTH, firstFullDay);
+        LocalDateTime lastMonthEnd = bucketStart(StatisticsBucketType.MONTH, lastFullDayEnd);
+        if (firstMonth.isBefore(lastMonthEnd)) {
+            addWeeksAndDays(firstFullDay, firstMonth, bucketStarts);
+            for (LocalDateTime month = firstMonth; month.isBefore(lastMonthEnd); month = month.plusMonths(1)) {
+                bucketStarts.get(StatisticsBucketType.MONTH).add(month);
+            }
+            addWeeksAndDays(lastMonthEnd, lastFullDayEnd, bucketStarts);
+        } else {
+            addWeeksAndDays(firstFullDay, lastFullDayEnd, bucketStarts);
+        }
+
+        return new StatisticsWindow(from, firstFullDay, lastFullDayEnd, toExclusive, bucketStarts);
+    }
+
+    private static void addWeeksAndDays(LocalDateTime from, LocalDateTime to, Map<StatisticsBucketType, List<LocalDateTime>> bucketStarts) {
+        LocalDateTime firstWeek = nextBoundary(StatisticsBucketType.WEEK, from);
+        LocalDateTime lastWeekEnd = bucketStart(StatisticsBucketType.WEEK, to);
+        if (!firstWeek.isBefore(lastWeekEnd)) {
+            addDays(from, to, bucketStarts);
+            return;
+        }
+        addDays(from, firstWeek, bucketStarts);
+        for (LocalDateTime week = firstWeek; week.isBefore(lastWeekEnd); week = week.plusWeeks(1)) {
+            bucketStarts.get(StatisticsBucketType.WEEK).add(week);
+        }
+        addDays(lastWeekEnd, to, bucketStarts);
+    }
+
+    private static void addDays(LocalDateTime from, LocalDateTime to, Map<StatisticsBucketType, List<LocalDateTime>> bucketStarts) {
+        for (LocalDateTime day = from; day.isBefore(to); day = day.plusDays(1)) {
+            bucketStarts.get(StatisticsBucketType.DAY).add(day);
+        }
+    }
+
+    // First bucket start of the given type at or after a day boundary
+    private static LocalDateTime nextBoundary(StatisticsBucketType bucketType, LocalDateTime day) {
+        LocalDateTime start = bucketStart(bucketType, day);
+        if (start.equals(day)) {
+            return start;
+        }
+        return (bucketType == StatisticsBucketType.MONTH) ? start.plusMonths(1) : start.plusWeeks(1);
+    }
+
+    /**
+     * Returns the start of the bucket of the given type containing the datetime.
+     * Weeks start on Monday, matching PostgreSQL's date_trunc('week').
+     */
+    public static LocalDateTime bucketStart(StatisticsBucketType bucketType, LocalDateTime datetime) {
+        return switch (bucketType) {
+            case DAY -> datetime.truncatedTo(ChronoUnit.DAYS);
+            case WEEK -> datetime.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> datetime.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            case TOTAL -> TOTAL_BUCKET_START;
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.running_tracker.service.track;
+
+import com.running_tracker.domain.entity.RecordDistance;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+/**
+ * The fastest stretch of one track covering a record distance.
+ */
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class BestEffort {
+
+    private final UUID runId;
+    private final RecordDistance distance;
+    private final long elapsedMillis;
+    // Encoded like the recorded timestamps, see RunTrack
+    private final long startMillis;
+}
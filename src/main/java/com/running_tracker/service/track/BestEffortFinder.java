@@ -0,0 +1,89 @@
+package com.running_tracker.service.track;
+
+import com.running_tracker.domain.entity.RecordDistance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Finds the fastest effort over each record distance within one track, fed with the timestamp and the distance
+ * covered so far of every point in time order. The points are kept in growable primitive arrays, 16 bytes per point
+ * for the whole track, as the window of the longest distance may span all of it; {@link #find()} then slides a window
+ * over them with two pointers per record distance, so every point is visited at most twice per distance. The start of the fastest window is interpolated within its first segment, so an effort covers exactly the
+ * record distance.
+ */
+public class BestEffortFinder {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final UUID runId;
+
+    private long[] recordedAtMillis = new long[INITIAL_CAPACITY];
+    private double[] distances = new double[INITIAL_CAPACITY];
+    private int size;
+
+    public BestEffortFinder(UUID runId) {
+        this.runId = runId;
+    }
+
+    /**
+     * @param recordedAtMillis the timestamp of the point, not before the previous one
+     * @param distance the distance in meters along the track up to the point, not below the previous one
+     */
+    public void add(long recordedAtMillis, double distance) {
+        if (size == distances.length) {
+            this.recordedAtMillis = Arrays.copyOf(this.recordedAtMillis, size * 2);
+            this.distances = Arrays.copyOf(distances, size * 2);
+        }
+        this.recordedAtMillis[size] = recordedAtMillis;
+        this.distances[size] = distance;
+        size++;
+    }
+
+    /**
+     * Returns the fastest effort over every record distance the track covers, in the order of the distances.
+     */
+    public List<BestEffort> find() {
+        List<BestEffort> efforts = new ArrayList<>();
+        for (RecordDistance distance : RecordDistance.values()) {
+            BestEffort effort = find(distance);
+            if (effort == null) {
+                // Longer distances are not covered either
+                break;
+            }
+            efforts.add(effort);
+        }
+        return efforts;
+    }
+
+    private BestEffort find(RecordDistance recordDistance) {
+        double length = recordDistance.getMeters();
+        long bestElapsedMillis = Long.MAX_VALUE;
+        long bestStartMillis = 0;
+        int start = 0;
+        for (int end = 1; end < size; end++) {
+            double startDistance = distances[end] - length;
+            if (startDistance < distances[0]) {
+                continue;
+            }
+            // The window starts in the segment from start to start + 1, which only moves forward as end does
+            while (distances[start + 1] <= startDistance) {
+                start++;
+            }
+            double fraction = (startDistance - distances[start]) / (distances[start + 1] - distances[start]);
+            long startMillis = recordedAtMillis[start] + Math.round(fraction * (recordedAtMillis[start + 1] - recordedAtMillis[start]));
+            long elapsedMillis = recordedAtMillis[end] - startMillis;
+            if (elapsedMillis < bestElapsedMillis) {
+                bestElapsedMillis = elapsedMillis;
+                bestStartMillis = startMillis;
+            }
+        }
+        return bestElapsedMillis == Long.MAX_VALUE ? null : new BestEffort(runId, recordDistance, bestElapsedMillis, bestStartMillis);
+    }
+
+    public int size() {
+        return size;
+    }
+}
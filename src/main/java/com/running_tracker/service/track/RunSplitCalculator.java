@@ -0,0 +1,153 @@
+package com.running_tracker.service.track;
+
+import com.running_tracker.domain.entity.RunSplit;
+import com.running_tracker.domain.entity.RunSplitId;
+import com.running_tracker.domain.entity.SplitUnit;
+import com.running_tracker.domain.repository.TrackPointBatchRepository;
+import com.running_tracker.service.calculator.PowFreeHaversineKernel;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Cuts the recorded track of a run into kilometer and mile splits in a single pass over its points in time order.
+ * Only the previous point and the open split of every unit are kept, so memory does not grow with the track. The time
+ * a split ends is interpolated along the segment crossing its boundary. A segment counts as moving when its speed
+ * reaches the moving speed threshold; pauses and the drift of a standing device only add to the elapsed time.
+ *
+ * <p>Segment distances come from {@link PowFreeHaversineKernel#segmentDistance}, the formula every configured kernel
+ * evaluates, so splits and the finished distance of the track agree up to rounding.
+ * Not thread-safe, one instance per track.
+ */
+public class RunSplitCalculator implements TrackPointBatchRepository.TrackPointHandler {
+
+    private static final double MILLIS_PER_SECOND = 1000.0;
+
+    private final UUID runId;
+    private final double movingSpeedThreshold;
+    private final Consumer<RunSplit> consumer;
+    private final OpenSplit[] openSplits;
+
+    private long points;
+    private long firstMillis;
+    private long previousMillis;
+    private double previousLatitude;
+    private double previousLongitude;
+    private double previousCosLatitude;
+    private double distance;
+    private double movingMillis;
+
+    /**
+     * @param runId the ID of the run the splits belong to
+     * @param movingSpeedThreshold the lowest speed in meters per second of a moving segment
+     * @param consumer receives every split once it is complete, and the last ones on {@link #finish()}
+     */
+    public RunSplitCalculator(UUID runId, double movingSpeedThreshold, Consumer<RunSplit> consumer) {
+        this.runId = runId;
+        this.movingSpeedThreshold = movingSpeedThreshold;
+        this.consumer = consumer;
+        SplitUnit[] units = SplitUnit.values();
+        this.openSplits = new OpenSplit[units.length];
+        for (int i = 0; i < units.length; i++) {
+            openSplits[i] = new OpenSplit(units[i]);
+        }
+    }
+
+    @Override
+    public void accept(long recordedAtMillis, double latitude, double longitude) {
+        double cosLatitude = PowFreeHaversineKernel.cosLatitude(latitude);
+        if (points++ == 0) {
+            firstMillis = recordedAtMillis;
+            for (OpenSplit split : openSplits) {
+                split.startMillis = recordedAtMillis;
+            }
+        } else {
+            double segmentDistance = PowFreeHaversineKernel.segmentDistance(previousLatitude, previousLongitude,
+                    previousCosLatitude, latitude, longitude, cosLatitude);
+            long segmentMillis = recordedAtMillis - previousMillis;
+            double segmentMovingMillis = segmentMillis > 0
+                    && segmentDistance * MILLIS_PER_SECOND >= movingSpeedThreshold * segmentMillis ? segmentMillis : 0;
+
+            double segmentEnd = distance + segmentDistance;
+            for (OpenSplit split : openSplits) {
+                // The open split always ends beyond the distance so far, so a segment without distance closes none
+                while (segmentEnd >= split.endDistance) {
+                    double fraction = (split.endDistance - distance) / segmentDistance;
+                    split.close(previousMillis + Math.round(fraction * segmentMillis),
+                            Math.round(movingMillis + fraction * segmentMovingMillis));
+                }
+            }
+            distance = segmentEnd;
+            movingMillis += segmentMovingMillis;
+        }
+        previousMillis = recordedAtMillis;
+        previousLatitude = latitude;
+        previousLongitude = longitude;
+        previousCosLatitude = cosLatitude;
+    }
+
+    /**
+     * Emits the last split of every unit, which covers the rest of the track and is shorter than the unit. Call once
+     * after the last point.
+     */
+    public void finish() {
+        for (OpenSplit split : openSplits) {
+            double rest = distance - split.startDistance();
+            if (rest > 0) {
+                split.emit(rest, previousMillis, Math.round(movingMillis));
+            }
+        }
+    }
+
+    public long getPoints() {
+        return points;
+    }
+
+    /**
+     * Returns the distance in meters along the track so far.
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    public long getElapsedMillis() {
+        return points == 0 ? 0 : previousMillis - firstMillis;
+    }
+
+    public long getMovingMillis() {
+        return Math.round(movingMillis);
+    }
+
+    // Split boundaries are kept in whole milliseconds, so the splits of a unit add up to the elapsed and moving time
+    private final class OpenSplit {
+
+        private final SplitUnit unit;
+        private int number = 1;
+        private double endDistance;
+        private long startMillis;
+        private long startMovingMillis;
+
+        private OpenSplit(SplitUnit unit) {
+            this.unit = unit;
+            this.endDistance = unit.getMeters();
+        }
+
+        private double startDistance() {
+            return (number - 1) * unit.getMeters();
+        }
+
+        private void close(long endMillis, long endMovingMillis) {
+            emit(unit.getMeters(), endMillis, endMovingMillis);
+            number++;
+            // Multiplied instead of added up, so a marathon does not accumulate rounding errors
+            endDistance = number * unit.getMeters();
+            startMillis = endMillis;
+            startMovingMillis = endMovingMillis;
+        }
+
+        private void emit(double splitDistance, long endMillis, long endMovingMillis) {
+            consumer.accept(new RunSplit(new RunSplitId(runId, unit, number), splitDistance,
+                    endMillis - startMillis, endMovingMillis - startMovingMillis));
+        }
+    }
+}
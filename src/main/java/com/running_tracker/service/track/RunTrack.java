@@ -0,0 +1,83 @@
+package com.running_tracker.service.track;
+
+import com.running_tracker.api.dto.request.run.TrackPointRequestDto;
+import com.running_tracker.domain.projection.TrackSegment;
+
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The track points of one run as uploaded, stored column-wise in growable primitive arrays until they are written.
+ * Not thread-safe, each upload builds its own.
+ */
+public class RunTrack {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final UUID runId;
+
+    private long[] recordedAtMillis = new long[INITIAL_CAPACITY];
+    private double[] latitudes = new double[INITIAL_CAPACITY];
+    private double[] longitudes = new double[INITIAL_CAPACITY];
+    private double[] elevations = new double[INITIAL_CAPACITY];
+    private int size;
+
+    public RunTrack(UUID runId) {
+        this.runId = runId;
+    }
+
+    public UUID getRunId() {
+        return runId;
+    }
+
+    /**
+     * Appends a batch of uploaded points.
+     */
+    public void append(List<TrackPointRequestDto> points) {
+        ensureCapacity(size + points.size());
+        for (TrackPointRequestDto point : points) {
+            recordedAtMillis[size] = point.getRecordedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+            latitudes[size] = point.getLatitude();
+            longitudes[size] = point.getLongitude();
+            elevations[size] = (point.getElevation() != null) ? point.getElevation() : Double.NaN;
+            size++;
+        }
+    }
+
+    /**
+     * Appends a single point, {@code NaN} marking a missing elevation.
+     */
+    public void append(long recordedAt, double latitude, double longitude, double elevation) {
+        ensureCapacity(size + 1);
+        recordedAtMillis[size] = recordedAt;
+        latitudes[size] = latitude;
+        longitudes[size] = longitude;
+        elevations[size] = elevation;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Hands the columns to a segment without copying them, appending afterwards does not change the segment.
+     */
+    public TrackSegment snapshot() {
+        return new TrackSegment(runId, size, recordedAtMillis, latitudes, longitudes, elevations);
+    }
+
+    // Grow all columns together by half, as ArrayList does
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity <= latitudes.length) {
+            return;
+        }
+        int capacity = Math.max(minCapacity, latitudes.length + (latitudes.length >> 1));
+        recordedAtMillis = Arrays.copyOf(recordedAtMillis, capacity);
+        latitudes = Arrays.copyOf(latitudes, capacity);
+        longitudes = Arrays.copyOf(longitudes, capacity);
+        elevations = Arrays.copyOf(elevations, capacity);
+    }
+}
@@ -0,0 +1,44 @@
+package com.running_tracker.service.track;
+
+import com.running_tracker.domain.repository.TrackPointBatchRepository;
+import com.running_tracker.service.calculator.HaversineKernel;
+
+/**
+ * Measures a track seen one point at a time with a {@link HaversineKernel}, which works on arrays. The points are
+ * collected in chunks of fixed size, each starting with the last point of the previous one, so memory does not grow
+ * with the track. Not thread-safe, one instance per track.
+ */
+public class TrackDistance implements TrackPointBatchRepository.TrackPointHandler {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private final HaversineKernel kernel;
+    private final double[] latitudes = new double[CHUNK_SIZE];
+    private final double[] longitudes = new double[CHUNK_SIZE];
+    private int size;
+    private double chunksDistance;
+
+    public TrackDistance(HaversineKernel kernel) {
+        this.kernel = kernel;
+    }
+
+    @Override
+    public void accept(long recordedAtMillis, double latitude, double longitude) {
+        if (size == CHUNK_SIZE) {
+            chunksDistance += kernel.pathDistance(latitudes, longitudes, size);
+            latitudes[0] = latitudes[size - 1];
+            longitudes[0] = longitudes[size - 1];
+            size = 1;
+        }
+        latitudes[size] = latitude;
+        longitudes[size] = longitude;
+        size++;
+    }
+
+    /**
+     * Returns the unrounded distance in meters along the points accepted so far.
+     */
+    public double getDistance() {
+        return chunksDistance + kernel.pathDistance(latitudes, longitudes, size);
+    }
+}
@@ -2,6 +2,8 @@ package com.running_tracker;
 
 import com.running_tracker.api.dto.request.run.FinishRunRequestDto;
 import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.request.run.TrackPointBatchRequestDto;
+import com.running_tracker.api.dto.request.run.TrackPointRequestDto;
 import com.running_tracker.api.dto.request.user.UserRequestDto;
 import com.running_tracker.api.dto.response.run.MeasurementDto;
 import com.running_tracker.api.dto.response.run.RunResponseDto;
@@ -10,9 +12,13 @@ import com.running_tracker.api.dto.response.user.UserResponseDto;
 import com.running_tracker.api.dto.response.user.UserStatisticsDTO;
 import com.running_tracker.domain.entity.Run;
 import com.running_tracker.domain.entity.User;
+import com.running_tracker.domain.projection.RunSummary;
+import com.running_tracker.domain.projection.RunTotalsProjection;
+import com.running_tracker.domain.reactive.entity.RunRecord;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public class TestDataUtil {
@@ -72,6 +78,28 @@ public class TestDataUtil {
         return run;
     }
 
+    public static RunRecord createRunRecord() {
+        RunRecord run = new RunRecord();
+        run.setId(TEST_RUN_ID);
+        run.setUserId(TEST_USER_ID);
+        run.setStartLatitude(40.0);
+        run.setStartLongitude(-70.0);
+        run.setStartDatetime(LocalDateTime.now().minusHours(1));
+        return run;
+    }
+
+    public static RunSummary createRunSummary(UUID id) {
+        return new RunSummary(id, TEST_USER_ID, 40.0, -70.0, LocalDateTime.now().minusHours(1),
+                42.0, -72.0, LocalDateTime.now(), 100.0, DISTANCE_UNIT, 2.5, AVERAGE_SPEED_UNIT);
+    }
+
+    public static TrackPointBatchRequestDto createTrackPointBatchRequestDto() {
+        LocalDateTime recordedAt = LocalDateTime.of(2024, 9, 3, 10, 0);
+        return new TrackPointBatchRequestDto(List.of(
+                new TrackPointRequestDto(40.0, -70.0, recordedAt, 12.5),
+                new TrackPointRequestDto(40.0001, -70.0001, recordedAt.plusSeconds(1), null)));
+    }
+
     public static RunResponseDto createRunDto() {
         RunResponseDto runResponseDto = new RunResponseDto();
         runResponseDto.setId(TEST_RUN_ID);
@@ -100,6 +128,25 @@ public class TestDataUtil {
         return new UserStatisticsDTO(1, 100.0, 2.5);
     }
 
+    public static RunTotalsProjection createRunTotalsProjection(long totalRuns, double totalDistance, double sumAverageSpeed) {
+        return new RunTotalsProjection() {
+            @Override
+            public Long getTotalRuns() {
+                return totalRuns;
+            }
+
+            @Override
+            public Double getTotalDistance() {
+                return totalDistance;
+            }
+
+            @Override
+            public Double getSumAverageSpeed() {
+                return sumAverageSpeed;
+            }
+        };
+    }
+
     public static MeasurementDto createMeasurementDto(double value, String unit) {
         MeasurementDto measurementDto = new MeasurementDto();
         measurementDto.setUnit(unit);
@@ -0,0 +1,289 @@
+package com.running_tracker.api;
+
+import com.running_tracker.TestDataUtil;
+import com.running_tracker.api.dto.request.run.FinishRunRequestDto;
+import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.response.ErrorResponseDto;
+import com.running_tracker.api.dto.response.run.RunPageResponseDto;
+import com.running_tracker.api.dto.response.run.RunResponseDto;
+import com.running_tracker.api.dto.response.run.StartRunResponseDto;
+import com.running_tracker.api.dto.response.user.UserResponseDto;
+import com.running_tracker.api.dto.response.user.UserStatisticsDTO;
+import com.running_tracker.service.UserRunStatsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive_api;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        // Same in-memory database as the JDBC data source, which Liquibase migrates
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive_api?options=MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "running-tracker.run-partitions.enabled=false",
+        "running-tracker.leaderboards.materialized-view=false",
+        // H2 reports a missing referenced row as 23506 instead of PostgreSQL's 23503
+        "running-tracker.foreign-key-violation-states=23503,23506"
+})
+@ActiveProfiles("reactive")
+class ReactiveApiTest {
+
+    // The rollup upsert is PostgreSQL SQL
+    @MockBean
+    private UserRunStatsService userRunStatsService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void startAndFinishRunTest() {
+        UserResponseDto user = createUser();
+        StartRunRequestDto startRequest = TestDataUtil.createStartRunRequestDto();
+        startRequest.setUserId(user.getId());
+
+        StartRunResponseDto started = webTestClient.post().uri("/api/runs")
+                .bodyValue(startRequest)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(StartRunResponseDto.class)
+                .returnResult().getResponseBody();
+        assertNotNull(started);
+        assertNotNull(started.getId());
+
+        RunResponseDto finished = webTestClient.put().uri("/api/runs/{id}/finish", started.getId())
+                .bodyValue(TestDataUtil.createFinishRunRequestDto())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RunResponseDto.class)
+                .returnResult().getResponseBody();
+        assertNotNull(finished);
+        assertEquals(100.0, finished.getDistance().getValue());
+        assertEquals("meters", finished.getDistance().getUnit());
+        verify(userRunStatsService).addRun(eq(user.getId()), any(LocalDateTime.class), eq(1L), eq(100.0), anyDouble());
+
+        List<RunResponseDto> runs = webTestClient.get().uri("/api/runs?userId={userId}", user.getId())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(RunResponseDto.class)
+                .returnResult().getResponseBody();
+        assertNotNull(runs);
+        assertEquals(1, runs.size());
+        assertEquals(started.getId(), runs.get(0).getId());
+    }
+
+    @Test
+    void finishAddsRunToRollupAfterCommitTest() {
+        UserResponseDto user = createUser();
+        UUID runId = startRun(user.getId());
+        AtomicReference<LocalDateTime> committedFinish = new AtomicReference<>();
+        // The JDBC connection of the rollup only sees the finish once the R2DBC transaction committed
+        doAnswer(invocation -> {
+            committedFinish.set(jdbcTemplate.queryForObject("SELECT finish_datetime FROM runs WHERE id = ?", LocalDateTime.class, runId));
+            return null;
+        }).when(userRunStatsService).addRun(eq(user.getId()), any(LocalDateTime.class), eq(1L), eq(100.0), anyDouble());
+
+        FinishRunRequestDto finishRequest = TestDataUtil.createFinishRunRequestDto();
+        finishRequest.setFinishDatetime(LocalDateTime.now().plusHours(1).withNano(0));
+
+        finishRun(runId, finishRequest, null);
+
+        assertEquals(finishRequest.getFinishDatetime(), committedFinish.get());
+    }
+
+    @Test
+    void failedRollupWriteKeepsFinishedRunTest() {
+        UserResponseDto user = createUser();
+        UUID runId = startRun(user.getId());
+        doThrow(new RuntimeException("connection reset")).when(userRunStatsService)
+                .addRun(any(UUID.class), any(LocalDateTime.class), anyLong(), anyDouble(), anyDouble());
+
+        RunResponseDto finished = finishRun(runId, TestDataUtil.createFinishRunRequestDto(), null);
+
+        // The consistency check adds the run to the rollup later
+        assertEquals(100.0, finished.getDistance().getValue());
+        assertEquals(100.0, jdbcTemplate.queryForObject("SELECT distance FROM runs WHERE id = ?", Double.class, runId));
+    }
+
+    @Test
+    void finishRetryWithIdempotencyKeyGetsFirstResponseTest() {
+        UserResponseDto user = createUser();
+        UUID runId = startRun(user.getId());
+        FinishRunRequestDto retry = TestDataUtil.createFinishRunRequestDto();
+        retry.setDistance(250.0);
+
+        RunResponseDto first = finishRun(runId, TestDataUtil.createFinishRunRequestDto(), "finish-1");
+        RunResponseDto repeated = finishRun(runId, retry, "finish-1");
+
+        assertEquals(100.0, first.getDistance().getValue());
+        assertEquals(100.0, repeated.getDistance().getValue());
+        assertEquals(100.0, jdbcTemplate.queryForObject("SELECT distance FROM runs WHERE id = ?", Double.class, runId));
+        verify(userRunStatsService, times(1)).addRun(any(UUID.class), any(LocalDateTime.class), anyLong(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void streamAndPageRunsTest() {
+        UserResponseDto user = createUser();
+        for (int i = 0; i < 3; i++) {
+            StartRunRequestDto startRequest = TestDataUtil.createStartRunRequestDto();
+            startRequest.setUserId(user.getId());
+            startRequest.setStartDatetime(LocalDateTime.of(2024, 9, 1 + i, 10, 0));
+            webTestClient.post().uri("/api/runs").bodyValue(startRequest).exchange().expectStatus().isCreated();
+        }
+
+        List<RunResponseDto> streamed = webTestClient.get().uri("/api/runs?userId={userId}", user.getId())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(RunResponseDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        assertNotNull(streamed);
+        assertEquals(3, streamed.size());
+
+        RunPageResponseDto firstPage = getPage(user.getId(), null);
+        assertEquals(2, firstPage.getRuns().size());
+        assertNotNull(firstPage.getNextCursor());
+        RunPageResponseDto lastPage = getPage(user.getId(), firstPage.getNextCursor());
+        assertEquals(1, lastPage.getRuns().size());
+        assertEquals(streamed.get(2).getId(), lastPage.getRuns().get(0).getId());
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    void startRunForUnknownUserReturnsNotFoundTest() {
+        UUID userId = UUID.randomUUID();
+        StartRunRequestDto startRequest = TestDataUtil.createStartRunRequestDto();
+        startRequest.setUserId(userId);
+
+        ErrorResponseDto error = webTestClient.post().uri("/api/runs")
+                .bodyValue(startRequest)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(ErrorResponseDto.class)
+                .returnResult().getResponseBody();
+        assertNotNull(error);
+        assertEquals(String.format("User with id[%s] not found", userId), error.getDetails());
+        assertEquals("uri=/api/runs", error.getResourceURL());
+    }
+
+    @Test
+    void getUserStatisticsTest() {
+        UserStatisticsDTO statistics = TestDataUtil.createUserStatisticsDTO(1, 100.0, 2.5);
+        when(userRunStatsService.getStatistics(eq(TestDataUtil.TEST_USER_ID), isNull(), isNull())).thenReturn(statistics);
+
+        webTestClient.get().uri("/api/runs/statistics?userId={userId}", TestDataUtil.TEST_USER_ID)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UserStatisticsDTO.class)
+                .isEqualTo(statistics);
+    }
+
+    @Test
+    void updateAndDeleteUserTest() {
+        UserResponseDto user = createUser();
+
+        webTestClient.put().uri("/api/users/{id}", user.getId())
+                .bodyValue(TestDataUtil.createUserRequestDto())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UserResponseDto.class)
+                .value(updated -> assertEquals(user.getId(), updated.getId()));
+
+        webTestClient.delete().uri("/api/users/{id}", user.getId())
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/api/users/{id}", user.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private UserResponseDto createUser() {
+        UserResponseDto user = webTestClient.post().uri("/api/users")
+                .bodyValue(TestDataUtil.createUserRequestDto())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(UserResponseDto.class)
+                .returnResult().getResponseBody();
+        assertNotNull(user);
+        return user;
+    }
+
+    private UUID startRun(UUID userId) {
+        StartRunRequestDto startRequest = TestDataUtil.createStartRunRequestDto();
+        startRequest.setUserId(userId);
+        StartRunResponseDto started = webTestClient.post().uri("/api/runs")
+                .bodyValue(startRequest)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(StartRunResponseDto.class)
+                .returnResult().getResponseBody();
+        assertNotNull(started);
+        return started.getId();
+    }
+
+    private RunResponseDto finishRun(UUID runId, FinishRunRequestDto requestDto, String idempotencyKey) {
+        RunResponseDto finished = webTestClient.put().uri("/api/runs/{id}/finish", runId)
+                .headers(headers -> {
+                    if (idempotencyKey != null) {
+                        headers.set("Idempotency-Key", idempotencyKey);
+                    }
+                })
+                .bodyValue(requestDto)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RunResponseDto.class)
+                .returnResult().getResponseBody();
+        assertNotNull(finished);
+        return finished;
+    }
+
+    private RunPageResponseDto getPage(UUID userId, String cursor) {
+        RunPageResponseDto page = webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/runs/page")
+                        .queryParam("userId", userId)
+                        .queryParam("limit", 2)
+                        .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RunPageResponseDto.class)
+                .returnResult().getResponseBody();
+        assertNotNull(page);
+        return page;
+    }
+}
@@ -5,39 +5,84 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.running_tracker.TestDataUtil;
 import com.running_tracker.api.dto.request.run.FinishRunRequestDto;
 import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.request.run.TrackPointBatchRequestDto;
+import com.running_tracker.api.dto.request.run.TrackPointRequestDto;
 import com.running_tracker.api.dto.request.user.UserRequestDto;
+import com.running_tracker.api.dto.response.run.NearbyRunDto;
+import com.running_tracker.api.dto.response.run.NearbyRunsResponseDto;
+import com.running_tracker.api.dto.response.run.RunImportErrorDto;
+import com.running_tracker.api.dto.response.run.RunImportResponseDto;
+import com.running_tracker.api.dto.response.run.RunPageResponseDto;
+import com.running_tracker.api.dto.response.run.MeasurementDto;
 import com.running_tracker.api.dto.response.run.RunResponseDto;
+import com.running_tracker.api.dto.response.run.RunSplitDto;
+import com.running_tracker.api.dto.response.run.RunSplitsResponseDto;
 import com.running_tracker.api.dto.response.run.StartRunResponseDto;
+import com.running_tracker.api.dto.response.run.TrackPointBatchResponseDto;
 import com.running_tracker.api.dto.response.user.DeleteUserResponseDto;
+import com.running_tracker.api.dto.response.user.LeaderboardEntryDto;
+import com.running_tracker.api.dto.response.user.LeaderboardRankResponseDto;
+import com.running_tracker.api.dto.response.user.LeaderboardResponseDto;
+import com.running_tracker.api.dto.response.user.PersonalRecordDto;
+import com.running_tracker.api.dto.response.user.PersonalRecordsResponseDto;
 import com.running_tracker.api.dto.response.user.UserResponseDto;
 import com.running_tracker.api.dto.response.user.UserStatisticsDTO;
 import com.running_tracker.api.impl.RunControllerImpl;
 import com.running_tracker.api.impl.UserControllerImpl;
+import com.running_tracker.domain.entity.RecordDistance;
+import com.running_tracker.service.LeaderboardService;
+import com.running_tracker.service.PersonalRecordService;
+import com.running_tracker.service.RunChangeService;
+import com.running_tracker.service.RunImportService;
 import com.running_tracker.service.RunService;
+import com.running_tracker.service.TrackPointService;
 import com.running_tracker.service.UserService;
+import com.running_tracker.service.export.RunExportFormat;
+import com.running_tracker.service.importer.RunImportFormat;
+import com.running_tracker.service.leaderboard.AgeGroup;
+import com.running_tracker.service.leaderboard.LeaderboardMetric;
+import com.running_tracker.service.leaderboard.LeaderboardPeriod;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.io.Reader;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -47,6 +92,18 @@ class RunControllerImplTest {
     private MockMvc mockMvc;
     @Mock
     private RunService runService;
+    @Mock
+    private TrackPointService trackPointService;
+    @Mock
+    private RunImportService runImportService;
+    @Mock
+    private RunChangeService runChangeService;
+    @Mock
+    private PersonalRecordService personalRecordService;
+    @Mock
+    private LeaderboardService leaderboardService;
+    @Spy
+    private ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
     @InjectMocks
     private RunControllerImpl runController;
     private ObjectMapper objectMapper;
@@ -95,7 +152,7 @@ class RunControllerImplTest {
 
     @Test
     void finishRunTest() throws Exception {
-        when(runService.finishRun(any(FinishRunRequestDto.class), any(UUID.class))).thenReturn(runResponseDto);
+        when(runService.finishRun(any(FinishRunRequestDto.class), any(UUID.class), isNull())).thenReturn(runResponseDto);
 
         mockMvc.perform(put("/api/runs/{id}/finish", runId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -112,7 +169,147 @@ class RunControllerImplTest {
                 .andExpect(jsonPath("$.averageSpeed.value").value(runResponseDto.getAverageSpeed().getValue()))
                 .andExpect(jsonPath("$.averageSpeed.unit").value(runResponseDto.getAverageSpeed().getUnit()));
 
-        verify(runService).finishRun(any(FinishRunRequestDto.class), any(UUID.class));
+        verify(runService).finishRun(any(FinishRunRequestDto.class), any(UUID.class), isNull());
+    }
+
+    @Test
+    void finishRunPassesIdempotencyKeyTest() throws Exception {
+        when(runService.finishRun(any(FinishRunRequestDto.class), eq(runId), eq("finish-1"))).thenReturn(runResponseDto);
+
+        mockMvc.perform(put("/api/runs/{id}/finish", runId)
+                        .header("Idempotency-Key", "finish-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(finishRunRequestDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(runId.toString()));
+
+        verify(runService).finishRun(any(FinishRunRequestDto.class), eq(runId), eq("finish-1"));
+    }
+
+    @Test
+    void addTrackPointsTest() throws Exception {
+        TrackPointBatchRequestDto requestDto = TestDataUtil.createTrackPointBatchRequestDto();
+        when(trackPointService.addTrackPoints(any(UUID.class), any(TrackPointBatchRequestDto.class)))
+                .thenReturn(new TrackPointBatchResponseDto(runId, 2));
+
+        mockMvc.perform(post("/api/runs/{id}/points", runId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.runId").value(runId.toString()))
+                .andExpect(jsonPath("$.acceptedPoints").value(2));
+
+        verify(trackPointService).addTrackPoints(any(UUID.class), any(TrackPointBatchRequestDto.class));
+    }
+
+    @Test
+    void getRunSplitsTest() throws Exception {
+        RunSplitDto split = new RunSplitDto(1, new MeasurementDto(1000.0, "meters"), new MeasurementDto(300.0, "seconds"),
+                new MeasurementDto(290.0, "seconds"), new MeasurementDto(300.0, "s/km"), true, true);
+        when(trackPointService.getRunSplits(runId)).thenReturn(new RunSplitsResponseDto(runId,
+                new MeasurementDto(300.0, "seconds"), new MeasurementDto(290.0, "seconds"), List.of(split), List.of()));
+
+        mockMvc.perform(get("/api/runs/{id}/splits", runId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.runId").value(runId.toString()))
+                .andExpect(jsonPath("$.movingTime.value").value(290.0))
+                .andExpect(jsonPath("$.kilometerSplits[0].pace.unit").value("s/km"))
+                .andExpect(jsonPath("$.kilometerSplits[0].fastest").value(true))
+                .andExpect(jsonPath("$.mileSplits").isEmpty());
+    }
+
+    @Test
+    void getPersonalRecordsTest() throws Exception {
+        LocalDateTime achievedAt = LocalDateTime.of(2024, 9, 3, 10, 12);
+        PersonalRecordDto record = new PersonalRecordDto(RecordDistance.FIVE_KILOMETERS, new MeasurementDto(1320.0, "seconds"),
+                new MeasurementDto(264.0, "s/km"), runId, achievedAt);
+        when(personalRecordService.getPersonalRecords(userId)).thenReturn(new PersonalRecordsResponseDto(userId, List.of(record)));
+
+        mockMvc.perform(get("/api/runs/records").param("userId", userId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(userId.toString()))
+                .andExpect(jsonPath("$.records[0].distance").value("FIVE_KILOMETERS"))
+                .andExpect(jsonPath("$.records[0].pace.value").value(264.0))
+                .andExpect(jsonPath("$.records[0].runId").value(runId.toString()));
+    }
+
+    @Test
+    void getRunsNearTest() throws Exception {
+        NearbyRunsResponseDto nearbyRuns = new NearbyRunsResponseDto(40.7128, -74.006, new MeasurementDto(1000.0, "meters"),
+                List.of(new NearbyRunDto(runResponseDto, new MeasurementDto(111.19, "meters"))));
+        when(runService.getRunsNear(40.7128, -74.006, 1000.0, 20)).thenReturn(nearbyRuns);
+
+        mockMvc.perform(get("/api/runs/near")
+                        .param("lat", "40.7128")
+                        .param("lon", "-74.006")
+                        .param("radius", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.radius.value").value(1000.0))
+                .andExpect(jsonPath("$.runs[0].run.userId").value(runResponseDto.getUserId().toString()))
+                .andExpect(jsonPath("$.runs[0].distanceFromLocation.value").value(111.19));
+    }
+
+    @Test
+    void getLeaderboardTest() throws Exception {
+        LocalDateTime weekStart = LocalDateTime.of(2024, 9, 2, 0, 0);
+        LeaderboardEntryDto entry = new LeaderboardEntryDto(1, userId, new MeasurementDto(21000.0, "meters"));
+        when(leaderboardService.getLeaderboard(LeaderboardPeriod.WEEK, LeaderboardMetric.DISTANCE, "female", AgeGroup.FROM_30_TO_39, 5))
+                .thenReturn(new LeaderboardResponseDto(LeaderboardPeriod.WEEK, weekStart, LeaderboardMetric.DISTANCE, "female",
+                        AgeGroup.FROM_30_TO_39, 12, List.of(entry)));
+
+        mockMvc.perform(get("/api/runs/leaderboard")
+                        .param("period", "WEEK")
+                        .param("metric", "DISTANCE")
+                        .param("sex", "female")
+                        .param("ageGroup", "FROM_30_TO_39")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.participants").value(12))
+                .andExpect(jsonPath("$.entries[0].rank").value(1))
+                .andExpect(jsonPath("$.entries[0].userId").value(userId.toString()))
+                .andExpect(jsonPath("$.entries[0].value.unit").value("meters"));
+    }
+
+    @Test
+    void getLeaderboardRankTest() throws Exception {
+        LocalDateTime monthStart = LocalDateTime.of(2024, 9, 1, 0, 0);
+        LeaderboardEntryDto entry = new LeaderboardEntryDto(42, userId, new MeasurementDto(11.5, "km/h"));
+        when(leaderboardService.getRank(userId, LeaderboardPeriod.MONTH, LeaderboardMetric.AVERAGE_SPEED, null, null))
+                .thenReturn(new LeaderboardRankResponseDto(LeaderboardPeriod.MONTH, monthStart, LeaderboardMetric.AVERAGE_SPEED,
+                        null, null, 1000, entry));
+
+        mockMvc.perform(get("/api/runs/leaderboard/rank")
+                        .param("userId", userId.toString())
+                        .param("period", "MONTH")
+                        .param("metric", "AVERAGE_SPEED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.participants").value(1000))
+                .andExpect(jsonPath("$.entry.rank").value(42))
+                .andExpect(jsonPath("$.entry.value.value").value(11.5));
+    }
+
+    @Test
+    void addTrackPointsEmptyBatchTest() throws Exception {
+        mockMvc.perform(post("/api/runs/{id}/points", runId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TrackPointBatchRequestDto(Collections.emptyList()))))
+                .andExpect(status().isBadRequest());
+
+        verify(trackPointService, times(0)).addTrackPoints(any(UUID.class), any(TrackPointBatchRequestDto.class));
+    }
+
+    @Test
+    void addTrackPointsCoordinatesOutOfRangeTest() throws Exception {
+        for (TrackPointRequestDto point : List.of(
+                new TrackPointRequestDto(90.5, -70.0, LocalDateTime.of(2024, 9, 3, 10, 0), null),
+                new TrackPointRequestDto(40.0, -180.5, LocalDateTime.of(2024, 9, 3, 10, 0), null))) {
+            mockMvc.perform(post("/api/runs/{id}/points", runId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new TrackPointBatchRequestDto(List.of(point)))))
+                    .andExpect(status().isBadRequest());
+        }
+
+        verify(trackPointService, times(0)).addTrackPoints(any(UUID.class), any(TrackPointBatchRequestDto.class));
     }
 
     @Test
@@ -131,6 +328,134 @@ class RunControllerImplTest {
         verify(runService).getAllRunsForUser(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class));
     }
 
+    @Test
+    void getAllRunsForUserReturnsETagTest() throws Exception {
+        when(runChangeService.getChangeCount(userId)).thenReturn(OptionalLong.of(7));
+        when(runChangeService.countOpenRuns(userId)).thenReturn(1L);
+        when(runService.getAllRunsForUser(eq(userId), isNull(), isNull())).thenReturn(Collections.singletonList(runResponseDto));
+
+        mockMvc.perform(get("/api/runs")
+                        .param("userId", userId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"runs-7-1\""))
+                .andExpect(jsonPath("$[0].id").value(runId.toString()));
+    }
+
+    @Test
+    void getAllRunsForUserNotModifiedTest() throws Exception {
+        when(runChangeService.getChangeCount(userId)).thenReturn(OptionalLong.of(7));
+        when(runChangeService.countOpenRuns(userId)).thenReturn(1L);
+
+        mockMvc.perform(get("/api/runs")
+                        .param("userId", userId.toString())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"runs-7-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"runs-7-1\""))
+                .andExpect(content().string(""));
+
+        verifyNoInteractions(runService);
+    }
+
+    @Test
+    void getAllRunsForUserAfterChangeTest() throws Exception {
+        when(runChangeService.getChangeCount(userId)).thenReturn(OptionalLong.of(8));
+        when(runChangeService.countOpenRuns(userId)).thenReturn(1L);
+        when(runService.getAllRunsForUser(eq(userId), isNull(), isNull())).thenReturn(Collections.singletonList(runResponseDto));
+
+        mockMvc.perform(get("/api/runs")
+                        .param("userId", userId.toString())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"runs-7-1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"runs-8-1\""));
+    }
+
+    @Test
+    void getAllRunsForUserAfterStartTest() throws Exception {
+        // Starting a run records no change, the open run changes the tag
+        when(runChangeService.getChangeCount(userId)).thenReturn(OptionalLong.of(7));
+        when(runChangeService.countOpenRuns(userId)).thenReturn(2L);
+        when(runService.getAllRunsForUser(eq(userId), isNull(), isNull())).thenReturn(Collections.singletonList(runResponseDto));
+
+        mockMvc.perform(get("/api/runs")
+                        .param("userId", userId.toString())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"runs-7-1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"runs-7-2\""));
+    }
+
+    @Test
+    void getRunsPageTest() throws Exception {
+        when(runService.getRunsPage(any(UUID.class), isNull(), isNull(), isNull(), anyInt()))
+                .thenReturn(new RunPageResponseDto(Collections.singletonList(runResponseDto), "next-cursor"));
+
+        mockMvc.perform(get("/api/runs/page")
+                        .param("userId", userId.toString())
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.runs[0].id").value(runId.toString()))
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"));
+
+        verify(runService).getRunsPage(any(UUID.class), isNull(), isNull(), isNull(), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamAllRunsForUserTest() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<RunResponseDto> consumer = invocation.getArgument(3);
+            consumer.accept(runResponseDto);
+            consumer.accept(runResponseDto);
+            return null;
+        }).when(runService).streamAllRunsForUser(any(UUID.class), isNull(), isNull(), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/runs")
+                        .param("userId", userId.toString())
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String line = jsonMapper.writeValueAsString(runResponseDto);
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + "\n" + line + "\n"));
+    }
+
+    @Test
+    void exportRunsTest() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(4);
+            outputStream.write(new byte[]{'R', 'T', 'C', '1'});
+            return null;
+        }).when(runService).exportRuns(eq(userId), isNull(), isNull(), eq(RunExportFormat.COLUMNAR), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/runs/export")
+                        .param("userId", userId.toString())
+                        .param("format", "COLUMNAR"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"runs-" + userId + ".rtc\""))
+                .andExpect(content().bytes(new byte[]{'R', 'T', 'C', '1'}));
+    }
+
+    @Test
+    void exportRunsDefaultsToGzipCsvTest() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/runs/export")
+                        .param("userId", userId.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"runs-" + userId + ".csv.gz\""));
+        verify(runService).exportRuns(eq(userId), isNull(), isNull(), eq(RunExportFormat.CSV), any(OutputStream.class));
+    }
+
     @Test
     void getUserStatisticsTest() throws Exception {
         when(runService.getUserStatistics(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class)))
@@ -148,4 +473,70 @@ class RunControllerImplTest {
         verify(runService).getUserStatistics(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class));
     }
 
+    @Test
+    void getUserStatisticsNotModifiedTest() throws Exception {
+        when(runChangeService.getChangeCount(userId)).thenReturn(OptionalLong.of(3));
+
+        mockMvc.perform(get("/api/runs/statistics")
+                        .param("userId", userId.toString())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"statistics-3\""))
+                .andExpect(status().isNotModified());
+
+        verifyNoInteractions(runService);
+    }
+
+    @Test
+    void getUserStatisticsUntilNowHasNoETagTest() throws Exception {
+        when(runService.getUserStatistics(eq(userId), any(LocalDateTime.class), isNull())).thenReturn(userStatisticsDTO);
+
+        mockMvc.perform(get("/api/runs/statistics")
+                        .param("userId", userId.toString())
+                        .param("fromDatetime", LocalDateTime.now().minusDays(1).toString())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"statistics-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        verifyNoInteractions(runChangeService);
+    }
+
+    @Test
+    void importRunsNdjsonTest() throws Exception {
+        when(runImportService.importRuns(any(Reader.class), eq(RunImportFormat.NDJSON)))
+                .thenReturn(new RunImportResponseDto(1, 1, List.of(new RunImportErrorDto(2, "userId must not be null"))));
+
+        mockMvc.perform(post("/api/runs/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}\n{}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedRuns").value(1))
+                .andExpect(jsonPath("$.rejectedRuns").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("userId must not be null"));
+
+        verify(runImportService).importRuns(any(Reader.class), eq(RunImportFormat.NDJSON));
+    }
+
+    @Test
+    void importRunsCsvTest() throws Exception {
+        when(runImportService.importRuns(any(Reader.class), eq(RunImportFormat.CSV)))
+                .thenReturn(new RunImportResponseDto(0, 0, List.of()));
+
+        mockMvc.perform(post("/api/runs/bulk")
+                        .contentType("text/csv;charset=UTF-8")
+                        .content("userId\n"))
+                .andExpect(status().isOk());
+
+        verify(runImportService).importRuns(any(Reader.class), eq(RunImportFormat.CSV));
+    }
+
+    @Test
+    void importRunsUnsupportedMediaTypeTest() throws Exception {
+        mockMvc.perform(post("/api/runs/bulk")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<runs/>"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verify(runImportService, times(0)).importRuns(any(Reader.class), any(RunImportFormat.class));
+    }
+
 }
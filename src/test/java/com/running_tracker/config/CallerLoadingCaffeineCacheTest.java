@@ -0,0 +1,189 @@
+package com.running_tracker.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.running_tracker.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CallerLoadingCaffeineCacheTest {
+
+    private static final int READERS = 4;
+
+    // Caffeine logs through System.Logger, which goes to java.util.logging without the application
+    private static final Logger CAFFEINE_LOGGER = Logger.getLogger("com.github.benmanes.caffeine.cache.LocalAsyncCache");
+
+    private final List<LogRecord> warnings = new CopyOnWriteArrayList<>();
+
+    private final Handler warningHandler = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            if (record.getLevel().intValue() >= Level.WARNING.intValue()) {
+                warnings.add(record);
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private CallerLoadingCaffeineCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CallerLoadingCaffeineCache("test", Caffeine.newBuilder().buildAsync(), false);
+        CAFFEINE_LOGGER.addHandler(warningHandler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        CAFFEINE_LOGGER.removeHandler(warningHandler);
+    }
+
+    @Test
+    void loadRunsOnCallingThreadTest() {
+        Thread caller = Thread.currentThread();
+
+        Thread loader = cache.get("key", Thread::currentThread);
+
+        assertSame(caller, loader);
+        assertSame(caller, cache.get("key", () -> null));
+    }
+
+    @Test
+    void concurrentReadersShareOneLoadTest() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+        try {
+            Future<String> first = executor.submit(() -> cache.get("key", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                release.await();
+                return "value";
+            }));
+            loading.await();
+            List<Future<String>> waiting = new ArrayList<>();
+            for (int i = 1; i < READERS; i++) {
+                waiting.add(executor.submit(() -> cache.get("key", () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                })));
+            }
+            release.countDown();
+
+            assertEquals("value", first.get(1, TimeUnit.MINUTES));
+            for (Future<String> future : waiting) {
+                assertEquals("value", future.get(1, TimeUnit.MINUTES));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void evictDropsLoadInProgressTest() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> stale = executor.submit(() -> cache.get("key", () -> {
+                loading.countDown();
+                release.await();
+                return "stale";
+            }));
+            loading.await();
+
+            cache.evict("key");
+            release.countDown();
+
+            assertEquals("stale", stale.get(1, TimeUnit.MINUTES));
+            assertEquals("fresh", cache.get("key", () -> "fresh"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedLoadIsNotCachedTest() {
+        IllegalStateException failure = new IllegalStateException("database unavailable");
+
+        Cache.ValueRetrievalException exception = assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get("key", () -> {
+                    throw failure;
+                }));
+
+        assertSame(failure, exception.getCause());
+        assertEquals("value", cache.get("key", () -> "value"));
+        assertTrue(cache.getAsyncCache().asMap().containsKey("key"));
+    }
+
+    @Test
+    void asyncCacheLogsFailedFutureTest() {
+        AsyncCache<Object, Object> asyncCache = Caffeine.newBuilder().buildAsync();
+
+        asyncCache.get("key", (key, executor) -> CompletableFuture.failedFuture(new IllegalStateException("database unavailable")));
+
+        // The warning the cache has to keep out of the log
+        assertEquals(1, warnings.size());
+    }
+
+    @Test
+    void notFoundLoadIsNotLoggedTest() {
+        ResourceNotFoundException notFound = new ResourceNotFoundException("User with id 1 does not exists");
+
+        Cache.ValueRetrievalException exception = assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get("key", () -> {
+                    throw notFound;
+                }));
+
+        assertSame(notFound, exception.getCause());
+        assertTrue(warnings.isEmpty());
+        assertFalse(cache.getAsyncCache().asMap().containsKey("key"));
+    }
+
+    @Test
+    void notFoundRetrieveIsNotLoggedTest() throws Exception {
+        ResourceNotFoundException notFound = new ResourceNotFoundException("Run with id 1 does not exists");
+
+        CompletableFuture<Object> failed = cache.retrieve("key", () -> CompletableFuture.failedFuture(notFound));
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> failed.get(1, TimeUnit.MINUTES));
+        assertSame(notFound, exception.getCause());
+        assertTrue(warnings.isEmpty());
+        assertFalse(cache.getAsyncCache().asMap().containsKey("key"));
+        assertEquals("value", cache.retrieve("key", () -> CompletableFuture.completedFuture("value")).get(1, TimeUnit.MINUTES));
+        assertEquals("value", cache.retrieve("key", () -> CompletableFuture.completedFuture("other")).get(1, TimeUnit.MINUTES));
+    }
+}
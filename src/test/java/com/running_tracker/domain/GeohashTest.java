@@ -0,0 +1,82 @@
+package com.running_tracker.domain;
+
+import com.running_tracker.domain.geo.Geohash;
+import com.running_tracker.domain.geo.GeohashRange;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeohashTest {
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+
+    @Test
+    void encodeHoldsBitsOfBase32GeohashTest() {
+        assertEquals("u4pruydqqvj", base32(Geohash.encode(57.64911, 10.40744), 11));
+        assertEquals("ezs42", base32(Geohash.encode(42.605, -5.603), 5));
+        assertNull(Geohash.of(42.605, null));
+    }
+
+    @Test
+    void coverContainsEveryPointWithinRadiusTest() {
+        Random random = new Random(42);
+        double[][] centers = {{40.7128, -74.0060}, {-33.8688, 151.2093}, {0.0, 179.9995}, {0.0, -179.9995}, {89.999, 20.0}};
+        for (double[] center : centers) {
+            for (double radius : new double[]{50, 1000, 25_000}) {
+                List<GeohashRange> ranges = Geohash.cover(center[0], center[1], radius, 16);
+                assertTrue(ranges.size() <= 16, "ranges " + ranges.size());
+                for (int i = 1; i < ranges.size(); i++) {
+                    assertTrue(ranges.get(i - 1).getTo() < ranges.get(i).getFrom(), "ranges overlap or touch " + ranges);
+                }
+
+                // Points around the circle, across the antimeridian where the center is near it
+                double longitudeDelta = Math.min(180,
+                        1.5 * radius / 111_000 / Math.cos(Math.toRadians(Math.min(Math.abs(center[0]) + 1, 90))));
+                for (int i = 0; i < 2000; i++) {
+                    double latitude = Math.max(-90, Math.min(90, center[0] + (random.nextDouble() * 2 - 1) * 1.5 * radius / 111_000));
+                    double longitude = center[1] + (random.nextDouble() * 2 - 1) * longitudeDelta;
+                    longitude = longitude > 180 ? longitude - 360 : longitude < -180 ? longitude + 360 : longitude;
+                    if (haversine(center[0], center[1], latitude, longitude) <= radius) {
+                        long geohash = Geohash.encode(latitude, longitude);
+                        assertTrue(ranges.stream().anyMatch(range -> geohash >= range.getFrom() && geohash < range.getTo()),
+                                latitude + ", " + longitude + " within " + radius + " m of " + center[0] + ", " + center[1]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void coverAcrossAntimeridianTest() {
+        List<GeohashRange> ranges = Geohash.cover(0.0, 179.9995, 1000, 16);
+
+        long east = Geohash.encode(0.0, 179.9999);
+        long west = Geohash.encode(0.0, -179.9995);
+        long far = Geohash.encode(0.0, -179.9);
+        assertTrue(ranges.stream().anyMatch(range -> east >= range.getFrom() && east < range.getTo()));
+        assertTrue(ranges.stream().anyMatch(range -> west >= range.getFrom() && west < range.getTo()));
+        assertTrue(ranges.stream().noneMatch(range -> far >= range.getFrom() && far < range.getTo()));
+    }
+
+    private static String base32(long geohash, int characters) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 1; i <= characters; i++) {
+            builder.append(BASE32.charAt((int) (geohash >>> (2 * Geohash.BITS_PER_AXIS - 5 * i)) & 31));
+        }
+        return builder.toString();
+    }
+
+    private static double haversine(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double deltaLatitude = Math.toRadians(toLatitude - fromLatitude);
+        double deltaLongitude = Math.toRadians(toLongitude - fromLongitude);
+        double a = Math.pow(Math.sin(deltaLatitude / 2), 2)
+                + Math.cos(Math.toRadians(fromLatitude)) * Math.cos(Math.toRadians(toLatitude)) * Math.pow(Math.sin(deltaLongitude / 2), 2);
+        return 2 * EARTH_RADIUS_METERS * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
@@ -0,0 +1,99 @@
+package com.running_tracker.domain;
+
+import com.running_tracker.domain.entity.StatisticsBucketType;
+import com.running_tracker.domain.repository.LeaderboardRepositoryImpl;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LeaderboardRepositoryTest {
+
+    private static final LocalDateTime WEEK_START = LocalDateTime.of(2024, 9, 2, 0, 0);
+    private static final LocalDateTime MONTH_START = LocalDateTime.of(2024, 9, 1, 0, 0);
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private LeaderboardRepositoryImpl leaderboardRepository;
+    private UUID userId;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:leaderboard;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/db.changelog-master.yml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void createUser() {
+        leaderboardRepository = new LeaderboardRepositoryImpl(jdbcTemplate);
+        userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, birth_date, sex) VALUES (?, ?, ?, ?, ?)",
+                userId, "Jon", "Smith", LocalDate.of(1999, 10, 1), "male");
+        insertBucket("DAY", LocalDateTime.of(2024, 9, 3, 0, 0), 2, 9000.0, 20.0);
+        insertBucket("WEEK", WEEK_START, 2, 9000.0, 20.0);
+        insertBucket("MONTH", MONTH_START, 3, 12000.0, 33.0);
+        insertBucket("TOTAL", LocalDateTime.of(1970, 1, 1, 0, 0), 3, 12000.0, 33.0);
+    }
+
+    @Test
+    void streamLeaderboardEntriesReadsPeriodTotalsTest() {
+        List<String> rows = new ArrayList<>();
+
+        leaderboardRepository.streamLeaderboardEntries(StatisticsBucketType.MONTH, MONTH_START, row -> {
+            if (row.getUserId().equals(userId)) {
+                rows.add(row.getPeriod() + " " + row.getPeriodStart() + " " + row.getSex() + " " + row.getBirthDate()
+                        + " " + row.getTotalRuns() + " " + row.getTotalDistance() + " " + row.getAverageSpeed());
+            }
+        });
+
+        assertEquals(List.of("MONTH 2024-09-01T00:00 male 1999-10-01 3 12000.0 11.0"), rows);
+    }
+
+    @Test
+    void findLeaderboardEntriesReadsWeekAndMonthOfUserTest() {
+        Map<StatisticsBucketType, Double> distances = new EnumMap<>(StatisticsBucketType.class);
+
+        leaderboardRepository.findLeaderboardEntries(userId, WEEK_START, MONTH_START,
+                row -> distances.put(row.getPeriod(), row.getTotalDistance()));
+
+        assertEquals(Map.of(StatisticsBucketType.WEEK, 9000.0, StatisticsBucketType.MONTH, 12000.0), distances);
+    }
+
+    @Test
+    void findLeaderboardEntriesSkipsPeriodsWithoutBucketTest() {
+        List<StatisticsBucketType> periods = new ArrayList<>();
+
+        leaderboardRepository.findLeaderboardEntries(userId, WEEK_START.plusWeeks(1), MONTH_START,
+                row -> periods.add(row.getPeriod()));
+
+        // The following week has no bucket
+        assertEquals(List.of(StatisticsBucketType.MONTH), periods);
+    }
+
+    private void insertBucket(String bucketType, LocalDateTime bucketStart, long runs, double distance, double sumAverageSpeed) {
+        jdbcTemplate.update("INSERT INTO user_run_stats " +
+                        "(user_id, bucket_type, bucket_start, total_runs, total_distance, sum_average_speed) VALUES (?, ?, ?, ?, ?, ?)",
+                userId, bucketType, bucketStart, runs, distance, sumAverageSpeed);
+    }
+}
@@ -0,0 +1,115 @@
+package com.running_tracker.domain;
+
+import com.running_tracker.domain.entity.PersonalRecord;
+import com.running_tracker.domain.entity.RecordDistance;
+import com.running_tracker.domain.repository.PersonalRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Offering an effort is a conditional PostgreSQL upsert that H2 does not run.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class PersonalRecordRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 3, 10, 0);
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private PersonalRecordRepository personalRecordRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID userId;
+
+    @BeforeEach
+    void createUser() {
+        userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, birth_date, sex) VALUES (?, ?, ?, ?, ?)",
+                userId, "Jon", "Smith", LocalDate.of(1999, 10, 1), "male");
+    }
+
+    @Test
+    void offerEffortKeepsFasterRecordTest() {
+        UUID fastRunId = insertRun(START);
+        UUID slowRunId = insertRun(START.plusDays(1));
+
+        assertEquals(1, personalRecordRepository.offerEffort(fastRunId, RecordDistance.FIVE_KILOMETERS.name(), 1_320_000L, START));
+        assertEquals(0, personalRecordRepository.offerEffort(slowRunId, RecordDistance.FIVE_KILOMETERS.name(), 1_400_000L, START.plusDays(1)));
+        // A tie keeps the run that set the record first
+        assertEquals(0, personalRecordRepository.offerEffort(slowRunId, RecordDistance.FIVE_KILOMETERS.name(), 1_320_000L, START.plusDays(1)));
+
+        Map<String, Object> record = findRecord(RecordDistance.FIVE_KILOMETERS);
+        assertEquals(fastRunId, record.get("run_id"));
+        assertEquals(1_320_000L, ((Number) record.get("elapsed_millis")).longValue());
+    }
+
+    @Test
+    void offerEffortReplacesSlowerRecordTest() {
+        UUID slowRunId = insertRun(START);
+        UUID fastRunId = insertRun(START.plusDays(1));
+        personalRecordRepository.offerEffort(slowRunId, RecordDistance.TEN_KILOMETERS.name(), 2_900_000L, START);
+
+        assertEquals(1, personalRecordRepository.offerEffort(fastRunId, RecordDistance.TEN_KILOMETERS.name(), 2_760_000L, START.plusDays(1)));
+
+        Map<String, Object> record = findRecord(RecordDistance.TEN_KILOMETERS);
+        assertEquals(fastRunId, record.get("run_id"));
+        assertEquals(2_760_000L, ((Number) record.get("elapsed_millis")).longValue());
+        assertEquals(START.plusDays(1), ((Timestamp) record.get("achieved_at")).toLocalDateTime());
+    }
+
+    @Test
+    void offerEffortKeepsDistancesApartTest() {
+        UUID runId = insertRun(START);
+
+        personalRecordRepository.offerEffort(runId, RecordDistance.ONE_KILOMETER.name(), 240_000L, START);
+        personalRecordRepository.offerEffort(runId, RecordDistance.FIVE_KILOMETERS.name(), 1_320_000L, START);
+
+        assertEquals(2, personalRecordRepository.findAllByUserId(userId).size());
+        assertEquals(240_000L, personalRecordRepository.findAllByUserId(userId).stream()
+                .filter(record -> record.getId().getDistance() == RecordDistance.ONE_KILOMETER)
+                .mapToLong(PersonalRecord::getElapsedMillis)
+                .findFirst().orElseThrow());
+    }
+
+    private UUID insertRun(LocalDateTime startDatetime) {
+        UUID runId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO runs (id, user_id, start_latitude, start_longitude, start_datetime) VALUES (?, ?, ?, ?, ?)",
+                runId, userId, 40.0, -70.0, startDatetime);
+        return runId;
+    }
+
+    private Map<String, Object> findRecord(RecordDistance distance) {
+        return jdbcTemplate.queryForMap("SELECT run_id, elapsed_millis, achieved_at FROM personal_records " +
+                "WHERE user_id = ? AND record_distance = ?", userId, distance.name());
+    }
+}
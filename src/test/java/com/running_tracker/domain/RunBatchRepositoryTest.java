@@ -0,0 +1,89 @@
+package com.running_tracker.domain;
+
+import com.running_tracker.domain.geo.Geohash;
+import com.running_tracker.domain.projection.RunSummary;
+import com.running_tracker.domain.repository.RunBatchRepositoryImpl;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RunBatchRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 3, 7, 0);
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private RunBatchRepositoryImpl runBatchRepository;
+    private UUID userId;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:run_batch;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/db.changelog-master.yml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void createUser() {
+        runBatchRepository = new RunBatchRepositoryImpl(jdbcTemplate);
+        userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, birth_date, sex) VALUES (?, ?, ?, ?, ?)",
+                userId, "Jon", "Smith", LocalDate.of(1999, 10, 1), "male");
+    }
+
+    @Test
+    void insertAllWritesEveryColumnTest() {
+        List<RunSummary> runs = new ArrayList<>();
+        for (int day = 0; day < 3; day++) {
+            runs.add(run(userId, START.plusDays(day)));
+        }
+
+        runBatchRepository.insertAll(runs);
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM runs WHERE user_id = ?", Integer.class, userId));
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM runs WHERE id = ?", runs.get(0).getId());
+        assertEquals(40.1, row.get("finish_latitude"));
+        assertEquals(5000.0, row.get("distance"));
+        assertEquals("meters", row.get("distance_unit"));
+        assertEquals(10.0, row.get("average_speed"));
+        assertEquals("km/h", row.get("average_speed_unit"));
+        assertEquals(Geohash.encode(40.0, -70.0), row.get("start_geohash"));
+        assertEquals(Geohash.encode(40.1, -70.1), row.get("finish_geohash"));
+        assertEquals(START.plusMinutes(30), jdbcTemplate.queryForObject(
+                "SELECT finish_datetime FROM runs WHERE id = ?", LocalDateTime.class, runs.get(0).getId()));
+    }
+
+    @Test
+    void insertAllOfUnknownUserFailsTest() {
+        List<RunSummary> runs = List.of(run(UUID.randomUUID(), START));
+
+        assertThrows(DataIntegrityViolationException.class, () -> runBatchRepository.insertAll(runs));
+    }
+
+    private static RunSummary run(UUID userId, LocalDateTime startDatetime) {
+        return new RunSummary(UUID.randomUUID(), userId, 40.0, -70.0, startDatetime, 40.1, -70.1,
+                startDatetime.plusMinutes(30), 5000.0, "meters", 10.0, "km/h");
+    }
+}
@@ -0,0 +1,105 @@
+package com.running_tracker.domain;
+
+import com.running_tracker.domain.repository.RunExportRepositoryImpl;
+import com.running_tracker.service.export.RunExportEncoder;
+import com.running_tracker.service.export.RunExportFormat;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exports a history of a million runs in a JVM whose heap could not hold it, the runs being streamed from the
+ * cursor to the encoder. The database is an H2 file, so its rows do not count against the heap either. Seeding the
+ * runs takes about a minute and a half, so the test only runs with the slow-tests profile.
+ */
+@Tag("slow")
+class RunExportMemoryTest {
+
+    private static final int RUNS = 1_000_000;
+    private static final String MAX_HEAP = "-Xmx64m";
+    private static final int SEED_CHUNK = 50_000;
+
+    @Test
+    void exportOfMillionRunsRunsInCappedHeapTest(@TempDir Path directory) throws Exception {
+        String classPath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+        Process process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                MAX_HEAP, "-cp", classPath, RunExportMemoryTest.class.getName(), directory.toString())
+                .redirectErrorStream(true)
+                .start();
+
+        List<String> output;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            output = reader.lines().toList();
+        }
+        assertTrue(process.waitFor(5, TimeUnit.MINUTES), "Export did not finish");
+
+        assertEquals(0, process.exitValue(), String.join(System.lineSeparator(), output));
+        assertTrue(output.contains("CSV " + RUNS), String.join(System.lineSeparator(), output));
+        assertTrue(output.contains("COLUMNAR " + RUNS), String.join(System.lineSeparator(), output));
+    }
+
+    // Runs in the forked JVM: seeds the runs, exports them in every format and prints the number of rows written
+    public static void main(String[] args) throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:file:" + new File(args[0], "runs").getAbsolutePath() +
+                ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;CACHE_SIZE=8192", "sa", "");
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/db.changelog-master.yml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        UUID userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, birth_date, sex) VALUES (?, ?, ?, ?, ?)",
+                userId, "Jon", "Smith", LocalDate.of(1999, 10, 1), "male");
+        // Seeded in chunks with ascending ids, a single statement keeps an undo log of every row and random ids
+        // scatter the primary key pages over the small cache
+        for (int from = 0; from < RUNS; from += SEED_CHUNK) {
+            jdbcTemplate.update("INSERT INTO runs (id, user_id, start_latitude, start_longitude, start_datetime, finish_latitude, " +
+                    "finish_longitude, finish_datetime, distance, distance_unit, average_speed, average_speed_unit) " +
+                    "SELECT CAST(CONCAT('00000000-0000-4000-8000-', LPAD(CAST(n AS VARCHAR), 12, '0')) AS UUID), ?, " +
+                    "40.0 + MOD(n, 100) * 0.0001, -70.0, DATEADD(MINUTE, n * 10, TIMESTAMP '2000-01-01 00:00:00'), " +
+                    "40.1, -70.1, DATEADD(MINUTE, n * 10 + 5, TIMESTAMP '2000-01-01 00:00:00'), 1000.0, 'meters', 12.0, 'km/h' " +
+                    "FROM (SELECT \"X\" AS n FROM SYSTEM_RANGE(?, ?))", userId, from + 1, from + SEED_CHUNK);
+        }
+
+        RunExportRepositoryImpl runExportRepository = new RunExportRepositoryImpl(jdbcTemplate);
+        for (RunExportFormat format : RunExportFormat.values()) {
+            long[] rows = new long[1];
+            try (RunExportEncoder encoder = format.encoder(OutputStream.nullOutputStream())) {
+                runExportRepository.exportByUserIdAndStartDatetimeBetween(userId, LocalDateTime.of(1970, 1, 1, 0, 0),
+                        LocalDateTime.of(9999, 12, 31, 23, 59, 59), row -> {
+                            try {
+                                encoder.write(row);
+                                rows[0]++;
+                            } catch (IOException exception) {
+                                throw new UncheckedIOException(exception);
+                            }
+                        });
+            }
+            System.out.println(format + " " + rows[0]);
+        }
+    }
+}
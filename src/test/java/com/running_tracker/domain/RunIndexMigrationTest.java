@@ -0,0 +1,61 @@
+package com.running_tracker.domain;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunIndexMigrationTest {
+
+    private static final String INDEX_NAME = "IDX_RUNS_USER_ID_START_DATETIME";
+    private static final String TABLE_SCAN = "TABLESCAN";
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:run_index;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/db.changelog-master.yml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void findAllByUserIdUsesIndexTest() {
+        String plan = explain("SELECT * FROM runs WHERE user_id = RANDOM_UUID()");
+
+        // H2 also indexes the foreign key itself, so any index lookup on user_id is accepted here
+        assertFalse(plan.toUpperCase().contains(TABLE_SCAN), plan);
+    }
+
+    @Test
+    void findAllByUserIdAndStartDatetimeBetweenUsesIndexTest() {
+        String plan = explain("SELECT * FROM runs WHERE user_id = RANDOM_UUID() " +
+                "AND start_datetime BETWEEN TIMESTAMP '2024-01-01 00:00:00' AND TIMESTAMP '2024-02-01 00:00:00'");
+
+        assertTrue(plan.toUpperCase().contains(INDEX_NAME), plan);
+    }
+
+    @Test
+    void statisticsQueryUsesIndexTest() {
+        String plan = explain("SELECT COUNT(*), SUM(distance), AVG(average_speed) FROM runs WHERE user_id = RANDOM_UUID() " +
+                "AND start_datetime BETWEEN TIMESTAMP '2024-01-01 00:00:00' AND TIMESTAMP '2024-02-01 00:00:00'");
+
+        assertTrue(plan.toUpperCase().contains(INDEX_NAME), plan);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
@@ -0,0 +1,119 @@
+package com.running_tracker.domain;
+
+import com.running_tracker.domain.geo.Geohash;
+import com.running_tracker.domain.geo.GeohashRange;
+import com.running_tracker.domain.projection.RunSummary;
+import com.running_tracker.domain.repository.RunLocationRepositoryImpl;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunLocationRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 3, 7, 0);
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private RunLocationRepositoryImpl runLocationRepository;
+    private UUID userId;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:run_location;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/db.changelog-master.yml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void createUser() {
+        jdbcTemplate.update("DELETE FROM runs");
+        runLocationRepository = new RunLocationRepositoryImpl(jdbcTemplate);
+        userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, birth_date, sex) VALUES (?, ?, ?, ?, ?)",
+                userId, "Jon", "Smith", LocalDate.of(1999, 10, 1), "male");
+    }
+
+    @Test
+    void findByGeohashRangesReadsRunsStartingOrFinishingInRangesTest() {
+        UUID startsNear = insertRun(40.7128, -74.0060, 40.75, -73.95, true);
+        UUID finishesNear = insertRun(40.60, -74.10, 40.7130, -74.0055, true);
+        UUID startsAndFinishesNear = insertRun(40.7127, -74.0061, 40.7129, -74.0059, true);
+        insertRun(51.5072, -0.1276, 51.51, -0.12, true);
+        List<GeohashRange> ranges = Geohash.cover(40.7128, -74.0060, 500, 16);
+
+        Set<UUID> found = new HashSet<>();
+        runLocationRepository.findByGeohashRanges(ranges, run -> {
+            // Every run is read once, whichever of its points matches
+            assertTrue(found.add(run.getId()));
+            assertEquals(userId, run.getUserId());
+        });
+
+        assertEquals(Set.of(startsNear, finishesNear, startsAndFinishesNear), found);
+    }
+
+    @Test
+    void findByGeohashRangesReadsUnfinishedRunsTest() {
+        UUID unfinished = insertRun(40.7128, -74.0060, null, null, true);
+
+        RunSummary[] found = new RunSummary[1];
+        runLocationRepository.findByGeohashRanges(Geohash.cover(40.7128, -74.0060, 100, 16), run -> found[0] = run);
+
+        assertEquals(unfinished, found[0].getId());
+        assertNull(found[0].getFinishLatitude());
+        assertNull(found[0].getDistance());
+    }
+
+    @Test
+    void backfillGeohashesFillsInRunsWithoutTest() {
+        UUID before = insertRun(40.7128, -74.0060, 40.75, -73.95, false);
+        UUID unfinished = insertRun(40.7128, -74.0060, null, null, false);
+        UUID after = insertRun(51.5072, -0.1276, 51.51, -0.12, true);
+
+        assertEquals(1, runLocationRepository.backfillGeohashes(1));
+        assertEquals(1, runLocationRepository.backfillGeohashes(10));
+        assertEquals(0, runLocationRepository.backfillGeohashes(10));
+
+        assertEquals(Map.of("start_geohash", Geohash.encode(40.7128, -74.0060), "finish_geohash", Geohash.encode(40.75, -73.95)),
+                jdbcTemplate.queryForMap("SELECT start_geohash, finish_geohash FROM runs WHERE id = ?", before));
+        assertNull(jdbcTemplate.queryForObject("SELECT finish_geohash FROM runs WHERE id = ?", Long.class, unfinished));
+        assertEquals(Geohash.encode(51.51, -0.12),
+                jdbcTemplate.queryForObject("SELECT finish_geohash FROM runs WHERE id = ?", Long.class, after));
+    }
+
+    private UUID insertRun(double startLatitude, double startLongitude, Double finishLatitude, Double finishLongitude,
+                           boolean withGeohashes) {
+        UUID runId = UUID.randomUUID();
+        boolean finished = finishLatitude != null;
+        jdbcTemplate.update("INSERT INTO runs (id, user_id, start_latitude, start_longitude, start_datetime, " +
+                        "finish_latitude, finish_longitude, finish_datetime, distance, distance_unit, start_geohash, finish_geohash) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                runId, userId, startLatitude, startLongitude, START, finishLatitude, finishLongitude,
+                finished ? START.plusMinutes(30) : null, finished ? 5000.0 : null, finished ? "meters" : null,
+                withGeohashes ? Geohash.encode(startLatitude, startLongitude) : null,
+                withGeohashes ? Geohash.of(finishLatitude, finishLongitude) : null);
+        return runId;
+    }
+}
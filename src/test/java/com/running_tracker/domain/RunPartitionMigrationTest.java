@@ -0,0 +1,250 @@
+package com.running_tracker.domain;
+
+import com.running_tracker.domain.repository.RunPartitionRepositoryImpl;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the changelog against a real PostgreSQL, the partitioning changeset is skipped on H2.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RunPartitionMigrationTest {
+
+    private static final YearMonth JANUARY = YearMonth.of(2024, 1);
+    // The same range predicate the history queries of RunRepository bind
+    private static final String RANGE_QUERY = "SELECT * FROM runs WHERE user_id = ? AND start_datetime BETWEEN ? AND ?";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static RunPartitionRepositoryImpl runPartitionRepository;
+    private static UUID userId;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        // One session, so that plan settings apply to the statements that follow
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), true);
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/db.changelog-master.yml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        runPartitionRepository = new RunPartitionRepositoryImpl(jdbcTemplate);
+        for (int i = 0; i < 3; i++) {
+            runPartitionRepository.createMonthlyPartition(JANUARY.plusMonths(i));
+        }
+
+        userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, birth_date, sex) VALUES (?, ?, ?, ?, ?)",
+                userId, "Jon", "Smith", LocalDate.of(1999, 10, 1), "male");
+        for (int day = 0; day < 90; day++) {
+            insertRun(JANUARY.atDay(1).atTime(7, 0).plusDays(day));
+        }
+        jdbcTemplate.execute("ANALYZE runs");
+    }
+
+    @Test
+    void migrationCreatesMonthlyPartitionsAheadTest() {
+        YearMonth currentMonth = YearMonth.now();
+
+        assertTrue(runPartitionRepository.findMonthlyPartitions().containsAll(
+                List.of(currentMonth, currentMonth.plusMonths(3))));
+    }
+
+    @Test
+    void rangeQueryScansOnlyCoveredPartitionsTest() {
+        String plan = explain(RANGE_QUERY, userId,
+                LocalDateTime.of(2024, 1, 5, 0, 0), LocalDateTime.of(2024, 1, 20, 0, 0));
+
+        assertTrue(plan.contains("runs_2024_01"), plan);
+        assertFalse(plan.contains("runs_2024_02"), plan);
+        assertFalse(plan.contains("runs_2024_03"), plan);
+        assertFalse(plan.contains("runs_default"), plan);
+    }
+
+    @Test
+    void rangeQuerySpanningMonthsScansBothPartitionsTest() {
+        String plan = explain(RANGE_QUERY, userId,
+                LocalDateTime.of(2024, 1, 20, 0, 0), LocalDateTime.of(2024, 2, 10, 0, 0));
+
+        assertTrue(plan.contains("runs_2024_01"), plan);
+        assertTrue(plan.contains("runs_2024_02"), plan);
+        assertFalse(plan.contains("runs_2024_03"), plan);
+    }
+
+    @Test
+    void genericPlanPrunesAtExecutionTest() {
+        jdbcTemplate.execute("SET plan_cache_mode = force_generic_plan");
+        try {
+            jdbcTemplate.execute("PREPARE runs_in_range(uuid, timestamp, timestamp) AS " +
+                    "SELECT * FROM runs WHERE user_id = $1 AND start_datetime BETWEEN $2 AND $3");
+            String plan = String.join("\n", jdbcTemplate.queryForList(String.format(
+                    "EXPLAIN (ANALYZE, COSTS OFF) EXECUTE runs_in_range('%s', '2024-01-05', '2024-01-20')", userId), String.class));
+
+            // Partitions excluded with the bound values are reported instead of scanned
+            assertTrue(plan.contains("Subplans Removed"), plan);
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE runs_in_range");
+            jdbcTemplate.execute("RESET plan_cache_mode");
+        }
+    }
+
+    @Test
+    void runBeyondPartitionsLandsInDefaultPartitionTest() {
+        UUID runId = insertRun(LocalDateTime.of(2099, 1, 1, 7, 0));
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM runs_default WHERE id = ?", Integer.class, runId));
+        jdbcTemplate.update("DELETE FROM runs WHERE id = ?", runId);
+    }
+
+    @Test
+    void migratedRunsTableIsPartitionedTest() {
+        assertTrue(runPartitionRepository.isPartitioned());
+    }
+
+    @Test
+    void createMonthlyPartitionMovesRunsOutOfDefaultPartitionTest() {
+        YearMonth month = YearMonth.of(2098, 5);
+        UUID runId = insertRun(month.atDay(20).atTime(7, 0));
+        UUID laterRunId = insertRun(month.plusMonths(1).atDay(1).atTime(7, 0));
+
+        insertTrackPoint(runId, month.atDay(20).atTime(7, 0));
+
+        runPartitionRepository.createMonthlyPartition(month);
+
+        assertTrue(runPartitionRepository.findMonthlyPartitions().contains(month));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM runs_2098_05 WHERE id = ?", Integer.class, runId));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM runs_default WHERE id = ?", Integer.class, runId));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM runs_default WHERE id = ?", Integer.class, laterRunId));
+        // Moving the run out of the default partition keeps its id and track
+        assertEquals(1, countTrackPoints(runId));
+        jdbcTemplate.update("DELETE FROM runs WHERE id IN (?, ?)", runId, laterRunId);
+    }
+
+    @Test
+    void detachMonthlyPartitionArchivesItsRunsTest() {
+        YearMonth month = YearMonth.of(2023, 6);
+        runPartitionRepository.createMonthlyPartition(month);
+        UUID runId = insertRun(month.atDay(15).atTime(7, 0));
+        insertTrackPoint(runId, month.atDay(15).atTime(7, 0));
+
+        runPartitionRepository.detachMonthlyPartition(month);
+
+        assertFalse(runPartitionRepository.findMonthlyPartitions().contains(month));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM runs WHERE start_datetime < '2024-01-01'", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM archived_runs_2023_06", Integer.class));
+        assertEquals(List.of(userId), runPartitionRepository.findArchivedUserIds(month));
+        // Releasing the archived ids deletes the track of the run
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM run_ids WHERE id = ?", Integer.class, runId));
+        assertEquals(0, countTrackPoints(runId));
+    }
+
+    @Test
+    void runIdIsUniqueAcrossPartitionsTest() {
+        UUID runId = insertRun(LocalDateTime.of(2024, 1, 10, 7, 0));
+
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(
+                "INSERT INTO runs (id, user_id, start_latitude, start_longitude, start_datetime) VALUES (?, ?, ?, ?, ?)",
+                runId, userId, 40.0, -70.0, LocalDateTime.of(2024, 2, 10, 7, 0)));
+        jdbcTemplate.update("DELETE FROM runs WHERE id = ?", runId);
+    }
+
+    @Test
+    void insertingRunsInOneTransactionOpensNoSubtransactionsTest() {
+        // Like a chunk of the bulk import, more runs than the 64 subtransactions a backend caches
+        Map<String, Object> subtransactions = jdbcTemplate.execute((ConnectionCallback<Map<String, Object>>) connection -> {
+            connection.setAutoCommit(false);
+            try {
+                for (int i = 0; i < 100; i++) {
+                    insertRun(LocalDateTime.of(2024, 1, 10, 7, 0).plusMinutes(i));
+                }
+                jdbcTemplate.execute("SELECT pg_stat_clear_snapshot()");
+                return jdbcTemplate.queryForMap("SELECT subxact_count, subxact_overflowed FROM pg_stat_get_backend_subxact(" +
+                        "(SELECT id FROM pg_stat_get_backend_idset() AS id WHERE pg_stat_get_backend_pid(id) = pg_backend_pid()))");
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        });
+
+        assertEquals(0, ((Number) subtransactions.get("subxact_count")).intValue(), subtransactions.toString());
+        assertEquals(false, subtransactions.get("subxact_overflowed"));
+    }
+
+    @Test
+    void trackPointOfUnknownRunIsRejectedTest() {
+        assertThrows(DataIntegrityViolationException.class,
+                () -> insertTrackPoint(UUID.randomUUID(), LocalDateTime.of(2024, 1, 10, 7, 0)));
+    }
+
+    @Test
+    void deletingRunDeletesItsTrackPointsTest() {
+        UUID runId = insertRun(LocalDateTime.of(2024, 1, 10, 7, 0));
+        insertTrackPoint(runId, LocalDateTime.of(2024, 1, 10, 7, 0));
+
+        jdbcTemplate.update("DELETE FROM runs WHERE id = ?", runId);
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM run_ids WHERE id = ?", Integer.class, runId));
+        assertEquals(0, countTrackPoints(runId));
+    }
+
+    @Test
+    void runMovedToAnotherMonthKeepsItsTrackPointsTest() {
+        UUID runId = insertRun(LocalDateTime.of(2024, 1, 10, 7, 0));
+        insertTrackPoint(runId, LocalDateTime.of(2024, 1, 10, 7, 0));
+
+        // Moves the row from runs_2024_01 into runs_2024_02, a DELETE and an INSERT of the same id
+        jdbcTemplate.update("UPDATE runs SET start_datetime = ? WHERE id = ?", LocalDateTime.of(2024, 2, 10, 7, 0), runId);
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM runs_2024_02 WHERE id = ?", Integer.class, runId));
+        assertEquals(1, countTrackPoints(runId));
+        jdbcTemplate.update("DELETE FROM runs WHERE id = ?", runId);
+    }
+
+    private static UUID insertRun(LocalDateTime startDatetime) {
+        UUID runId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO runs (id, user_id, start_latitude, start_longitude, start_datetime) VALUES (?, ?, ?, ?, ?)",
+                runId, userId, 40.0, -70.0, startDatetime);
+        return runId;
+    }
+
+    private static void insertTrackPoint(UUID runId, LocalDateTime recordedAt) {
+        jdbcTemplate.update("INSERT INTO run_trackpoints (run_id, recorded_at, latitude, longitude) VALUES (?, ?, ?, ?)",
+                runId, recordedAt, 40.0, -70.0);
+    }
+
+    private static int countTrackPoints(UUID runId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM run_trackpoints WHERE run_id = ?", Integer.class, runId);
+    }
+
+    private String explain(String sql, Object... args) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+    }
+}
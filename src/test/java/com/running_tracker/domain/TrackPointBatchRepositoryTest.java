@@ -0,0 +1,118 @@
+package com.running_tracker.domain;
+
+import com.running_tracker.domain.projection.TrackSegment;
+import com.running_tracker.domain.repository.TrackPointBatchRepositoryImpl;
+import com.running_tracker.service.track.RunTrack;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TrackPointBatchRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 3, 10, 0);
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private TrackPointBatchRepositoryImpl trackPointRepository;
+    private UUID runId;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:track_points;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/db.changelog-master.yml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void createRun() {
+        trackPointRepository = new TrackPointBatchRepositoryImpl(jdbcTemplate);
+        UUID userId = UUID.randomUUID();
+        runId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, birth_date, sex) VALUES (?, ?, ?, ?, ?)",
+                userId, "Jon", "Smith", LocalDate.of(1999, 10, 1), "male");
+        jdbcTemplate.update("INSERT INTO runs (id, user_id, start_latitude, start_longitude, start_datetime) VALUES (?, ?, ?, ?, ?)",
+                runId, userId, 40.0, -70.0, START);
+    }
+
+    @Test
+    void insertAllSpansSeveralBatchesTest() {
+        RunTrack track = new RunTrack(runId);
+        for (int i = 0; i < 2500; i++) {
+            track.append(epochMillis(i), 40.0 + i * 1e-5, -70.0, Double.NaN);
+        }
+
+        trackPointRepository.insertAll(track.snapshot());
+
+        assertEquals(2500, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM run_trackpoints WHERE run_id = ?", Integer.class, runId));
+    }
+
+    @Test
+    void insertAllIgnoresRetriedPointsTest() {
+        trackPointRepository.insertAll(segment(new int[]{0, 1}, new double[]{40.0, 40.1}, new double[]{-70.0, -70.1}));
+        trackPointRepository.insertAll(segment(new int[]{1, 2}, new double[]{40.1, 40.2}, new double[]{-70.1, -70.2}));
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM run_trackpoints WHERE run_id = ?", Integer.class, runId));
+    }
+
+    @Test
+    void insertAllKeepsTimestampAndMissingElevationTest() {
+        RunTrack track = new RunTrack(runId);
+        track.append(epochMillis(7), 40.0, -70.0, Double.NaN);
+
+        trackPointRepository.insertAll(track.snapshot());
+
+        assertEquals(START.plusSeconds(7), jdbcTemplate.queryForObject(
+                "SELECT recorded_at FROM run_trackpoints WHERE run_id = ?", LocalDateTime.class, runId));
+        assertNull(jdbcTemplate.queryForObject("SELECT elevation FROM run_trackpoints WHERE run_id = ?", Double.class, runId));
+    }
+
+    @Test
+    void streamTrackByRunIdOrdersByTimestampTest() {
+        trackPointRepository.insertAll(segment(new int[]{2, 0, 1}, new double[]{40.2, 40.0, 40.1}, new double[]{-70.2, -70.0, -70.1}));
+        List<Long> recordedAtMillis = new ArrayList<>();
+        List<Double> latitudes = new ArrayList<>();
+
+        trackPointRepository.streamTrackByRunId(runId, (millis, latitude, longitude) -> {
+            recordedAtMillis.add(millis);
+            latitudes.add(latitude);
+        });
+
+        assertEquals(List.of(epochMillis(0), epochMillis(1), epochMillis(2)), recordedAtMillis);
+        assertEquals(List.of(40.0, 40.1, 40.2), latitudes);
+    }
+
+    private TrackSegment segment(int[] seconds, double[] latitudes, double[] longitudes) {
+        long[] recordedAtMillis = new long[seconds.length];
+        double[] elevations = new double[seconds.length];
+        for (int i = 0; i < seconds.length; i++) {
+            recordedAtMillis[i] = epochMillis(seconds[i]);
+            elevations[i] = Double.NaN;
+        }
+        return new TrackSegment(runId, seconds.length, recordedAtMillis, latitudes, longitudes, elevations);
+    }
+
+    private long epochMillis(int second) {
+        return START.plusSeconds(second).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,76 @@
+package com.running_tracker.domain;
+
+import com.running_tracker.domain.id.UuidV7;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7Test {
+
+    private static final int IDS = 100_000;
+    private static final int THREADS = 4;
+
+    @Test
+    void versionVariantAndTimestampTest() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.randomUUID();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        // The counter may carry into the milliseconds, a few at most in a test
+        assertTrue(timestamp >= before && timestamp <= after + 1, "timestamp " + timestamp);
+        assertEquals(id, UUID.fromString(id.toString()));
+    }
+
+    @Test
+    void idsAreOrderedByCreationTest() {
+        UUID previous = UuidV7.randomUUID();
+        for (int i = 0; i < IDS; i++) {
+            UUID next = UuidV7.randomUUID();
+            // Unsigned, the order of the bytes as PostgreSQL compares uuid values
+            assertTrue(Long.compareUnsigned(previous.getMostSignificantBits(), next.getMostSignificantBits()) < 0,
+                    previous + " before " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void concurrentIdsAreUniqueTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    List<UUID> ids = new ArrayList<>(IDS);
+                    for (int i = 0; i < IDS; i++) {
+                        ids.add(UuidV7.randomUUID());
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> timestampsAndCounters = new HashSet<>();
+            for (Future<List<UUID>> future : futures) {
+                for (UUID id : future.get(1, TimeUnit.MINUTES)) {
+                    timestampsAndCounters.add(id.getMostSignificantBits());
+                }
+            }
+            // Unique before the random bits are even considered
+            assertEquals(THREADS * IDS, timestampsAndCounters.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
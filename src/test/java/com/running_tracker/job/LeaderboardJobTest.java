@@ -0,0 +1,66 @@
+package com.running_tracker.job;
+
+import com.running_tracker.service.LeaderboardService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class LeaderboardJobTest {
+
+    @Test
+    void loadOnStartupIsTimedTest() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(JobConfig.class)) {
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            LeaderboardService leaderboardService = context.getBean(LeaderboardService.class);
+            AtomicInteger activeTasks = new AtomicInteger(-1);
+            doAnswer(invocation -> {
+                LongTaskTimer timer = meterRegistry.find("running_tracker.leaderboards.refresh_job").longTaskTimer();
+                activeTasks.set(timer == null ? 0 : timer.activeTasks());
+                return null;
+            }).when(leaderboardService).refresh();
+
+            context.publishEvent(new ApplicationReadyEvent(new SpringApplication(), new String[0], context, Duration.ZERO));
+
+            verify(leaderboardService).refresh();
+            assertEquals(1, activeTasks.get());
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    @Import(LeaderboardJob.class)
+    static class JobConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        TimedAspect timedAspect(MeterRegistry meterRegistry) {
+            return new TimedAspect(meterRegistry);
+        }
+
+        @Bean
+        LeaderboardService leaderboardService() {
+            return mock(LeaderboardService.class);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.running_tracker.service;
+
+import com.running_tracker.domain.entity.RecordDistance;
+import com.running_tracker.service.track.BestEffort;
+import com.running_tracker.service.track.BestEffortFinder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BestEffortFinderTest {
+
+    private static final UUID RUN_ID = UUID.fromString("e51cb416-5757-425b-976e-160ddc24d9ac");
+
+    private final BestEffortFinder finder = new BestEffortFinder(RUN_ID);
+
+    private long millis;
+    private double distance;
+
+    @Test
+    void evenPaceTest() {
+        // 12 km at 4 m/s, one point per second
+        run(3000, 4.0, 1000);
+
+        List<BestEffort> efforts = finder.find();
+
+        assertEquals(3, efforts.size());
+        assertEquals(new BestEffort(RUN_ID, RecordDistance.ONE_KILOMETER, 250_000, 0), efforts.get(0));
+        assertEquals(new BestEffort(RUN_ID, RecordDistance.FIVE_KILOMETERS, 1_250_000, 0), efforts.get(1));
+        assertEquals(new BestEffort(RUN_ID, RecordDistance.TEN_KILOMETERS, 2_500_000, 0), efforts.get(2));
+    }
+
+    @Test
+    void fasterStretchIsFoundTest() {
+        // 2 km at 3 m/s, a kilometer at 5 m/s, then 2 km at 3 m/s again
+        run(667, 3.0, 1000);
+        run(200, 5.0, 1000);
+        run(667, 3.0, 1000);
+
+        List<BestEffort> efforts = finder.find();
+
+        BestEffort kilometer = efforts.get(0);
+        assertEquals(RecordDistance.ONE_KILOMETER, kilometer.getDistance());
+        assertEquals(200_000, kilometer.getElapsedMillis());
+        assertEquals(667_000, kilometer.getStartMillis());
+        // The track ends at 5002 m, so the five kilometers start two thirds into the first segment
+        assertEquals(RecordDistance.FIVE_KILOMETERS, efforts.get(1).getDistance());
+        assertEquals(1_534_000 - 667, efforts.get(1).getElapsedMillis());
+    }
+
+    @Test
+    void windowStartIsInterpolatedTest() {
+        // A point every 10 seconds, 1.5 km apart: the fastest kilometer is the last one of the first segment
+        run(2, 1500.0, 10_000);
+
+        BestEffort kilometer = finder.find().get(0);
+
+        assertEquals(6667, kilometer.getElapsedMillis());
+        assertEquals(3333, kilometer.getStartMillis());
+    }
+
+    @Test
+    void uncoveredDistancesAreSkippedTest() {
+        run(99, 10.0, 1000);
+
+        assertTrue(finder.find().isEmpty());
+        assertEquals(100, finder.size());
+    }
+
+    @Test
+    void standingStillDoesNotShortenEffortTest() {
+        run(100, 5.0, 1000);
+        // A minute at a crossing in the middle of the kilometer
+        run(60, 0.0, 1000);
+        run(100, 5.0, 1000);
+
+        BestEffort kilometer = finder.find().get(0);
+
+        assertEquals(260_000, kilometer.getElapsedMillis());
+    }
+
+    private void run(int segments, double metersPerSegment, long millisPerSegment) {
+        if (finder.size() == 0) {
+            finder.add(millis, distance);
+        }
+        for (int i = 0; i < segments; i++) {
+            millis += millisPerSegment;
+            distance += metersPerSegment;
+            finder.add(millis, distance);
+        }
+    }
+}
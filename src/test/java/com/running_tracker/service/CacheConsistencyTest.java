@@ -0,0 +1,212 @@
+package com.running_tracker.service;
+
+import com.running_tracker.TestDataUtil;
+import com.running_tracker.api.dto.request.user.UserRequestDto;
+import com.running_tracker.api.dto.response.user.UserResponseDto;
+import com.running_tracker.api.dto.response.user.UserStatisticsDTO;
+import com.running_tracker.config.CacheConfig;
+import com.running_tracker.domain.entity.User;
+import com.running_tracker.domain.entity.UserRunStats;
+import com.running_tracker.domain.entity.UserRunStatsId;
+import com.running_tracker.domain.repository.UserRepository;
+import com.running_tracker.domain.repository.UserRunStatsRepository;
+import com.running_tracker.exception.ResourceNotFoundException;
+import com.running_tracker.service.impl.RunChangeServiceImpl;
+import com.running_tracker.service.impl.UserRunStatsServiceImpl;
+import com.running_tracker.service.impl.UserServiceImpl;
+import com.running_tracker.service.mapper.UserMapperImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cache_consistency;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CacheConfig.class, UserServiceImpl.class, UserMapperImpl.class, UserRunStatsServiceImpl.class, RunChangeServiceImpl.class})
+// Writes have to commit their own transactions, the evictions wait for the commit
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheConsistencyTest {
+
+    private static final int READERS = 4;
+    private static final int WRITES = 200;
+
+    // The rollup upsert is PostgreSQL SQL, the totals of the test user are kept here instead
+    @MockBean
+    private UserRunStatsRepository userRunStatsRepository;
+
+    @MockBean
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRunStatsService userRunStatsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final AtomicLong totalRuns = new AtomicLong();
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        User newUser = TestDataUtil.createUser();
+        newUser.setId(null);
+        user = userRepository.save(newUser);
+
+        doAnswer(invocation -> totalRuns.addAndGet(invocation.getArgument(5)))
+                .when(userRunStatsRepository).addToBuckets(eq(user.getId()), any(), any(), any(), any(), anyLong(), anyDouble(), anyDouble());
+        when(userRunStatsRepository.findById(any(UserRunStatsId.class)))
+                .thenAnswer(invocation -> Optional.of(new UserRunStats(invocation.getArgument(0), totalRuns.get(), 0.0, 0.0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void findUserDtoByIdIsServedFromCacheUntilUpdateTest() {
+        long hits = nativeCache(CacheConfig.USERS_CACHE).stats().hitCount();
+
+        userService.findUserDtoById(user.getId());
+        userService.findUserDtoById(user.getId());
+
+        assertEquals(hits + 1, nativeCache(CacheConfig.USERS_CACHE).stats().hitCount());
+
+        userService.update(userRequest("Jane"), user.getId());
+
+        assertEquals("Jane", userService.findUserDtoById(user.getId()).getFirstName());
+    }
+
+    @Test
+    void deleteEvictsUserTest() {
+        userService.findUserDtoById(user.getId());
+
+        userService.delete(user.getId());
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.findUserDtoById(user.getId()));
+    }
+
+    @Test
+    void readsAfterUpdateNeverSeeOlderUserTest() throws Exception {
+        assertNoStaleReads(
+                version -> userService.update(userRequest("Jon" + version), user.getId()),
+                () -> versionOf(userService.findUserDtoById(user.getId())));
+    }
+
+    @Test
+    void readsAfterFinishedRunNeverSeeOlderStatisticsTest() throws Exception {
+        assertNoStaleReads(
+                version -> userRunStatsService.addRun(user.getId(), LocalDateTime.now(), 1, 1000.0, 10.0),
+                () -> statisticsOf(userRunStatsService.getStatistics(user.getId(), null, null)));
+    }
+
+    // Readers keep loading and caching while the writer commits; a read started after a write returned must see it
+    private void assertNoStaleReads(VersionWriter writer, IntSupplier reader) throws Exception {
+        AtomicLong committed = new AtomicLong();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Queue<String> staleReads = new ConcurrentLinkedQueue<>();
+        CountDownLatch started = new CountDownLatch(READERS);
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < READERS; i++) {
+                readers.add(executor.submit(() -> {
+                    started.countDown();
+                    while (writing.get()) {
+                        long expected = committed.get();
+                        int read = reader.getAsInt();
+                        if (read < expected) {
+                            staleReads.add(String.format("read %s after %s was written", read, expected));
+                        }
+                    }
+                }));
+            }
+            started.await();
+            for (int version = 1; version <= WRITES; version++) {
+                writer.write(version);
+                committed.set(version);
+                assertEquals(version, reader.getAsInt());
+            }
+            writing.set(false);
+            for (Future<?> future : readers) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(staleReads.isEmpty(), String.join(", ", staleReads));
+    }
+
+    private UserRequestDto userRequest(String firstName) {
+        UserRequestDto requestDto = TestDataUtil.createUserRequestDto();
+        requestDto.setFirstName(firstName);
+        return requestDto;
+    }
+
+    private int versionOf(UserResponseDto user) {
+        String version = user.getFirstName().substring("Jon".length());
+        return version.isEmpty() ? 0 : Integer.parseInt(version);
+    }
+
+    private int statisticsOf(UserStatisticsDTO statistics) {
+        return statistics.getTotalRuns();
+    }
+
+    @SuppressWarnings("unchecked")
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache(String name) {
+        TransactionAwareCacheDecorator cache = (TransactionAwareCacheDecorator) cacheManager.getCache(name);
+        return ((CaffeineCache) cache.getTargetCache()).getNativeCache();
+    }
+
+    @FunctionalInterface
+    private interface VersionWriter {
+        void write(int version);
+    }
+}
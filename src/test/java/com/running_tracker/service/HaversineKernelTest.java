@@ -0,0 +1,101 @@
+package com.running_tracker.service;
+
+import com.running_tracker.service.calculator.HaversineKernel;
+import com.running_tracker.service.calculator.HaversineKernels;
+import com.running_tracker.service.calculator.PowFreeHaversineKernel;
+import com.running_tracker.service.calculator.ScalarHaversineKernel;
+import com.running_tracker.service.calculator.VectorHaversineKernel;
+import com.running_tracker.service.impl.RunCalculatorServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HaversineKernelTest {
+
+    // Track sizes around typical vector lane counts, so both full vectors and scalar tails are covered
+    private static final int[] SIZES = {0, 1, 2, 3, 4, 5, 8, 9, 16, 17, 1001};
+
+    private final RunCalculatorService runCalculatorService = new RunCalculatorServiceImpl();
+
+    @ParameterizedTest
+    @ValueSource(strings = {ScalarHaversineKernel.NAME, PowFreeHaversineKernel.NAME, VectorHaversineKernel.NAME})
+    void pathDistanceMatchesSinglePairDistanceTest(String kernelName) {
+        HaversineKernel kernel = HaversineKernels.select(kernelName);
+        Random random = new Random(42);
+        for (int size : SIZES) {
+            double[] latitudes = new double[size];
+            double[] longitudes = new double[size];
+            randomTrack(random, latitudes, longitudes);
+
+            // The single pair method rounds every segment to centimeters
+            double expected = 0;
+            for (int i = 1; i < size; i++) {
+                expected += runCalculatorService.calculateDistance(latitudes[i - 1], longitudes[i - 1], latitudes[i], longitudes[i]);
+            }
+
+            assertEquals(expected, kernel.pathDistance(latitudes, longitudes, size), 0.005 * Math.max(size - 1, 1),
+                    String.format("%s kernel, %s points", kernelName, size));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {PowFreeHaversineKernel.NAME, VectorHaversineKernel.NAME})
+    void pathDistanceMatchesScalarKernelTest(String kernelName) {
+        HaversineKernel kernel = HaversineKernels.select(kernelName);
+        HaversineKernel scalarKernel = new ScalarHaversineKernel();
+        Random random = new Random(7);
+        double[] latitudes = new double[10_000];
+        double[] longitudes = new double[10_000];
+        randomTrack(random, latitudes, longitudes);
+
+        double expected = scalarKernel.pathDistance(latitudes, longitudes, latitudes.length);
+
+        assertEquals(expected, kernel.pathDistance(latitudes, longitudes, latitudes.length), expected * 1e-12);
+    }
+
+    @Test
+    void pathDistanceAcrossAntimeridianTest() {
+        double[] latitudes = {0.0, 0.0};
+        double[] longitudes = {179.9995, -179.9995};
+        double expected = runCalculatorService.calculateDistance(0.0, 179.9995, 0.0, -179.9995);
+
+        for (String kernelName : new String[]{ScalarHaversineKernel.NAME, PowFreeHaversineKernel.NAME, VectorHaversineKernel.NAME}) {
+            assertEquals(expected, HaversineKernels.select(kernelName).pathDistance(latitudes, longitudes, 2), 0.005, kernelName);
+        }
+    }
+
+    @Test
+    void selectVectorKernelWhenModuleIsPresentTest() {
+        // The test JVM runs with --add-modules jdk.incubator.vector, see the surefire configuration
+        HaversineKernel kernel = HaversineKernels.select(HaversineKernels.AUTO);
+
+        if (VectorHaversineKernel.isSupported()) {
+            assertInstanceOf(VectorHaversineKernel.class, kernel);
+        } else {
+            assertInstanceOf(PowFreeHaversineKernel.class, kernel);
+        }
+    }
+
+    @Test
+    void selectUnknownKernelTest() {
+        assertThrows(IllegalArgumentException.class, () -> HaversineKernels.select("gpu"));
+    }
+
+    // A jittery walk of roughly one point per second of running
+    private void randomTrack(Random random, double[] latitudes, double[] longitudes) {
+        double latitude = -60 + random.nextDouble() * 120;
+        double longitude = -180 + random.nextDouble() * 360;
+        for (int i = 0; i < latitudes.length; i++) {
+            latitude += (random.nextDouble() - 0.5) * 1e-4;
+            longitude += (random.nextDouble() - 0.5) * 1e-4;
+            latitudes[i] = latitude;
+            longitudes[i] = longitude;
+        }
+    }
+}
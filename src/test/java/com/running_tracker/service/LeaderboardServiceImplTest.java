@@ -0,0 +1,183 @@
+package com.running_tracker.service;
+
+import com.running_tracker.api.dto.response.user.LeaderboardRankResponseDto;
+import com.running_tracker.api.dto.response.user.LeaderboardResponseDto;
+import com.running_tracker.domain.entity.StatisticsBucketType;
+import com.running_tracker.domain.projection.LeaderboardRow;
+import com.running_tracker.domain.repository.UserRunStatsRepository;
+import com.running_tracker.exception.ResourceNotFoundException;
+import com.running_tracker.service.impl.LeaderboardServiceImpl;
+import com.running_tracker.service.leaderboard.LeaderboardMetric;
+import com.running_tracker.service.leaderboard.LeaderboardPeriod;
+import com.running_tracker.service.statistics.StatisticsWindow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class LeaderboardServiceImplTest {
+
+    @Mock
+    private UserRunStatsRepository userRunStatsRepository;
+
+    @InjectMocks
+    private LeaderboardServiceImpl leaderboardService;
+
+    private LocalDateTime now;
+    private LocalDateTime weekStart;
+    private LocalDateTime monthStart;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(leaderboardService, "topSize", 100);
+        ReflectionTestUtils.setField(leaderboardService, "materializedView", true);
+        now = LocalDateTime.now();
+        weekStart = StatisticsWindow.bucketStart(StatisticsBucketType.WEEK, now);
+        monthStart = StatisticsWindow.bucketStart(StatisticsBucketType.MONTH, now);
+    }
+
+    @Test
+    void refreshLoadsCurrentPeriodsFromViewTest() {
+        UUID leader = UUID.randomUUID();
+        UUID runnerUp = UUID.randomUUID();
+        doAnswer(invocation -> {
+            Consumer<LeaderboardRow> consumer = invocation.getArgument(2);
+            consumer.accept(row(StatisticsBucketType.WEEK, weekStart, leader, 21000.0, 11.0));
+            consumer.accept(row(StatisticsBucketType.WEEK, weekStart, runnerUp, 10000.0, 12.0));
+            return null;
+        }).when(userRunStatsRepository).streamLeaderboardEntries(eq(StatisticsBucketType.WEEK), eq(weekStart), any());
+
+        leaderboardService.refresh();
+
+        verify(userRunStatsRepository).refreshLeaderboardEntries();
+        verify(userRunStatsRepository).streamLeaderboardEntries(eq(StatisticsBucketType.MONTH), eq(monthStart), any());
+        LeaderboardResponseDto leaderboard = leaderboardService.getLeaderboard(LeaderboardPeriod.WEEK, LeaderboardMetric.DISTANCE, null, null, 10);
+        assertEquals(weekStart, leaderboard.getPeriodStart());
+        assertEquals(2, leaderboard.getParticipants());
+        assertEquals(leader, leaderboard.getEntries().get(0).getUserId());
+        assertEquals(21000.0, leaderboard.getEntries().get(0).getValue().getValue());
+        assertEquals("meters", leaderboard.getEntries().get(0).getValue().getUnit());
+        assertEquals(1, leaderboardService.getRank(runnerUp, LeaderboardPeriod.WEEK, LeaderboardMetric.AVERAGE_SPEED, null, null)
+                .getEntry().getRank());
+    }
+
+    @Test
+    void updateUserMovesUserOnCurrentBoardsTest() {
+        UUID userId = UUID.randomUUID();
+        doAnswer(invocation -> {
+            Consumer<LeaderboardRow> consumer = invocation.getArgument(3);
+            consumer.accept(row(StatisticsBucketType.WEEK, weekStart, userId, 5000.0, 10.0));
+            consumer.accept(row(StatisticsBucketType.MONTH, monthStart, userId, 12000.0, 10.5));
+            return null;
+        }).when(userRunStatsRepository).findLeaderboardEntries(eq(userId), eq(weekStart), eq(monthStart), any());
+
+        leaderboardService.updateUser(userId, now);
+
+        LeaderboardRankResponseDto rank = leaderboardService.getRank(userId, LeaderboardPeriod.MONTH, LeaderboardMetric.DISTANCE, "male", null);
+        assertEquals(1, rank.getEntry().getRank());
+        assertEquals(12000.0, rank.getEntry().getValue().getValue());
+        assertEquals(1, rank.getParticipants());
+    }
+
+    @Test
+    void updateUserMovesBoardsOnlyOnCommitTest() {
+        UUID userId = UUID.randomUUID();
+        doAnswer(invocation -> {
+            Consumer<LeaderboardRow> consumer = invocation.getArgument(3);
+            consumer.accept(row(StatisticsBucketType.WEEK, weekStart, userId, 5000.0, 10.0));
+            return null;
+        }).when(userRunStatsRepository).findLeaderboardEntries(eq(userId), eq(weekStart), eq(monthStart), any());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(
+                new DriverManagerDataSource("jdbc:h2:mem:leaderboard_transactions;DB_CLOSE_DELAY=-1")));
+
+        // A finish that rolls back, e.g. on a concurrent update of the run
+        transactionTemplate.executeWithoutResult(status -> {
+            leaderboardService.updateUser(userId, now);
+            assertThrows(ResourceNotFoundException.class,
+                    () -> leaderboardService.getRank(userId, LeaderboardPeriod.WEEK, LeaderboardMetric.DISTANCE, null, null));
+            status.setRollbackOnly();
+        });
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> leaderboardService.getRank(userId, LeaderboardPeriod.WEEK, LeaderboardMetric.DISTANCE, null, null));
+        assertEquals(0, leaderboardService.getLeaderboard(LeaderboardPeriod.WEEK, LeaderboardMetric.DISTANCE, null, null, 10)
+                .getParticipants());
+
+        transactionTemplate.executeWithoutResult(status -> leaderboardService.updateUser(userId, now));
+
+        assertEquals(1, leaderboardService.getRank(userId, LeaderboardPeriod.WEEK, LeaderboardMetric.DISTANCE, null, null)
+                .getEntry().getRank());
+    }
+
+    @Test
+    void updateUserIgnoresRunsOfPastPeriodsTest() {
+        UUID userId = UUID.randomUUID();
+
+        leaderboardService.updateUser(userId, now.minusMonths(2));
+
+        verify(userRunStatsRepository, never()).findLeaderboardEntries(any(), any(), any(), any());
+    }
+
+    @Test
+    void getRankOfUserWithoutRunsTest() {
+        UUID userId = UUID.randomUUID();
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> leaderboardService.getRank(userId, LeaderboardPeriod.WEEK, LeaderboardMetric.DISTANCE, null, null));
+    }
+
+    @Test
+    void readsDoNotWaitForEachOtherTest() throws Exception {
+        // Another request reading the boards holds the lock meanwhile
+        ReadWriteLock lock = (ReadWriteLock) ReflectionTestUtils.getField(leaderboardService, "lock");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        lock.readLock().lock();
+        try {
+            Future<LeaderboardResponseDto> read = executor.submit(() ->
+                    leaderboardService.getLeaderboard(LeaderboardPeriod.WEEK, LeaderboardMetric.DISTANCE, null, null, 10));
+
+            assertEquals(0, read.get(5, TimeUnit.SECONDS).getParticipants());
+        } finally {
+            lock.readLock().unlock();
+            executor.shutdownNow();
+        }
+    }
+
+    private static LeaderboardRow row(StatisticsBucketType period, LocalDateTime periodStart, UUID userId,
+                                      double distance, double averageSpeed) {
+        LeaderboardRow row = new LeaderboardRow();
+        row.setPeriod(period);
+        row.setPeriodStart(periodStart);
+        row.setUserId(userId);
+        row.setSex("male");
+        row.setBirthDate(LocalDate.of(1999, 10, 1));
+        row.setTotalRuns(2);
+        row.setTotalDistance(distance);
+        row.setAverageSpeed(averageSpeed);
+        return row;
+    }
+}
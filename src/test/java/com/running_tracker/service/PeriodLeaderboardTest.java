@@ -0,0 +1,181 @@
+package com.running_tracker.service;
+
+import com.running_tracker.domain.entity.StatisticsBucketType;
+import com.running_tracker.service.leaderboard.AgeGroup;
+import com.running_tracker.service.leaderboard.LeaderboardMetric;
+import com.running_tracker.service.leaderboard.LeaderboardStanding;
+import com.running_tracker.service.leaderboard.PeriodLeaderboard;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PeriodLeaderboardTest {
+
+    private static final LocalDateTime WEEK_START = LocalDateTime.of(2024, 9, 2, 0, 0);
+    private static final String[] SEXES = {"male", "female", null};
+    private static final LocalDate[] BIRTH_DATES = {LocalDate.of(2008, 1, 1), LocalDate.of(1999, 10, 1),
+            LocalDate.of(1980, 9, 3), LocalDate.of(1950, 5, 5), null};
+
+    private final PeriodLeaderboard board = new PeriodLeaderboard(StatisticsBucketType.WEEK, WEEK_START, 3);
+
+    @Test
+    void topRanksTiesAlikeTest() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID tied = UUID.randomUUID();
+        board.load(first, "male", null, 20000.0, 10.0);
+        board.load(second, "male", null, 15000.0, 12.0);
+        board.load(tied, "female", null, 15000.0, 11.0);
+        board.load(UUID.randomUUID(), "female", null, 5000.0, 9.0);
+        board.seal();
+
+        List<LeaderboardStanding> top = board.top(LeaderboardMetric.DISTANCE, null, null, 10);
+
+        // The top size caps the page
+        assertEquals(3, top.size());
+        assertEquals(new LeaderboardStanding(1, first, 20000.0), top.get(0));
+        assertEquals(2, top.get(1).getRank());
+        assertEquals(2, top.get(2).getRank());
+        assertEquals(second, board.top(LeaderboardMetric.AVERAGE_SPEED, null, null, 1).get(0).getUserId());
+        assertEquals(4, board.participants(null, null));
+    }
+
+    @Test
+    void cohortFiltersTest() {
+        UUID junior = UUID.randomUUID();
+        UUID twenties = UUID.randomUUID();
+        board.load(junior, "Male", LocalDate.of(2008, 1, 1), 8000.0, 9.0);
+        board.load(twenties, "male", LocalDate.of(1999, 10, 1), 6000.0, 8.0);
+        board.load(UUID.randomUUID(), "female", LocalDate.of(1999, 10, 1), 9000.0, 10.0);
+        board.seal();
+
+        assertEquals(junior, board.top(LeaderboardMetric.DISTANCE, "MALE", null, 1).get(0).getUserId());
+        assertEquals(twenties, board.top(LeaderboardMetric.DISTANCE, "male", AgeGroup.FROM_20_TO_29, 1).get(0).getUserId());
+        assertEquals(2, board.participants(null, AgeGroup.FROM_20_TO_29));
+        assertEquals(2, board.standing(junior, LeaderboardMetric.DISTANCE, null, null).orElseThrow().getRank());
+        assertEquals(1, board.standing(junior, LeaderboardMetric.DISTANCE, "male", null).orElseThrow().getRank());
+        assertTrue(board.standing(junior, LeaderboardMetric.DISTANCE, "female", null).isEmpty());
+        assertTrue(board.standing(UUID.randomUUID(), LeaderboardMetric.DISTANCE, null, null).isEmpty());
+    }
+
+    @Test
+    void ageIsTakenAtPeriodStartTest() {
+        // Turns 20 the day after the week starts
+        UUID userId = UUID.randomUUID();
+        board.load(userId, "male", LocalDate.of(2004, 9, 3), 8000.0, 9.0);
+        board.seal();
+
+        assertEquals(1, board.participants(null, AgeGroup.UNDER_20));
+    }
+
+    @Test
+    void standingsMatchFullSortAfterUpdatesTest() {
+        Random random = new Random(42);
+        Map<UUID, User> users = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            User user = new User(SEXES[random.nextInt(SEXES.length)], BIRTH_DATES[random.nextInt(BIRTH_DATES.length)],
+                    random.nextInt(200) * 100.0, random.nextInt(50) / 2.0);
+            users.put(UUID.randomUUID(), user);
+        }
+        users.forEach((userId, user) -> board.load(userId, user.sex, user.birthDate, user.values[0], user.values[1]));
+        board.seal();
+
+        List<UUID> userIds = new ArrayList<>(users.keySet());
+        for (int version = 1; version <= 300; version++) {
+            UUID userId;
+            if (random.nextInt(5) == 0) {
+                userId = UUID.randomUUID();
+                users.put(userId, new User(SEXES[random.nextInt(SEXES.length)], BIRTH_DATES[random.nextInt(BIRTH_DATES.length)], 0, 0));
+                userIds.add(userId);
+            } else {
+                userId = userIds.get(random.nextInt(userIds.size()));
+            }
+            // Averages fall as often as they rise, distances only grow
+            User user = users.get(userId);
+            user.values[0] += random.nextInt(30) * 100.0;
+            user.values[1] = random.nextInt(50) / 2.0;
+            board.update(userId, user.sex, user.birthDate, user.values[0], user.values[1], version);
+        }
+
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            for (String sex : SEXES) {
+                for (AgeGroup ageGroup : new AgeGroup[]{null, AgeGroup.UNDER_20, AgeGroup.FROM_20_TO_29}) {
+                    assertCohort(users, metric, sex, ageGroup);
+                }
+            }
+        }
+    }
+
+    @Test
+    void carryOverAppliesLaterUpdatesOnlyTest() {
+        UUID early = UUID.randomUUID();
+        UUID late = UUID.randomUUID();
+        board.load(early, "male", null, 1000.0, 10.0);
+        board.load(late, "male", null, 2000.0, 10.0);
+        board.seal();
+        board.update(early, "male", null, 5000.0, 10.0, 1);
+        board.update(late, "male", null, 7000.0, 10.0, 2);
+
+        // Reloaded from a view that saw the first update only
+        PeriodLeaderboard reloaded = new PeriodLeaderboard(StatisticsBucketType.WEEK, WEEK_START, 3);
+        reloaded.load(early, "male", null, 5000.0, 10.0);
+        reloaded.load(late, "male", null, 2000.0, 10.0);
+        reloaded.seal();
+        reloaded.carryOver(board, 1);
+
+        assertEquals(new LeaderboardStanding(1, late, 7000.0),
+                reloaded.standing(late, LeaderboardMetric.DISTANCE, null, null).orElseThrow());
+        assertEquals(new LeaderboardStanding(2, early, 5000.0),
+                reloaded.standing(early, LeaderboardMetric.DISTANCE, null, null).orElseThrow());
+    }
+
+    private void assertCohort(Map<UUID, User> users, LeaderboardMetric metric, String sex, AgeGroup ageGroup) {
+        int index = metric.ordinal();
+        List<Double> values = new ArrayList<>();
+        users.values().stream().filter(user -> user.matches(sex, ageGroup)).forEach(user -> values.add(user.values[index]));
+        values.sort((left, right) -> Double.compare(right, left));
+        assertEquals(values.size(), board.participants(sex, ageGroup));
+
+        List<LeaderboardStanding> top = board.top(metric, sex, ageGroup, 3);
+        assertEquals(Math.min(3, values.size()), top.size());
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals(values.get(i), top.get(i).getValue());
+            assertEquals(values.indexOf(values.get(i)) + 1, top.get(i).getRank());
+        }
+
+        users.forEach((userId, user) -> {
+            if (user.matches(sex, ageGroup)) {
+                LeaderboardStanding standing = board.standing(userId, metric, sex, ageGroup).orElseThrow();
+                assertEquals(values.indexOf(user.values[index]) + 1, standing.getRank());
+            }
+        });
+    }
+
+    private static final class User {
+
+        private final String sex;
+        private final LocalDate birthDate;
+        private final double[] values;
+
+        private User(String sex, LocalDate birthDate, double distance, double averageSpeed) {
+            this.sex = sex;
+            this.birthDate = birthDate;
+            this.values = new double[]{distance, averageSpeed};
+        }
+
+        private boolean matches(String sexFilter, AgeGroup ageGroupFilter) {
+            return (sexFilter == null || sexFilter.equals(sex))
+                    && (ageGroupFilter == null || ageGroupFilter == AgeGroup.of(birthDate, WEEK_START.toLocalDate()));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.running_tracker.service;
+
+import com.running_tracker.api.dto.response.user.PersonalRecordDto;
+import com.running_tracker.api.dto.response.user.PersonalRecordsResponseDto;
+import com.running_tracker.domain.entity.PersonalRecord;
+import com.running_tracker.domain.entity.PersonalRecordId;
+import com.running_tracker.domain.entity.RecordDistance;
+import com.running_tracker.domain.repository.PersonalRecordRepository;
+import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.domain.repository.TrackPointBatchRepository;
+import com.running_tracker.domain.repository.TrackPointRepository;
+import com.running_tracker.exception.CrudException;
+import com.running_tracker.service.impl.PersonalRecordServiceImpl;
+import com.running_tracker.service.track.BestEffort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PersonalRecordServiceImplTest {
+
+    // Along a meridian one meter is this many degrees of latitude
+    private static final double DEGREES_PER_METER = 180 / (6_371_000 * Math.PI);
+
+    @Mock
+    private PersonalRecordRepository personalRecordRepository;
+
+    @Mock
+    private RunRepository runRepository;
+
+    @Mock
+    private TrackPointRepository trackPointRepository;
+
+    @InjectMocks
+    private PersonalRecordServiceImpl personalRecordService;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void recordEffortsCountsBeatenRecordsTest() {
+        UUID runId = UUID.randomUUID();
+        when(personalRecordRepository.offerEffort(runId, "ONE_KILOMETER", 250_000, LocalDateTime.of(2024, 9, 3, 10, 0)))
+                .thenReturn(1);
+
+        int beaten = personalRecordService.recordEfforts(List.of(
+                new BestEffort(runId, RecordDistance.ONE_KILOMETER, 250_000, 1_725_357_600_000L),
+                new BestEffort(runId, RecordDistance.FIVE_KILOMETERS, 1_300_000, 1_725_357_600_000L)));
+
+        assertEquals(1, beaten);
+        verify(personalRecordRepository).offerEffort(runId, "FIVE_KILOMETERS", 1_300_000, LocalDateTime.of(2024, 9, 3, 10, 0));
+    }
+
+    @Test
+    void rebuildOffersFastestEffortOfAllRunsTest() {
+        UUID slowRunId = UUID.randomUUID();
+        UUID fastRunId = UUID.randomUUID();
+        when(runRepository.findFinishedIdsByUserId(userId)).thenReturn(List.of(slowRunId, fastRunId));
+        streamTrack(slowRunId, 1500, 3.0);
+        streamTrack(fastRunId, 1200, 5.0);
+
+        personalRecordService.rebuild(userId);
+
+        InOrder inOrder = inOrder(personalRecordRepository);
+        inOrder.verify(personalRecordRepository).deleteAllByUserId(userId);
+        inOrder.verify(personalRecordRepository).offerEffort(eq(fastRunId), eq("ONE_KILOMETER"), anyLong(), any());
+        verify(personalRecordRepository, never()).offerEffort(eq(slowRunId), anyString(), anyLong(), any());
+    }
+
+    @Test
+    void getPersonalRecordsTest() {
+        UUID runId = UUID.randomUUID();
+        LocalDateTime achievedAt = LocalDateTime.of(2024, 9, 3, 10, 12);
+        when(personalRecordRepository.findAllByUserId(userId)).thenReturn(List.of(
+                new PersonalRecord(new PersonalRecordId(userId, RecordDistance.FIVE_KILOMETERS), runId, 1_320_500L, achievedAt)));
+
+        PersonalRecordsResponseDto response = personalRecordService.getPersonalRecords(userId);
+
+        assertEquals(userId, response.getUserId());
+        PersonalRecordDto record = response.getRecords().get(0);
+        assertEquals(1320.5, record.getTime().getValue());
+        assertEquals(264.1, record.getPace().getValue());
+        assertEquals("s/km", record.getPace().getUnit());
+        assertEquals(runId, record.getRunId());
+        assertEquals(achievedAt, record.getAchievedAt());
+    }
+
+    @Test
+    void getPersonalRecordsSortsByDistanceTest() {
+        UUID runId = UUID.randomUUID();
+        LocalDateTime achievedAt = LocalDateTime.of(2024, 9, 3, 10, 12);
+        // The order of the stored names
+        when(personalRecordRepository.findAllByUserId(userId)).thenReturn(List.of(
+                new PersonalRecord(new PersonalRecordId(userId, RecordDistance.FIVE_KILOMETERS), runId, 1_320_500L, achievedAt),
+                new PersonalRecord(new PersonalRecordId(userId, RecordDistance.HALF_MARATHON), runId, 6_300_000L, achievedAt),
+                new PersonalRecord(new PersonalRecordId(userId, RecordDistance.MARATHON), runId, 13_500_000L, achievedAt),
+                new PersonalRecord(new PersonalRecordId(userId, RecordDistance.ONE_KILOMETER), runId, 240_000L, achievedAt),
+                new PersonalRecord(new PersonalRecordId(userId, RecordDistance.TEN_KILOMETERS), runId, 2_760_000L, achievedAt)));
+
+        PersonalRecordsResponseDto response = personalRecordService.getPersonalRecords(userId);
+
+        assertEquals(List.of(RecordDistance.ONE_KILOMETER, RecordDistance.FIVE_KILOMETERS, RecordDistance.TEN_KILOMETERS,
+                        RecordDistance.HALF_MARATHON, RecordDistance.MARATHON),
+                response.getRecords().stream().map(PersonalRecordDto::getDistance).toList());
+    }
+
+    @Test
+    void getPersonalRecordsCrudExceptionTest() {
+        when(personalRecordRepository.findAllByUserId(userId)).thenThrow(new RuntimeException("Database error"));
+
+        assertThrows(CrudException.class, () -> personalRecordService.getPersonalRecords(userId));
+    }
+
+    // Streams a track running north at an even pace, one point per second
+    private void streamTrack(UUID runId, int segments, double metersPerSecond) {
+        doAnswer(invocation -> {
+            TrackPointBatchRepository.TrackPointHandler handler = invocation.getArgument(1);
+            for (int i = 0; i <= segments; i++) {
+                handler.accept(i * 1000L, 40.0 + i * metersPerSecond * DEGREES_PER_METER, -70.0);
+            }
+            return null;
+        }).when(trackPointRepository).streamTrackByRunId(eq(runId), any());
+    }
+}
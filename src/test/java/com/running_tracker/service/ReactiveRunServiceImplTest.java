@@ -0,0 +1,243 @@
+package com.running_tracker.service;
+
+import com.running_tracker.TestDataUtil;
+import com.running_tracker.api.dto.request.run.FinishRunRequestDto;
+import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.response.run.RunResponseDto;
+import com.running_tracker.api.dto.response.run.StartRunResponseDto;
+import com.running_tracker.domain.projection.RunSummary;
+import com.running_tracker.domain.reactive.entity.RunRecord;
+import com.running_tracker.domain.reactive.repository.ReactiveRunRepository;
+import com.running_tracker.domain.reactive.repository.ReactiveUserRepository;
+import com.running_tracker.exception.CrudException;
+import com.running_tracker.exception.InvalidCursorException;
+import com.running_tracker.exception.ResourceNotFoundException;
+import com.running_tracker.service.impl.ReactiveRunServiceImpl;
+import com.running_tracker.service.mapper.RunMapper;
+import com.running_tracker.service.pagination.RunCursor;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.OptionalDouble;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ReactiveRunServiceImplTest {
+
+    @InjectMocks
+    private ReactiveRunServiceImpl runService;
+
+    @Mock
+    private ReactiveRunRepository runRepository;
+
+    @Mock
+    private RunMapper runMapper;
+
+    @Mock
+    private RunCalculatorService runCalculatorService;
+
+    @Mock
+    private UserRunStatsService userRunStatsService;
+
+    @Mock
+    private TrackPointService trackPointService;
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(userRepository.incrementRunChangeCount(any(UUID.class))).thenReturn(Mono.just(1));
+    }
+
+    @Test
+    void startRunTest() {
+        StartRunRequestDto requestDto = TestDataUtil.createStartRunRequestDto();
+        RunRecord run = TestDataUtil.createRunRecord();
+        StartRunResponseDto expectedResponse = TestDataUtil.createStartRunResponseDto();
+
+        when(runMapper.toRecord(requestDto)).thenReturn(run);
+        when(runRepository.save(run)).thenReturn(Mono.just(run));
+        when(runMapper.toStartRunResponseDto(run)).thenReturn(expectedResponse);
+
+        StepVerifier.create(runService.startRun(requestDto))
+                .expectNext(expectedResponse)
+                .verifyComplete();
+        assertNotNull(run.getId());
+        assertEquals(true, run.isNew());
+        verify(userRepository, never()).incrementRunChangeCount(any(UUID.class));
+    }
+
+    @Test
+    void startRunForUnknownUserThrowsResourceNotFoundTest() {
+        StartRunRequestDto requestDto = TestDataUtil.createStartRunRequestDto();
+        RunRecord run = TestDataUtil.createRunRecord();
+        R2dbcDataIntegrityViolationException violation = new R2dbcDataIntegrityViolationException(
+                "insert or update on table \"runs\" violates foreign key constraint \"fk_runs_users\"", "23503");
+
+        when(runMapper.toRecord(requestDto)).thenReturn(run);
+        when(runRepository.save(run)).thenReturn(Mono.error(new DataIntegrityViolationException("could not execute statement", violation)));
+
+        StepVerifier.create(runService.startRun(requestDto))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void startRunFailureThrowsCrudExceptionTest() {
+        StartRunRequestDto requestDto = TestDataUtil.createStartRunRequestDto();
+        RunRecord run = TestDataUtil.createRunRecord();
+
+        when(runMapper.toRecord(requestDto)).thenReturn(run);
+        when(runRepository.save(run)).thenReturn(Mono.error(new IllegalStateException("connection closed")));
+
+        StepVerifier.create(runService.startRun(requestDto))
+                .expectError(CrudException.class)
+                .verify();
+    }
+
+    @Test
+    void finishRunTest() {
+        FinishRunRequestDto requestDto = TestDataUtil.createFinishRunRequestDto();
+        RunRecord run = TestDataUtil.createRunRecord();
+        RunResponseDto expectedResponse = TestDataUtil.createRunDto();
+
+        when(runRepository.findById(TestDataUtil.TEST_RUN_ID)).thenReturn(Mono.just(run));
+        when(runRepository.lockFinishedById(TestDataUtil.TEST_RUN_ID)).thenReturn(Mono.just(false));
+        when(trackPointService.completeTrack(TestDataUtil.TEST_RUN_ID)).thenReturn(OptionalDouble.of(1234.0));
+        when(runCalculatorService.calculateAverageSpeed(anyDouble(), any(), any())).thenReturn(2.5);
+        when(runRepository.save(run)).thenReturn(Mono.just(run));
+        when(runMapper.toRunDto(run)).thenReturn(expectedResponse);
+
+        StepVerifier.create(runService.finishRun(requestDto, TestDataUtil.TEST_RUN_ID, null))
+                .expectNext(expectedResponse)
+                .verifyComplete();
+        assertEquals(requestDto.getFinishDatetime(), run.getFinishDatetime());
+        assertEquals(100.0, run.getDistance());
+        assertEquals("meters", run.getDistanceUnit());
+        assertEquals("km/h", run.getAverageSpeedUnit());
+        verify(userRunStatsService).addRun(TestDataUtil.TEST_USER_ID, run.getStartDatetime(), 1, 100.0, 2.5);
+        // The client's distance wins, the recorded track still yields the splits and records
+        verify(trackPointService).completeTrack(TestDataUtil.TEST_RUN_ID);
+    }
+
+    @Test
+    void finishRunUsesRecordedTrackTest() {
+        FinishRunRequestDto requestDto = TestDataUtil.createFinishRunRequestDto();
+        requestDto.setDistance(null);
+        RunRecord run = TestDataUtil.createRunRecord();
+
+        when(runRepository.findById(TestDataUtil.TEST_RUN_ID)).thenReturn(Mono.just(run));
+        when(runRepository.lockFinishedById(TestDataUtil.TEST_RUN_ID)).thenReturn(Mono.just(false));
+        when(trackPointService.completeTrack(TestDataUtil.TEST_RUN_ID)).thenReturn(OptionalDouble.of(1234.0));
+        when(runCalculatorService.calculateAverageSpeed(anyDouble(), any(), any())).thenReturn(2.5);
+        when(runRepository.save(run)).thenReturn(Mono.just(run));
+        when(runMapper.toRunDto(run)).thenReturn(TestDataUtil.createRunDto());
+
+        StepVerifier.create(runService.finishRun(requestDto, TestDataUtil.TEST_RUN_ID, null))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertEquals(1234.0, run.getDistance());
+        verify(runRepository).lockFinishedById(TestDataUtil.TEST_RUN_ID);
+        verify(runCalculatorService, never()).calculateDistance(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void finishRunAgainAddsOnlyTheDifferenceTest() {
+        FinishRunRequestDto requestDto = TestDataUtil.createFinishRunRequestDto();
+        RunRecord run = TestDataUtil.createRunRecord();
+        run.setFinishDatetime(LocalDateTime.now().minusMinutes(5));
+        run.setDistance(80.0);
+        run.setAverageSpeed(2.0);
+
+        when(runRepository.findById(TestDataUtil.TEST_RUN_ID)).thenReturn(Mono.just(run));
+        when(runRepository.lockFinishedById(TestDataUtil.TEST_RUN_ID)).thenReturn(Mono.just(false));
+        when(runCalculatorService.calculateAverageSpeed(anyDouble(), any(), any())).thenReturn(2.5);
+        when(runRepository.save(run)).thenReturn(Mono.just(run));
+        when(runMapper.toRunDto(run)).thenReturn(TestDataUtil.createRunDto());
+
+        StepVerifier.create(runService.finishRun(requestDto, TestDataUtil.TEST_RUN_ID, null))
+                .expectNextCount(1)
+                .verifyComplete();
+        verify(userRunStatsService).addRun(TestDataUtil.TEST_USER_ID, run.getStartDatetime(), 0, 20.0, 0.5);
+    }
+
+    @Test
+    void finishMissingRunThrowsResourceNotFoundTest() {
+        when(runRepository.findById(TestDataUtil.TEST_RUN_ID)).thenReturn(Mono.empty());
+
+        StepVerifier.create(runService.finishRun(TestDataUtil.createFinishRunRequestDto(), TestDataUtil.TEST_RUN_ID, null))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+        verifyNoInteractions(userRunStatsService);
+    }
+
+    @Test
+    void getAllRunsForUserWithoutRangeTest() {
+        RunSummary summary = TestDataUtil.createRunSummary(TestDataUtil.TEST_RUN_ID);
+        RunResponseDto expectedResponse = TestDataUtil.createRunDto();
+
+        when(runRepository.findSummariesByUserId(TestDataUtil.TEST_USER_ID)).thenReturn(Flux.just(summary));
+        when(runMapper.toRunDto(summary)).thenReturn(expectedResponse);
+
+        StepVerifier.create(runService.getAllRunsForUser(TestDataUtil.TEST_USER_ID, null, null))
+                .expectNext(expectedResponse)
+                .verifyComplete();
+    }
+
+    @Test
+    void getRunsPageReturnsCursorOfLastRunTest() {
+        RunSummary first = TestDataUtil.createRunSummary(UUID.randomUUID());
+        RunSummary second = TestDataUtil.createRunSummary(UUID.randomUUID());
+
+        when(runRepository.findSummaryPageByUserIdAndStartDatetimeBetween(eq(TestDataUtil.TEST_USER_ID), any(), any(), any(), any(), eq(2)))
+                .thenReturn(Flux.just(first, second));
+        when(runMapper.toRunDto(any(RunSummary.class))).thenReturn(TestDataUtil.createRunDto());
+
+        StepVerifier.create(runService.getRunsPage(TestDataUtil.TEST_USER_ID, null, null, null, 1))
+                .assertNext(page -> {
+                    assertEquals(1, page.getRuns().size());
+                    assertEquals(RunCursor.of(first).encode(), page.getNextCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getLastRunsPageHasNoCursorTest() {
+        when(runRepository.findSummaryPageByUserIdAndStartDatetimeBetween(eq(TestDataUtil.TEST_USER_ID), any(), any(), any(), any(), anyInt()))
+                .thenReturn(Flux.just(TestDataUtil.createRunSummary(UUID.randomUUID())));
+        when(runMapper.toRunDto(any(RunSummary.class))).thenReturn(TestDataUtil.createRunDto());
+
+        StepVerifier.create(runService.getRunsPage(TestDataUtil.TEST_USER_ID, null, null, null, 50))
+                .assertNext(page -> assertNull(page.getNextCursor()))
+                .verifyComplete();
+    }
+
+    @Test
+    void getRunsPageWithInvalidCursorTest() {
+        StepVerifier.create(runService.getRunsPage(TestDataUtil.TEST_USER_ID, null, null, "not a cursor", 50))
+                .expectError(InvalidCursorException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,115 @@
+package com.running_tracker.service;
+
+import com.running_tracker.TestDataUtil;
+import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.domain.entity.User;
+import com.running_tracker.domain.repository.UserRepository;
+import com.running_tracker.service.impl.RunChangeServiceImpl;
+import com.running_tracker.service.impl.RunServiceImpl;
+import com.running_tracker.service.impl.UserServiceImpl;
+import com.running_tracker.service.mapper.RunMapperImpl;
+import com.running_tracker.service.mapper.UserMapperImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:run_change_count;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RunServiceImpl.class, UserServiceImpl.class, RunMapperImpl.class, UserMapperImpl.class, RunChangeServiceImpl.class})
+// The counter has to be visible once the services committed, not only inside the test transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RunChangeCountTest {
+
+    @MockBean
+    private RunCalculatorService runCalculatorService;
+
+    @MockBean
+    private UserRunStatsService userRunStatsService;
+
+    @MockBean
+    private TrackPointService trackPointService;
+
+    @Autowired
+    private RunService runService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RunChangeService runChangeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        User newUser = TestDataUtil.createUser();
+        newUser.setId(null);
+        user = userRepository.save(newUser);
+    }
+
+    @Test
+    void newUserStartsWithoutChangesTest() {
+        assertEquals(OptionalLong.of(0), runChangeService.getChangeCount(user.getId()));
+    }
+
+    @Test
+    void unknownUserHasNoChangeCountTest() {
+        assertEquals(OptionalLong.empty(), runChangeService.getChangeCount(UUID.randomUUID()));
+    }
+
+    @Test
+    void startingRunCountsOpenRunAndFinishingCountsChangeTest() {
+        StartRunRequestDto requestDto = TestDataUtil.createStartRunRequestDto();
+        requestDto.setUserId(user.getId());
+
+        UUID runId = runService.startRun(requestDto).getId();
+        assertEquals(OptionalLong.of(0), runChangeService.getChangeCount(user.getId()));
+        assertEquals(1, runChangeService.countOpenRuns(user.getId()));
+
+        runService.finishRun(TestDataUtil.createFinishRunRequestDto(), runId, null);
+        assertEquals(OptionalLong.of(1), runChangeService.getChangeCount(user.getId()));
+        assertEquals(0, runChangeService.countOpenRuns(user.getId()));
+    }
+
+    @Test
+    void updatingUserKeepsChangeCountTest() {
+        runChangeService.recordChange(user.getId());
+
+        userService.update(TestDataUtil.createUserRequestDto(), user.getId());
+
+        assertEquals(OptionalLong.of(1), runChangeService.getChangeCount(user.getId()));
+    }
+
+    @Test
+    void recordChangeOfAllUsersTest() {
+        User otherUser = TestDataUtil.createUser();
+        otherUser.setId(null);
+        otherUser = userRepository.save(otherUser);
+        runChangeService.recordChange(user.getId());
+
+        runChangeService.recordChangeOfAllUsers();
+
+        assertEquals(OptionalLong.of(2), runChangeService.getChangeCount(user.getId()));
+        assertEquals(OptionalLong.of(1), runChangeService.getChangeCount(otherUser.getId()));
+    }
+}
@@ -0,0 +1,254 @@
+package com.running_tracker.service;
+
+import com.running_tracker.api.dto.request.run.ImportRunRequestDto;
+import com.running_tracker.domain.projection.RunExportRow;
+import com.running_tracker.service.export.RunExportEncoder;
+import com.running_tracker.service.export.RunExportFormat;
+import com.running_tracker.service.importer.RunImportFormat;
+import com.running_tracker.service.importer.RunImportParser;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunExportEncoderTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 3, 7, 0);
+    private static final UUID USER_ID = UUID.fromString("2f1c5e2a-4b7d-4c5e-9f3a-1d2e3f4a5b6c");
+
+    @Test
+    void csvExportCanBeImportedAgainTest() throws IOException {
+        List<RunExportRow> rows = List.of(row(0, true), row(1, false));
+
+        List<String> lines = readGzipLines(encode(RunExportFormat.CSV, rows));
+
+        assertEquals(3, lines.size());
+        RunImportParser parser = RunImportFormat.CSV.parser(lines.get(0), Jackson2ObjectMapperBuilder.json().build());
+        ImportRunRequestDto finished = parser.parse(lines.get(1));
+        assertEquals(USER_ID, finished.getUserId());
+        assertEquals(START, finished.getStartDatetime());
+        assertEquals(START.plusMinutes(45), finished.getFinishDatetime());
+        assertEquals(40.0, finished.getStartLatitude());
+        assertEquals(-70.1, finished.getFinishLongitude());
+        assertEquals(5000.0, finished.getDistance());
+        ImportRunRequestDto unfinished = parser.parse(lines.get(2));
+        assertEquals(rows.get(1).getStartDatetime(), unfinished.getStartDatetime());
+        assertNull(unfinished.getFinishDatetime());
+        assertNull(unfinished.getFinishLatitude());
+        assertNull(unfinished.getDistance());
+        assertTrue(lines.get(1).startsWith(rows.get(0).getId() + ","));
+    }
+
+    @Test
+    void csvExportWithoutRunsHasHeaderOnlyTest() throws IOException {
+        List<String> lines = readGzipLines(encode(RunExportFormat.CSV, List.of()));
+
+        assertEquals(List.of("id,userId,startDatetime,startLatitude,startLongitude,finishDatetime,finishLatitude," +
+                "finishLongitude,distance,averageSpeed"), lines);
+    }
+
+    @Test
+    void columnarExportRoundTripsAcrossBlocksTest() throws IOException {
+        List<RunExportRow> rows = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            rows.add(row(i, i % 3 != 0));
+        }
+
+        byte[] file = encode(RunExportFormat.COLUMNAR, rows);
+        List<RunExportRow> decoded = ColumnarDecoder.decode(file);
+
+        assertEquals(rows.size(), decoded.size());
+        for (int i = 0; i < rows.size(); i++) {
+            RunExportRow expected = rows.get(i);
+            RunExportRow actual = decoded.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(USER_ID, actual.getUserId());
+            assertEquals(expected.getStartDatetime(), actual.getStartDatetime());
+            assertEquals(expected.getStartLatitude(), actual.getStartLatitude(), 1e-7);
+            assertEquals(expected.getStartLongitude(), actual.getStartLongitude(), 1e-7);
+            assertEquals(expected.getFinishDatetime(), actual.getFinishDatetime());
+            assertEquals(expected.getFinishLatitude(), actual.getFinishLatitude(), 1e-7);
+            assertEquals(expected.getFinishLongitude(), actual.getFinishLongitude(), 1e-7);
+            assertEquals(expected.getDistance(), actual.getDistance(), 0.01);
+            assertEquals(expected.getAverageSpeed(), actual.getAverageSpeed(), 0.01);
+        }
+        // Delta encoding keeps a run well under the 80 bytes of its raw columns
+        assertTrue(file.length < rows.size() * 40, "Columnar export takes " + file.length + " bytes");
+    }
+
+    @Test
+    void columnarExportWithoutRunsTest() throws IOException {
+        byte[] file = encode(RunExportFormat.COLUMNAR, List.of());
+
+        assertArrayEquals(new byte[]{'R', 'T', 'C', '1'}, Arrays.copyOf(file, 4));
+        assertEquals(4 + 16 + 1, file.length);
+        assertEquals(List.of(), ColumnarDecoder.decode(file));
+    }
+
+    private static byte[] encode(RunExportFormat format, List<RunExportRow> rows) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (RunExportEncoder encoder = format.encoder(outputStream)) {
+            for (RunExportRow row : rows) {
+                encoder.write(row);
+            }
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static List<String> readGzipLines(byte[] file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+
+    // One run a day around the same place, every third one left unfinished
+    private static RunExportRow row(int day, boolean finished) {
+        RunExportRow row = new RunExportRow();
+        row.setId(new UUID(day, 42L * day + 7));
+        row.setUserId(USER_ID);
+        row.setStartDatetime(START.plusDays(day).plusSeconds(day % 60));
+        row.setStartLatitude(40.0 + (day % 100) * 1e-4);
+        row.setStartLongitude(-70.0 - (day % 50) * 1e-4);
+        row.setFinishDatetime(finished ? START.plusDays(day).plusMinutes(45) : null);
+        row.setFinishLatitude(finished ? 40.1 : Double.NaN);
+        row.setFinishLongitude(finished ? -70.1 : Double.NaN);
+        row.setDistance(finished ? 5000.0 + day : Double.NaN);
+        row.setAverageSpeed(finished ? 6.67 : Double.NaN);
+        return row;
+    }
+
+    // Reads the layout documented on the columnar encoder
+    private static final class ColumnarDecoder {
+
+        private final DataInputStream input;
+
+        private ColumnarDecoder(byte[] file) {
+            this.input = new DataInputStream(new ByteArrayInputStream(file));
+        }
+
+        static List<RunExportRow> decode(byte[] file) throws IOException {
+            return new ColumnarDecoder(file).decode();
+        }
+
+        private List<RunExportRow> decode() throws IOException {
+            byte[] magic = new byte[4];
+            input.readFully(magic);
+            assertArrayEquals(new byte[]{'R', 'T', 'C', '1'}, magic);
+            UUID userId = new UUID(input.readLong(), input.readLong());
+
+            List<RunExportRow> rows = new ArrayList<>();
+            int size;
+            while ((size = (int) readVarint()) > 0) {
+                RunExportRow[] block = new RunExportRow[size];
+                for (int i = 0; i < size; i++) {
+                    block[i] = new RunExportRow();
+                    block[i].setUserId(userId);
+                    block[i].setId(new UUID(input.readLong(), input.readLong()));
+                }
+                long[] startMillis = new long[size];
+                long previous = 0;
+                for (int i = 0; i < size; i++) {
+                    previous += readZigzag();
+                    startMillis[i] = previous;
+                    block[i].setStartDatetime(datetime(previous));
+                }
+                double[] startLatitudes = readScaledDeltas(size, null, 1e7);
+                double[] startLongitudes = readScaledDeltas(size, null, 1e7);
+                boolean[] finished = readBitmap(size);
+                for (int i = 0; i < size; i++) {
+                    block[i].setStartLatitude(startLatitudes[i]);
+                    block[i].setStartLongitude(startLongitudes[i]);
+                    if (finished[i]) {
+                        block[i].setFinishDatetime(datetime(startMillis[i] + readZigzag()));
+                    }
+                }
+                double[] finishLatitudes = readScaledDeltas(size, readBitmap(size), 1e7);
+                double[] finishLongitudes = readScaledDeltas(size, readBitmap(size), 1e7);
+                double[] distances = readScaled(size, readBitmap(size));
+                double[] averageSpeeds = readScaled(size, readBitmap(size));
+                for (int i = 0; i < size; i++) {
+                    block[i].setFinishLatitude(finishLatitudes[i]);
+                    block[i].setFinishLongitude(finishLongitudes[i]);
+                    block[i].setDistance(distances[i]);
+                    block[i].setAverageSpeed(averageSpeeds[i]);
+                    rows.add(block[i]);
+                }
+            }
+            assertEquals(-1, input.read());
+            return rows;
+        }
+
+        private double[] readScaledDeltas(int size, boolean[] present, double scale) throws IOException {
+            double[] values = new double[size];
+            long previous = 0;
+            for (int i = 0; i < size; i++) {
+                if (present == null || present[i]) {
+                    previous += readZigzag();
+                    values[i] = previous / scale;
+                } else {
+                    values[i] = Double.NaN;
+                }
+            }
+            return values;
+        }
+
+        private double[] readScaled(int size, boolean[] present) throws IOException {
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = present[i] ? readZigzag() / 100.0 : Double.NaN;
+            }
+            return values;
+        }
+
+        private boolean[] readBitmap(int size) throws IOException {
+            boolean[] present = new boolean[size];
+            for (int offset = 0; offset < size; offset += 8) {
+                int bits = input.readUnsignedByte();
+                for (int bit = 0; bit < 8 && offset + bit < size; bit++) {
+                    present[offset + bit] = (bits & (1 << bit)) != 0;
+                }
+            }
+            return present;
+        }
+
+        private long readZigzag() throws IOException {
+            long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long readVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int next = input.readUnsignedByte();
+                value |= (long) (next & 0x7F) << shift;
+                if ((next & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        private static LocalDateTime datetime(long epochMillis) {
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000), (int) Math.floorMod(epochMillis, 1000) * 1_000_000,
+                    ZoneOffset.UTC);
+        }
+    }
+}
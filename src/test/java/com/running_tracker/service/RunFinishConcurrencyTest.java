@@ -0,0 +1,225 @@
+package com.running_tracker.service;
+
+import com.running_tracker.TestDataUtil;
+import com.running_tracker.api.dto.request.run.FinishRunRequestDto;
+import com.running_tracker.api.dto.response.run.RunResponseDto;
+import com.running_tracker.config.CacheConfig;
+import com.running_tracker.domain.entity.Run;
+import com.running_tracker.domain.entity.User;
+import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.domain.repository.UserRepository;
+import com.running_tracker.exception.ConcurrentRunUpdateException;
+import com.running_tracker.service.impl.RunChangeServiceImpl;
+import com.running_tracker.service.impl.RunServiceImpl;
+import com.running_tracker.service.mapper.RunMapperImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        // A finish waits for the row lock of the run while another one calculates
+        "spring.datasource.url=jdbc:h2:mem:run_finish_concurrency;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CacheConfig.class, RunServiceImpl.class, RunMapperImpl.class, RunChangeServiceImpl.class})
+// Every finish has to run and commit in its own transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RunFinishConcurrencyTest {
+
+    private static final int REQUESTS = 100;
+    private static final double AVERAGE_SPEED = 10.0;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private RunCalculatorService runCalculatorService;
+
+    // The rollup upsert is PostgreSQL SQL
+    @MockBean
+    private UserRunStatsService userRunStatsService;
+
+    @MockBean
+    private TrackPointService trackPointService;
+
+    @Autowired
+    private RunService runService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RunRepository runRepository;
+
+    private User user;
+    private UUID runId;
+
+    @BeforeEach
+    void setUp() {
+        User newUser = TestDataUtil.createUser();
+        newUser.setId(null);
+        user = userRepository.save(newUser);
+
+        Run run = TestDataUtil.createRunEntity();
+        run.setId(null);
+        run.setUser(user);
+        run.setFinishLatitude(null);
+        run.setFinishLongitude(null);
+        run.setFinishDatetime(null);
+        run.setDistance(null);
+        run.setAverageSpeed(null);
+        runId = runRepository.save(run).getId();
+
+        when(runCalculatorService.calculateAverageSpeed(anyDouble(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(AVERAGE_SPEED);
+    }
+
+    @AfterEach
+    void tearDown() {
+        runRepository.deleteById(runId);
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void simultaneousRetriesWithSameKeyFinishOnceTest() throws Exception {
+        FinishRunRequestDto requestDto = TestDataUtil.createFinishRunRequestDto();
+
+        List<RunResponseDto> responses = new ArrayList<>();
+        for (Future<RunResponseDto> response : simultaneously(() -> runService.finishRun(requestDto, runId, "finish-1"))) {
+            responses.add(response.get(1, TimeUnit.MINUTES));
+        }
+        // A late retry is served from the stored response as well
+        responses.add(runService.finishRun(requestDto, runId, "finish-1"));
+
+        responses.forEach(response -> assertEquals(responses.get(0), response));
+        assertEquals(runId, responses.get(0).getId());
+        verify(runCalculatorService, times(1)).calculateAverageSpeed(anyDouble(), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(userRunStatsService, times(1)).addRun(any(UUID.class), any(LocalDateTime.class), anyLong(), anyDouble(), anyDouble());
+        // One UPDATE of the run
+        assertEquals(1L, runRepository.findById(runId).orElseThrow().getVersion());
+    }
+
+    @Test
+    void simultaneousFinishesWithoutKeyNeverOverwriteEachOtherTest() throws Exception {
+        FinishRunRequestDto requestDto = TestDataUtil.createFinishRunRequestDto();
+
+        int finished = 0;
+        int conflicts = 0;
+        for (Future<RunResponseDto> response : simultaneously(() -> runService.finishRun(requestDto, runId, null))) {
+            try {
+                response.get(1, TimeUnit.MINUTES);
+                finished++;
+            } catch (ExecutionException exception) {
+                assertInstanceOf(ConcurrentRunUpdateException.class, exception.getCause());
+                conflicts++;
+            }
+        }
+
+        assertEquals(REQUESTS, finished + conflicts);
+        assertTrue(finished >= 1);
+        // Every successful finish wrote one version and one rollup change, conflicting ones neither
+        assertEquals(finished, runRepository.findById(runId).orElseThrow().getVersion());
+        verify(userRunStatsService, times(finished)).addRun(any(UUID.class), any(LocalDateTime.class), anyLong(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void finishOfRunChangedSinceReadConflictsTest() throws Exception {
+        FinishRunRequestDto requestDto = TestDataUtil.createFinishRunRequestDto();
+        CountDownLatch calculating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calculations = new AtomicInteger();
+        // The first finish stops while holding the lock of the run, after the second one read the run
+        when(runCalculatorService.calculateAverageSpeed(anyDouble(), any(LocalDateTime.class), any(LocalDateTime.class))).thenAnswer(invocation -> {
+            if (calculations.getAndIncrement() == 0) {
+                calculating.countDown();
+                release.await();
+            }
+            return AVERAGE_SPEED;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<RunResponseDto> first = executor.submit(() -> runService.finishRun(requestDto, runId, "first"));
+            calculating.await();
+            AtomicReference<Thread> secondThread = new AtomicReference<>();
+            Future<RunResponseDto> stale = executor.submit(() -> {
+                secondThread.set(Thread.currentThread());
+                return runService.finishRun(requestDto, runId, "second");
+            });
+            awaitBlocked(secondThread);
+            release.countDown();
+
+            first.get(1, TimeUnit.MINUTES);
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> stale.get(1, TimeUnit.MINUTES));
+            assertInstanceOf(ConcurrentRunUpdateException.class, exception.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        // A retry of the conflicting request finishes the run again instead of getting the stored failure
+        runService.finishRun(requestDto, runId, "second");
+        assertEquals(2L, runRepository.findById(runId).orElseThrow().getVersion());
+    }
+
+    // Waits until the thread of a request waits for the row lock held by another one
+    private static void awaitBlocked(AtomicReference<Thread> thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (thread.get() == null || thread.get().getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(System.nanoTime() < deadline, "Request did not wait for the lock of the run");
+            Thread.sleep(10);
+        }
+    }
+
+    private <T> List<Future<T>> simultaneously(Callable<T> request) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        try {
+            List<Future<T>> responses = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return request.call();
+                }));
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+            return responses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
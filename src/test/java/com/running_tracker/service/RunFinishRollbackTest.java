@@ -0,0 +1,196 @@
+package com.running_tracker.service;
+
+import com.running_tracker.TestDataUtil;
+import com.running_tracker.api.dto.request.run.FinishRunRequestDto;
+import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.request.run.TrackPointBatchRequestDto;
+import com.running_tracker.api.dto.request.run.TrackPointRequestDto;
+import com.running_tracker.api.dto.response.run.RunResponseDto;
+import com.running_tracker.config.CalculatorConfig;
+import com.running_tracker.domain.entity.User;
+import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.domain.repository.UserRepository;
+import com.running_tracker.exception.CrudException;
+import com.running_tracker.exception.RunAlreadyFinishedException;
+import com.running_tracker.service.impl.RunCalculatorServiceImpl;
+import com.running_tracker.service.impl.RunChangeServiceImpl;
+import com.running_tracker.service.impl.RunServiceImpl;
+import com.running_tracker.service.impl.TrackPointServiceImpl;
+import com.running_tracker.service.impl.UserServiceImpl;
+import com.running_tracker.service.mapper.RunMapperImpl;
+import com.running_tracker.service.mapper.UserMapperImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:run_finish_rollback;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RunServiceImpl.class, UserServiceImpl.class, RunMapperImpl.class, UserMapperImpl.class, RunChangeServiceImpl.class,
+        TrackPointServiceImpl.class, RunCalculatorServiceImpl.class, CalculatorConfig.class})
+// The finish has to commit or roll back its own transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RunFinishRollbackTest {
+
+    // Along a meridian one meter is this many degrees of latitude
+    private static final double DEGREES_PER_METER = 180 / (6_371_000 * Math.PI);
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 3, 10, 0);
+
+    @MockBean
+    private UserRunStatsService userRunStatsService;
+
+    // Offering efforts is a PostgreSQL upsert that H2 does not run
+    @MockBean
+    private PersonalRecordService personalRecordService;
+
+    @Autowired
+    private RunService runService;
+
+    @Autowired
+    private TrackPointService trackPointService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RunRepository runRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID runId;
+
+    @BeforeEach
+    void setUp() {
+        User user = TestDataUtil.createUser();
+        user.setId(null);
+        UUID userId = userRepository.save(user).getId();
+        StartRunRequestDto requestDto = TestDataUtil.createStartRunRequestDto();
+        requestDto.setUserId(userId);
+        requestDto.setStartDatetime(START);
+        runId = runService.startRun(requestDto).getId();
+    }
+
+    @Test
+    void rolledBackFinishKeepsStoredPointsTest() {
+        // 1 km at 4 m/s
+        upload(250, 4.0);
+        doThrow(new RuntimeException("connection reset")).when(userRunStatsService)
+                .addRun(any(UUID.class), any(LocalDateTime.class), anyLong(), anyDouble(), anyDouble());
+
+        assertThrows(CrudException.class, () -> runService.finishRun(finishRequest(), runId, null));
+
+        // The points were committed by the upload, only the finish rolled back
+        assertNull(runRepository.findById(runId).orElseThrow().getFinishDatetime());
+        assertEquals(251, storedPoints());
+
+        doNothing().when(userRunStatsService).addRun(any(UUID.class), any(LocalDateTime.class), anyLong(), anyDouble(), anyDouble());
+        RunResponseDto run = runService.finishRun(finishRequest(), runId, null);
+
+        assertEquals(1000.0, run.getDistance().getValue(), 0.01);
+        assertEquals(251, storedPoints());
+    }
+
+    @Test
+    void finishWaitsForUploadInFlightTest() throws Exception {
+        CountDownLatch uploaded = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // The upload holds the lock of the run until its transaction commits
+            Future<?> upload = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                upload(250, 4.0);
+                uploaded.countDown();
+                await(commit);
+            }));
+            await(uploaded);
+
+            Future<RunResponseDto> finish = executor.submit(() -> runService.finishRun(finishRequest(), runId, null));
+            Thread.sleep(200);
+            assertFalse(finish.isDone());
+
+            commit.countDown();
+            upload.get(10, TimeUnit.SECONDS);
+            assertEquals(1000.0, finish.get(10, TimeUnit.SECONDS).getDistance().getValue(), 0.01);
+        } finally {
+            commit.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void uploadAfterFinishIsRejectedTest() {
+        upload(250, 4.0);
+        runService.finishRun(finishRequest(), runId, null);
+
+        assertThrows(RunAlreadyFinishedException.class, () -> upload(10, 4.0));
+
+        assertEquals(251, storedPoints());
+    }
+
+    private void upload(int segments, double metersPerSecond) {
+        List<TrackPointRequestDto> points = new ArrayList<>();
+        for (int i = 0; i <= segments; i++) {
+            points.add(new TrackPointRequestDto(40.0 + i * metersPerSecond * DEGREES_PER_METER, -70.0, START.plusSeconds(i), null));
+        }
+        trackPointService.addTrackPoints(runId, new TrackPointBatchRequestDto(points));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private int storedPoints() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM run_trackpoints WHERE run_id = ?", Integer.class, runId);
+    }
+
+    private FinishRunRequestDto finishRequest() {
+        FinishRunRequestDto requestDto = TestDataUtil.createFinishRunRequestDto();
+        requestDto.setDistance(null);
+        requestDto.setFinishDatetime(START.plusMinutes(5));
+        return requestDto;
+    }
+}
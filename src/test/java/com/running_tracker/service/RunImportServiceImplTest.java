@@ -0,0 +1,251 @@
+package com.running_tracker.service;
+
+import com.running_tracker.TestDataUtil;
+import com.running_tracker.api.dto.response.run.RunImportErrorDto;
+import com.running_tracker.api.dto.response.run.RunImportResponseDto;
+import com.running_tracker.domain.projection.RunSummary;
+import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.domain.repository.UserRepository;
+import com.running_tracker.exception.CrudException;
+import com.running_tracker.exception.InvalidImportException;
+import com.running_tracker.service.impl.RunImportServiceImpl;
+import com.running_tracker.service.importer.RunImportFormat;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RunImportServiceImplTest {
+
+    private static final String CSV_HEADER = "userId,startDatetime,finishDatetime,startLatitude,startLongitude,finishLatitude,finishLongitude,distance";
+
+    @Mock
+    private RunCalculatorService runCalculatorService;
+
+    @Mock
+    private UserRunStatsService userRunStatsService;
+
+    @Mock
+    private RunRepository runRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private RunImportServiceImpl runImportService;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        runImportService = new RunImportServiceImpl(runCalculatorService, userRunStatsService, runRepository, userRepository,
+                Jackson2ObjectMapperBuilder.json().build(), Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(runImportService, "chunkSize", 1000);
+        ReflectionTestUtils.setField(runImportService, "maxReportedErrors", 1000);
+
+        userId = TestDataUtil.TEST_USER_ID;
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(userId));
+        when(runCalculatorService.calculateDistance(anyDouble(), anyDouble(), anyDouble(), anyDouble())).thenReturn(500.0);
+        when(runCalculatorService.calculateAverageSpeed(anyDouble(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(10.0);
+    }
+
+    @Test
+    void importRunsNdjsonTest() {
+        RunImportResponseDto response = runImportService.importRuns(new StringReader(
+                ndjsonRun(userId, null) + "\n" + ndjsonRun(userId, 1200.0) + "\n"), RunImportFormat.NDJSON);
+
+        assertEquals(2, response.getImportedRuns());
+        assertEquals(0, response.getRejectedRuns());
+        List<RunSummary> runs = insertedRuns(1).get(0);
+        assertEquals(500.0, runs.get(0).getDistance());
+        assertEquals(1200.0, runs.get(1).getDistance());
+        assertEquals(10.0, runs.get(0).getAverageSpeed());
+        assertEquals("meters", runs.get(0).getDistanceUnit());
+        assertEquals(userId, runs.get(0).getUserId());
+        verify(runCalculatorService, times(1)).calculateDistance(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+        verify(userRunStatsService).rebuild(userId);
+    }
+
+    @Test
+    void importRunsCsvWithColumnsInAnyOrderTest() {
+        RunImportResponseDto response = runImportService.importRuns(new StringReader(CSV_HEADER + "\n" +
+                userId + ",2024-09-03T07:00:00,2024-09-03T07:45:00,40.0,-70.0,40.1,-70.1,\n" +
+                userId + ",2024-09-04T07:00:00,2024-09-04T07:45:00,40.0,-70.0,40.1,-70.1,8000\n"), RunImportFormat.CSV);
+
+        assertEquals(2, response.getImportedRuns());
+        List<RunSummary> runs = insertedRuns(1).get(0);
+        assertEquals(LocalDateTime.of(2024, 9, 3, 7, 0), runs.get(0).getStartDatetime());
+        assertEquals(-70.1, runs.get(0).getFinishLongitude());
+        assertEquals(500.0, runs.get(0).getDistance());
+        assertEquals(8000.0, runs.get(1).getDistance());
+    }
+
+    @Test
+    void importRunsCsvWithoutRequiredColumnTest() {
+        StringReader body = new StringReader("userId,startLatitude\n");
+
+        assertThrows(InvalidImportException.class, () -> runImportService.importRuns(body, RunImportFormat.CSV));
+        verify(runRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void importRunsReportsRejectedLinesAndContinuesTest() {
+        String body = CSV_HEADER + "\n" +
+                userId + ",2024-09-03T07:00:00,2024-09-03T07:45:00,40.0,-70.0,40.1,-70.1,\n" +
+                userId + ",2024-09-03T07:00:00,2024-09-03T07:45:00,north,-70.0,40.1,-70.1,\n" +
+                userId + ",2024-09-03T07:00:00,2024-09-03T07:45:00,40.0,-70.0\n" +
+                userId + ",2024-09-03T07:00:00,2024-09-03T07:45:00,,-70.0,40.1,-70.1,\n" +
+                userId + ",2024-09-03T07:00:00,2024-09-03T06:45:00,40.0,-70.0,40.1,-70.1,\n";
+
+        RunImportResponseDto response = runImportService.importRuns(new StringReader(body), RunImportFormat.CSV);
+
+        assertEquals(1, response.getImportedRuns());
+        assertEquals(4, response.getRejectedRuns());
+        assertEquals(List.of(
+                new RunImportErrorDto(3, "Invalid startLatitude 'north'"),
+                new RunImportErrorDto(4, "Expected 8 columns but found 5"),
+                new RunImportErrorDto(5, "startLatitude must not be null"),
+                new RunImportErrorDto(6, "finishDatetime must not be before startDatetime")), response.getErrors());
+    }
+
+    @Test
+    void importRunsRejectsCoordinatesOutOfRangeTest() {
+        // Geohash.encode would clamp them silently when writing
+        String body = CSV_HEADER + "\n" +
+                userId + ",2024-09-03T07:00:00,2024-09-03T07:45:00,91.0,-70.0,40.1,-70.1,\n" +
+                userId + ",2024-09-03T07:00:00,2024-09-03T07:45:00,40.0,-70.0,40.1,-180.5,\n" +
+                userId + ",2024-09-03T07:00:00,2024-09-03T07:45:00,-90.0,180.0,40.1,-70.1,\n";
+
+        RunImportResponseDto response = runImportService.importRuns(new StringReader(body), RunImportFormat.CSV);
+
+        assertEquals(1, response.getImportedRuns());
+        assertEquals(List.of(
+                new RunImportErrorDto(2, "startLatitude must be less than or equal to 90"),
+                new RunImportErrorDto(3, "finishLongitude must be greater than or equal to -180")), response.getErrors());
+        assertEquals(1, insertedRuns(1).get(0).size());
+    }
+
+    @Test
+    void importRunsRejectsMalformedJsonTest() {
+        RunImportResponseDto response = runImportService.importRuns(new StringReader(
+                "{\"userId\": \n" + ndjsonRun(userId, null)), RunImportFormat.NDJSON);
+
+        assertEquals(1, response.getImportedRuns());
+        assertEquals(1, response.getRejectedRuns());
+        assertEquals(1, response.getErrors().get(0).getLine());
+    }
+
+    @Test
+    void importRunsRejectsUnknownUsersTest() {
+        UUID unknownUserId = UUID.randomUUID();
+
+        RunImportResponseDto response = runImportService.importRuns(new StringReader(
+                ndjsonRun(unknownUserId, null) + "\n" + ndjsonRun(userId, null) + "\n" + ndjsonRun(unknownUserId, null)), RunImportFormat.NDJSON);
+
+        assertEquals(1, response.getImportedRuns());
+        assertEquals(2, response.getRejectedRuns());
+        assertEquals(new RunImportErrorDto(1, String.format("User with id[%s] not found", unknownUserId)), response.getErrors().get(0));
+        verify(userRunStatsService, never()).rebuild(unknownUserId);
+    }
+
+    @Test
+    void importRunsWritesInChunksAndLooksUsersUpOnceTest() {
+        ReflectionTestUtils.setField(runImportService, "chunkSize", 2);
+        String line = ndjsonRun(userId, null) + "\n";
+
+        RunImportResponseDto response = runImportService.importRuns(new StringReader(line.repeat(5)), RunImportFormat.NDJSON);
+
+        assertEquals(5, response.getImportedRuns());
+        List<List<RunSummary>> chunks = insertedRuns(3);
+        assertEquals(List.of(2, 2, 1), chunks.stream().map(List::size).toList());
+        verify(userRepository, times(1)).findExistingIds(anyCollection());
+        verify(userRunStatsService, times(1)).rebuild(userId);
+    }
+
+    @Test
+    void importRunsRejectsOnlyTheFailedChunkTest() {
+        ReflectionTestUtils.setField(runImportService, "chunkSize", 2);
+        doThrow(new DataIntegrityViolationException("duplicate key")).doNothing().when(runRepository).insertAll(any());
+        String line = ndjsonRun(userId, null) + "\n";
+
+        RunImportResponseDto response = runImportService.importRuns(new StringReader(line.repeat(3)), RunImportFormat.NDJSON);
+
+        assertEquals(1, response.getImportedRuns());
+        assertEquals(2, response.getRejectedRuns());
+        assertEquals(List.of(1L, 2L), response.getErrors().stream().map(RunImportErrorDto::getLine).toList());
+        assertTrue(response.getErrors().get(0).getMessage().contains("duplicate key"));
+    }
+
+    @Test
+    void importRunsRebuildsWrittenChunksWhenBodyFailsTest() {
+        ReflectionTestUtils.setField(runImportService, "chunkSize", 2);
+        String lines = (ndjsonRun(userId, null) + "\n").repeat(3);
+        Reader body = new Reader() {
+            private final Reader lineReader = new StringReader(lines);
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                int read = lineReader.read(buffer, offset, length);
+                if (read == -1) {
+                    throw new IOException("connection reset");
+                }
+                return read;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        assertThrows(CrudException.class, () -> runImportService.importRuns(body, RunImportFormat.NDJSON));
+
+        insertedRuns(1);
+        verify(userRunStatsService).rebuild(userId);
+    }
+
+    @Test
+    void importRunsCapsReportedErrorsTest() {
+        ReflectionTestUtils.setField(runImportService, "maxReportedErrors", 2);
+
+        RunImportResponseDto response = runImportService.importRuns(new StringReader("{}\n".repeat(5)), RunImportFormat.NDJSON);
+
+        assertEquals(5, response.getRejectedRuns());
+        assertEquals(2, response.getErrors().size());
+        verify(runRepository, never()).insertAll(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<RunSummary>> insertedRuns(int chunks) {
+        ArgumentCaptor<List<RunSummary>> captor = ArgumentCaptor.forClass(List.class);
+        verify(runRepository, times(chunks)).insertAll(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static String ndjsonRun(UUID userId, Double distance) {
+        return String.format("{\"userId\":\"%s\",\"startLatitude\":40.0,\"startLongitude\":-70.0,\"startDatetime\":\"2024-09-03T07:00:00\"," +
+                "\"finishLatitude\":40.1,\"finishLongitude\":-70.1,\"finishDatetime\":\"2024-09-03T07:45:00\",\"distance\":%s}", userId, distance);
+    }
+}
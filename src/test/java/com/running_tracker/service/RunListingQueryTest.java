@@ -0,0 +1,149 @@
+package com.running_tracker.service;
+
+import com.running_tracker.TestDataUtil;
+import com.running_tracker.api.dto.response.run.RunPageResponseDto;
+import com.running_tracker.api.dto.response.run.RunResponseDto;
+import com.running_tracker.domain.entity.Run;
+import com.running_tracker.domain.entity.User;
+import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.domain.repository.UserRepository;
+import com.running_tracker.service.impl.RunChangeServiceImpl;
+import com.running_tracker.service.impl.RunServiceImpl;
+import com.running_tracker.service.impl.UserServiceImpl;
+import com.running_tracker.service.mapper.RunMapperImpl;
+import com.running_tracker.service.mapper.UserMapperImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:run_start;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "running-tracker.foreign-key-violation-states=23503,23506"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RunServiceImpl.class, UserServiceImpl.class, RunMapperImpl.class, UserMapperImpl.class, RunChangeServiceImpl.class})
+class RunListingQueryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 3, 7, 0);
+
+    @MockBean
+    private RunCalculatorService runCalculatorService;
+
+    @MockBean
+    private UserRunStatsService userRunStatsService;
+
+    @MockBean
+    private TrackPointService trackPointService;
+
+    @Autowired
+    private RunService runService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RunRepository runRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+    private Run firstRun;
+
+    @BeforeEach
+    void setUp() {
+        User newUser = TestDataUtil.createUser();
+        newUser.setId(null);
+        user = userRepository.saveAndFlush(newUser);
+        for (int day = 0; day < 3; day++) {
+            Run run = TestDataUtil.createRunEntity();
+            run.setId(null);
+            run.setUser(user);
+            run.setStartDatetime(START.plusDays(day));
+            run.setFinishDatetime(START.plusDays(day).plusMinutes(45));
+            Run savedRun = runRepository.saveAndFlush(run);
+            firstRun = (firstRun == null) ? savedRun : firstRun;
+        }
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllRunsForUserIsSingleStatementTest() {
+        List<RunResponseDto> runs = runService.getAllRunsForUser(user.getId(), null, null);
+
+        assertEquals(3, runs.size());
+        assertEquals(user.getId(), runs.get(0).getUserId());
+        assertEquals(100.0, runs.get(0).getDistance().getValue());
+        assertSingleStatementWithoutEntities();
+    }
+
+    @Test
+    void getAllRunsForUserInRangeIsSingleStatementTest() {
+        List<RunResponseDto> runs = runService.getAllRunsForUser(user.getId(), START, START.plusDays(1));
+
+        assertEquals(2, runs.size());
+        assertSingleStatementWithoutEntities();
+    }
+
+    @Test
+    void getRunsPageIsSingleStatementTest() {
+        RunPageResponseDto page = runService.getRunsPage(user.getId(), null, null, null, 2);
+
+        assertEquals(2, page.getRuns().size());
+        assertNotNull(page.getNextCursor());
+        assertSingleStatementWithoutEntities();
+    }
+
+    @Test
+    void streamAllRunsForUserIsSingleStatementTest() {
+        List<RunResponseDto> streamed = new ArrayList<>();
+
+        runService.streamAllRunsForUser(user.getId(), null, null, streamed::add);
+
+        assertEquals(3, streamed.size());
+        assertSingleStatementWithoutEntities();
+    }
+
+    @Test
+    void findRunDoesNotLoadUserTest() {
+        Run run = runRepository.findById(firstRun.getId()).orElseThrow();
+
+        assertFalse(Hibernate.isInitialized(run.getUser()));
+        assertEquals(user.getId(), run.getUser().getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private void assertSingleStatementWithoutEntities() {
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,86 @@
+package com.running_tracker.service;
+
+import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.service.impl.RunPartitionServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RunPartitionServiceImplTest {
+
+    private static final YearMonth CURRENT_MONTH = YearMonth.of(2026, 11);
+
+    @Mock
+    private RunRepository runRepository;
+
+    @Mock
+    private RunChangeService runChangeService;
+
+    @InjectMocks
+    private RunPartitionServiceImpl runPartitionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(runPartitionService, "monthsAhead", 3);
+        ReflectionTestUtils.setField(runPartitionService, "retentionMonths", 0);
+    }
+
+    @Test
+    void createUpcomingPartitionsCreatesOnlyMissingMonthsTest() {
+        when(runRepository.findMonthlyPartitions()).thenReturn(List.of(YearMonth.of(2026, 10), CURRENT_MONTH, YearMonth.of(2026, 12)));
+
+        List<YearMonth> created = runPartitionService.createUpcomingPartitions(CURRENT_MONTH);
+
+        // Crosses the year boundary
+        assertEquals(List.of(YearMonth.of(2027, 1), YearMonth.of(2027, 2)), created);
+        verify(runRepository).createMonthlyPartition(YearMonth.of(2027, 1));
+        verify(runRepository).createMonthlyPartition(YearMonth.of(2027, 2));
+        verify(runRepository, never()).createMonthlyPartition(CURRENT_MONTH);
+    }
+
+    @Test
+    void createUpcomingPartitionsWhenAllExistTest() {
+        when(runRepository.findMonthlyPartitions()).thenReturn(List.of(CURRENT_MONTH, CURRENT_MONTH.plusMonths(1),
+                CURRENT_MONTH.plusMonths(2), CURRENT_MONTH.plusMonths(3)));
+
+        assertTrue(runPartitionService.createUpcomingPartitions(CURRENT_MONTH).isEmpty());
+        verify(runRepository, never()).createMonthlyPartition(any());
+    }
+
+    @Test
+    void detachExpiredPartitionsWithoutRetentionTest() {
+        assertTrue(runPartitionService.detachExpiredPartitions(CURRENT_MONTH).isEmpty());
+        verify(runRepository, never()).findMonthlyPartitions();
+        verify(runRepository, never()).detachMonthlyPartition(any());
+        verify(runChangeService, never()).recordChangeOfAllUsers();
+    }
+
+    @Test
+    void detachExpiredPartitionsKeepsRetainedMonthsTest() {
+        ReflectionTestUtils.setField(runPartitionService, "retentionMonths", 12);
+        when(runRepository.findMonthlyPartitions()).thenReturn(List.of(YearMonth.of(2025, 9), YearMonth.of(2025, 10),
+                YearMonth.of(2025, 11), CURRENT_MONTH));
+
+        List<YearMonth> detached = runPartitionService.detachExpiredPartitions(CURRENT_MONTH);
+
+        assertEquals(List.of(YearMonth.of(2025, 9), YearMonth.of(2025, 10)), detached);
+        verify(runRepository).detachMonthlyPartition(YearMonth.of(2025, 9));
+        verify(runRepository).detachMonthlyPartition(YearMonth.of(2025, 10));
+        verify(runRepository, never()).detachMonthlyPartition(YearMonth.of(2025, 11));
+        verify(runChangeService).recordChangeOfAllUsers();
+    }
+}
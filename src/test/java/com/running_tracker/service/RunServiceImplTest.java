@@ -3,31 +3,64 @@ package com.running_tracker.service;
 import com.running_tracker.TestDataUtil;
 import com.running_tracker.api.dto.request.run.FinishRunRequestDto;
 import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.response.run.NearbyRunsResponseDto;
+import com.running_tracker.api.dto.response.run.RunPageResponseDto;
 import com.running_tracker.api.dto.response.run.RunResponseDto;
 import com.running_tracker.api.dto.response.run.StartRunResponseDto;
 import com.running_tracker.api.dto.response.user.UserStatisticsDTO;
 import com.running_tracker.domain.entity.Run;
+import com.running_tracker.domain.geo.Geohash;
+import com.running_tracker.domain.projection.RunExportRow;
+import com.running_tracker.domain.projection.RunSummary;
 import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.exception.CrudException;
+import com.running_tracker.exception.InvalidCursorException;
+import com.running_tracker.exception.InvalidLocationException;
 import com.running_tracker.exception.ResourceNotFoundException;
+import com.running_tracker.service.export.RunExportFormat;
+import com.running_tracker.service.impl.RunCalculatorServiceImpl;
 import com.running_tracker.service.impl.RunServiceImpl;
 import com.running_tracker.service.mapper.RunMapper;
+import com.running_tracker.service.pagination.RunCursor;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.doubleThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyDouble;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -49,6 +82,15 @@ class RunServiceImplTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private UserRunStatsService userRunStatsService;
+
+    @Mock
+    private TrackPointService trackPointService;
+
+    @Mock
+    private RunChangeService runChangeService;
+
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
@@ -60,15 +102,45 @@ class RunServiceImplTest {
         Run runEntity = TestDataUtil.createRunEntity();
         StartRunResponseDto expectedResponse = TestDataUtil.createStartRunResponseDto();
 
-        when(userService.findUserById(any(UUID.class))).thenReturn(TestDataUtil.createUser());
+        when(userService.getUserReference(any(UUID.class))).thenReturn(TestDataUtil.createUser());
         when(runMapper.toEntity(any(), any())).thenReturn(runEntity);
-        when(runRepository.save(any(Run.class))).thenReturn(runEntity);
+        when(runRepository.saveAndFlush(any(Run.class))).thenReturn(runEntity);
         when(runMapper.toStartRunResponseDto(any(Run.class))).thenReturn(expectedResponse);
 
         StartRunResponseDto actualResponse = runService.startRun(requestDto);
 
         assertEquals(expectedResponse, actualResponse);
-        verify(runRepository, times(1)).save(any(Run.class));
+        assertEquals(Geohash.encode(40.0, -70.0), runEntity.getStartGeohash());
+        verify(runRepository, times(1)).saveAndFlush(any(Run.class));
+        verify(userService, never()).findUserById(any(UUID.class));
+        verify(runChangeService, never()).recordChange(any(UUID.class));
+    }
+
+    @Test
+    void startRunForUnknownUserThrowsResourceNotFoundTest() {
+        StartRunRequestDto requestDto = TestDataUtil.createStartRunRequestDto();
+        ConstraintViolationException violation = new ConstraintViolationException("could not execute statement",
+                new SQLException("insert or update on table \"runs\" violates foreign key constraint \"fk_runs_users\"", "23503"), "fk_runs_users");
+
+        when(userService.getUserReference(any(UUID.class))).thenReturn(TestDataUtil.createUser());
+        when(runMapper.toEntity(any(), any())).thenReturn(TestDataUtil.createRunEntity());
+        when(runRepository.saveAndFlush(any(Run.class))).thenThrow(new DataIntegrityViolationException("could not execute statement", violation));
+
+        assertThrows(ResourceNotFoundException.class, () -> runService.startRun(requestDto));
+        verify(runChangeService, never()).recordChange(any(UUID.class));
+    }
+
+    @Test
+    void startRunOtherConstraintViolationThrowsCrudExceptionTest() {
+        StartRunRequestDto requestDto = TestDataUtil.createStartRunRequestDto();
+        ConstraintViolationException violation = new ConstraintViolationException("could not execute statement",
+                new SQLException("null value in column \"start_latitude\" violates not-null constraint", "23502"), null);
+
+        when(userService.getUserReference(any(UUID.class))).thenReturn(TestDataUtil.createUser());
+        when(runMapper.toEntity(any(), any())).thenReturn(TestDataUtil.createRunEntity());
+        when(runRepository.saveAndFlush(any(Run.class))).thenThrow(new DataIntegrityViolationException("could not execute statement", violation));
+
+        assertThrows(CrudException.class, () -> runService.startRun(requestDto));
     }
 
     @Test
@@ -79,13 +151,52 @@ class RunServiceImplTest {
         RunResponseDto expectedResponse = TestDataUtil.createRunDto();
 
         when(runRepository.findById(runId)).thenReturn(Optional.of(existingRun));
-        when(runRepository.save(any(Run.class))).thenReturn(existingRun);
+        when(runRepository.saveAndFlush(any(Run.class))).thenReturn(existingRun);
         when(runMapper.toRunDto(any(Run.class))).thenReturn(expectedResponse);
 
-        RunResponseDto actualResponse = runService.finishRun(requestDto, runId);
+        RunResponseDto actualResponse = runService.finishRun(requestDto, runId, null);
 
         assertEquals(expectedResponse, actualResponse);
-        verify(runRepository, times(1)).save(any(Run.class));
+        assertEquals(Geohash.encode(requestDto.getFinishLatitude(), requestDto.getFinishLongitude()), existingRun.getFinishGeohash());
+        verify(runRepository, times(1)).saveAndFlush(any(Run.class));
+        verify(runChangeService).recordChange(existingRun.getUser().getId());
+    }
+
+    @Test
+    void finishRunAddsCompletedRunToStatisticsTest() {
+        FinishRunRequestDto requestDto = TestDataUtil.createFinishRunRequestDto();
+        UUID runId = UUID.randomUUID();
+        Run startedRun = TestDataUtil.createRunEntity();
+        startedRun.setFinishDatetime(null);
+        startedRun.setDistance(null);
+        startedRun.setAverageSpeed(null);
+
+        when(runRepository.findById(runId)).thenReturn(Optional.of(startedRun));
+        when(runCalculatorService.calculateAverageSpeed(anyDouble(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(10.0);
+        when(runRepository.saveAndFlush(any(Run.class))).thenReturn(startedRun);
+        when(runMapper.toRunDto(any(Run.class))).thenReturn(TestDataUtil.createRunDto());
+
+        runService.finishRun(requestDto, runId, null);
+
+        verify(userRunStatsService).addRun(TestDataUtil.TEST_USER_ID, startedRun.getStartDatetime(), 1, 100.0, 10.0);
+    }
+
+    @Test
+    void finishRunAgainCorrectsStatisticsTest() {
+        FinishRunRequestDto requestDto = TestDataUtil.createFinishRunRequestDto();
+        requestDto.setDistance(150.0);
+        UUID runId = UUID.randomUUID();
+        Run finishedRun = TestDataUtil.createRunEntity();
+
+        when(runRepository.findById(runId)).thenReturn(Optional.of(finishedRun));
+        when(runCalculatorService.calculateAverageSpeed(anyDouble(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(3.0);
+        when(runRepository.saveAndFlush(any(Run.class))).thenReturn(finishedRun);
+        when(runMapper.toRunDto(any(Run.class))).thenReturn(TestDataUtil.createRunDto());
+
+        runService.finishRun(requestDto, runId, null);
+
+        verify(userRunStatsService).addRun(eq(TestDataUtil.TEST_USER_ID), eq(finishedRun.getStartDatetime()), eq(0L),
+                eq(50.0), doubleThat(delta -> Math.abs(delta - 0.5) < 1e-9));
     }
 
     @Test
@@ -99,14 +210,57 @@ class RunServiceImplTest {
         when(runRepository.findById(runId)).thenReturn(Optional.of(existingRun));
         when(runCalculatorService.calculateDistance(anyDouble(), anyDouble(), anyDouble(), anyDouble())).thenReturn(120.0);
         when(runCalculatorService.calculateAverageSpeed(anyDouble(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(10.0);
-        when(runRepository.save(any(Run.class))).thenReturn(existingRun);
+        when(runRepository.saveAndFlush(any(Run.class))).thenReturn(existingRun);
         when(runMapper.toRunDto(any(Run.class))).thenReturn(expectedResponse);
 
-        RunResponseDto actualResponse = runService.finishRun(requestDto, runId);
+        RunResponseDto actualResponse = runService.finishRun(requestDto, runId, null);
 
         assertEquals(expectedResponse, actualResponse);
         verify(runCalculatorService, times(1)).calculateDistance(anyDouble(), anyDouble(), anyDouble(), anyDouble());
-        verify(runRepository, times(1)).save(any(Run.class));
+        verify(runRepository, times(1)).saveAndFlush(any(Run.class));
+    }
+
+    @Test
+    void finishRunWithRecordedTrackTest() {
+        FinishRunRequestDto requestDto = TestDataUtil.createFinishRunRequestDto();
+        requestDto.setDistance(null);
+        UUID runId = UUID.randomUUID();
+        Run existingRun = TestDataUtil.createRunEntity();
+
+        when(runRepository.findById(runId)).thenReturn(Optional.of(existingRun));
+        when(trackPointService.completeTrack(existingRun.getId())).thenReturn(OptionalDouble.of(5230.5));
+        when(runRepository.saveAndFlush(any(Run.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(runMapper.toRunDto(any(Run.class))).thenReturn(TestDataUtil.createRunDto());
+
+        runService.finishRun(requestDto, runId, null);
+
+        assertEquals(5230.5, existingRun.getDistance());
+        // Uploads in flight commit before the track is read
+        InOrder inOrder = inOrder(runRepository, trackPointService);
+        inOrder.verify(runRepository).lockFinishedById(existingRun.getId());
+        inOrder.verify(trackPointService).completeTrack(existingRun.getId());
+        verify(runCalculatorService, never()).calculateDistance(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void finishRunWithDistanceStillCompletesRecordedTrackTest() {
+        FinishRunRequestDto requestDto = TestDataUtil.createFinishRunRequestDto();
+        requestDto.setDistance(5000.0);
+        UUID runId = UUID.randomUUID();
+        Run existingRun = TestDataUtil.createRunEntity();
+
+        when(runRepository.findById(runId)).thenReturn(Optional.of(existingRun));
+        when(trackPointService.completeTrack(existingRun.getId())).thenReturn(OptionalDouble.of(5230.5));
+        when(runRepository.saveAndFlush(any(Run.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(runMapper.toRunDto(any(Run.class))).thenReturn(TestDataUtil.createRunDto());
+
+        runService.finishRun(requestDto, runId, null);
+
+        // The splits and records come from the track, the distance from the client
+        assertEquals(5000.0, existingRun.getDistance());
+        InOrder inOrder = inOrder(runRepository, trackPointService);
+        inOrder.verify(runRepository).lockFinishedById(existingRun.getId());
+        inOrder.verify(trackPointService).completeTrack(existingRun.getId());
     }
 
     @Test
@@ -116,7 +270,7 @@ class RunServiceImplTest {
 
         when(runRepository.findById(runId)).thenReturn(Optional.empty());
 
-        assertThrows(ResourceNotFoundException.class, () -> runService.finishRun(requestDto, runId));
+        assertThrows(ResourceNotFoundException.class, () -> runService.finishRun(requestDto, runId, null));
         verify(runRepository, times(1)).findById(runId);
     }
 
@@ -125,12 +279,12 @@ class RunServiceImplTest {
         UUID userId = UUID.randomUUID();
         LocalDateTime fromDatetime = LocalDateTime.now().minusDays(7);
         LocalDateTime toDatetime = LocalDateTime.now();
-        List<Run> runs = List.of(TestDataUtil.createRunEntity());
+        List<RunSummary> runs = List.of(TestDataUtil.createRunSummary(TestDataUtil.TEST_RUN_ID));
         RunResponseDto expectedRunResponseDto = TestDataUtil.createRunDto();
 
-        when(runRepository.findAllByUserIdAndStartDatetimeBetween(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+        when(runRepository.findSummariesByUserIdAndStartDatetimeBetween(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(runs);
-        when(runMapper.toRunDto(any(Run.class))).thenReturn(expectedRunResponseDto);
+        when(runMapper.toRunDto(any(RunSummary.class))).thenReturn(expectedRunResponseDto);
 
         List<RunResponseDto> result = runService.getAllRunsForUser(userId, fromDatetime, toDatetime);
 
@@ -142,12 +296,12 @@ class RunServiceImplTest {
     @Test
      void getAllRunsForUserNoDatesTest() {
         UUID userId = UUID.randomUUID();
-        List<Run> runs = List.of(TestDataUtil.createRunEntity());
+        List<RunSummary> runs = List.of(TestDataUtil.createRunSummary(TestDataUtil.TEST_RUN_ID));
         RunResponseDto expectedRunResponseDto = TestDataUtil.createRunDto();
 
-        when(runRepository.findAllByUserId(any(UUID.class)))
+        when(runRepository.findSummariesByUserId(any(UUID.class)))
                 .thenReturn(runs);
-        when(runMapper.toRunDto(any(Run.class))).thenReturn(expectedRunResponseDto);
+        when(runMapper.toRunDto(any(RunSummary.class))).thenReturn(expectedRunResponseDto);
 
         List<RunResponseDto> result = runService.getAllRunsForUser(userId, null, null);
 
@@ -160,12 +314,12 @@ class RunServiceImplTest {
     void getAllRunsForUserNoToDateTest() {
         LocalDateTime fromDatetime = LocalDateTime.now().minusDays(7);
         UUID userId = UUID.randomUUID();
-        List<Run> runs = List.of(TestDataUtil.createRunEntity());
+        List<RunSummary> runs = List.of(TestDataUtil.createRunSummary(TestDataUtil.TEST_RUN_ID));
         RunResponseDto expectedRunResponseDto = TestDataUtil.createRunDto();
 
-        when(runRepository.findAllByUserIdAndStartDatetimeBetween(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+        when(runRepository.findSummariesByUserIdAndStartDatetimeBetween(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(runs);
-        when(runMapper.toRunDto(any(Run.class))).thenReturn(expectedRunResponseDto);
+        when(runMapper.toRunDto(any(RunSummary.class))).thenReturn(expectedRunResponseDto);
 
         List<RunResponseDto> result = runService.getAllRunsForUser(userId, fromDatetime, null);
 
@@ -174,28 +328,174 @@ class RunServiceImplTest {
         assertEquals(expectedRunResponseDto, result.get(0));
     }
 
+    @Test
+    void getRunsPageTest() {
+        UUID userId = UUID.randomUUID();
+        RunSummary first = TestDataUtil.createRunSummary(TestDataUtil.TEST_RUN_ID);
+        RunSummary second = TestDataUtil.createRunSummary(UUID.randomUUID());
+        RunResponseDto expectedRunResponseDto = TestDataUtil.createRunDto();
+
+        when(runRepository.findSummaryPageByUserIdAndStartDatetimeBetween(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class),
+                any(LocalDateTime.class), any(UUID.class), any()))
+                .thenReturn(new ArrayList<>(List.of(first, second)));
+        when(runMapper.toRunDto(any(RunSummary.class))).thenReturn(expectedRunResponseDto);
+
+        RunPageResponseDto result = runService.getRunsPage(userId, null, null, null, 1);
+
+        assertEquals(1, result.getRuns().size());
+        assertEquals(RunCursor.of(first), RunCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void getRunsPageLastPageTest() {
+        UUID userId = UUID.randomUUID();
+        RunSummary run = TestDataUtil.createRunSummary(TestDataUtil.TEST_RUN_ID);
+        RunCursor cursor = new RunCursor(LocalDateTime.now().minusDays(1), UUID.randomUUID());
+
+        when(runRepository.findSummaryPageByUserIdAndStartDatetimeBetween(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class),
+                eq(cursor.getStartDatetime()), eq(cursor.getId()), any()))
+                .thenReturn(List.of(run));
+        when(runMapper.toRunDto(any(RunSummary.class))).thenReturn(TestDataUtil.createRunDto());
+
+        RunPageResponseDto result = runService.getRunsPage(userId, null, null, cursor.encode(), 10);
+
+        assertEquals(1, result.getRuns().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getRunsNearTest() {
+        ReflectionTestUtils.setField(runService, "maxNearRadius", 50000.0);
+        ReflectionTestUtils.setField(runService, "nearCoveringCells", 16);
+        RunCalculatorService haversine = new RunCalculatorServiceImpl();
+        when(runCalculatorService.calculateDistance(anyDouble(), anyDouble(), anyDouble(), anyDouble())).thenAnswer(invocation ->
+                haversine.calculateDistance(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3)));
+        RunSummary startsHere = nearbyRun(40.7128, -74.0060, 40.75, -73.95);
+        RunSummary finishesClose = nearbyRun(40.60, -74.10, 40.7138, -74.0060);
+        RunSummary finishesFarther = nearbyRun(40.60, -74.10, 40.7168, -74.0060);
+        RunSummary outsideRadius = nearbyRun(40.7228, -74.0060, null, null);
+        doAnswer(invocation -> {
+            Consumer<RunSummary> consumer = invocation.getArgument(1);
+            List.of(outsideRadius, finishesFarther, startsHere, finishesClose).forEach(consumer);
+            return null;
+        }).when(runRepository).findByGeohashRanges(any(), any());
+        when(runMapper.toRunDto(any(RunSummary.class))).thenAnswer(invocation -> {
+            RunSummary run = invocation.getArgument(0);
+            return new RunResponseDto(run.getId(), run.getUserId(), run.getStartLatitude(), run.getStartLongitude(), run.getStartDatetime(),
+                    run.getFinishLatitude(), run.getFinishLongitude(), run.getFinishDatetime(), null, null);
+        });
+
+        NearbyRunsResponseDto result = runService.getRunsNear(40.7128, -74.0060, 1000, 2);
+
+        assertEquals(1000.0, result.getRadius().getValue());
+        assertEquals(2, result.getRuns().size());
+        assertEquals(startsHere.getId(), result.getRuns().get(0).getRun().getId());
+        assertEquals(0.0, result.getRuns().get(0).getDistanceFromLocation().getValue());
+        assertEquals(finishesClose.getId(), result.getRuns().get(1).getRun().getId());
+        assertEquals(111.19, result.getRuns().get(1).getDistanceFromLocation().getValue());
+        assertEquals("meters", result.getRuns().get(1).getDistanceFromLocation().getUnit());
+    }
+
+    @Test
+    void getRunsNearInvalidLocationTest() {
+        ReflectionTestUtils.setField(runService, "maxNearRadius", 50000.0);
+
+        assertThrows(InvalidLocationException.class, () -> runService.getRunsNear(91.0, 0.0, 1000, 10));
+        assertThrows(InvalidLocationException.class, () -> runService.getRunsNear(40.0, -181.0, 1000, 10));
+        assertThrows(InvalidLocationException.class, () -> runService.getRunsNear(40.0, 0.0, 0, 10));
+        assertThrows(InvalidLocationException.class, () -> runService.getRunsNear(40.0, 0.0, 50001, 10));
+        verify(runRepository, never()).findByGeohashRanges(any(), any());
+    }
+
+    @Test
+    void getRunsPageInvalidCursorTest() {
+        assertThrows(InvalidCursorException.class,
+                () -> runService.getRunsPage(UUID.randomUUID(), null, null, "not-a-cursor", 10));
+    }
+
+    @Test
+    void streamAllRunsForUserTest() {
+        UUID userId = UUID.randomUUID();
+        RunSummary run = TestDataUtil.createRunSummary(TestDataUtil.TEST_RUN_ID);
+        RunResponseDto expectedRunResponseDto = TestDataUtil.createRunDto();
+        List<RunResponseDto> streamed = new ArrayList<>();
+
+        when(runRepository.streamSummariesByUserIdAndStartDatetimeBetween(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Stream.of(run, run));
+        when(runMapper.toRunDto(any(RunSummary.class))).thenReturn(expectedRunResponseDto);
+
+        runService.streamAllRunsForUser(userId, null, null, streamed::add);
+
+        assertEquals(List.of(expectedRunResponseDto, expectedRunResponseDto), streamed);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportRunsTest() throws IOException {
+        UUID userId = UUID.randomUUID();
+        RunExportRow row = new RunExportRow();
+        row.setId(TestDataUtil.TEST_RUN_ID);
+        row.setUserId(userId);
+        row.setStartDatetime(LocalDateTime.of(2024, 9, 3, 7, 0));
+        row.setFinishLatitude(Double.NaN);
+        row.setFinishLongitude(Double.NaN);
+        row.setDistance(Double.NaN);
+        row.setAverageSpeed(Double.NaN);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        doAnswer(invocation -> {
+            Consumer<RunExportRow> consumer = invocation.getArgument(3);
+            consumer.accept(row);
+            consumer.accept(row);
+            return null;
+        }).when(runRepository).exportByUserIdAndStartDatetimeBetween(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class), any(Consumer.class));
+
+        runService.exportRuns(userId, null, null, RunExportFormat.CSV, outputStream);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(outputStream.toByteArray())), StandardCharsets.UTF_8))) {
+            List<String> lines = reader.lines().toList();
+            assertEquals(3, lines.size());
+            assertEquals(TestDataUtil.TEST_RUN_ID + "," + userId + ",2024-09-03T07:00,0.0,0.0,,,,,", lines.get(1));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportRunsFailureTest() {
+        UUID userId = UUID.randomUUID();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        doThrow(new RuntimeException("Database error")).when(runRepository)
+                .exportByUserIdAndStartDatetimeBetween(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class), any(Consumer.class));
+
+        assertThrows(CrudException.class, () -> runService.exportRuns(userId, null, null, RunExportFormat.COLUMNAR, outputStream));
+    }
+
     @Test
     void getUserStatisticsTest() {
         UUID userId = UUID.randomUUID();
-        List<Run> runs = List.of(TestDataUtil.createRunEntity());
+        LocalDateTime fromDatetime = LocalDateTime.now().minusDays(7);
+        LocalDateTime toDatetime = LocalDateTime.now();
         UserStatisticsDTO expectedStatistics = TestDataUtil.createUserStatisticsDTO(1, 100.0, 2.5);
 
-        when(runRepository.findAllByUserIdAndStartDatetimeBetween(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(runs);
+        when(userRunStatsService.getStatistics(userId, fromDatetime, toDatetime)).thenReturn(expectedStatistics);
 
-        UserStatisticsDTO result = runService.getUserStatistics(userId, LocalDateTime.now().minusDays(7), LocalDateTime.now());
+        UserStatisticsDTO result = runService.getUserStatistics(userId, fromDatetime, toDatetime);
 
         assertEquals(expectedStatistics, result);
+        verify(runRepository, times(0)).findSummariesByUserIdAndStartDatetimeBetween(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class));
     }
 
     @Test
-    void getUserStatisticsNoRunTest() {
+    void getUserStatisticsNoToDateTest() {
         UUID userId = UUID.randomUUID();
+        LocalDateTime fromDatetime = LocalDateTime.now().minusDays(7);
 
-        when(runRepository.findAllByUserIdAndStartDatetimeBetween(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(Collections.emptyList());
+        when(userRunStatsService.getStatistics(eq(userId), eq(fromDatetime), any(LocalDateTime.class)))
+                .thenReturn(new UserStatisticsDTO(0, 0.0, 0.0));
 
-        UserStatisticsDTO result = runService.getUserStatistics(userId, LocalDateTime.now().minusDays(7), LocalDateTime.now());
+        UserStatisticsDTO result = runService.getUserStatistics(userId, fromDatetime, null);
 
         assertEquals(0, result.getTotalRuns());
         assertEquals(0.0, result.getTotalDistance());
@@ -205,13 +505,18 @@ class RunServiceImplTest {
     @Test
     void getUserStatisticsNoDatesTest() {
         UUID userId = UUID.randomUUID();
-        List<Run> runs = List.of(TestDataUtil.createRunEntity());
         UserStatisticsDTO expectedStatistics = TestDataUtil.createUserStatisticsDTO(1, 100.0, 2.5);
 
-        when(runRepository.findAllByUserId(any(UUID.class))).thenReturn(runs);
+        when(userRunStatsService.getStatistics(userId, null, null)).thenReturn(expectedStatistics);
 
         UserStatisticsDTO result = runService.getUserStatistics(userId, null, null);
 
         assertEquals(expectedStatistics, result);
+        verify(runRepository, times(0)).findSummariesByUserId(any(UUID.class));
+    }
+
+    private static RunSummary nearbyRun(double startLatitude, double startLongitude, Double finishLatitude, Double finishLongitude) {
+        return new RunSummary(UUID.randomUUID(), UUID.randomUUID(), startLatitude, startLongitude, LocalDateTime.now().minusHours(1),
+                finishLatitude, finishLongitude, null, null, null, null, null);
     }
 }
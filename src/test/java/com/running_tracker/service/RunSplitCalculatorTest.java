@@ -0,0 +1,148 @@
+package com.running_tracker.service;
+
+import com.running_tracker.domain.entity.RunSplit;
+import com.running_tracker.domain.entity.SplitUnit;
+import com.running_tracker.service.calculator.HaversineKernel;
+import com.running_tracker.service.calculator.PowFreeHaversineKernel;
+import com.running_tracker.service.track.RunSplitCalculator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunSplitCalculatorTest {
+
+    private static final UUID RUN_ID = UUID.fromString("e51cb416-5757-425b-976e-160ddc24d9ac");
+    // Along a meridian the haversine distance is exactly the latitude difference on the sphere
+    private static final double METERS_PER_DEGREE = HaversineKernel.EARTH_RADIUS_METERS * Math.PI / 180;
+    private static final double MOVING_SPEED_THRESHOLD = 0.5;
+
+    private final List<RunSplit> splits = new ArrayList<>();
+    private final RunSplitCalculator calculator = new RunSplitCalculator(RUN_ID, MOVING_SPEED_THRESHOLD, splits::add);
+
+    private long millis;
+    private double meters;
+
+    @Test
+    void evenPaceSplitsTest() {
+        // 10.4 km at 4 m/s, one point per second
+        run(2600, 4.0, 1000);
+        calculator.finish();
+
+        List<RunSplit> kilometers = splits(SplitUnit.KILOMETER);
+        assertEquals(11, kilometers.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i + 1, kilometers.get(i).getId().getNumber());
+            assertEquals(1000.0, kilometers.get(i).getDistance());
+            assertEquals(250_000, kilometers.get(i).getElapsedMillis());
+            assertEquals(250_000, kilometers.get(i).getMovingMillis());
+        }
+        assertEquals(400.0, kilometers.get(10).getDistance(), 1e-6);
+        assertEquals(100_000, kilometers.get(10).getElapsedMillis());
+
+        List<RunSplit> miles = splits(SplitUnit.MILE);
+        assertEquals(7, miles.size());
+        // 1609.344 m at 4 m/s
+        assertEquals(402_336, miles.get(0).getElapsedMillis());
+        assertEquals(10_400 - 6 * 1609.344, miles.get(6).getDistance(), 1e-6);
+
+        assertEquals(10_400, calculator.getDistance(), 1e-6);
+        assertEquals(2600_000, calculator.getElapsedMillis());
+        assertEquals(2600_000, calculator.getMovingMillis());
+        assertEquals(2601, calculator.getPoints());
+    }
+
+    @Test
+    void pauseCountsAsElapsedNotMovingTimeTest() {
+        run(400, 4.0, 1000);
+        // Standing at a crossing for a minute in the second kilometer; the GPS drift adds 12 m to the distance
+        for (int i = 0; i < 60; i++) {
+            step(i % 2 == 0 ? 0.2 : -0.2, 1000);
+        }
+        run(350, 4.0, 1000);
+        calculator.finish();
+
+        List<RunSplit> kilometers = splits(SplitUnit.KILOMETER);
+        assertEquals(250_000, kilometers.get(0).getElapsedMillis());
+        // 600 m, the pause, then the remaining 388 m
+        assertEquals(307_000, kilometers.get(1).getElapsedMillis());
+        assertEquals(247_000, kilometers.get(1).getMovingMillis());
+        assertEquals(calculator.getElapsedMillis() - 60_000, calculator.getMovingMillis());
+    }
+
+    @Test
+    void boundaryTimeIsInterpolatedWithinSegmentTest() {
+        // A point every 10 seconds, 1.5 km apart: the first kilometer ends two thirds into the first segment
+        run(2, 1500.0, 10_000);
+        calculator.finish();
+
+        List<RunSplit> kilometers = splits(SplitUnit.KILOMETER);
+        assertEquals(3, kilometers.size());
+        assertEquals(6667, kilometers.get(0).getElapsedMillis());
+        assertEquals(6666, kilometers.get(1).getElapsedMillis());
+        assertEquals(6667, kilometers.get(2).getElapsedMillis());
+        assertEquals(1000.0, kilometers.get(2).getDistance(), 1e-6);
+    }
+
+    @Test
+    void splitsAddUpToTrackTest() {
+        for (int i = 0; i < 5000; i++) {
+            step(2.0 + (i % 7), 1000 + (i % 3) * 500L);
+        }
+        calculator.finish();
+
+        for (SplitUnit unit : SplitUnit.values()) {
+            List<RunSplit> unitSplits = splits(unit);
+            assertEquals(calculator.getElapsedMillis(), unitSplits.stream().mapToLong(RunSplit::getElapsedMillis).sum());
+            assertEquals(calculator.getMovingMillis(), unitSplits.stream().mapToLong(RunSplit::getMovingMillis).sum());
+            assertEquals(calculator.getDistance(), unitSplits.stream().mapToDouble(RunSplit::getDistance).sum(), 1e-6);
+        }
+    }
+
+    @Test
+    void distanceMatchesPowFreeKernelTest() {
+        double[] latitudes = new double[1000];
+        double[] longitudes = new double[1000];
+        for (int i = 0; i < latitudes.length; i++) {
+            latitudes[i] = 40.0 + i * 1e-5;
+            longitudes[i] = -70.0 + Math.sin(i * 1e-3) * 1e-2;
+            calculator.accept(i * 1000L, latitudes[i], longitudes[i]);
+        }
+
+        assertEquals(new PowFreeHaversineKernel().pathDistance(latitudes, longitudes, latitudes.length),
+                calculator.getDistance(), 1e-6);
+    }
+
+    @Test
+    void singlePointHasNoSplitsTest() {
+        calculator.accept(0, 40.0, -70.0);
+        calculator.finish();
+
+        assertTrue(splits.isEmpty());
+        assertEquals(0, calculator.getElapsedMillis());
+    }
+
+    private void run(int segments, double metersPerSegment, long millisPerSegment) {
+        for (int i = 0; i < segments; i++) {
+            step(metersPerSegment, millisPerSegment);
+        }
+    }
+
+    // Moves north along the meridian, the first call also records the start point
+    private void step(double segmentMeters, long segmentMillis) {
+        if (calculator.getPoints() == 0) {
+            calculator.accept(millis, 40.0, -70.0);
+        }
+        millis += segmentMillis;
+        meters += segmentMeters;
+        calculator.accept(millis, 40.0 + meters / METERS_PER_DEGREE, -70.0);
+    }
+
+    private List<RunSplit> splits(SplitUnit unit) {
+        return splits.stream().filter(split -> split.getId().getUnit() == unit).toList();
+    }
+}
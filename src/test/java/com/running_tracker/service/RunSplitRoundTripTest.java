@@ -0,0 +1,145 @@
+package com.running_tracker.service;
+
+import com.running_tracker.TestDataUtil;
+import com.running_tracker.api.dto.request.run.FinishRunRequestDto;
+import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.request.run.TrackPointBatchRequestDto;
+import com.running_tracker.api.dto.request.run.TrackPointRequestDto;
+import com.running_tracker.api.dto.response.run.RunResponseDto;
+import com.running_tracker.api.dto.response.run.RunSplitDto;
+import com.running_tracker.api.dto.response.run.RunSplitsResponseDto;
+import com.running_tracker.config.CalculatorConfig;
+import com.running_tracker.domain.entity.User;
+import com.running_tracker.domain.repository.UserRepository;
+import com.running_tracker.exception.ResourceNotFoundException;
+import com.running_tracker.service.impl.RunCalculatorServiceImpl;
+import com.running_tracker.service.impl.RunChangeServiceImpl;
+import com.running_tracker.service.impl.RunServiceImpl;
+import com.running_tracker.service.impl.TrackPointServiceImpl;
+import com.running_tracker.service.impl.UserServiceImpl;
+import com.running_tracker.service.mapper.RunMapperImpl;
+import com.running_tracker.service.mapper.UserMapperImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:run_splits;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RunServiceImpl.class, UserServiceImpl.class, RunMapperImpl.class, UserMapperImpl.class, RunChangeServiceImpl.class,
+        TrackPointServiceImpl.class, RunCalculatorServiceImpl.class, CalculatorConfig.class})
+class RunSplitRoundTripTest {
+
+    // Along a meridian one meter is this many degrees of latitude
+    private static final double DEGREES_PER_METER = 180 / (6_371_000 * Math.PI);
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 3, 10, 0);
+
+    @MockBean
+    private UserRunStatsService userRunStatsService;
+
+    // Offering efforts is a PostgreSQL upsert that H2 does not run
+    @MockBean
+    private PersonalRecordService personalRecordService;
+
+    @Autowired
+    private RunService runService;
+
+    @Autowired
+    private TrackPointService trackPointService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UUID runId;
+
+    @BeforeEach
+    void setUp() {
+        User user = TestDataUtil.createUser();
+        user.setId(null);
+        UUID userId = userRepository.save(user).getId();
+        StartRunRequestDto requestDto = TestDataUtil.createStartRunRequestDto();
+        requestDto.setUserId(userId);
+        requestDto.setStartDatetime(START);
+        runId = runService.startRun(requestDto).getId();
+    }
+
+    @Test
+    void finishRunStoresSplitsOfTrackTest() {
+        // 2.5 km at 4 m/s, uploaded in batches of 100 points
+        upload(625, 4.0);
+
+        RunResponseDto run = runService.finishRun(finishRequest(), runId, null);
+        RunSplitsResponseDto splits = trackPointService.getRunSplits(runId);
+
+        assertEquals(2500.0, run.getDistance().getValue(), 0.01);
+        assertEquals(625.0, splits.getElapsedTime().getValue());
+        assertEquals(625.0, splits.getMovingTime().getValue());
+        List<RunSplitDto> kilometers = splits.getKilometerSplits();
+        assertEquals(3, kilometers.size());
+        assertEquals(250.0, kilometers.get(0).getPace().getValue());
+        assertEquals(500.0, kilometers.get(2).getDistance().getValue());
+        assertEquals(2, splits.getMileSplits().size());
+        assertEquals(402.34, splits.getMileSplits().get(0).getPace().getValue());
+    }
+
+    @Test
+    void finishRunAgainReplacesSplitsTest() {
+        upload(625, 4.0);
+        runService.finishRun(finishRequest(), runId, null);
+
+        runService.finishRun(finishRequest(), runId, null);
+
+        assertEquals(3, trackPointService.getRunSplits(runId).getKilometerSplits().size());
+    }
+
+    @Test
+    void runWithoutTrackHasNoSplitsTest() {
+        runService.finishRun(finishRequest(), runId, null);
+
+        RunSplitsResponseDto splits = trackPointService.getRunSplits(runId);
+
+        assertTrue(splits.getKilometerSplits().isEmpty());
+        assertEquals(0.0, splits.getElapsedTime().getValue());
+    }
+
+    @Test
+    void getRunSplitsRunNotFoundTest() {
+        assertThrows(ResourceNotFoundException.class, () -> trackPointService.getRunSplits(UUID.randomUUID()));
+    }
+
+    private void upload(int segments, double metersPerSecond) {
+        List<TrackPointRequestDto> points = new ArrayList<>();
+        for (int i = 0; i <= segments; i++) {
+            points.add(new TrackPointRequestDto(40.0 + i * metersPerSecond * DEGREES_PER_METER, -70.0, START.plusSeconds(i), null));
+            if (points.size() == 100 || i == segments) {
+                trackPointService.addTrackPoints(runId, new TrackPointBatchRequestDto(points));
+                points = new ArrayList<>();
+            }
+        }
+    }
+
+    private FinishRunRequestDto finishRequest() {
+        FinishRunRequestDto requestDto = TestDataUtil.createFinishRunRequestDto();
+        requestDto.setDistance(null);
+        requestDto.setFinishDatetime(START.plusMinutes(11));
+        return requestDto;
+    }
+}
@@ -0,0 +1,107 @@
+package com.running_tracker.service;
+
+import com.running_tracker.TestDataUtil;
+import com.running_tracker.api.dto.request.run.StartRunRequestDto;
+import com.running_tracker.api.dto.response.run.StartRunResponseDto;
+import com.running_tracker.domain.entity.User;
+import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.domain.repository.UserRepository;
+import com.running_tracker.exception.ResourceNotFoundException;
+import com.running_tracker.service.impl.RunChangeServiceImpl;
+import com.running_tracker.service.impl.RunServiceImpl;
+import com.running_tracker.service.impl.UserServiceImpl;
+import com.running_tracker.service.mapper.RunMapperImpl;
+import com.running_tracker.service.mapper.UserMapperImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:run_start;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // H2 reports a missing referenced row as 23506 instead of PostgreSQL's 23503
+        "running-tracker.foreign-key-violation-states=23503,23506"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RunServiceImpl.class, UserServiceImpl.class, RunMapperImpl.class, UserMapperImpl.class, RunChangeServiceImpl.class})
+class RunStartRoundTripTest {
+
+    @MockBean
+    private RunCalculatorService runCalculatorService;
+
+    @MockBean
+    private UserRunStatsService userRunStatsService;
+
+    @MockBean
+    private TrackPointService trackPointService;
+
+    @Autowired
+    private RunService runService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RunRepository runRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        User newUser = TestDataUtil.createUser();
+        newUser.setId(null);
+        user = userRepository.saveAndFlush(newUser);
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void startRunIssuesSingleInsertTest() {
+        StartRunRequestDto requestDto = TestDataUtil.createStartRunRequestDto();
+        requestDto.setUserId(user.getId());
+
+        StartRunResponseDto responseDto = runService.startRun(requestDto);
+
+        // Only the run insert, the user is not loaded
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertNotEquals(user.getId(), responseDto.getId());
+        assertEquals(7, responseDto.getId().version());
+        assertEquals(user.getId(), runRepository.findById(responseDto.getId()).orElseThrow().getUser().getId());
+    }
+
+    @Test
+    void startRunForUnknownUserThrowsResourceNotFoundTest() {
+        StartRunRequestDto requestDto = TestDataUtil.createStartRunRequestDto();
+        requestDto.setUserId(UUID.randomUUID());
+
+        assertThrows(ResourceNotFoundException.class, () -> runService.startRun(requestDto));
+    }
+}
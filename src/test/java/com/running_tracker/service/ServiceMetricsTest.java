@@ -0,0 +1,71 @@
+package com.running_tracker.service;
+
+import com.running_tracker.TestDataUtil;
+import com.running_tracker.domain.entity.User;
+import com.running_tracker.domain.repository.UserRepository;
+import com.running_tracker.exception.ResourceNotFoundException;
+import com.running_tracker.service.impl.UserServiceImpl;
+import com.running_tracker.service.mapper.UserMapper;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+class ServiceMetricsTest {
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new UserServiceImpl(userMapper, userRepository));
+        proxyFactory.addAspect(new TimedAspect(meterRegistry));
+        userService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void findUserByIdIsTimedTest() {
+        User user = TestDataUtil.createUser();
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        userService.findUserById(user.getId());
+        userService.findUserById(user.getId());
+
+        Timer timer = meterRegistry.find("running_tracker.users.find").tag("method", "findUserById").timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    void failedCallIsTimedWithExceptionTagTest() {
+        UUID userId = UUID.randomUUID();
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.findUserById(userId));
+
+        Timer timer = meterRegistry.find("running_tracker.users.find").tag("exception", "ResourceNotFoundException").timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+}
@@ -0,0 +1,87 @@
+package com.running_tracker.service;
+
+import com.running_tracker.domain.entity.StatisticsBucketType;
+import com.running_tracker.service.statistics.StatisticsWindow;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatisticsWindowTest {
+
+    @Test
+    void rangeWithinOneDayIsReadFromRawRunsTest() {
+        LocalDateTime from = LocalDateTime.of(2024, 3, 5, 8, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 3, 5, 20, 0);
+
+        StatisticsWindow window = StatisticsWindow.of(from, to);
+
+        assertEquals(from, window.getLeadingEdgeFrom());
+        assertEquals(to, window.getLeadingEdgeTo());
+        assertEquals(window.getTrailingEdgeFrom(), window.getTrailingEdgeTo());
+        window.getBucketStarts().values().forEach(starts -> assertTrue(starts.isEmpty()));
+    }
+
+    @Test
+    void rangeUsesCoarsestBucketsWithPartialEdgesTest() {
+        // Thursday 2024-02-22 10:00 until Monday 2024-04-08 06:00
+        LocalDateTime from = LocalDateTime.of(2024, 2, 22, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 4, 8, 6, 0);
+
+        StatisticsWindow window = StatisticsWindow.of(from, to);
+
+        assertEquals(from, window.getLeadingEdgeFrom());
+        assertEquals(LocalDateTime.of(2024, 2, 23, 0, 0), window.getLeadingEdgeTo());
+        assertEquals(LocalDateTime.of(2024, 4, 8, 0, 0), window.getTrailingEdgeFrom());
+        assertEquals(to, window.getTrailingEdgeTo());
+        assertEquals(List.of(LocalDateTime.of(2024, 2, 23, 0, 0), LocalDateTime.of(2024, 2, 24, 0, 0),
+                        LocalDateTime.of(2024, 2, 25, 0, 0), LocalDateTime.of(2024, 2, 26, 0, 0),
+                        LocalDateTime.of(2024, 2, 27, 0, 0), LocalDateTime.of(2024, 2, 28, 0, 0),
+                        LocalDateTime.of(2024, 2, 29, 0, 0)),
+                window.getBucketStarts().get(StatisticsBucketType.DAY));
+        assertEquals(List.of(LocalDateTime.of(2024, 3, 1, 0, 0)), window.getBucketStarts().get(StatisticsBucketType.MONTH));
+        assertEquals(List.of(LocalDateTime.of(2024, 4, 1, 0, 0)), window.getBucketStarts().get(StatisticsBucketType.WEEK));
+    }
+
+    @Test
+    void bucketsCoverEveryFullDayExactlyOnceTest() {
+        LocalDateTime from = LocalDateTime.of(2023, 11, 17, 13, 30);
+        LocalDateTime to = LocalDateTime.of(2025, 2, 3, 9, 15);
+
+        StatisticsWindow window = StatisticsWindow.of(from, to);
+
+        List<LocalDateTime> coveredDays = new ArrayList<>();
+        window.getBucketStarts().forEach((bucketType, starts) -> starts.forEach(start -> {
+            LocalDateTime end = switch (bucketType) {
+                case DAY -> start.plusDays(1);
+                case WEEK -> start.plusWeeks(1);
+                case MONTH -> start.plusMonths(1);
+                case TOTAL -> throw new IllegalStateException();
+            };
+            for (LocalDateTime day = start; day.isBefore(end); day = day.plusDays(1)) {
+                coveredDays.add(day);
+            }
+        }));
+        coveredDays.sort(null);
+
+        List<LocalDateTime> expectedDays = new ArrayList<>();
+        for (LocalDateTime day = window.getLeadingEdgeTo(); day.isBefore(window.getTrailingEdgeFrom()); day = day.plusDays(1)) {
+            expectedDays.add(day);
+        }
+        assertEquals(expectedDays, coveredDays);
+    }
+
+    @Test
+    void bucketStartTest() {
+        LocalDateTime datetime = LocalDateTime.of(2024, 5, 16, 18, 45);
+
+        assertEquals(LocalDateTime.of(2024, 5, 16, 0, 0), StatisticsWindow.bucketStart(StatisticsBucketType.DAY, datetime));
+        assertEquals(LocalDateTime.of(2024, 5, 13, 0, 0), StatisticsWindow.bucketStart(StatisticsBucketType.WEEK, datetime));
+        assertEquals(LocalDateTime.of(2024, 5, 1, 0, 0), StatisticsWindow.bucketStart(StatisticsBucketType.MONTH, datetime));
+        assertEquals(StatisticsWindow.TOTAL_BUCKET_START, StatisticsWindow.bucketStart(StatisticsBucketType.TOTAL, datetime));
+    }
+}
@@ -0,0 +1,48 @@
+package com.running_tracker.service;
+
+import com.running_tracker.service.calculator.HaversineKernel;
+import com.running_tracker.service.calculator.PowFreeHaversineKernel;
+import com.running_tracker.service.track.TrackDistance;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TrackDistanceTest {
+
+    private final HaversineKernel kernel = new PowFreeHaversineKernel();
+
+    @Test
+    void distanceAcrossChunksMatchesWholePathTest() {
+        // Several chunks and a partial one, so the segments joining the chunks are covered
+        Random random = new Random(42);
+        double[] latitudes = new double[3000];
+        double[] longitudes = new double[3000];
+        double latitude = 40.0;
+        double longitude = -70.0;
+        for (int i = 0; i < latitudes.length; i++) {
+            latitude += (random.nextDouble() - 0.5) * 1e-4;
+            longitude += (random.nextDouble() - 0.5) * 1e-4;
+            latitudes[i] = latitude;
+            longitudes[i] = longitude;
+        }
+        TrackDistance trackDistance = new TrackDistance(kernel);
+
+        for (int i = 0; i < latitudes.length; i++) {
+            trackDistance.accept(i * 1000L, latitudes[i], longitudes[i]);
+        }
+
+        double expected = kernel.pathDistance(latitudes, longitudes, latitudes.length);
+        assertEquals(expected, trackDistance.getDistance(), expected * 1e-12);
+    }
+
+    @Test
+    void distanceOfSinglePointTest() {
+        TrackDistance trackDistance = new TrackDistance(kernel);
+
+        trackDistance.accept(0, 40.0, -70.0);
+
+        assertEquals(0.0, trackDistance.getDistance());
+    }
+}
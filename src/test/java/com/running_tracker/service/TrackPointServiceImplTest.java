@@ -0,0 +1,248 @@
+package com.running_tracker.service;
+
+import com.running_tracker.TestDataUtil;
+import com.running_tracker.api.dto.response.run.RunSplitDto;
+import com.running_tracker.api.dto.response.run.RunSplitsResponseDto;
+import com.running_tracker.api.dto.response.run.TrackPointBatchResponseDto;
+import com.running_tracker.domain.entity.RecordDistance;
+import com.running_tracker.domain.entity.RunSplit;
+import com.running_tracker.domain.entity.RunSplitId;
+import com.running_tracker.domain.entity.SplitUnit;
+import com.running_tracker.domain.projection.TrackSegment;
+import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.domain.repository.RunSplitRepository;
+import com.running_tracker.domain.repository.TrackPointBatchRepository;
+import com.running_tracker.domain.repository.TrackPointRepository;
+import com.running_tracker.exception.CrudException;
+import com.running_tracker.exception.ResourceNotFoundException;
+import com.running_tracker.exception.RunAlreadyFinishedException;
+import com.running_tracker.service.calculator.HaversineKernel;
+import com.running_tracker.service.calculator.PowFreeHaversineKernel;
+import com.running_tracker.service.impl.TrackPointServiceImpl;
+import com.running_tracker.service.track.BestEffort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TrackPointServiceImplTest {
+
+    @InjectMocks
+    private TrackPointServiceImpl trackPointService;
+
+    @Mock
+    private RunRepository runRepository;
+
+    @Mock
+    private TrackPointRepository trackPointRepository;
+
+    @Mock
+    private RunSplitRepository runSplitRepository;
+
+    @Mock
+    private PersonalRecordService personalRecordService;
+
+    @Spy
+    private HaversineKernel haversineKernel = new PowFreeHaversineKernel();
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(trackPointService, "movingSpeedThreshold", 0.5);
+    }
+
+    @Test
+    void addTrackPointsStoresPointsTest() {
+        UUID runId = TestDataUtil.TEST_RUN_ID;
+        when(runRepository.lockFinishedById(runId)).thenReturn(Optional.of(false));
+
+        TrackPointBatchResponseDto response = trackPointService.addTrackPoints(runId, TestDataUtil.createTrackPointBatchRequestDto());
+
+        assertEquals(new TrackPointBatchResponseDto(runId, 2), response);
+        ArgumentCaptor<TrackSegment> captor = ArgumentCaptor.forClass(TrackSegment.class);
+        verify(trackPointRepository).insertAll(captor.capture());
+        TrackSegment segment = captor.getValue();
+        assertEquals(runId, segment.getRunId());
+        assertEquals(2, segment.getSize());
+        assertEquals(12.5, segment.getElevations()[0]);
+        assertTrue(Double.isNaN(segment.getElevations()[1]));
+    }
+
+    @Test
+    void addTrackPointsRunNotFoundTest() {
+        UUID runId = UUID.randomUUID();
+        when(runRepository.lockFinishedById(runId)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> trackPointService.addTrackPoints(runId, TestDataUtil.createTrackPointBatchRequestDto()));
+        verify(trackPointRepository, never()).insertAll(any(TrackSegment.class));
+    }
+
+    @Test
+    void addTrackPointsRunFinishedTest() {
+        UUID runId = UUID.randomUUID();
+        when(runRepository.lockFinishedById(runId)).thenReturn(Optional.of(true));
+
+        assertThrows(RunAlreadyFinishedException.class,
+                () -> trackPointService.addTrackPoints(runId, TestDataUtil.createTrackPointBatchRequestDto()));
+        verify(trackPointRepository, never()).insertAll(any(TrackSegment.class));
+    }
+
+    @Test
+    void addTrackPointsStoreFailureTest() {
+        UUID runId = TestDataUtil.TEST_RUN_ID;
+        when(runRepository.lockFinishedById(runId)).thenReturn(Optional.of(false));
+        doThrow(new RuntimeException("connection refused")).when(trackPointRepository).insertAll(any(TrackSegment.class));
+
+        assertThrows(CrudException.class,
+                () -> trackPointService.addTrackPoints(runId, TestDataUtil.createTrackPointBatchRequestDto()));
+    }
+
+    @Test
+    void completeTrackMeasuresStoredTrackTest() {
+        UUID runId = TestDataUtil.TEST_RUN_ID;
+        streamTrack(runId, new double[]{40.0, 40.0001}, new double[]{-70.0, -70.0001});
+
+        OptionalDouble distance = trackPointService.completeTrack(runId);
+
+        assertEquals(14.01, distance.getAsDouble());
+    }
+
+    @Test
+    void completeTrackReplacesSplitsTest() {
+        UUID runId = TestDataUtil.TEST_RUN_ID;
+        // About 2.2 km north, one point every 10 seconds
+        double[] latitudes = new double[21];
+        double[] longitudes = new double[21];
+        for (int i = 0; i < latitudes.length; i++) {
+            latitudes[i] = 40.0 + i * 0.001;
+            longitudes[i] = -70.0;
+        }
+        streamTrack(runId, latitudes, longitudes);
+
+        OptionalDouble distance = trackPointService.completeTrack(runId);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RunSplit>> captor = ArgumentCaptor.forClass(List.class);
+        verify(runSplitRepository).replaceAll(eq(runId), captor.capture());
+        List<RunSplit> splits = captor.getValue();
+        assertEquals(2223.9, distance.getAsDouble(), 0.01);
+        assertEquals(3, splits.stream().filter(split -> split.getId().getUnit() == SplitUnit.KILOMETER).count());
+        assertEquals(2, splits.stream().filter(split -> split.getId().getUnit() == SplitUnit.MILE).count());
+        assertEquals(200_000, splits.stream().filter(split -> split.getId().getUnit() == SplitUnit.KILOMETER)
+                .mapToLong(RunSplit::getElapsedMillis).sum());
+    }
+
+    @Test
+    void completeTrackOffersBestEffortsTest() {
+        UUID runId = TestDataUtil.TEST_RUN_ID;
+        double[] latitudes = new double[21];
+        double[] longitudes = new double[21];
+        for (int i = 0; i < latitudes.length; i++) {
+            latitudes[i] = 40.0 + i * 0.001;
+            longitudes[i] = -70.0;
+        }
+        streamTrack(runId, latitudes, longitudes);
+
+        trackPointService.completeTrack(runId);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BestEffort>> captor = ArgumentCaptor.forClass(List.class);
+        verify(personalRecordService).recordEfforts(captor.capture());
+        // 2.2 km cover only the kilometer, run at 111.2 m per 10 seconds
+        List<BestEffort> efforts = captor.getValue();
+        assertEquals(1, efforts.size());
+        assertEquals(RecordDistance.ONE_KILOMETER, efforts.get(0).getDistance());
+        assertEquals(89_932, efforts.get(0).getElapsedMillis(), 10);
+    }
+
+    @Test
+    void completeTrackWithoutTrackTest() {
+        UUID runId = TestDataUtil.TEST_RUN_ID;
+        streamTrack(runId, new double[]{40.0}, new double[]{-70.0});
+
+        OptionalDouble distance = trackPointService.completeTrack(runId);
+
+        assertTrue(distance.isEmpty());
+        // Splits of an earlier finish are removed all the same
+        verify(runSplitRepository).replaceAll(runId, List.of());
+    }
+
+    @Test
+    void getRunSplitsMarksFastestAndSlowestTest() {
+        UUID runId = TestDataUtil.TEST_RUN_ID;
+        when(runRepository.existsById(runId)).thenReturn(true);
+        when(runSplitRepository.findAllByRunId(runId)).thenReturn(List.of(
+                split(runId, SplitUnit.KILOMETER, 1, 1000.0, 300_000, 300_000),
+                split(runId, SplitUnit.KILOMETER, 2, 1000.0, 280_000, 270_000),
+                split(runId, SplitUnit.KILOMETER, 3, 1000.0, 320_000, 290_000),
+                // Faster pace, but too short to count
+                split(runId, SplitUnit.KILOMETER, 4, 100.0, 20_000, 20_000),
+                split(runId, SplitUnit.MILE, 1, 1609.344, 470_000, 460_000),
+                split(runId, SplitUnit.MILE, 2, 1490.656, 450_000, 420_000)));
+
+        RunSplitsResponseDto response = trackPointService.getRunSplits(runId);
+
+        assertEquals(runId, response.getRunId());
+        assertEquals(920.0, response.getElapsedTime().getValue());
+        assertEquals(880.0, response.getMovingTime().getValue());
+        assertEquals("seconds", response.getMovingTime().getUnit());
+        List<RunSplitDto> kilometers = response.getKilometerSplits();
+        assertEquals(4, kilometers.size());
+        assertTrue(kilometers.get(1).isFastest());
+        assertTrue(kilometers.get(2).isSlowest());
+        assertFalse(kilometers.get(3).isFastest());
+        assertEquals(200.0, kilometers.get(3).getPace().getValue());
+        assertEquals("s/km", kilometers.get(3).getPace().getUnit());
+        List<RunSplitDto> miles = response.getMileSplits();
+        assertTrue(miles.get(0).isFastest());
+        assertTrue(miles.get(0).isSlowest());
+        assertEquals(1490.66, miles.get(1).getDistance().getValue());
+        assertEquals("s/mi", miles.get(1).getPace().getUnit());
+    }
+
+    @Test
+    void getRunSplitsRunNotFoundTest() {
+        UUID runId = UUID.randomUUID();
+        when(runRepository.existsById(runId)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> trackPointService.getRunSplits(runId));
+        verify(runSplitRepository, never()).findAllByRunId(any(UUID.class));
+    }
+
+    // Feeds the points to the handler as the cursor would, ten seconds apart
+    private void streamTrack(UUID runId, double[] latitudes, double[] longitudes) {
+        doAnswer(invocation -> {
+            TrackPointBatchRepository.TrackPointHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < latitudes.length; i++) {
+                handler.accept(i * 10_000L, latitudes[i], longitudes[i]);
+            }
+            return null;
+        }).when(trackPointRepository).streamTrackByRunId(eq(runId), any(TrackPointBatchRepository.TrackPointHandler.class));
+    }
+
+    private static RunSplit split(UUID runId, SplitUnit unit, int number, double distance, long elapsedMillis, long movingMillis) {
+        return new RunSplit(new RunSplitId(runId, unit, number), distance, elapsedMillis, movingMillis);
+    }
+}
@@ -0,0 +1,116 @@
+package com.running_tracker.service;
+
+import com.running_tracker.TestDataUtil;
+import com.running_tracker.api.dto.request.user.UserRequestDto;
+import com.running_tracker.api.dto.response.user.UserResponseDto;
+import com.running_tracker.domain.entity.User;
+import com.running_tracker.domain.repository.UserRepository;
+import com.running_tracker.service.impl.RunChangeServiceImpl;
+import com.running_tracker.service.impl.RunServiceImpl;
+import com.running_tracker.service.impl.UserServiceImpl;
+import com.running_tracker.service.mapper.RunMapperImpl;
+import com.running_tracker.service.mapper.UserMapperImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:run_start;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "running-tracker.foreign-key-violation-states=23503,23506"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RunServiceImpl.class, UserServiceImpl.class, RunMapperImpl.class, UserMapperImpl.class, RunChangeServiceImpl.class})
+// The services have to open their own transactions instead of joining the test transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionBoundaryTest {
+
+    @MockBean
+    private RunCalculatorService runCalculatorService;
+
+    @MockBean
+    private UserRunStatsService userRunStatsService;
+
+    @MockBean
+    private TrackPointService trackPointService;
+
+    @Autowired
+    private RunService runService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        User newUser = TestDataUtil.createUser();
+        newUser.setId(null);
+        user = userRepository.save(newUser);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void findAllUsersIsReadOnlyTest() {
+        List<UserResponseDto> users = userService.findAll();
+
+        assertTrue(users.stream().anyMatch(found -> found.getId().equals(user.getId())));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        // Flush mode MANUAL: the commit does not flush, so nothing is dirty checked
+        assertEquals(0, statistics.getFlushCount());
+    }
+
+    @Test
+    void getAllRunsForUserIsReadOnlyTest() {
+        runService.getAllRunsForUser(user.getId(), null, null);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getFlushCount());
+    }
+
+    @Test
+    void updateLoadsAndWritesInOneTransactionTest() {
+        UserRequestDto requestDto = TestDataUtil.createUserRequestDto();
+        requestDto.setLastName("Doe");
+
+        userService.update(requestDto, user.getId());
+
+        // SELECT and UPDATE only, save does not merge the user already managed by the transaction
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityUpdateCount());
+        assertEquals(1, statistics.getTransactionCount());
+    }
+}
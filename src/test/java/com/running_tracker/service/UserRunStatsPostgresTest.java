@@ -0,0 +1,218 @@
+package com.running_tracker.service;
+
+import com.running_tracker.api.dto.response.user.UserStatisticsDTO;
+import com.running_tracker.domain.entity.StatisticsBucketType;
+import com.running_tracker.service.impl.UserRunStatsServiceImpl;
+import com.running_tracker.service.statistics.StatisticsWindow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The rollup upsert and backfill are PostgreSQL statements that H2 does not run.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(UserRunStatsServiceImpl.class)
+@Testcontainers(disabledWithoutDocker = true)
+class UserRunStatsPostgresTest {
+
+    // A Wednesday, its week starts on Monday the 11th
+    private static final LocalDateTime MORNING = LocalDateTime.of(2024, 3, 13, 7, 0);
+    private static final LocalDateTime NEXT_MONTH = LocalDateTime.of(2024, 4, 2, 18, 30);
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @MockBean
+    private RunChangeService runChangeService;
+
+    @MockBean
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private UserRunStatsService userRunStatsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, birth_date, sex) VALUES (?, ?, ?, ?, ?)",
+                userId, "Jon", "Smith", LocalDate.of(1999, 10, 1), "male");
+    }
+
+    @Test
+    void addRunAddsDeltasToEveryBucketTest() {
+        userRunStatsService.addRun(userId, MORNING, 1, 5000.0, 10.0);
+        userRunStatsService.addRun(userId, MORNING.plusHours(10), 1, 3000.0, 12.0);
+        // A corrected distance adds its difference without counting another run
+        userRunStatsService.addRun(userId, MORNING, 0, 500.0, 0.5);
+        userRunStatsService.addRun(userId, NEXT_MONTH, 1, 10000.0, 11.0);
+
+        assertBucket(StatisticsBucketType.DAY, MORNING, 2, 8500.0, 22.5);
+        assertBucket(StatisticsBucketType.WEEK, MORNING, 2, 8500.0, 22.5);
+        assertBucket(StatisticsBucketType.MONTH, MORNING, 2, 8500.0, 22.5);
+        assertBucket(StatisticsBucketType.MONTH, NEXT_MONTH, 1, 10000.0, 11.0);
+        assertBucket(StatisticsBucketType.TOTAL, MORNING, 3, 18500.0, 33.5);
+        assertEquals(7, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_run_stats WHERE user_id = ?", Integer.class, userId));
+    }
+
+    @Test
+    void rebuildBackfillsBucketsFromRunsTest() {
+        insertRun(MORNING, 5000.0, 10.0);
+        insertRun(MORNING.plusHours(10), 3500.0, 12.5);
+        insertRun(NEXT_MONTH, 10000.0, 11.0);
+        // Runs still in progress are not counted
+        insertRun(NEXT_MONTH.plusDays(1), null, null);
+        // Buckets left from before are replaced
+        userRunStatsService.addRun(userId, MORNING, 5, 1.0, 1.0);
+
+        userRunStatsService.rebuild(userId);
+
+        assertBucket(StatisticsBucketType.DAY, MORNING, 2, 8500.0, 22.5);
+        assertBucket(StatisticsBucketType.WEEK, MORNING, 2, 8500.0, 22.5);
+        assertBucket(StatisticsBucketType.MONTH, NEXT_MONTH, 1, 10000.0, 11.0);
+        assertBucket(StatisticsBucketType.TOTAL, MORNING, 3, 18500.0, 33.5);
+        assertEquals(7, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_run_stats WHERE user_id = ?", Integer.class, userId));
+
+        UserStatisticsDTO march = userRunStatsService.getStatistics(userId,
+                LocalDateTime.of(2024, 3, 1, 0, 0), LocalDateTime.of(2024, 3, 31, 23, 59));
+        assertEquals(2, march.getTotalRuns());
+        assertEquals(8500.0, march.getTotalDistance(), 1e-9);
+        assertEquals(11.25, march.getAverageSpeed(), 1e-9);
+    }
+
+    @Test
+    void isConsistentComparesBucketsWithRunsTest() {
+        insertRun(MORNING, 5000.0, 10.0);
+        userRunStatsService.rebuild(userId);
+        assertTrue(userRunStatsService.isConsistent(userId));
+
+        // A run finished without its rollup update
+        insertRun(NEXT_MONTH, 10000.0, 11.0);
+        assertFalse(userRunStatsService.isConsistent(userId));
+
+        userRunStatsService.addRun(userId, NEXT_MONTH, 1, 10000.0, 11.0);
+        assertTrue(userRunStatsService.isConsistent(userId));
+
+        // A correction applied to the rollup but not to the run
+        userRunStatsService.addRun(userId, MORNING, 0, 250.0, 0.0);
+        assertFalse(userRunStatsService.isConsistent(userId));
+    }
+
+    @Test
+    void isConsistentComparesEveryBucketTest() {
+        insertRun(MORNING, 5000.0, 10.0);
+        userRunStatsService.rebuild(userId);
+
+        // The run counted on the wrong day, every total still adds up
+        jdbcTemplate.update("UPDATE user_run_stats SET bucket_start = bucket_start + INTERVAL '1 day' " +
+                "WHERE user_id = ? AND bucket_type = 'DAY'", userId);
+
+        assertFalse(userRunStatsService.isConsistent(userId));
+    }
+
+    @Test
+    // The run is added by a concurrent transaction, which only sees data committed by the test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void rebuildWaitsForRunAddedMeanwhileTest() throws Exception {
+        insertRun(MORNING, 5000.0, 10.0);
+        CountDownLatch added = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> finish = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                insertRun(NEXT_MONTH, 10000.0, 11.0);
+                userRunStatsService.addRun(userId, NEXT_MONTH, 1, 10000.0, 11.0);
+                added.countDown();
+                await(commit);
+            }));
+            await(added);
+
+            Future<?> rebuild = executor.submit(() -> userRunStatsService.rebuild(userId));
+            Thread.sleep(200);
+            assertFalse(rebuild.isDone());
+
+            commit.countDown();
+            finish.get(10, TimeUnit.SECONDS);
+            rebuild.get(10, TimeUnit.SECONDS);
+        } finally {
+            commit.countDown();
+            executor.shutdownNow();
+        }
+
+        assertBucket(StatisticsBucketType.TOTAL, MORNING, 2, 15000.0, 21.0);
+        assertTrue(userRunStatsService.isConsistent(userId));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private void insertRun(LocalDateTime startDatetime, Double distance, Double averageSpeed) {
+        jdbcTemplate.update("INSERT INTO runs (id, user_id, start_latitude, start_longitude, start_datetime, " +
+                        "finish_latitude, finish_longitude, finish_datetime, distance, distance_unit, average_speed, average_speed_unit) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                UUID.randomUUID(), userId, 40.0, -70.0, startDatetime,
+                40.01, -70.0, distance == null ? null : startDatetime.plusMinutes(30),
+                distance, "meters", averageSpeed, "km/h");
+    }
+
+    private void assertBucket(StatisticsBucketType bucketType, LocalDateTime datetime,
+                              long runs, double distance, double sumAverageSpeed) {
+        Map<String, Object> bucket = jdbcTemplate.queryForMap("SELECT total_runs, total_distance, sum_average_speed " +
+                        "FROM user_run_stats WHERE user_id = ? AND bucket_type = ? AND bucket_start = ?",
+                userId, bucketType.name(), StatisticsWindow.bucketStart(bucketType, datetime));
+        String message = bucketType + " bucket of " + datetime;
+        assertEquals(runs, ((Number) bucket.get("total_runs")).longValue(), message);
+        assertEquals(distance, ((Number) bucket.get("total_distance")).doubleValue(), 1e-9, message);
+        assertEquals(sumAverageSpeed, ((Number) bucket.get("sum_average_speed")).doubleValue(), 1e-9, message);
+    }
+}
@@ -0,0 +1,146 @@
+package com.running_tracker.service;
+
+import com.running_tracker.TestDataUtil;
+import com.running_tracker.api.dto.response.user.UserStatisticsDTO;
+import com.running_tracker.domain.entity.StatisticsBucketType;
+import com.running_tracker.domain.entity.UserRunStats;
+import com.running_tracker.domain.entity.UserRunStatsId;
+import com.running_tracker.domain.repository.RunRepository;
+import com.running_tracker.domain.repository.UserRepository;
+import com.running_tracker.domain.repository.UserRunStatsRepository;
+import com.running_tracker.service.impl.UserRunStatsServiceImpl;
+import com.running_tracker.service.statistics.StatisticsWindow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserRunStatsServiceImplTest {
+
+    @Mock
+    private UserRunStatsRepository userRunStatsRepository;
+
+    @Mock
+    private RunRepository runRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RunChangeService runChangeService;
+
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    @InjectMocks
+    private UserRunStatsServiceImpl userRunStatsService;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void addRunTest() {
+        userRunStatsService.addRun(userId, LocalDateTime.of(2024, 5, 16, 18, 45), 1, 5000.0, 10.0);
+
+        var order = inOrder(userRepository, userRunStatsRepository);
+        order.verify(userRepository).lockById(userId);
+        order.verify(userRunStatsRepository).addToBuckets(userId,
+                LocalDateTime.of(2024, 5, 16, 0, 0),
+                LocalDateTime.of(2024, 5, 13, 0, 0),
+                LocalDateTime.of(2024, 5, 1, 0, 0),
+                StatisticsWindow.TOTAL_BUCKET_START,
+                1, 5000.0, 10.0);
+        verify(leaderboardService).updateUser(userId, LocalDateTime.of(2024, 5, 16, 18, 45));
+    }
+
+    @Test
+    void getStatisticsWithoutRangeReadsTotalBucketTest() {
+        UserRunStatsId totalId = new UserRunStatsId(userId, StatisticsBucketType.TOTAL, StatisticsWindow.TOTAL_BUCKET_START);
+        when(userRunStatsRepository.findById(totalId)).thenReturn(Optional.of(new UserRunStats(totalId, 4L, 20000.0, 40.0)));
+
+        UserStatisticsDTO result = userRunStatsService.getStatistics(userId, null, null);
+
+        assertEquals(new UserStatisticsDTO(4, 20000.0, 10.0), result);
+        verify(runRepository, times(0)).getFinishedTotalsByUserIdInRanges(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getStatisticsWithoutRunsTest() {
+        when(userRunStatsRepository.findById(any(UserRunStatsId.class))).thenReturn(Optional.empty());
+
+        UserStatisticsDTO result = userRunStatsService.getStatistics(userId, null, null);
+
+        assertEquals(new UserStatisticsDTO(0, 0.0, 0.0), result);
+    }
+
+    @Test
+    void getStatisticsMergesBucketsAndEdgesTest() {
+        LocalDateTime from = LocalDateTime.of(2024, 2, 29, 12, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 4, 2, 12, 0);
+
+        when(runRepository.getFinishedTotalsByUserIdInRanges(eq(userId), any(), any(), any(), any()))
+                .thenReturn(TestDataUtil.createRunTotalsProjection(2, 8000.0, 20.0));
+        when(userRunStatsRepository.sumBuckets(userId, StatisticsBucketType.MONTH, List.of(LocalDateTime.of(2024, 3, 1, 0, 0))))
+                .thenReturn(TestDataUtil.createRunTotalsProjection(10, 50000.0, 110.0));
+        when(userRunStatsRepository.sumBuckets(userId, StatisticsBucketType.DAY, List.of(LocalDateTime.of(2024, 4, 1, 0, 0))))
+                .thenReturn(TestDataUtil.createRunTotalsProjection(0, 0.0, 0.0));
+
+        UserStatisticsDTO result = userRunStatsService.getStatistics(userId, from, to);
+
+        assertEquals(new UserStatisticsDTO(12, 58000.0, 130.0 / 12), result);
+        verify(runRepository).getFinishedTotalsByUserIdInRanges(userId,
+                from, LocalDateTime.of(2024, 3, 1, 0, 0),
+                LocalDateTime.of(2024, 4, 2, 0, 0), to.plusNanos(1000));
+        verify(userRunStatsRepository, times(0)).sumBuckets(eq(userId), eq(StatisticsBucketType.WEEK), any());
+    }
+
+    @Test
+    void rebuildTest() {
+        userRunStatsService.rebuild(userId);
+
+        var order = inOrder(userRepository, userRunStatsRepository, runChangeService, leaderboardService);
+        order.verify(userRepository).lockById(userId);
+        order.verify(userRunStatsRepository).deleteAllByUserId(userId);
+        order.verify(userRunStatsRepository).insertBucketsFromRuns(userId, StatisticsWindow.TOTAL_BUCKET_START);
+        order.verify(runChangeService).recordChange(userId);
+        order.verify(leaderboardService).updateUser(eq(userId), any(LocalDateTime.class));
+    }
+
+    @Test
+    void isConsistentTest() {
+        when(userRunStatsRepository.countBucketsDifferingFromRuns(eq(userId), eq(StatisticsWindow.TOTAL_BUCKET_START), anyDouble()))
+                .thenReturn(0L);
+
+        assertTrue(userRunStatsService.isConsistent(userId));
+    }
+
+    @Test
+    void isConsistentDetectsDriftTest() {
+        when(userRunStatsRepository.countBucketsDifferingFromRuns(eq(userId), eq(StatisticsWindow.TOTAL_BUCKET_START), anyDouble()))
+                .thenReturn(2L);
+
+        assertFalse(userRunStatsService.isConsistent(userId));
+    }
+}
@@ -113,6 +113,16 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).findById(userId);
     }
 
+    @Test
+    void getUserReferenceTest() {
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
+
+        User result = userService.getUserReference(userId);
+
+        assertEquals(user, result);
+        verify(userRepository, times(0)).findById(any());
+    }
+
     @Test
     void findAllTest() {
         List<User> users = List.of(user);
@@ -130,7 +140,7 @@ class UserServiceImplTest {
     @Test
     void updateTest() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
         when(userMapper.toDto(any(User.class))).thenReturn(userResponseDto);
 
         UserResponseDto result = userService.update(userRequestDto, userId);
@@ -138,7 +148,7 @@ class UserServiceImplTest {
         assertNotNull(result);
         assertEquals(userRequestDto.getFirstName(), result.getFirstName());
         verify(userRepository, times(1)).findById(userId);
-        verify(userRepository, times(1)).save(user);
+        verify(userRepository, times(1)).saveAndFlush(user);
         verify(userMapper, times(1)).toDto(user);
     }
 
@@ -149,7 +159,7 @@ class UserServiceImplTest {
         assertThrows(ResourceNotFoundException.class, () -> userService.update(userRequestDto, userId));
 
         verify(userRepository, times(1)).findById(userId);
-        verify(userRepository, times(0)).save(any(User.class));
+        verify(userRepository, times(0)).saveAndFlush(any(User.class));
     }
 
     @Test